@@ -0,0 +1,9 @@
+#!/bin/sh
+# Compares two JMH runs that have been written with "-rf csv -rff <file>" and exits
+# with status 1 if the candidate regressed by more than the threshold (default 5%).
+#
+# Usage: compare.sh <baseline.csv> <candidate.csv> [threshold percent]
+set -e
+directory=$(dirname "$0")
+exec java -cp "$directory/target/benchmarks.jar" \
+  io.github.merlinosayimwen.javo.benchmarks.BenchmarkComparison "$@"
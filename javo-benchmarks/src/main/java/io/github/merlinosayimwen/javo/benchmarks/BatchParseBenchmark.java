@@ -0,0 +1,75 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.benchmarks;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import io.github.merlinosayimwen.java.parser.BatchParseResult;
+import io.github.merlinosayimwen.java.parser.StructParser;
+import io.github.merlinosayimwen.java.parser.StructParserFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how parsing many files with {@code StructParser#parseAll} scales with the
+ * count of threads. The scaling is read by comparing the average time of the
+ * {@code parallelism} params, for example {@code -p parallelism=1,8,32}.
+ *
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchParseBenchmark {
+
+  private static final int STRUCTS_PER_FILE = 50;
+
+  @Param({"2000"})
+  private int fileCount;
+
+  @Param({"1", "4"})
+  private int parallelism;
+
+  private List<Path> files;
+  private ForkJoinPool pool;
+  private StructParser parser;
+
+  @Setup
+  public void setup() {
+    this.files = new ArrayList<>(this.fileCount);
+    for (int index = 0; index < this.fileCount; index++) {
+      this.files.add(BlueprintCorpus.create(STRUCTS_PER_FILE, index).writeToTemporaryFile());
+    }
+    this.pool = new ForkJoinPool(this.parallelism);
+    this.parser = StructParserFactory.create().getInstance();
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.pool.shutdown();
+  }
+
+  @Benchmark
+  public BatchParseResult parseAll() {
+    return this.parser.parseAll(this.files, this.pool);
+  }
+}
@@ -0,0 +1,204 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two JMH runs that have been written as CSV, with {@code -rf csv -rff <file>}.
+ * <p>
+ * Every primary score and allocation rate ({@code gc.alloc.rate.norm}) of the candidate
+ * run is printed next to the score of the baseline run with the same benchmark, mode and
+ * params. Other secondary scores of the profilers are skipped, they depend on the
+ * speed of the run or are too noisy. Scores in {@code ops/<time>} units are better when
+ * higher, all other scores, like average times and allocated bytes, are better when
+ * lower. A change is a regression if it is worse than the threshold and larger than the
+ * combined error of both scores. The process exits with status 1 if there is one.
+ * <p>
+ * Usage: {@code compare.sh <baseline.csv> <candidate.csv> [threshold percent]}.
+ *
+ * @see ParserBenchmark
+ * @since 1.0
+ */
+public final class BenchmarkComparison {
+  private BenchmarkComparison() {}
+
+  private static final double DEFAULT_THRESHOLD_PERCENT = 5;
+
+  /** Suffix of the secondary score that counts the bytes allocated per operation. */
+  private static final String ALLOCATION_SCORE = "gc.alloc.rate.norm";
+
+  /** Score of one benchmark, mode and params combination. */
+  private static final class Score {
+    private final String benchmark;
+    private final String mode;
+    private final String params;
+    private final String unit;
+    private final double value;
+    private final double error;
+
+    private Score(
+      String benchmark, String mode, String params, String unit, double value, double error) {
+
+      this.benchmark = benchmark;
+      this.mode = mode;
+      this.params = params;
+      this.unit = unit;
+      this.value = value;
+      this.error = error;
+    }
+
+    private String key() {
+      return this.benchmark + ' ' + this.mode + ' ' + this.params;
+    }
+
+    private boolean isHigherBetter() {
+      return this.unit.startsWith("ops/");
+    }
+  }
+
+  public static void main(String[] arguments) throws IOException {
+    if (arguments.length < 2) {
+      System.err.println("Usage: compare.sh <baseline.csv> <candidate.csv> [threshold percent]");
+      System.exit(2);
+    }
+    Map<String, Score> baseline = read(arguments[0]);
+    Map<String, Score> candidate = read(arguments[1]);
+    double threshold = arguments.length > 2
+      ? Double.parseDouble(arguments[2])
+      : DEFAULT_THRESHOLD_PERCENT;
+
+    int regressions = 0;
+    System.out.printf("%-60s %-5s %-28s %14s %14s %9s%n",
+      "Benchmark", "Mode", "Params", "Baseline", "Candidate", "Change");
+    for (Score current : candidate.values()) {
+      Score previous = baseline.get(current.key());
+      if (previous == null) {
+        System.out.printf("%-60s %-5s %-28s %14s %14.3f %9s%n",
+          shorten(current.benchmark), current.mode, current.params, "-", current.value, "new");
+        continue;
+      }
+      double change = 100 * (current.value - previous.value) / previous.value;
+      double worsening = current.isHigherBetter() ? -change : change;
+      boolean significant = Math.abs(current.value - previous.value)
+        > nonNegative(current.error) + nonNegative(previous.error);
+      boolean regression = worsening > threshold && significant;
+      if (regression) {
+        regressions++;
+      }
+      System.out.printf("%-60s %-5s %-28s %14.3f %14.3f %+8.1f%% %s%s%n",
+        shorten(current.benchmark), current.mode, current.params,
+        previous.value, current.value, change, current.unit,
+        regression ? "  REGRESSION" : "");
+    }
+    System.out.printf("%d regressions over %.1f%%%n", regressions, threshold);
+    if (regressions > 0) {
+      System.exit(1);
+    }
+  }
+
+  private static Map<String, Score> read(String file) throws IOException {
+    List<String> lines = Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8);
+    if (lines.isEmpty()) {
+      throw new IOException("Empty result file " + file);
+    }
+    List<String> header = splitRow(lines.get(0));
+    int benchmarkColumn = columnOf(header, "Benchmark", file);
+    int modeColumn = columnOf(header, "Mode", file);
+    int scoreColumn = columnOf(header, "Score", file);
+    int errorColumn = columnOf(header, "Score Error (99.9%)", file);
+    int unitColumn = columnOf(header, "Unit", file);
+
+    Map<String, Score> scores = new LinkedHashMap<>();
+    for (String line : lines.subList(1, lines.size())) {
+      if (line.trim().isEmpty()) {
+        continue;
+      }
+      List<String> row = splitRow(line);
+      String benchmark = row.get(benchmarkColumn);
+      if (benchmark.indexOf(':') >= 0 && !benchmark.endsWith(ALLOCATION_SCORE)) {
+        continue;
+      }
+      StringBuilder params = new StringBuilder();
+      for (int column = 0; column < header.size(); column++) {
+        if (header.get(column).startsWith("Param: ") && !row.get(column).isEmpty()) {
+          if (params.length() > 0) {
+            params.append(',');
+          }
+          params.append(header.get(column).substring("Param: ".length()))
+            .append('=').append(row.get(column));
+        }
+      }
+      Score score = new Score(
+        benchmark,
+        row.get(modeColumn),
+        params.toString(),
+        row.get(unitColumn),
+        parseNumber(row.get(scoreColumn)),
+        parseNumber(row.get(errorColumn)));
+      scores.put(score.key(), score);
+    }
+    return scores;
+  }
+
+  private static int columnOf(List<String> header, String name, String file) throws IOException {
+    int column = header.indexOf(name);
+    if (column < 0) {
+      throw new IOException("No column '" + name + "' in " + file);
+    }
+    return column;
+  }
+
+  /** Splits a row of comma separated values, which may be quoted. */
+  private static List<String> splitRow(String line) {
+    List<String> values = new ArrayList<>();
+    StringBuilder value = new StringBuilder();
+    boolean quoted = false;
+    for (int index = 0; index < line.length(); index++) {
+      char current = line.charAt(index);
+      if (current == '"') {
+        if (quoted && index + 1 < line.length() && line.charAt(index + 1) == '"') {
+          value.append('"');
+          index++;
+        } else {
+          quoted = !quoted;
+        }
+      } else if (current == ',' && !quoted) {
+        values.add(value.toString());
+        value.setLength(0);
+      } else {
+        value.append(current);
+      }
+    }
+    values.add(value.toString());
+    return values;
+  }
+
+  private static double parseNumber(String value) {
+    try {
+      return Double.parseDouble(value.replace(',', '.'));
+    } catch (NumberFormatException notANumber) {
+      return Double.NaN;
+    }
+  }
+
+  private static double nonNegative(double error) {
+    return Double.isNaN(error) ? 0 : Math.abs(error);
+  }
+
+  /** Removes the package and the separator of secondary scores from the benchmark name. */
+  private static String shorten(String benchmark) {
+    String prefix = BenchmarkComparison.class.getPackage().getName() + '.';
+    String name = benchmark.startsWith(prefix) ? benchmark.substring(prefix.length()) : benchmark;
+    return name.replace("\u00b7", "");
+  }
+}
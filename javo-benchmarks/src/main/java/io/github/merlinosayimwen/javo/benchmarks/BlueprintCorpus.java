@@ -0,0 +1,189 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Generates synthetic struct blueprints that are used as input of the benchmarks.
+ * <p>
+ * The corpus is deterministic, two corpora with the same struct count, shape and seed
+ * have the same content. Every struct has a mix of plain, array, collection and generic
+ * attributes, some of them carrying modifiers. The {@link Shape} decides how many
+ * attributes the structs have and how much of the corpus is comments.
+ *
+ * @since 1.0
+ */
+public final class BlueprintCorpus {
+
+  /** Shape of the structs in a corpus. */
+  public enum Shape {
+    /** Up to 12 attributes per struct, a third of them with trailing comments. */
+    MIXED(1, 12, 3, 0),
+
+    /** Up to 3 attributes per struct and no comments. */
+    SHALLOW(1, 3, 0, 0),
+
+    /** Between 50 and 100 attributes per struct and no comments. */
+    WIDE(50, 51, 0, 0),
+
+    /** Up to 12 attributes that are all commented and 4 comment lines per struct. */
+    COMMENTED(1, 12, 1, 4);
+
+    private final int minimalAttributeCount;
+    private final int attributeCountRange;
+    private final int trailingCommentRatio;
+    private final int commentLineCount;
+
+    Shape(
+      int minimalAttributeCount,
+      int attributeCountRange,
+      int trailingCommentRatio,
+      int commentLineCount) {
+
+      this.minimalAttributeCount = minimalAttributeCount;
+      this.attributeCountRange = attributeCountRange;
+      this.trailingCommentRatio = trailingCommentRatio;
+      this.commentLineCount = commentLineCount;
+    }
+  }
+
+  private static final long DEFAULT_SEED = 0x6a61766fL;
+  private static final String[] TYPE_NAMES = {
+    "int", "long", "String", "Foo", "Bar", "[Baz]", "<Qux>", "List<String>", "Map<Foo>"
+  };
+  private static final String COMMENT_LINE =
+    "// Lorem ipsum dolor sit amet, consectetur adipiscing elit.\n";
+
+  private final int structCount;
+  private final Shape shape;
+  private final long seed;
+
+  private BlueprintCorpus(int structCount, Shape shape, long seed) {
+    this.structCount = structCount;
+    this.shape = shape;
+    this.seed = seed;
+  }
+
+  /**
+   * Writes the corpus into the {@code writer}.
+   *
+   * @param writer Writer that the corpus is written into.
+   * @throws IOException Thrown if the writer fails.
+   */
+  public void writeTo(Writer writer) throws IOException {
+    Random random = new Random(this.seed);
+    for (int index = 0; index < this.structCount; index++) {
+      for (int line = 0; line < this.shape.commentLineCount; line++) {
+        writer.write(COMMENT_LINE);
+      }
+      if (random.nextInt(4) == 0) {
+        writer.write("immutable ");
+      }
+      writer.write("struct Struct");
+      writer.write(Integer.toString(index));
+      writer.write(" {\n");
+      int attributeCount =
+        this.shape.minimalAttributeCount + random.nextInt(this.shape.attributeCountRange);
+      for (int attribute = 0; attribute < attributeCount; attribute++) {
+        writer.write("  ");
+        if (random.nextInt(5) == 0) {
+          writer.write("immutable ");
+        }
+        writer.write("attribute");
+        writer.write(Integer.toString(attribute));
+        writer.write(": ");
+        writer.write(TYPE_NAMES[random.nextInt(TYPE_NAMES.length)]);
+        if (this.shape.trailingCommentRatio != 0
+          && random.nextInt(this.shape.trailingCommentRatio) == 0) {
+          writer.write(" // Generated attribute.");
+        }
+        writer.write('\n');
+      }
+      writer.write("}\n\n");
+    }
+  }
+
+  /**
+   * Writes the corpus into a new UTF-8 encoded file in the temporary directory.
+   * The file is deleted when the virtual machine exits.
+   *
+   * @return Path of the written file.
+   */
+  public Path writeToTemporaryFile() {
+    try {
+      Path file = Files.createTempFile("javo-corpus-", ".javo");
+      file.toFile().deleteOnExit();
+      try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+        writeTo(writer);
+      }
+      return file;
+    } catch (IOException ioFailure) {
+      throw new UncheckedIOException(ioFailure);
+    }
+  }
+
+  /**
+   * Returns the corpus as String.
+   *
+   * @return Content of the corpus.
+   */
+  public String toSource() {
+    StringWriter writer = new StringWriter();
+    try {
+      writeTo(writer);
+    } catch (IOException ioFailure) {
+      throw new UncheckedIOException(ioFailure);
+    }
+    return writer.toString();
+  }
+
+  /**
+   * Creates a corpus of {@code structCount} structs.
+   *
+   * @param structCount Count of structs in the corpus.
+   * @return Corpus of the given size.
+   */
+  public static BlueprintCorpus create(int structCount) {
+    return create(structCount, DEFAULT_SEED);
+  }
+
+  /**
+   * Creates a corpus of {@code structCount} structs of the {@code shape}.
+   *
+   * @param structCount Count of structs in the corpus.
+   * @param shape Shape of the structs.
+   * @return Corpus of the given size and shape.
+   */
+  public static BlueprintCorpus create(int structCount, Shape shape) {
+    Preconditions.checkArgument(structCount >= 0, "Negative struct count");
+    Preconditions.checkNotNull(shape);
+
+    return new BlueprintCorpus(structCount, shape, DEFAULT_SEED);
+  }
+
+  /**
+   * Creates a corpus of {@code structCount} structs, that is generated from the {@code seed}.
+   *
+   * @param structCount Count of structs in the corpus.
+   * @param seed Seed of the random that generates the corpus.
+   * @return Corpus of the given size.
+   */
+  public static BlueprintCorpus create(int structCount, long seed) {
+    Preconditions.checkArgument(structCount >= 0, "Negative struct count");
+
+    return new BlueprintCorpus(structCount, Shape.MIXED, seed);
+  }
+}
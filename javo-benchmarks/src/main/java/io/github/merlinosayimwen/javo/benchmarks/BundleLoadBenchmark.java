@@ -0,0 +1,72 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.github.merlinosayimwen.java.parser.StructParseException;
+import io.github.merlinosayimwen.java.parser.StructParser;
+import io.github.merlinosayimwen.java.parser.StructParserFactory;
+import io.github.merlinosayimwen.javo.Struct;
+import io.github.merlinosayimwen.javo.io.StructReader;
+import io.github.merlinosayimwen.javo.io.StructWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares loading a precompiled binary bundle with parsing the same structs from text.
+ * Run with {@code -prof gc} to compare the allocated bytes per load.
+ *
+ * @see StructReader
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BundleLoadBenchmark {
+
+  @Param({"100", "10000"})
+  private int structCount;
+
+  private String source;
+  private byte[] bundle;
+  private StructParser parser;
+
+  @Setup
+  public void setup() throws IOException, StructParseException {
+    this.source = BlueprintCorpus.create(this.structCount).toSource();
+    this.parser = StructParserFactory.create().getInstance();
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    StructWriter.create(output).write(this.parser.parse(this.source));
+    this.bundle = output.toByteArray();
+  }
+
+  @Benchmark
+  public Collection<Struct> parseText() throws StructParseException {
+    return this.parser.parse(this.source);
+  }
+
+  @Benchmark
+  public List<Struct> readBundle() throws IOException {
+    return StructReader.create(new ByteArrayInputStream(this.bundle)).read();
+  }
+}
@@ -0,0 +1,84 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import io.github.merlinosayimwen.javo.Struct;
+import io.github.merlinosayimwen.javo.StructAttribute;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures deriving a struct that differs from its prototype by one renamed or one
+ * added attribute. The builder shares the prototype's attributes, while copying the
+ * attributes into a new struct is the baseline.
+ * <p>
+ * The builder's cost should not grow with the count of attributes, which is checked
+ * with the gc profiler:
+ * {@code java -jar javo-benchmarks/target/benchmarks.jar DerivedStructBenchmark -prof gc}.
+ *
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DerivedStructBenchmark {
+
+  @Param({"16", "1024"})
+  private int attributeCount;
+
+  private Struct prototype;
+  private int renamedIndex;
+  private StructAttribute renamed;
+  private StructAttribute added;
+
+  @Setup
+  public void setup() {
+    List<StructAttribute> attributes = new ArrayList<>();
+    for (int index = 0; index < this.attributeCount; index++) {
+      attributes.add(StructAttribute.create("attribute" + index, "String"));
+    }
+    this.prototype = Struct.create("Prototype", attributes);
+    this.renamedIndex = this.attributeCount / 2;
+    this.renamed = StructAttribute.create("renamed", "String");
+    this.added = StructAttribute.create("added", "long");
+  }
+
+  @Benchmark
+  public Struct renameWithBuilder() {
+    return Struct.newBuilder(this.prototype)
+      .setAttribute(this.renamedIndex, this.renamed)
+      .create();
+  }
+
+  @Benchmark
+  public Struct addWithBuilder() {
+    return Struct.newBuilder(this.prototype).addAttribute(this.added).create();
+  }
+
+  @Benchmark
+  public Struct renameByCopying() {
+    List<StructAttribute> attributes =
+      this.prototype.getAttributes().collect(Collectors.toList());
+    attributes.set(this.renamedIndex, this.renamed);
+    return Struct.create(this.prototype.getName(), attributes);
+  }
+}
@@ -0,0 +1,101 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.github.merlinosayimwen.java.parser.StructParseException;
+import io.github.merlinosayimwen.java.parser.StructParserFactory;
+import io.github.merlinosayimwen.javo.Struct;
+import io.github.merlinosayimwen.javo.generator.GenerationFlag;
+import io.github.merlinosayimwen.javo.generator.GenerationProfile;
+import io.github.merlinosayimwen.javo.generator.JavoGenerator;
+import io.github.merlinosayimwen.javo.generator.JavoGeneratorFactory;
+import io.github.merlinosayimwen.javo.generator.internal.GenerationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the average time of generating the classes of every struct of a
+ * BlueprintCorpus, with every GenerationFlag enabled so that each template of the
+ * generator is rendered. The structs are parsed once by the setup.
+ * <p>
+ * {@code generateStrings} returns every class as String, {@code generateAppendable}
+ * appends them to one reused StringBuilder and leaves out the copies of the Strings.
+ * Classes are indented with two spaces or with tabs, selected by the
+ * {@code indentation} param. Run it with the gc profiler to see the bytes allocated per
+ * operation.
+ *
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorBenchmark {
+
+  @Param({"20000"})
+  private int structCount;
+
+  @Param({"MIXED", "WIDE"})
+  private BlueprintCorpus.Shape shape;
+
+  @Param({"SPACES", "TABS"})
+  private String indentation;
+
+  private List<Struct> structs;
+  private JavoGenerator generator;
+  private GenerationProfile profile;
+  private StringBuilder output;
+
+  @Setup
+  public void setup() throws StructParseException {
+    String source = BlueprintCorpus.create(this.structCount, this.shape).toSource();
+    this.structs = new ArrayList<>(StructParserFactory.create().getInstance().parse(source));
+    this.generator = JavoGeneratorFactory.create().getInstance();
+    this.profile = GenerationProfile.create(
+      EnumSet.allOf(GenerationFlag.class),
+      Collections.singletonMap(
+        GenerationContext.PROPERTY_NEW_LINE_PREFIX,
+        this.indentation.equals("TABS") ? "\t" : "  "));
+    this.output = new StringBuilder();
+  }
+
+  @Benchmark
+  public long generateStrings() {
+    long length = 0;
+    for (Struct struct : this.structs) {
+      length += this.generator.generate(struct, this.profile).length();
+    }
+    return length;
+  }
+
+  @Benchmark
+  public long generateAppendable() throws IOException {
+    long length = 0;
+    for (Struct struct : this.structs) {
+      this.output.setLength(0);
+      this.generator.generate(struct, this.profile, this.output);
+      length += this.output.length();
+    }
+    return length;
+  }
+}
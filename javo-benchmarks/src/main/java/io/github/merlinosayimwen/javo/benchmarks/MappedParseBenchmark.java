@@ -0,0 +1,74 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.benchmarks;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import io.github.merlinosayimwen.java.parser.ParserFlag;
+import io.github.merlinosayimwen.java.parser.ParserProfile;
+import io.github.merlinosayimwen.java.parser.StructParseException;
+import io.github.merlinosayimwen.java.parser.StructParser;
+import io.github.merlinosayimwen.java.parser.StructParserFactory;
+import io.github.merlinosayimwen.javo.Struct;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares parsing files that are read onto the heap with parsing memory-mapped files.
+ * <p>
+ * Throughput is reported by default, the heap usage is reported when running the
+ * benchmark with the gc profiler:
+ * {@code java -jar javo-benchmarks/target/benchmarks.jar MappedParse -prof gc}.
+ * The {@code gc.alloc.rate.norm} column then shows the bytes allocated per parsed file.
+ *
+ * @see ParserFlag#MEMORY_MAPPED_FILES
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappedParseBenchmark {
+
+  @Param({"1000", "100000"})
+  private int structCount;
+
+  private Path corpus;
+  private StructParser heapParser;
+  private StructParser mappedParser;
+
+  @Setup
+  public void setup() {
+    this.corpus = BlueprintCorpus.create(this.structCount).writeToTemporaryFile();
+    StructParserFactory factory = StructParserFactory.create();
+    this.heapParser = factory.getInstance(ParserProfile.create());
+    this.mappedParser = factory.getInstance(
+      ParserProfile.create(Collections.singleton(ParserFlag.MEMORY_MAPPED_FILES)));
+  }
+
+  @Benchmark
+  public Collection<Struct> parseReadFile() throws StructParseException {
+    return this.heapParser.parse(this.corpus);
+  }
+
+  @Benchmark
+  public Collection<Struct> parseMappedFile() throws StructParseException {
+    return this.mappedParser.parse(this.corpus);
+  }
+}
@@ -0,0 +1,83 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.google.common.base.Suppliers;
+import io.github.merlinosayimwen.javo.util.IntSuppliers;
+import io.github.merlinosayimwen.javo.util.LongSuppliers;
+import io.github.merlinosayimwen.javo.util.MoreSuppliers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reads of initialized memoizing suppliers from many threads at once, which is
+ * how the suppliers of a shared generation profile are used. Guava's memoizing supplier
+ * is measured as a baseline.
+ * <p>
+ * Reads should neither block nor allocate, which is checked with the gc profiler:
+ * {@code java -jar javo-benchmarks/target/benchmarks.jar MemoizingSupplierBenchmark -prof gc}.
+ *
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class MemoizingSupplierBenchmark {
+
+  private Supplier<String> memoized;
+  private Supplier<String> guavaMemoized;
+  private IntSupplier memoizedInt;
+  private LongSupplier memoizedLong;
+
+  @Setup
+  public void setup() {
+    this.memoized = MoreSuppliers.memoize(() -> "value");
+    this.guavaMemoized = Suppliers.memoize(() -> "value");
+    this.memoizedInt = IntSuppliers.memoize(() -> 42);
+    this.memoizedLong = LongSuppliers.memoize(() -> 42L);
+    this.memoized.get();
+    this.guavaMemoized.get();
+    this.memoizedInt.getAsInt();
+    this.memoizedLong.getAsLong();
+  }
+
+  @Benchmark
+  public String memoized() {
+    return this.memoized.get();
+  }
+
+  @Benchmark
+  public String guavaMemoized() {
+    return this.guavaMemoized.get();
+  }
+
+  @Benchmark
+  public int memoizedInt() {
+    return this.memoizedInt.getAsInt();
+  }
+
+  @Benchmark
+  public long memoizedLong() {
+    return this.memoizedLong.getAsLong();
+  }
+}
@@ -0,0 +1,77 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.benchmarks;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import io.github.merlinosayimwen.java.parser.ParserProfile;
+import io.github.merlinosayimwen.java.parser.StructParseException;
+import io.github.merlinosayimwen.java.parser.StructParser;
+import io.github.merlinosayimwen.java.parser.StructParserFactory;
+import io.github.merlinosayimwen.javo.Struct;
+
+/**
+ * Reports the heap that is retained by the structs of a synthetic corpus, once for every
+ * name pool of the parser. The heap is measured after full garbage collections and is an
+ * approximation, the count of distinct String instances is exact. Sliced names are only
+ * counted after they have been read, the heap is measured before.
+ * <p>
+ * Run with {@code java -cp benchmarks.jar
+ * io.github.merlinosayimwen.javo.benchmarks.NameFootprintReport [structCount]}.
+ *
+ * @see ParserProfile#PROPERTY_NAME_POOL
+ * @since 1.0
+ */
+public final class NameFootprintReport {
+  private NameFootprintReport() {}
+
+  private static final int DEFAULT_STRUCT_COUNT = 100_000;
+  private static final String[] NAME_POOLS = {"none", "arena", "shared", "slices"};
+  private static final int GC_ROUNDS = 5;
+
+  public static void main(String[] arguments) throws StructParseException {
+    int structCount = arguments.length > 0
+      ? Integer.parseInt(arguments[0])
+      : DEFAULT_STRUCT_COUNT;
+
+    String source = BlueprintCorpus.create(structCount).toSource();
+    System.out.printf("%d structs, %d chars of source%n", structCount, source.length());
+    System.out.printf("%-8s %14s %18s%n", "pool", "retained MiB", "String instances");
+    for (String namePool : NAME_POOLS) {
+      StructParser parser = StructParserFactory.create().getInstance(ParserProfile.create(
+        Collections.emptyList(),
+        Collections.singletonMap(ParserProfile.PROPERTY_NAME_POOL, namePool)));
+
+      long before = usedHeap();
+      Collection<Struct> structs = parser.parse(source);
+      long retained = usedHeap() - before;
+      System.out.printf("%-8s %14.1f %18d%n",
+        namePool, retained / (1024.0 * 1024.0), countStrings(structs));
+    }
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int round = 0; round < GC_ROUNDS; round++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  private static int countStrings(Collection<Struct> structs) {
+    Set<String> strings = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Struct struct : structs) {
+      strings.add(struct.getName());
+      struct.getAttributes().forEach(attribute -> {
+        strings.add(attribute.getName());
+        strings.add(attribute.getTypeName());
+      });
+    }
+    return strings.size();
+  }
+}
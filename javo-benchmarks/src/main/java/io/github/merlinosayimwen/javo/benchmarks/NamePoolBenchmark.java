@@ -0,0 +1,86 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.benchmarks;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import io.github.merlinosayimwen.java.parser.ParserProfile;
+import io.github.merlinosayimwen.java.parser.StructParseException;
+import io.github.merlinosayimwen.java.parser.StructParser;
+import io.github.merlinosayimwen.java.parser.StructParserFactory;
+import io.github.merlinosayimwen.javo.Struct;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the name pools of the parser, once for parse-only workloads that only look
+ * at the shape of the structs and once for workloads that read every name.
+ * <p>
+ * Run with the gc profiler to compare the bytes allocated per parse:
+ * {@code java -jar javo-benchmarks/target/benchmarks.jar NamePoolBenchmark -prof gc}.
+ *
+ * @see ParserProfile#PROPERTY_NAME_POOL
+ * @see NameFootprintReport
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NamePoolBenchmark {
+
+  @Param({"10000"})
+  private int structCount;
+
+  @Param({"none", "arena", "shared", "slices"})
+  private String namePool;
+
+  private String source;
+  private StructParser parser;
+
+  @Setup
+  public void setup() {
+    this.source = BlueprintCorpus.create(this.structCount, BlueprintCorpus.Shape.WIDE)
+      .toSource();
+    this.parser = StructParserFactory.create().getInstance(ParserProfile.create(
+      Collections.emptyList(),
+      Collections.singletonMap(ParserProfile.PROPERTY_NAME_POOL, this.namePool)));
+  }
+
+  @Benchmark
+  public long parseOnly() throws StructParseException {
+    long attributeCount = 0;
+    for (Struct struct : this.parser.parse(this.source)) {
+      attributeCount += struct.attributeCount();
+    }
+    return attributeCount;
+  }
+
+  @Benchmark
+  public long parseAndReadNames() throws StructParseException {
+    Collection<Struct> structs = this.parser.parse(this.source);
+    long nameLength = 0;
+    for (Struct struct : structs) {
+      nameLength += struct.getName().length();
+      nameLength += struct.getAttributes()
+        .mapToInt(attribute -> attribute.getName().length() + attribute.getTypeName().length())
+        .sum();
+    }
+    return nameLength;
+  }
+}
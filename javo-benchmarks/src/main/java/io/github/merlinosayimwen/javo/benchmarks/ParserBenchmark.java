@@ -0,0 +1,80 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.benchmarks;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import io.github.merlinosayimwen.java.parser.StructParseException;
+import io.github.merlinosayimwen.java.parser.StructParser;
+import io.github.merlinosayimwen.java.parser.StructParserFactory;
+import io.github.merlinosayimwen.javo.Struct;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput and average latency of the default StructParser, for sources
+ * from one up to 100k structs in every shape of the BlueprintCorpus.
+ * <p>
+ * The allocation rate is reported when running the benchmark with the gc profiler:
+ * {@code java -jar javo-benchmarks/target/benchmarks.jar ParserBenchmark -prof gc}.
+ * Runs are compared with the {@code compare.sh} script of this module.
+ *
+ * @see BlueprintCorpus.Shape
+ * @see BenchmarkComparison
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+  @Param({"1", "100", "10000", "100000"})
+  private int structCount;
+
+  @Param({"SHALLOW", "WIDE", "COMMENTED"})
+  private BlueprintCorpus.Shape shape;
+
+  private String source;
+  private Path file;
+  private StructParser parser;
+
+  @Setup
+  public void setup() {
+    BlueprintCorpus corpus = BlueprintCorpus.create(this.structCount, this.shape);
+    this.source = corpus.toSource();
+    this.file = corpus.writeToTemporaryFile();
+    this.parser = StructParserFactory.create().getInstance();
+  }
+
+  @Benchmark
+  public Collection<Struct> parseCharSequence() throws StructParseException {
+    return this.parser.parse(this.source);
+  }
+
+  @Benchmark
+  public Collection<Struct> parsePath() throws StructParseException {
+    return this.parser.parse(this.file);
+  }
+
+  @Benchmark
+  public Optional<Struct> parseSingle() throws StructParseException {
+    return this.parser.parseSingle(this.source);
+  }
+}
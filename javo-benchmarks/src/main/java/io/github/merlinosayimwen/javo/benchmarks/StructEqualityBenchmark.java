@@ -0,0 +1,92 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.github.merlinosayimwen.javo.Struct;
+import io.github.merlinosayimwen.javo.StructAttribute;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures hashCode and equals of structs, which are used as keys of maps and caches.
+ * The compared structs are equal but distinct instances, so that equals has to compare
+ * every attribute.
+ * <p>
+ * Every call should allocate nothing, which is checked with the gc profiler:
+ * {@code java -jar javo-benchmarks/target/benchmarks.jar StructEqualityBenchmark -prof gc}.
+ *
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StructEqualityBenchmark {
+
+  @Param({"4", "64"})
+  private int attributeCount;
+
+  private Struct struct;
+  private Struct equalStruct;
+  private Struct differentStruct;
+
+  @Setup
+  public void setup() {
+    this.struct = createStruct(this.attributeCount, "long");
+    this.equalStruct = createStruct(this.attributeCount, "long");
+    this.differentStruct = createStruct(this.attributeCount, "int");
+  }
+
+  private static Struct createStruct(int attributeCount, String lastTypeName) {
+    List<StructAttribute> attributes = new ArrayList<>();
+    for (int index = 1; index < attributeCount; index++) {
+      attributes.add(StructAttribute.create(new String("attribute" + index), "String"));
+    }
+    attributes.add(StructAttribute.create(
+      "last", lastTypeName, Collections.singleton(StructAttribute.Modifier.IMMUTABLE)));
+    return Struct.create(new String("Benchmarked"), attributes);
+  }
+
+  @Benchmark
+  public int structHashCode() {
+    return this.struct.hashCode();
+  }
+
+  @Benchmark
+  public boolean equalStructs() {
+    return this.struct.equals(this.equalStruct);
+  }
+
+  @Benchmark
+  public boolean differentStructs() {
+    return this.struct.equals(this.differentStruct);
+  }
+
+  @Benchmark
+  public int attributeHashCode() {
+    return this.struct.attributeAt(0).hashCode();
+  }
+
+  @Benchmark
+  public boolean equalAttributes() {
+    return this.struct.attributeAt(0).equals(this.equalStruct.attributeAt(0));
+  }
+}
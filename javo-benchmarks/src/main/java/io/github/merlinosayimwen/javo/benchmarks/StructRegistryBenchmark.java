@@ -0,0 +1,82 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.github.merlinosayimwen.javo.Struct;
+import io.github.merlinosayimwen.javo.StructAttribute;
+import io.github.merlinosayimwen.javo.StructRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures lookups and type resolutions of a shared struct registry from many threads.
+ * <p>
+ * Reads should neither block nor allocate, which is checked with the gc profiler:
+ * {@code java -jar javo-benchmarks/target/benchmarks.jar StructRegistryBenchmark -prof gc}.
+ *
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class StructRegistryBenchmark {
+
+  @Param({"100", "10000"})
+  private int structCount;
+
+  private StructRegistry registry;
+  private String structName;
+  private StructAttribute structAttribute;
+  private StructAttribute primitiveAttribute;
+
+  @Setup
+  public void setup() {
+    List<Struct> structs = new ArrayList<>();
+    for (int index = 0; index < this.structCount; index++) {
+      List<StructAttribute> attributes = new ArrayList<>();
+      String nextName = "Struct" + (index + 1) % this.structCount;
+      attributes.add(StructAttribute.create("next", "[" + nextName + "]"));
+      attributes.add(StructAttribute.create("value", "long"));
+      structs.add(Struct.create("Struct" + index, attributes));
+    }
+    this.registry = StructRegistry.create(structs);
+    this.structName = "Struct" + this.structCount / 2;
+    this.structAttribute = structs.get(0).attributeAt(0);
+    this.primitiveAttribute = structs.get(0).attributeAt(1);
+  }
+
+  @Benchmark
+  public Struct findStruct() {
+    return this.registry.findStruct(this.structName);
+  }
+
+  @Benchmark
+  public Struct resolveStruct() {
+    return this.registry.snapshot().resolveStruct(this.structAttribute);
+  }
+
+  @Benchmark
+  public StructRegistry.TypeKind resolvePrimitive() {
+    return this.registry.snapshot().resolveKind(this.primitiveAttribute);
+  }
+}
@@ -0,0 +1,235 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo;
+
+import java.util.Arrays;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Persistent vector of attributes, that is shared by structs and the structs derived
+ * from them.
+ * <p>
+ * The vector is a trie with 32 children per node, whose leaves hold the attributes in
+ * declaration order. The last up to 32 attributes are kept in a separate tail. Updates
+ * never change a vector, they copy the path to the changed leaf and share every other
+ * node, so that appending or replacing an attribute costs O(log32 n). Vectors of up to
+ * 32 attributes only consist of their tail.
+ * <p>
+ * Every vector also knows the polynomial hash of its attributes, which is updated with
+ * the attributes. Structs derive their hash from it without visiting every attribute.
+ *
+ * @see Struct.Builder
+ * @since 1.0
+ */
+final class AttributeVector {
+  private static final int BITS = 5;
+  private static final int WIDTH = 1 << BITS;
+  private static final int MASK = WIDTH - 1;
+
+  private static final Object[] EMPTY_NODE = new Object[WIDTH];
+
+  static final AttributeVector EMPTY =
+    new AttributeVector(0, BITS, EMPTY_NODE, new StructAttribute[0], 0, 1);
+
+  private final int size;
+
+  /** Shift of the root's index bits, which grows by {@code BITS} per level. */
+  private final int shift;
+
+  private final Object[] root;
+  private final StructAttribute[] tail;
+
+  /**
+   * Hash of the attributes, as computed by {@code hash = 31 * hash + attribute.hashCode()}
+   * over the attributes from zero.
+   */
+  private final int hash;
+
+  /** 31 to the power of the size, which multiplies hashes that precede the attributes. */
+  private final int power;
+
+  private AttributeVector(
+      int size, int shift, Object[] root, StructAttribute[] tail, int hash, int power) {
+
+    this.size = size;
+    this.shift = shift;
+    this.root = root;
+    this.tail = tail;
+    this.hash = hash;
+    this.power = power;
+  }
+
+  int size() {
+    return this.size;
+  }
+
+  int hash() {
+    return this.hash;
+  }
+
+  int power() {
+    return this.power;
+  }
+
+  private int tailOffset() {
+    return this.size < WIDTH ? 0 : ((this.size - 1) >>> BITS) << BITS;
+  }
+
+  StructAttribute get(int index) {
+    if (index >= tailOffset()) {
+      return this.tail[index & MASK];
+    }
+    Object[] node = this.root;
+    for (int level = this.shift; level > 0; level -= BITS) {
+      node = (Object[]) node[(index >>> level) & MASK];
+    }
+    return (StructAttribute) node[index & MASK];
+  }
+
+  /**
+   * Returns a vector with the {@code attribute} appended.
+   *
+   * @param attribute Attribute that is appended.
+   * @return Vector that shares all nodes but one path with this vector.
+   */
+  AttributeVector append(StructAttribute attribute) {
+    int hash = 31 * this.hash + attribute.hashCode();
+    int power = 31 * this.power;
+    if (this.size - tailOffset() < WIDTH) {
+      StructAttribute[] tail = Arrays.copyOf(this.tail, this.tail.length + 1);
+      tail[this.tail.length] = attribute;
+      return new AttributeVector(this.size + 1, this.shift, this.root, tail, hash, power);
+    }
+    Object[] root;
+    int shift = this.shift;
+    if ((this.size >>> BITS) > (1 << this.shift)) {
+      root = new Object[WIDTH];
+      root[0] = this.root;
+      root[1] = newPath(this.shift, this.tail);
+      shift += BITS;
+    } else {
+      root = pushTail(this.shift, this.root, this.tail);
+    }
+    StructAttribute[] tail = {attribute};
+    return new AttributeVector(this.size + 1, shift, root, tail, hash, power);
+  }
+
+  private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+    int childIndex = ((this.size - 1) >>> level) & MASK;
+    Object[] node = parent.clone();
+    if (level == BITS) {
+      node[childIndex] = tailNode;
+    } else {
+      Object[] child = (Object[]) parent[childIndex];
+      node[childIndex] = child == null
+        ? newPath(level - BITS, tailNode)
+        : pushTail(level - BITS, child, tailNode);
+    }
+    return node;
+  }
+
+  private static Object[] newPath(int level, Object[] node) {
+    if (level == 0) {
+      return node;
+    }
+    Object[] path = new Object[WIDTH];
+    path[0] = newPath(level - BITS, node);
+    return path;
+  }
+
+  /**
+   * Returns a vector with the attribute at the {@code index} replaced.
+   *
+   * @param index Index of the replaced attribute.
+   * @param attribute Attribute that replaces the current one.
+   * @return Vector that shares all nodes but one path with this vector.
+   */
+  AttributeVector set(int index, StructAttribute attribute) {
+    Preconditions.checkElementIndex(index, this.size);
+
+    int difference = attribute.hashCode() - get(index).hashCode();
+    int hash = this.hash + difference * pow31(this.size - 1 - index);
+    if (index >= tailOffset()) {
+      StructAttribute[] tail = this.tail.clone();
+      tail[index & MASK] = attribute;
+      return new AttributeVector(this.size, this.shift, this.root, tail, hash, this.power);
+    }
+    Object[] root = set(this.shift, this.root, index, attribute);
+    return new AttributeVector(this.size, this.shift, root, this.tail, hash, this.power);
+  }
+
+  private static Object[] set(int level, Object[] node, int index, StructAttribute attribute) {
+    Object[] copy = node.clone();
+    if (level == 0) {
+      copy[index & MASK] = attribute;
+    } else {
+      int childIndex = (index >>> level) & MASK;
+      copy[childIndex] = set(level - BITS, (Object[]) node[childIndex], index, attribute);
+    }
+    return copy;
+  }
+
+  private static int pow31(int exponent) {
+    int result = 1;
+    int base = 31;
+    for (; exponent != 0; exponent >>>= 1) {
+      if ((exponent & 1) != 0) {
+        result *= base;
+      }
+      base *= base;
+    }
+    return result;
+  }
+
+  StructAttribute[] toArray() {
+    StructAttribute[] attributes = new StructAttribute[this.size];
+    for (int index = 0; index < this.size; index++) {
+      attributes[index] = get(index);
+    }
+    return attributes;
+  }
+
+  /**
+   * Creates a vector of the {@code attributes}. Leaves are filled from the array and
+   * the trie is built bottom up, it has the same shape as if every attribute had been
+   * appended on its own. Small vectors take ownership of the array.
+   *
+   * @param attributes Attributes in declaration order, which are not changed afterwards.
+   * @return Vector of the attributes.
+   */
+  static AttributeVector copyOf(StructAttribute[] attributes) {
+    int size = attributes.length;
+    int hash = 0;
+    int power = 1;
+    for (StructAttribute attribute : attributes) {
+      hash = 31 * hash + attribute.hashCode();
+      power *= 31;
+    }
+    if (size <= WIDTH) {
+      return new AttributeVector(size, BITS, EMPTY_NODE, attributes, hash, power);
+    }
+    int tailOffset = ((size - 1) >>> BITS) << BITS;
+    Object[] nodes = new Object[tailOffset >>> BITS];
+    for (int leaf = 0; leaf < nodes.length; leaf++) {
+      nodes[leaf] = Arrays.copyOfRange(attributes, leaf << BITS, (leaf + 1) << BITS);
+    }
+    int shift = BITS;
+    while (nodes.length > WIDTH) {
+      Object[] parents = new Object[(nodes.length + MASK) >>> BITS];
+      for (int parent = 0; parent < parents.length; parent++) {
+        Object[] children = new Object[WIDTH];
+        int first = parent << BITS;
+        System.arraycopy(nodes, first, children, 0, Math.min(WIDTH, nodes.length - first));
+        parents[parent] = children;
+      }
+      nodes = parents;
+      shift += BITS;
+    }
+    Object[] root = Arrays.copyOf(nodes, WIDTH);
+    StructAttribute[] tail = Arrays.copyOfRange(attributes, tailOffset, size);
+    return new AttributeVector(size, shift, root, tail, hash, power);
+  }
+}
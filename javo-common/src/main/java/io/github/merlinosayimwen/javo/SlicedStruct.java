@@ -0,0 +1,53 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo;
+
+/**
+ * Parsed struct whose name is a slice of its source.
+ * <p>
+ * The name is created on its first read, the hash is computed from the slice. Concurrent
+ * first reads may create the name more than once, which is harmless since strings are
+ * immutable.
+ *
+ * @see Struct#createSliced(CharSequence, long, Iterable, Iterable, long)
+ * @since 1.0
+ */
+final class SlicedStruct extends Struct {
+
+  private final CharSequence source;
+  private final long nameSlice;
+  private final long sourceSpan;
+
+  /** Name that is created from the slice on its first read. */
+  private String materializedName;
+
+  SlicedStruct(
+      CharSequence source,
+      long nameSlice,
+      Iterable<StructAttribute> attributes,
+      int modifierBits,
+      long sourceSpan) {
+
+    super(null, SlicedStructAttribute.hash(source, nameSlice), attributes, modifierBits);
+    this.source = source;
+    this.nameSlice = nameSlice;
+    this.sourceSpan = sourceSpan;
+  }
+
+  @Override
+  public String getName() {
+    String name = this.materializedName;
+    if (name == null) {
+      name = SlicedStructAttribute.materialize(this.source, this.nameSlice);
+      this.materializedName = name;
+    }
+    return name;
+  }
+
+  @Override
+  public long getSourceSpan() {
+    return this.sourceSpan;
+  }
+}
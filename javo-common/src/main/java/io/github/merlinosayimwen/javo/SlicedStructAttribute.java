@@ -0,0 +1,81 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo;
+
+import io.github.merlinosayimwen.javo.util.SourceSpans;
+
+/**
+ * Parsed attribute whose names are slices of its source.
+ * <p>
+ * Names are created on their first read, the hash is computed from the slices.
+ * Concurrent first reads may create a name more than once, which is harmless since
+ * strings are immutable.
+ *
+ * @see StructAttribute#createSliced(CharSequence, long, long, Iterable, long)
+ * @since 1.0
+ */
+final class SlicedStructAttribute extends StructAttribute {
+
+  private final CharSequence source;
+  private final long nameSlice;
+  private final long typeSlice;
+  private final long sourceSpan;
+
+  /** Names that are created from the slices on their first read. */
+  private String materializedName;
+  private String materializedTypeName;
+
+  SlicedStructAttribute(
+      CharSequence source,
+      long nameSlice,
+      long typeSlice,
+      int modifierBits,
+      long sourceSpan) {
+
+    super(null, null, modifierBits, hash(source, nameSlice), hash(source, typeSlice));
+    this.source = source;
+    this.nameSlice = nameSlice;
+    this.typeSlice = typeSlice;
+    this.sourceSpan = sourceSpan;
+  }
+
+  @Override
+  public String getName() {
+    String name = this.materializedName;
+    if (name == null) {
+      name = materialize(this.source, this.nameSlice);
+      this.materializedName = name;
+    }
+    return name;
+  }
+
+  @Override
+  public String getTypeName() {
+    String typeName = this.materializedTypeName;
+    if (typeName == null) {
+      typeName = materialize(this.source, this.typeSlice);
+      this.materializedTypeName = typeName;
+    }
+    return typeName;
+  }
+
+  @Override
+  public long getSourceSpan() {
+    return this.sourceSpan;
+  }
+
+  /** Computes the hash of the slice like {@link String#hashCode()} without a String. */
+  static int hash(CharSequence source, long slice) {
+    int hash = 0;
+    for (int index = SourceSpans.getOffset(slice); index < SourceSpans.getEnd(slice); index++) {
+      hash = 31 * hash + source.charAt(index);
+    }
+    return hash;
+  }
+
+  static String materialize(CharSequence source, long slice) {
+    return source.subSequence(SourceSpans.getOffset(slice), SourceSpans.getEnd(slice)).toString();
+  }
+}
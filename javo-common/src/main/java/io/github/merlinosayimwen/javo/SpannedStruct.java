@@ -0,0 +1,31 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo;
+
+/**
+ * Struct that has been parsed and knows the span of its definition.
+ *
+ * @see Struct#create(String, Iterable, Iterable, long)
+ * @since 1.0
+ */
+final class SpannedStruct extends Struct {
+
+  private final long sourceSpan;
+
+  SpannedStruct(
+      String name,
+      Iterable<StructAttribute> attributes,
+      int modifierBits,
+      long sourceSpan) {
+
+    super(name, attributes, modifierBits);
+    this.sourceSpan = sourceSpan;
+  }
+
+  @Override
+  public long getSourceSpan() {
+    return this.sourceSpan;
+  }
+}
@@ -0,0 +1,26 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo;
+
+/**
+ * Attribute that has been parsed and knows its span.
+ *
+ * @see StructAttribute#create(String, String, Iterable, long)
+ * @since 1.0
+ */
+final class SpannedStructAttribute extends StructAttribute {
+
+  private final long sourceSpan;
+
+  SpannedStructAttribute(String name, String typeName, int modifierBits, long sourceSpan) {
+    super(name, typeName, modifierBits);
+    this.sourceSpan = sourceSpan;
+  }
+
+  @Override
+  public long getSourceSpan() {
+    return this.sourceSpan;
+  }
+}
@@ -5,15 +5,15 @@
 package io.github.merlinosayimwen.javo;
 
 import java.util.*;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
+import com.google.common.collect.Iterables;
 
 import io.github.merlinosayimwen.javo.util.MorePreconditions;
+import io.github.merlinosayimwen.javo.util.SourceSpans;
 
 /**
  * Value-Object representation of a Struct.
@@ -21,10 +21,23 @@ import io.github.merlinosayimwen.javo.util.MorePreconditions;
  * The struct class is holding information about a defined struct which follows
  * pojogen's struct definition format. It may be parsed or simply created and is used
  * by the generator to generate a Java file. Instances of this class are immutable.
+ * <p>
+ * Attributes are stored in a persistent vector in the order they have been declared in.
+ * Structs that are derived from a prototype by a {@link Builder} share the vector's
+ * unchanged nodes with the prototype. Large structs additionally build a table that maps
+ * names to attribute indices on their first lookup by name.
+ * <p>
+ * Parsed structs may know the span of their definition in the source. Only those
+ * structs are instances of a subclass that stores the span, created structs don't pay
+ * for it. Sliced structs keep their name as slice of the source and only create the
+ * string when it is first read.
  *
  * @see StructAttribute
  */
-public final class Struct {
+public class Struct {
+
+  /** Count of attributes up to which lookups by name scan the attributes. */
+  private static final int LINEAR_LOOKUP_LIMIT = 8;
 
   public enum Modifier {
     IMMUTABLE("immutable");
@@ -34,6 +47,10 @@ public final class Struct {
       this.code = code;
     }
 
+    public String getCode() {
+      return code;
+    }
+
     public static Optional<Modifier> fromCode(String code) {
       Preconditions.checkNotNull(code);
       for (Modifier modifier : values()) {
@@ -45,28 +62,53 @@ public final class Struct {
     }
   }
 
-  /** Name of the struct. */
-  private String name;
+  /** Name of the struct, null for sliced structs that create their name themselves. */
+  private final String name;
+
+  /** The struct's attributes in declaration order. */
+  private final AttributeVector attributes;
+
+  /**
+   * Open addressing table of attribute indices plus one by the hash of their names, zero
+   * marks empty slots. Built on the first lookup of a struct with many attributes.
+   */
+  private volatile int[] indexTable;
 
-  /** The struct's attributes. */
-  private Collection<StructAttribute> attributes;
+  /** Modifiers that influence the generated java class, one bit per ordinal. */
+  private final int modifierBits;
 
-  /** Set of modifiers that influence the generated java class. */
-  private Collection<Modifier> modifiers;
+  /** Hash of the struct, which is computed once by the constructor. */
+  private final int hash;
 
   /**
    * Parameterized constructor that initializes a struct with all available arguments.
+   * Sliced structs pass a null name and the hash of their slice.
    *
    * @param name The name that the struct will have.
+   * @param nameHash Hash of the name, as computed by {@link String#hashCode()}.
    * @param attributes Set of attributes which will be given to the struct.
-   * @param modifiers Set of modifiers that influence the generated java class.
+   * @param modifierBits Modifiers that influence the generated java class as bits.
    */
-  private Struct(
-      String name, Iterable<StructAttribute> attributes, Collection<Modifier> modifiers) {
+  Struct(
+      String name, int nameHash, Iterable<StructAttribute> attributes, int modifierBits) {
+
+    this(name, nameHash, AttributeVector.copyOf(
+      Iterables.toArray(attributes, StructAttribute.class)), modifierBits);
+  }
+
+  Struct(String name, Iterable<StructAttribute> attributes, int modifierBits) {
+    this(name, name.hashCode(), attributes, modifierBits);
+  }
 
+  /**
+   * Constructor that shares the {@code attributes}. The hash is derived from the hash
+   * that the vector keeps, without visiting the attributes.
+   */
+  private Struct(String name, int nameHash, AttributeVector attributes, int modifierBits) {
     this.name = name;
-    this.attributes = ImmutableList.copyOf(attributes);
-    this.modifiers = modifiers;
+    this.attributes = attributes;
+    this.modifierBits = modifierBits;
+    this.hash = 31 * (nameHash * attributes.power() + attributes.hash()) + modifierBits;
   }
 
   /**
@@ -75,7 +117,7 @@ public final class Struct {
    * @return Name of the struct.
    */
   public String getName() {
-    return name;
+    return this.name;
   }
 
   /**
@@ -87,11 +129,112 @@ public final class Struct {
    * @return Stream of the structs attributes.
    */
   public Stream<StructAttribute> getAttributes() {
-    return attributes.stream();
+    return IntStream.range(0, this.attributes.size()).mapToObj(this.attributes::get);
+  }
+
+  /**
+   * Returns the count of the struct's attributes.
+   *
+   * @return Count of attributes.
+   */
+  public int attributeCount() {
+    return this.attributes.size();
+  }
+
+  /**
+   * Returns the attribute at the {@code index} of the declaration order.
+   *
+   * @param index Index of the attribute.
+   * @return Attribute at the index.
+   * @throws IndexOutOfBoundsException Thrown if there is no attribute at the index.
+   */
+  public StructAttribute attributeAt(int index) {
+    Preconditions.checkElementIndex(index, this.attributes.size());
+    return this.attributes.get(index);
+  }
+
+  /**
+   * Returns the attribute with the {@code name}. If multiple attributes have the name,
+   * the first declared one is returned.
+   *
+   * @param name Name of the attribute.
+   * @return Optional attribute with the {@code name}.
+   */
+  public Optional<StructAttribute> getAttribute(String name) {
+    Preconditions.checkNotNull(name);
+    int index = indexOfAttribute(name);
+    return index < 0 ? Optional.empty() : Optional.of(this.attributes.get(index));
+  }
+
+  /**
+   * Returns the index of the attribute with the {@code name} in the declaration order.
+   * If multiple attributes have the name, the index of the first one is returned.
+   *
+   * @param name Name of the attribute.
+   * @return Index of the attribute or -1 if the struct has no attribute with the name.
+   */
+  public int indexOfAttribute(String name) {
+    Preconditions.checkNotNull(name);
+    if (this.attributes.size() <= LINEAR_LOOKUP_LIMIT) {
+      for (int index = 0; index < this.attributes.size(); index++) {
+        if (this.attributes.get(index).getName().equals(name)) {
+          return index;
+        }
+      }
+      return -1;
+    }
+    int[] table = this.indexTable;
+    if (table == null) {
+      table = buildIndexTable();
+      this.indexTable = table;
+    }
+    int mask = table.length - 1;
+    for (int slot = name.hashCode() & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+      StructAttribute attribute = this.attributes.get(table[slot] - 1);
+      if (attribute.getName().equals(name)) {
+        return table[slot] - 1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Builds the index table with at most half of its slots used. Concurrent lookups may
+   * build it more than once, every thread then uses an equal table.
+   */
+  private int[] buildIndexTable() {
+    int[] table = new int[Integer.highestOneBit(this.attributes.size()) << 2];
+    int mask = table.length - 1;
+    for (int index = 0; index < this.attributes.size(); index++) {
+      String name = this.attributes.get(index).getName();
+      int slot = name.hashCode() & mask;
+      boolean duplicate = false;
+      for (; table[slot] != 0; slot = (slot + 1) & mask) {
+        if (this.attributes.get(table[slot] - 1).getName().equals(name)) {
+          duplicate = true;
+          break;
+        }
+      }
+      if (!duplicate) {
+        table[slot] = index + 1;
+      }
+    }
+    return table;
   }
 
   public boolean hasModifier(Modifier modifier) {
-    return modifiers.contains(modifier);
+    return (this.modifierBits & 1 << modifier.ordinal()) != 0;
+  }
+
+  /**
+   * Returns the span of the struct's definition in the source that it has been parsed
+   * from. The span is not part of the struct's value and ignored by {@code equals}.
+   *
+   * @return Packed span or {@link SourceSpans#NONE} if the struct hasn't been parsed.
+   * @see SourceSpans
+   */
+  public long getSourceSpan() {
+    return SourceSpans.NONE;
   }
 
   /**
@@ -106,19 +249,27 @@ public final class Struct {
     if (hasModifier(Modifier.IMMUTABLE)) {
       return true;
     }
-    return attributes.stream()
-      .allMatch(StructAttribute::isImmutable);
+    for (int index = 0; index < this.attributes.size(); index++) {
+      if (!this.attributes.get(index).isImmutable()) {
+        return false;
+      }
+    }
+    return true;
   }
 
   @Override
   public String toString() {
-    return MoreObjects.toStringHelper(this)
-      .add("name", name)
-      .add("modifiers",modifiers.size())
-      .add("attributes", attributes.size())
+    return MoreObjects.toStringHelper(Struct.class)
+      .add("name", getName())
+      .add("modifiers", Integer.bitCount(this.modifierBits))
+      .add("attributes", this.attributes.size())
       .toString();
   }
 
+  /**
+   * Compares the names, modifiers and attributes in declaration order of both structs,
+   * after comparing their cached hashes. Source spans are ignored.
+   */
   @Override
   public boolean equals(Object object) {
     if (object == this) {
@@ -131,18 +282,26 @@ public final class Struct {
   }
 
   private boolean deepEquals(Struct struct) {
-    return this.name.equals(struct.name)
-        && Arrays.deepEquals(modifiers.toArray(), struct.attributes.toArray())
-        && Arrays.deepEquals(attributes.toArray(), struct.attributes.toArray());
+    if (this.hash != struct.hash
+        || this.modifierBits != struct.modifierBits
+        || this.attributes.size() != struct.attributes.size()
+        || !getName().equals(struct.getName())) {
+      return false;
+    }
+    if (this.attributes == struct.attributes) {
+      return true;
+    }
+    for (int index = 0; index < this.attributes.size(); index++) {
+      if (!this.attributes.get(index).equals(struct.attributes.get(index))) {
+        return false;
+      }
+    }
+    return true;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(
-      name,
-      Arrays.deepHashCode(attributes.toArray()),
-      Arrays.deepHashCode(attributes.toArray())
-    );
+    return this.hash;
   }
 
   /**
@@ -179,41 +338,110 @@ public final class Struct {
       Iterable<StructAttribute> attributes,
       Iterable<Modifier> modifiers) {
 
+    Preconditions.checkNotNull(name);
+    MorePreconditions.checkAllNotNull(attributes);
+    MorePreconditions.checkAllNotNull(modifiers);
+
+    return new Struct(name, attributes, modifierBits(modifiers));
+  }
+
+  /**
+   * Creates a struct that has been parsed from the {@code sourceSpan} of a source.
+   *
+   * @param name Name that is given to the struct.
+   * @param attributes Iterable collection of attributes.
+   * @param modifiers Set of modifiers that influence the generated java class.
+   * @param sourceSpan Packed span of the struct's definition.
+   * @return Struct created from the given arguments.
+   * @see SourceSpans#pack(int, int)
+   */
+  public static Struct create(
+      String name,
+      Iterable<StructAttribute> attributes,
+      Iterable<Modifier> modifiers,
+      long sourceSpan) {
+
+    if (!SourceSpans.isPresent(sourceSpan)) {
+      return create(name, attributes, modifiers);
+    }
+    Preconditions.checkNotNull(name);
     MorePreconditions.checkAllNotNull(attributes);
     MorePreconditions.checkAllNotNull(modifiers);
 
-    return new Struct(
-      name,
-      Sets.newHashSet(attributes),
-      Sets.newHashSet(modifiers)
-    );
+    return new SpannedStruct(name, attributes, modifierBits(modifiers), sourceSpan);
+  }
+
+  /**
+   * Creates a struct whose name is a slice of the {@code source}. The name is created
+   * when it is first read, until then the struct retains the source.
+   *
+   * @param source Source that the struct has been parsed from, which must not change.
+   * @param nameSlice Packed offset and length of the name in the source.
+   * @param attributes Iterable collection of attributes.
+   * @param modifiers Set of modifiers that influence the generated java class.
+   * @param sourceSpan Packed span of the struct's definition, which may be absent.
+   * @return Struct created from the given arguments.
+   * @see SourceSpans#pack(int, int)
+   */
+  public static Struct createSliced(
+      CharSequence source,
+      long nameSlice,
+      Iterable<StructAttribute> attributes,
+      Iterable<Modifier> modifiers,
+      long sourceSpan) {
+
+    Preconditions.checkNotNull(source);
+    StructAttribute.checkSlice(source, nameSlice);
+    MorePreconditions.checkAllNotNull(attributes);
+    MorePreconditions.checkAllNotNull(modifiers);
+
+    return new SlicedStruct(
+      source, nameSlice, attributes, modifierBits(modifiers), sourceSpan);
+  }
+
+  private static int modifierBits(Iterable<Modifier> modifiers) {
+    int bits = 0;
+    for (Modifier modifier : modifiers) {
+      bits |= 1 << modifier.ordinal();
+    }
+    return bits;
   }
 
   public static Builder newBuilder() {
-    return new Builder("", Lists.newArrayList(), Lists.newArrayList());
+    return new Builder("", AttributeVector.EMPTY, 0);
   }
 
+  /**
+   * Creates a builder that starts with the name, attributes and modifiers of the
+   * {@code prototype}. The builder shares the prototype's attributes instead of copying
+   * them, deriving a struct costs O(log n) per changed attribute.
+   *
+   * @param prototype Struct that the built struct is derived from.
+   * @return Builder that is initialized with the prototype.
+   */
   public static Builder newBuilder(Struct prototype) {
-    return new Builder(
-      prototype.name,
-      Lists.newArrayList(prototype.attributes),
-      Lists.newArrayList(prototype.modifiers)
-    );
+    Preconditions.checkNotNull(prototype);
+
+    return new Builder(prototype.getName(), prototype.attributes, prototype.modifierBits);
   }
 
+  /**
+   * Builder of structs that is backed by a persistent vector of attributes.
+   * <p>
+   * Appending and replacing attributes copy one path of the vector, every other node
+   * stays shared with the prototype and the structs that have been created before.
+   * Removing an attribute rebuilds the vector. The attributes' hash is updated with the
+   * vector, creating a struct doesn't visit the attributes.
+   */
   public static final class Builder {
     private String name;
-    private Collection<Modifier> modifiers;
-    private Collection<StructAttribute> attributes;
-
-    private Builder(
-      String name,
-      Collection<StructAttribute> attributes,
-      Collection<Modifier> modifiers) {
+    private AttributeVector attributes;
+    private int modifierBits;
 
+    private Builder(String name, AttributeVector attributes, int modifierBits) {
       this.name = name;
-      this.modifiers = modifiers;
       this.attributes = attributes;
+      this.modifierBits = modifierBits;
     }
 
     public Builder withName(String name) {
@@ -222,49 +450,66 @@ public final class Struct {
     }
 
     public Builder withModifiers(Iterable<Modifier> modifiers) {
-      this.modifiers = Lists.newArrayList(modifiers);
+      MorePreconditions.checkAllNotNull(modifiers);
+      this.modifierBits = modifierBits(modifiers);
       return this;
     }
 
     public Builder withAttributes(Iterable<StructAttribute> attributes) {
-      this.attributes = Lists.newArrayList(attributes);
+      MorePreconditions.checkAllNotNull(attributes);
+      this.attributes = AttributeVector.copyOf(
+        Iterables.toArray(attributes, StructAttribute.class));
       return this;
     }
 
     public Builder addModifier(Modifier modifier) {
-      ensureModifiersNotNull();
-      modifiers.add(modifier);
+      Preconditions.checkNotNull(modifier);
+      this.modifierBits |= 1 << modifier.ordinal();
       return this;
     }
 
     public Builder addAttribute(StructAttribute attribute) {
-      ensureAttributesNotNull();
-      attributes.add(attribute);
+      Preconditions.checkNotNull(attribute);
+      this.attributes = this.attributes.append(attribute);
       return this;
     }
 
-    private void ensureAttributesNotNull() {
-      if (this.attributes == null) {
-        this.attributes = Lists.newArrayList();
-      }
+    /**
+     * Replaces the attribute at the {@code index}, for example with a renamed one.
+     *
+     * @param index Index of the replaced attribute in the declaration order.
+     * @param attribute Attribute that replaces the current one.
+     * @return This builder.
+     * @throws IndexOutOfBoundsException Thrown if there is no attribute at the index.
+     */
+    public Builder setAttribute(int index, StructAttribute attribute) {
+      Preconditions.checkNotNull(attribute);
+      this.attributes = this.attributes.set(index, attribute);
+      return this;
     }
 
-    private void ensureModifiersNotNull() {
-      if (this.modifiers == null) {
-        this.modifiers = Lists.newArrayList();
-      }
+    /**
+     * Removes the attribute at the {@code index}. Unlike the other updates, removing
+     * copies every attribute.
+     *
+     * @param index Index of the removed attribute in the declaration order.
+     * @return This builder.
+     * @throws IndexOutOfBoundsException Thrown if there is no attribute at the index.
+     */
+    public Builder removeAttribute(int index) {
+      Preconditions.checkElementIndex(index, this.attributes.size());
+      StructAttribute[] attributes = this.attributes.toArray();
+      StructAttribute[] remaining = new StructAttribute[attributes.length - 1];
+      System.arraycopy(attributes, 0, remaining, 0, index);
+      System.arraycopy(attributes, index + 1, remaining, index, remaining.length - index);
+      this.attributes = AttributeVector.copyOf(remaining);
+      return this;
     }
 
     public Struct create() {
       Preconditions.checkNotNull(this.name);
-      this.ensureAttributesNotNull();
-      this.ensureModifiersNotNull();
-
-      return new Struct(
-        this.name,
-        Sets.newHashSet(this.attributes),
-        Sets.newHashSet(this.modifiers)
-      );
+
+      return new Struct(this.name, this.name.hashCode(), this.attributes, this.modifierBits);
     }
   }
 }
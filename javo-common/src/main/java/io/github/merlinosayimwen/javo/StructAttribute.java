@@ -4,46 +4,82 @@
 
 package io.github.merlinosayimwen.javo;
 
-import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
-import java.util.Objects;
+import java.util.Optional;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Sets;
+
+import io.github.merlinosayimwen.javo.util.NamePool;
+import io.github.merlinosayimwen.javo.util.SourceSpans;
 
 /**
  * Represents an attribute in a {@code Struct-Blueprint}.
+ * <p>
+ * Like structs, parsed attributes may know their span in the source, which is only
+ * stored by instances of a subclass. Sliced attributes keep their names as slices of the
+ * source and only create the strings when they are first read.
  *
  * @see Struct
  */
 public class StructAttribute {
 
-  enum Modifier {
-    IMMUTABLE
+  public enum Modifier {
+    IMMUTABLE("immutable");
+
+    private String code;
+    Modifier(String code) {
+      this.code = code;
+    }
+
+    public String getCode() {
+      return code;
+    }
+
+    public static Optional<Modifier> fromCode(String code) {
+      Preconditions.checkNotNull(code);
+      for (Modifier modifier : values()) {
+        if (modifier.code.equals(code)) {
+          return Optional.of(modifier);
+        }
+      }
+      return Optional.empty();
+    }
   }
 
-  /** Name of the attribute. */
-  private String name;
+  /** Name of the attribute, null for sliced attributes that create it themselves. */
+  private final String name;
 
-  /** Name of the attributes type. */
-  private String typeName;
+  /** Name of the attributes type, null for sliced attributes that create it themselves. */
+  private final String typeName;
 
-  /** Flag that indicates whether the attribute is constant. */
-  private Collection<Modifier> modifiers;
+  /** Modifiers that influence the generated java class, one bit per ordinal. */
+  private final int modifierBits;
+
+  /** Hash of the attribute, which is computed once by the constructor. */
+  private final int hash;
 
   /**
    * Parameterized constructor that initializes the instance with all possible arguments.
+   * Sliced attributes pass null names and the hashes of their slices.
    *
    * @param name Name of the attribute.
    * @param typeName Name of the attributes type.
-   * @param modifiers Set of modifiers that influence the generated java class.
+   * @param modifierBits Modifiers that influence the generated java class as bits.
+   * @param nameHash Hash of the name, as computed by {@link String#hashCode()}.
+   * @param typeNameHash Hash of the type name, as computed by {@link String#hashCode()}.
    */
-  private StructAttribute(String name, String typeName, Collection<Modifier> modifiers) {
+  StructAttribute(
+      String name, String typeName, int modifierBits, int nameHash, int typeNameHash) {
+
     this.name = name;
     this.typeName = typeName;
-    this.modifiers = modifiers;
+    this.modifierBits = modifierBits;
+    this.hash = 31 * (31 * nameHash + typeNameHash) + modifierBits;
+  }
+
+  StructAttribute(String name, String typeName, int modifierBits) {
+    this(name, typeName, modifierBits, name.hashCode(), typeName.hashCode());
   }
 
   /**
@@ -74,18 +110,33 @@ public class StructAttribute {
   }
 
   public boolean hasModifier(Modifier modifier) {
-    return modifiers.contains(modifier);
+    return (this.modifierBits & 1 << modifier.ordinal()) != 0;
+  }
+
+  /**
+   * Returns the span of the attribute in the source that it has been parsed from. The
+   * span is not part of the attribute's value and ignored by {@code equals}.
+   *
+   * @return Packed span or {@link SourceSpans#NONE} if the attribute hasn't been parsed.
+   * @see SourceSpans
+   */
+  public long getSourceSpan() {
+    return SourceSpans.NONE;
   }
 
   @Override
   public String toString() {
-    return MoreObjects.toStringHelper(this)
-        .add("name", this.name)
-        .add("typeName", this.typeName)
-        .add("modifiers", this.modifiers.size())
+    return MoreObjects.toStringHelper(StructAttribute.class)
+        .add("name", getName())
+        .add("typeName", getTypeName())
+        .add("modifiers", Integer.bitCount(this.modifierBits))
         .toString();
   }
 
+  /**
+   * Compares the names and modifiers of both attributes, after comparing their cached
+   * hashes. The source span is ignored.
+   */
   @Override
   public boolean equals(Object object) {
     if (object == this) {
@@ -94,18 +145,16 @@ public class StructAttribute {
     if (!(object instanceof StructAttribute)) {
       return false;
     }
-    return deepEquals((StructAttribute) object);
-  }
-
-  private boolean deepEquals(StructAttribute attribute) {
-    return this.name.equals(attribute.name)
-        && this.typeName.equals(attribute.typeName)
-        && Arrays.deepEquals(modifiers.toArray(), attribute.modifiers.toArray());
+    StructAttribute attribute = (StructAttribute) object;
+    return this.hash == attribute.hash
+        && this.modifierBits == attribute.modifierBits
+        && getName().equals(attribute.getName())
+        && getTypeName().equals(attribute.getTypeName());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(this.name, this.typeName, Arrays.deepHashCode(modifiers.toArray()));
+    return this.hash;
   }
 
   /**
@@ -147,6 +196,91 @@ public class StructAttribute {
     Preconditions.checkNotNull(name);
     Preconditions.checkNotNull(typeName);
 
-    return new StructAttribute(name, typeName, Sets.newEnumSet(modifiers, Modifier.class));
+    return new StructAttribute(name, typeName, modifierBits(modifiers));
+  }
+
+  /**
+   * Creates a StructAttribute that has been parsed from the {@code sourceSpan} of a source.
+   *
+   * @param name Name that will be given to the struct.
+   * @param typeName Name of the attributes type.
+   * @param modifiers Set of modifiers that influence the generated java class.
+   * @param sourceSpan Packed span of the attribute.
+   *
+   * @return Created attribute with all possible arguments set.
+   * @see SourceSpans#pack(int, int)
+   */
+  public static StructAttribute create(
+      String name, String typeName, Iterable<Modifier> modifiers, long sourceSpan) {
+
+    Preconditions.checkNotNull(name);
+    Preconditions.checkNotNull(typeName);
+
+    if (!SourceSpans.isPresent(sourceSpan)) {
+      return StructAttribute.create(name, typeName, modifiers);
+    }
+    return new SpannedStructAttribute(name, typeName, modifierBits(modifiers), sourceSpan);
+  }
+
+  /**
+   * Creates a StructAttribute whose names are interned by the {@code namePool}.
+   *
+   * @param name Name that will be given to the struct.
+   * @param typeName Name of the attributes type.
+   * @param modifiers Set of modifiers that influence the generated java class.
+   * @param namePool Pool that interns the name and the type name.
+   *
+   * @return Created attribute with all possible arguments set.
+   */
+  public static StructAttribute create(
+      String name, String typeName, Iterable<Modifier> modifiers, NamePool namePool) {
+
+    Preconditions.checkNotNull(name);
+    Preconditions.checkNotNull(typeName);
+    Preconditions.checkNotNull(namePool);
+
+    return StructAttribute.create(namePool.intern(name), namePool.intern(typeName), modifiers);
+  }
+
+  /**
+   * Creates a StructAttribute whose names are slices of the {@code source}. The names
+   * are created when they are first read, until then the attribute retains the source.
+   *
+   * @param source Source that the attribute has been parsed from, which must not change.
+   * @param nameSlice Packed offset and length of the name in the source.
+   * @param typeSlice Packed offset and length of the type name in the source.
+   * @param modifiers Set of modifiers that influence the generated java class.
+   * @param sourceSpan Packed span of the attribute, which may be {@link SourceSpans#NONE}.
+   *
+   * @return Created attribute with all possible arguments set.
+   * @see SourceSpans#pack(int, int)
+   */
+  public static StructAttribute createSliced(
+      CharSequence source,
+      long nameSlice,
+      long typeSlice,
+      Iterable<Modifier> modifiers,
+      long sourceSpan) {
+
+    Preconditions.checkNotNull(source);
+    checkSlice(source, nameSlice);
+    checkSlice(source, typeSlice);
+
+    return new SlicedStructAttribute(
+      source, nameSlice, typeSlice, modifierBits(modifiers), sourceSpan);
+  }
+
+  static void checkSlice(CharSequence source, long slice) {
+    Preconditions.checkArgument(SourceSpans.isPresent(slice), "Absent slice");
+    Preconditions.checkPositionIndexes(
+      SourceSpans.getOffset(slice), SourceSpans.getEnd(slice), source.length());
+  }
+
+  private static int modifierBits(Iterable<Modifier> modifiers) {
+    int bits = 0;
+    for (Modifier modifier : modifiers) {
+      bits |= 1 << modifier.ordinal();
+    }
+    return bits;
   }
 }
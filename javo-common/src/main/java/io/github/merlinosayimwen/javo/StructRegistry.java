@@ -0,0 +1,544 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import io.github.merlinosayimwen.javo.util.SourceSpans;
+
+/**
+ * Concurrent index of structs by name, which resolves the type names of attributes to
+ * the structs that they refer to.
+ * <p>
+ * The registry is optimized for reads. Its content is an immutable {@link Snapshot}
+ * that is replaced as a whole by every update. Reads never lock and never wait for
+ * updates, looking up a struct or resolving a type name doesn't allocate. Updates are
+ * serialized and copy the snapshot, many structs should therefore be registered by one
+ * bulk update instead of one by one.
+ * <p>
+ * Type names are read like the generator reads them: arrays ({@code [Foo]}) and
+ * collections ({@code List<Foo>} or {@code <Foo>}) resolve to their element type. An
+ * element type is either a primitive, a registered struct or an external type such as
+ * {@code String}. Every snapshot also holds the graph of dependencies between the
+ * registered structs.
+ *
+ * @see Struct
+ * @since 1.0
+ */
+public final class StructRegistry {
+
+  /** Kind of the element type that a type name refers to. */
+  public enum TypeKind {
+    /** One of the eight primitive types of Java. */
+    PRIMITIVE,
+
+    /** A struct that is registered in the snapshot. */
+    STRUCT,
+
+    /** Any other type, it has to be provided by the generated code's classpath. */
+    EXTERNAL
+  }
+
+  private static final String[] PRIMITIVE_TYPE_NAMES = {
+    "byte", "short", "int", "long", "float", "double", "char", "boolean"
+  };
+
+  private final Object updateLock = new Object();
+
+  /** Current snapshot, which is only written while holding the update lock. */
+  private volatile Snapshot snapshot;
+
+  private StructRegistry(Snapshot snapshot) {
+    this.snapshot = snapshot;
+  }
+
+  /**
+   * Returns the current snapshot. Successive reads from the returned snapshot are
+   * consistent, even if the registry is updated in the meantime.
+   *
+   * @return Current content of the registry.
+   */
+  public Snapshot snapshot() {
+    return this.snapshot;
+  }
+
+  /**
+   * Finds the registered struct with the {@code name} in the current snapshot.
+   *
+   * @param name Name of the struct.
+   * @return Struct with the name or null if none is registered.
+   */
+  public Struct findStruct(CharSequence name) {
+    return this.snapshot.findStruct(name);
+  }
+
+  /**
+   * Gets the registered struct with the {@code name} from the current snapshot.
+   *
+   * @param name Name of the struct.
+   * @return Optional struct with the name.
+   */
+  public Optional<Struct> getStruct(String name) {
+    return Optional.ofNullable(findStruct(name));
+  }
+
+  /**
+   * Registers the {@code struct}, replacing a registered struct with the same name.
+   *
+   * @param struct Struct that is registered.
+   */
+  public void register(Struct struct) {
+    Preconditions.checkNotNull(struct);
+
+    registerAll(ImmutableList.of(struct));
+  }
+
+  /**
+   * Registers all {@code structs} with one update, replacing registered structs with the
+   * same names. If multiple structs have the same name, the last one is registered.
+   *
+   * @param structs Structs that are registered.
+   */
+  public void registerAll(Iterable<Struct> structs) {
+    Preconditions.checkNotNull(structs);
+
+    synchronized (this.updateLock) {
+      Map<String, Struct> updated = this.snapshot.toMap();
+      putAll(updated, structs);
+      this.snapshot = Snapshot.build(updated.values());
+    }
+  }
+
+  /**
+   * Replaces the whole content of the registry with the {@code structs}.
+   *
+   * @param structs Structs that are registered instead of the current ones.
+   */
+  public void replaceAll(Iterable<Struct> structs) {
+    Preconditions.checkNotNull(structs);
+
+    Map<String, Struct> updated = new LinkedHashMap<>();
+    putAll(updated, structs);
+    Snapshot replacement = Snapshot.build(updated.values());
+    synchronized (this.updateLock) {
+      this.snapshot = replacement;
+    }
+  }
+
+  /**
+   * Removes the struct with the {@code name}.
+   *
+   * @param name Name of the struct.
+   * @return Whether a struct has been removed.
+   */
+  public boolean remove(String name) {
+    Preconditions.checkNotNull(name);
+
+    return removeAll(ImmutableList.of(name)) != 0;
+  }
+
+  /**
+   * Removes the structs with the {@code names} with one update.
+   *
+   * @param names Names of the removed structs.
+   * @return Count of removed structs.
+   */
+  public int removeAll(Iterable<String> names) {
+    Preconditions.checkNotNull(names);
+
+    synchronized (this.updateLock) {
+      Map<String, Struct> updated = this.snapshot.toMap();
+      int removedCount = 0;
+      for (String name : names) {
+        if (updated.remove(Preconditions.checkNotNull(name)) != null) {
+          removedCount++;
+        }
+      }
+      if (removedCount != 0) {
+        this.snapshot = Snapshot.build(updated.values());
+      }
+      return removedCount;
+    }
+  }
+
+  private static void putAll(Map<String, Struct> target, Iterable<Struct> structs) {
+    for (Struct struct : structs) {
+      Preconditions.checkNotNull(struct);
+      // Removing first moves a replaced struct to the end, like a new one.
+      target.remove(struct.getName());
+      target.put(struct.getName(), struct);
+    }
+  }
+
+  /**
+   * Creates an empty registry.
+   *
+   * @return New empty registry.
+   */
+  public static StructRegistry create() {
+    return new StructRegistry(Snapshot.EMPTY);
+  }
+
+  /**
+   * Creates a registry that initially contains the {@code structs}.
+   *
+   * @param structs Structs that are initially registered.
+   * @return New registry.
+   */
+  public static StructRegistry create(Iterable<Struct> structs) {
+    StructRegistry registry = create();
+    registry.replaceAll(structs);
+    return registry;
+  }
+
+  /**
+   * Immutable content of a registry.
+   * <p>
+   * Structs are kept in the order of their registration. The names are indexed by an
+   * open addressing table, which can look up any char sequence and its regions without
+   * creating strings.
+   */
+  public static final class Snapshot {
+    private static final Snapshot EMPTY = build(ImmutableList.of());
+
+    private final ImmutableList<Struct> structs;
+
+    /** Hashes of the struct names, by index. */
+    private final int[] nameHashes;
+
+    /** Open addressing table of struct indices plus one, zero marks a free slot. */
+    private final int[] indexTable;
+
+    private final ImmutableList<ImmutableSet<Struct>> dependencies;
+    private final ImmutableList<ImmutableSet<Struct>> dependents;
+    private final ImmutableList<Struct> dependencyOrder;
+
+    private Snapshot(ImmutableList<Struct> structs) {
+      this.structs = structs;
+      this.nameHashes = new int[structs.size()];
+      this.indexTable = new int[tableCapacity(structs.size())];
+      for (int index = 0; index < structs.size(); index++) {
+        String name = structs.get(index).getName();
+        this.nameHashes[index] = name.hashCode();
+        insert(index);
+      }
+      this.dependencies = collectDependencies();
+      this.dependents = collectDependents();
+      this.dependencyOrder = sortByDependencies();
+    }
+
+    private static int tableCapacity(int size) {
+      int capacity = 4;
+      while (capacity < size * 2) {
+        capacity <<= 1;
+      }
+      return capacity;
+    }
+
+    private void insert(int index) {
+      int mask = this.indexTable.length - 1;
+      int slot = this.nameHashes[index] & mask;
+      while (this.indexTable[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      this.indexTable[slot] = index + 1;
+    }
+
+    /**
+     * Returns the count of registered structs.
+     *
+     * @return Count of structs.
+     */
+    public int size() {
+      return this.structs.size();
+    }
+
+    /**
+     * Returns the registered structs in the order of their registration.
+     *
+     * @return Immutable list of structs.
+     */
+    public List<Struct> getStructs() {
+      return this.structs;
+    }
+
+    /**
+     * Finds the registered struct with the {@code name}.
+     *
+     * @param name Name of the struct.
+     * @return Struct with the name or null if none is registered.
+     */
+    public Struct findStruct(CharSequence name) {
+      Preconditions.checkNotNull(name);
+
+      int index = indexOf(name, 0, name.length());
+      return index < 0 ? null : this.structs.get(index);
+    }
+
+    /**
+     * Gets the registered struct with the {@code name}.
+     *
+     * @param name Name of the struct.
+     * @return Optional struct with the name.
+     */
+    public Optional<Struct> getStruct(String name) {
+      return Optional.ofNullable(findStruct(name));
+    }
+
+    /**
+     * Resolves the kind of the element type that the {@code typeName} refers to.
+     *
+     * @param typeName Name of a plain, array or collection type.
+     * @return Kind of the element type.
+     */
+    public TypeKind resolveKind(CharSequence typeName) {
+      Preconditions.checkNotNull(typeName);
+
+      long element = elementSlice(typeName);
+      int start = SourceSpans.getOffset(element);
+      int end = SourceSpans.getEnd(element);
+      if (isPrimitive(typeName, start, end)) {
+        return TypeKind.PRIMITIVE;
+      }
+      return indexOf(typeName, start, end) < 0 ? TypeKind.EXTERNAL : TypeKind.STRUCT;
+    }
+
+    /**
+     * Resolves the kind of the element type of the {@code attribute}.
+     *
+     * @param attribute Attribute whose type is resolved.
+     * @return Kind of the element type.
+     */
+    public TypeKind resolveKind(StructAttribute attribute) {
+      Preconditions.checkNotNull(attribute);
+
+      return resolveKind(attribute.getTypeName());
+    }
+
+    /**
+     * Resolves the registered struct that is the element type of the {@code typeName}.
+     *
+     * @param typeName Name of a plain, array or collection type.
+     * @return Struct that is referred to or null if the type is no registered struct.
+     */
+    public Struct resolveStruct(CharSequence typeName) {
+      Preconditions.checkNotNull(typeName);
+
+      long element = elementSlice(typeName);
+      int index = indexOf(typeName, SourceSpans.getOffset(element), SourceSpans.getEnd(element));
+      return index < 0 ? null : this.structs.get(index);
+    }
+
+    /**
+     * Resolves the registered struct that is the element type of the {@code attribute}.
+     *
+     * @param attribute Attribute whose type is resolved.
+     * @return Struct that is referred to or null if the type is no registered struct.
+     */
+    public Struct resolveStruct(StructAttribute attribute) {
+      Preconditions.checkNotNull(attribute);
+
+      return resolveStruct(attribute.getTypeName());
+    }
+
+    /**
+     * Returns the registered structs that attributes of the named struct refer to.
+     *
+     * @param structName Name of the struct.
+     * @return Immutable set of dependencies, which is empty for unknown structs.
+     */
+    public Set<Struct> getDependencies(CharSequence structName) {
+      Preconditions.checkNotNull(structName);
+
+      int index = indexOf(structName, 0, structName.length());
+      return index < 0 ? ImmutableSet.of() : this.dependencies.get(index);
+    }
+
+    /**
+     * Returns the registered structs with attributes that refer to the named struct.
+     *
+     * @param structName Name of the struct.
+     * @return Immutable set of dependents, which is empty for unknown structs.
+     */
+    public Set<Struct> getDependents(CharSequence structName) {
+      Preconditions.checkNotNull(structName);
+
+      int index = indexOf(structName, 0, structName.length());
+      return index < 0 ? ImmutableSet.of() : this.dependents.get(index);
+    }
+
+    /**
+     * Returns the registered structs ordered so that every struct comes after its
+     * dependencies. Structs of a cycle are ordered by their registration.
+     *
+     * @return Immutable list of all structs.
+     */
+    public List<Struct> getStructsInDependencyOrder() {
+      return this.dependencyOrder;
+    }
+
+    private int indexOf(CharSequence name, int start, int end) {
+      int hash = 0;
+      for (int position = start; position < end; position++) {
+        hash = 31 * hash + name.charAt(position);
+      }
+      int mask = this.indexTable.length - 1;
+      for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+        int entry = this.indexTable[slot];
+        if (entry == 0) {
+          return -1;
+        }
+        int index = entry - 1;
+        if (this.nameHashes[index] == hash
+            && regionEquals(this.structs.get(index).getName(), name, start, end)) {
+          return index;
+        }
+      }
+    }
+
+    private static boolean regionEquals(String name, CharSequence source, int start, int end) {
+      if (name.length() != end - start) {
+        return false;
+      }
+      for (int position = start; position < end; position++) {
+        if (name.charAt(position - start) != source.charAt(position)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static boolean isPrimitive(CharSequence typeName, int start, int end) {
+      for (String primitive : PRIMITIVE_TYPE_NAMES) {
+        if (regionEquals(primitive, typeName, start, end)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Returns the packed region of the element type in the {@code typeName}. Array and
+     * collection types are reduced to the type between their brackets, other names are
+     * returned as a whole.
+     */
+    private static long elementSlice(CharSequence typeName) {
+      int length = typeName.length();
+      if (length >= 2 && typeName.charAt(0) == '[' && typeName.charAt(length - 1) == ']') {
+        return SourceSpans.pack(1, length - 2);
+      }
+      if (length >= 2 && typeName.charAt(length - 1) == '>') {
+        for (int position = 0; position < length - 1; position++) {
+          if (typeName.charAt(position) == '<') {
+            return SourceSpans.pack(position + 1, length - position - 2);
+          }
+        }
+      }
+      return SourceSpans.pack(0, length);
+    }
+
+    private ImmutableList<ImmutableSet<Struct>> collectDependencies() {
+      ImmutableList.Builder<ImmutableSet<Struct>> dependencies = ImmutableList.builder();
+      for (Struct struct : this.structs) {
+        ImmutableSet.Builder<Struct> referenced = ImmutableSet.builder();
+        for (int index = 0; index < struct.attributeCount(); index++) {
+          Struct dependency = resolveStruct(struct.attributeAt(index));
+          if (dependency != null) {
+            referenced.add(dependency);
+          }
+        }
+        dependencies.add(referenced.build());
+      }
+      return dependencies.build();
+    }
+
+    private ImmutableList<ImmutableSet<Struct>> collectDependents() {
+      List<ImmutableSet.Builder<Struct>> dependents = new ArrayList<>(this.structs.size());
+      for (int index = 0; index < this.structs.size(); index++) {
+        dependents.add(ImmutableSet.builder());
+      }
+      for (int index = 0; index < this.structs.size(); index++) {
+        Struct dependent = this.structs.get(index);
+        for (Struct dependency : this.dependencies.get(index)) {
+          dependents.get(indexOf(dependency.getName())).add(dependent);
+        }
+      }
+      ImmutableList.Builder<ImmutableSet<Struct>> built = ImmutableList.builder();
+      for (ImmutableSet.Builder<Struct> builder : dependents) {
+        built.add(builder.build());
+      }
+      return built.build();
+    }
+
+    private int indexOf(String name) {
+      return indexOf(name, 0, name.length());
+    }
+
+    /**
+     * Sorts the structs by an iterative depth first search, that emits every struct
+     * after all of its dependencies. A dependency that is still on the stack closes a
+     * cycle and is skipped.
+     */
+    private ImmutableList<Struct> sortByDependencies() {
+      int size = this.structs.size();
+      boolean[] visited = new boolean[size];
+      int[] stack = new int[size];
+      int[] nextDependency = new int[size];
+      int[][] dependencyIndices = new int[size][];
+      for (int index = 0; index < size; index++) {
+        dependencyIndices[index] = this.dependencies.get(index).stream()
+          .mapToInt(dependency -> indexOf(dependency.getName()))
+          .toArray();
+      }
+
+      ImmutableList.Builder<Struct> order = ImmutableList.builder();
+      for (int root = 0; root < size; root++) {
+        if (visited[root]) {
+          continue;
+        }
+        visited[root] = true;
+        int depth = 0;
+        stack[depth++] = root;
+        while (depth != 0) {
+          int current = stack[depth - 1];
+          int[] currentDependencies = dependencyIndices[current];
+          if (nextDependency[current] < currentDependencies.length) {
+            int dependency = currentDependencies[nextDependency[current]++];
+            if (!visited[dependency]) {
+              visited[dependency] = true;
+              stack[depth++] = dependency;
+            }
+            continue;
+          }
+          order.add(this.structs.get(current));
+          depth--;
+        }
+      }
+      return order.build();
+    }
+
+    private Map<String, Struct> toMap() {
+      Map<String, Struct> structs = new LinkedHashMap<>();
+      for (Struct struct : this.structs) {
+        structs.put(struct.getName(), struct);
+      }
+      return structs;
+    }
+
+    private static Snapshot build(Collection<Struct> structs) {
+      return new Snapshot(ImmutableList.copyOf(structs));
+    }
+  }
+}
@@ -0,0 +1,43 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.io;
+
+/**
+ * Constants of the binary struct format, which is written by the StructWriter and read
+ * by the StructReader.
+ * <p>
+ * A bundle starts with the {@link #MAGIC} bytes and the {@link #VERSION}, followed by
+ * a table of every distinct string of the bundle and the structs, which only refer to
+ * strings by their index in that table. All counts, lengths and indices are written as
+ * unsigned variable length integers (seven bits per byte, least significant group first).
+ * Modifiers are written as one byte of flags, a modifier's bit is given by its ordinal.
+ * Source spans are written as their offset plus one followed by their length, absent
+ * spans as a single zero.
+ *
+ * <pre>
+ * bundle    = magic version count {string} count {struct}
+ * string    = length {byte}                    // UTF-8
+ * struct    = name modifiers span count {attribute}
+ * attribute = name type modifiers span
+ * span      = 0 | (offset + 1) length
+ * </pre>
+ *
+ * @see StructWriter
+ * @see StructReader
+ * @since 1.0
+ */
+final class StructFormat {
+
+  /** Bytes that every bundle starts with, which are {@code "javo"} in ASCII. */
+  static final int MAGIC = 0x6a61766f;
+
+  /** Version of the format that is written, readers reject bundles of other versions. */
+  static final int VERSION = 1;
+
+  /** Maximal count of modifiers that fit into the modifier flags. */
+  static final int MAX_MODIFIER_COUNT = Byte.SIZE;
+
+  private StructFormat() {}
+}
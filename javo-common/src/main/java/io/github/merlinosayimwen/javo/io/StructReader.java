@@ -0,0 +1,195 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+
+import io.github.merlinosayimwen.javo.Struct;
+import io.github.merlinosayimwen.javo.StructAttribute;
+import io.github.merlinosayimwen.javo.util.SourceSpans;
+
+/**
+ * Reads bundles of structs in the binary struct format.
+ * <p>
+ * The whole bundle is read with one sequential pass over the input. Every string of the
+ * table is decoded once and shared by all structs that refer to it, apart from those
+ * strings the reader only allocates the structs and their attributes.
+ *
+ * @see StructWriter
+ * @since 1.0
+ */
+public final class StructReader {
+
+  private static final Struct.Modifier[] STRUCT_MODIFIERS = Struct.Modifier.values();
+  private static final StructAttribute.Modifier[] ATTRIBUTE_MODIFIERS =
+    StructAttribute.Modifier.values();
+
+  private final InputStream input;
+
+  private byte[] buffer;
+  private int position;
+  private int limit;
+
+  private StructReader(InputStream input) {
+    this.input = input;
+  }
+
+  /**
+   * Reads the rest of the input as one bundle. The input is not closed by the reader.
+   *
+   * @return Structs of the bundle in the order they have been written.
+   * @throws IOException Thrown if the input fails or contains no valid bundle.
+   */
+  public List<Struct> read() throws IOException {
+    this.buffer = ByteStreams.toByteArray(this.input);
+    this.position = 0;
+    this.limit = this.buffer.length;
+    try {
+      return readBundle();
+    } catch (RuntimeException invalidContent) {
+      // Structs that can't be created from the decoded values are just as invalid.
+      throw new IOException("Invalid struct bundle", invalidContent);
+    } finally {
+      this.buffer = null;
+    }
+  }
+
+  private List<Struct> readBundle() throws IOException {
+    if (readFixedInt() != StructFormat.MAGIC) {
+      throw new IOException("Input is no struct bundle");
+    }
+    int version = readVarInt();
+    if (version != StructFormat.VERSION) {
+      throw new IOException("Unsupported struct bundle version: " + version);
+    }
+    String[] strings = new String[readCount()];
+    for (int index = 0; index < strings.length; index++) {
+      int length = readCount();
+      ensureAvailable(length);
+      strings[index] = new String(this.buffer, this.position, length, StandardCharsets.UTF_8);
+      this.position += length;
+    }
+    int structCount = readCount();
+    List<Struct> structs = new ArrayList<>(structCount);
+    for (int index = 0; index < structCount; index++) {
+      structs.add(readStruct(strings));
+    }
+    if (this.position != this.limit) {
+      throw new IOException("Trailing bytes after struct bundle");
+    }
+    return structs;
+  }
+
+  private Struct readStruct(String[] strings) throws IOException {
+    String name = readString(strings);
+    int modifierFlags = readByte();
+    List<Struct.Modifier> modifiers = new ArrayList<>(STRUCT_MODIFIERS.length);
+    for (Struct.Modifier modifier : STRUCT_MODIFIERS) {
+      if ((modifierFlags & (1 << modifier.ordinal())) != 0) {
+        modifiers.add(modifier);
+      }
+    }
+    long span = readSpan();
+    int attributeCount = readCount();
+    List<StructAttribute> attributes = new ArrayList<>(attributeCount);
+    for (int index = 0; index < attributeCount; index++) {
+      attributes.add(readAttribute(strings));
+    }
+    return Struct.create(name, attributes, modifiers, span);
+  }
+
+  private StructAttribute readAttribute(String[] strings) throws IOException {
+    String name = readString(strings);
+    String typeName = readString(strings);
+    int modifierFlags = readByte();
+    List<StructAttribute.Modifier> modifiers = new ArrayList<>(ATTRIBUTE_MODIFIERS.length);
+    for (StructAttribute.Modifier modifier : ATTRIBUTE_MODIFIERS) {
+      if ((modifierFlags & (1 << modifier.ordinal())) != 0) {
+        modifiers.add(modifier);
+      }
+    }
+    return StructAttribute.create(name, typeName, modifiers, readSpan());
+  }
+
+  private long readSpan() throws IOException {
+    int shiftedOffset = readVarInt();
+    if (shiftedOffset == 0) {
+      return SourceSpans.NONE;
+    }
+    // Offsets are shifted by one, which wraps the largest offset around to the smallest int.
+    int offset = shiftedOffset - 1;
+    if (offset < 0) {
+      throw new IOException("Invalid span offset: " + offset);
+    }
+    int length = readVarInt();
+    if (length < 0) {
+      throw new IOException("Invalid span length: " + length);
+    }
+    return SourceSpans.pack(offset, length);
+  }
+
+  private String readString(String[] strings) throws IOException {
+    int index = readVarInt();
+    if (index < 0 || index >= strings.length) {
+      throw new IOException("String index out of bounds: " + index);
+    }
+    return strings[index];
+  }
+
+  private int readFixedInt() throws IOException {
+    return readByte() << 24 | readByte() << 16 | readByte() << 8 | readByte();
+  }
+
+  /** Reads a count, which is never larger than the remaining bytes. */
+  private int readCount() throws IOException {
+    int count = readVarInt();
+    if (count < 0 || count > this.limit - this.position) {
+      throw new IOException("Invalid count: " + count);
+    }
+    return count;
+  }
+
+  private int readVarInt() throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+      int current = readByte();
+      value |= (current & 0x7f) << shift;
+      if ((current & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable length integer");
+  }
+
+  private int readByte() throws IOException {
+    ensureAvailable(1);
+    return this.buffer[this.position++] & 0xff;
+  }
+
+  private void ensureAvailable(int bytes) throws IOException {
+    if (bytes > this.limit - this.position) {
+      throw new IOException("Unexpected end of struct bundle");
+    }
+  }
+
+  /**
+   * Creates a reader that reads a bundle from the {@code input}.
+   *
+   * @param input Input that the bundle is read from.
+   * @return New instance of the StructReader.
+   */
+  public static StructReader create(InputStream input) {
+    Preconditions.checkNotNull(input);
+
+    return new StructReader(input);
+  }
+}
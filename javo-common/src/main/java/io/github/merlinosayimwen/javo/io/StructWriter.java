@@ -0,0 +1,174 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Preconditions;
+
+import io.github.merlinosayimwen.javo.Struct;
+import io.github.merlinosayimwen.javo.StructAttribute;
+import io.github.merlinosayimwen.javo.util.SourceSpans;
+
+/**
+ * Writes structs as bundles in the binary struct format.
+ * <p>
+ * Every string is only written once, the structs of a bundle refer to it by its index.
+ * A bundle is encoded into memory first and then written to the output with a single
+ * call, the output is neither flushed nor closed by the writer.
+ *
+ * @see StructReader
+ * @since 1.0
+ */
+public final class StructWriter {
+
+  private static final int INITIAL_CAPACITY = 256;
+
+  static {
+    Preconditions.checkState(Struct.Modifier.values().length <= StructFormat.MAX_MODIFIER_COUNT);
+    Preconditions.checkState(
+      StructAttribute.Modifier.values().length <= StructFormat.MAX_MODIFIER_COUNT);
+  }
+
+  private final OutputStream output;
+
+  private byte[] buffer;
+  private int length;
+
+  private StructWriter(OutputStream output) {
+    this.output = output;
+    this.buffer = new byte[INITIAL_CAPACITY];
+  }
+
+  /**
+   * Writes the {@code structs} as one bundle.
+   *
+   * @param structs Structs that are written in their iteration order.
+   * @throws IOException Thrown if the output fails.
+   */
+  public void write(Iterable<Struct> structs) throws IOException {
+    Preconditions.checkNotNull(structs);
+
+    List<Struct> bundle = new ArrayList<>();
+    Map<String, Integer> strings = new LinkedHashMap<>();
+    for (Struct struct : structs) {
+      bundle.add(struct);
+      indexString(strings, struct.getName());
+      for (int index = 0; index < struct.attributeCount(); index++) {
+        StructAttribute attribute = struct.attributeAt(index);
+        indexString(strings, attribute.getName());
+        indexString(strings, attribute.getTypeName());
+      }
+    }
+
+    this.length = 0;
+    writeFixedInt(StructFormat.MAGIC);
+    writeVarInt(StructFormat.VERSION);
+    writeVarInt(strings.size());
+    for (String string : strings.keySet()) {
+      byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+      writeVarInt(bytes.length);
+      writeBytes(bytes);
+    }
+    writeVarInt(bundle.size());
+    for (Struct struct : bundle) {
+      writeStruct(struct, strings);
+    }
+    this.output.write(this.buffer, 0, this.length);
+  }
+
+  private static void indexString(Map<String, Integer> strings, String string) {
+    strings.putIfAbsent(string, strings.size());
+  }
+
+  private void writeStruct(Struct struct, Map<String, Integer> strings) {
+    writeVarInt(strings.get(struct.getName()));
+    int modifiers = 0;
+    for (Struct.Modifier modifier : Struct.Modifier.values()) {
+      if (struct.hasModifier(modifier)) {
+        modifiers |= 1 << modifier.ordinal();
+      }
+    }
+    writeByte(modifiers);
+    writeSpan(struct.getSourceSpan());
+    writeVarInt(struct.attributeCount());
+    for (int index = 0; index < struct.attributeCount(); index++) {
+      StructAttribute attribute = struct.attributeAt(index);
+      writeVarInt(strings.get(attribute.getName()));
+      writeVarInt(strings.get(attribute.getTypeName()));
+      int attributeModifiers = 0;
+      for (StructAttribute.Modifier modifier : StructAttribute.Modifier.values()) {
+        if (attribute.hasModifier(modifier)) {
+          attributeModifiers |= 1 << modifier.ordinal();
+        }
+      }
+      writeByte(attributeModifiers);
+      writeSpan(attribute.getSourceSpan());
+    }
+  }
+
+  private void writeSpan(long span) {
+    if (!SourceSpans.isPresent(span)) {
+      writeVarInt(0);
+      return;
+    }
+    // The offset may be the largest int, which wraps around and is unsigned encoded.
+    writeVarInt(SourceSpans.getOffset(span) + 1);
+    writeVarInt(SourceSpans.getLength(span));
+  }
+
+  private void writeFixedInt(int value) {
+    writeByte(value >>> 24);
+    writeByte(value >>> 16);
+    writeByte(value >>> 8);
+    writeByte(value);
+  }
+
+  private void writeVarInt(int value) {
+    int remaining = value;
+    while ((remaining & ~0x7f) != 0) {
+      writeByte((remaining & 0x7f) | 0x80);
+      remaining >>>= 7;
+    }
+    writeByte(remaining);
+  }
+
+  private void writeByte(int value) {
+    ensureCapacity(1);
+    this.buffer[this.length++] = (byte) value;
+  }
+
+  private void writeBytes(byte[] bytes) {
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, this.buffer, this.length, bytes.length);
+    this.length += bytes.length;
+  }
+
+  private void ensureCapacity(int additionalBytes) {
+    int required = this.length + additionalBytes;
+    if (required > this.buffer.length) {
+      this.buffer = Arrays.copyOf(this.buffer, Math.max(required, this.buffer.length * 2));
+    }
+  }
+
+  /**
+   * Creates a writer that writes bundles into the {@code output}.
+   *
+   * @param output Output that the bundles are written to.
+   * @return New instance of the StructWriter.
+   */
+  public static StructWriter create(OutputStream output) {
+    Preconditions.checkNotNull(output);
+
+    return new StructWriter(output);
+  }
+}
@@ -1,40 +1,65 @@
-package io.github.merlinosayimwen.javo.util;
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
 
-import com.google.common.base.Preconditions;
+package io.github.merlinosayimwen.javo.util;
 
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.IntSupplier;
 
+import com.google.common.base.Preconditions;
+
+/**
+ * Utilities for suppliers of ints.
+ *
+ * @see MoreSuppliers
+ * @see LongSuppliers
+ * @since 1.0
+ */
 public final class IntSuppliers {
   private IntSuppliers() {}
 
+  /**
+   * Returns a supplier that calls the {@code delegate} on its first call and returns the
+   * same int on every later call, without boxing it. The delegate is called exactly
+   * once, even if the first calls are concurrent. Once the value is known, calls only
+   * read one volatile field and never lock.
+   *
+   * @param delegate Supplier of the value.
+   * @return Memoizing supplier.
+   */
   public static IntSupplier memoize(IntSupplier delegate) {
     Preconditions.checkNotNull(delegate);
-    return new MemoizingSupplier(0, delegate, new AtomicBoolean(false));
+    if (delegate instanceof MemoizingSupplier) {
+      return delegate;
+    }
+    return new MemoizingSupplier(delegate);
   }
 
-  private static class MemoizingSupplier implements IntSupplier {
+  private static final class MemoizingSupplier implements IntSupplier {
+    /** Written before {@code initialized}, whose volatile write publishes it. */
     private int value;
+    private volatile boolean initialized;
     private IntSupplier delegate;
-    private AtomicBoolean state;
 
-    private MemoizingSupplier(int value, IntSupplier delegate, AtomicBoolean state) {
-      this.value = value;
+    private MemoizingSupplier(IntSupplier delegate) {
       this.delegate = delegate;
-      this.state = state;
     }
 
     @Override
     public int getAsInt() {
-      if (state.compareAndSet(true, true)) {
-        synchronized (this) {
-          this.value = delegate.getAsInt();
-          return value;
-        }
+      if (this.initialized) {
+        return this.value;
       }
-      synchronized (this) {
-        return value;
+      return initialize();
+    }
+
+    private synchronized int initialize() {
+      if (!this.initialized) {
+        this.value = this.delegate.getAsInt();
+        this.initialized = true;
+        this.delegate = null;
       }
+      return this.value;
     }
   }
 }
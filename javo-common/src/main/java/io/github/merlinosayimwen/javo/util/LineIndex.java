@@ -0,0 +1,102 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.util;
+
+import java.util.Arrays;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Converts offsets of a source into lines and columns.
+ * <p>
+ * The offsets at which the lines start are only collected on the first conversion, so
+ * creating an index that is never used costs nothing. Afterwards every conversion is a
+ * binary search. The source must not change while the index is used. Lines and columns
+ * are one based, like in the diagnostics of the parser.
+ *
+ * @see SourceSpans
+ * @since 1.0
+ */
+public final class LineIndex {
+
+  private final CharSequence source;
+
+  /** Offsets at which the lines start, null until the first conversion. */
+  private volatile int[] lineStarts;
+
+  private LineIndex(CharSequence source) {
+    this.source = source;
+  }
+
+  /**
+   * Gets the line of the char at the {@code offset}.
+   *
+   * @param offset Offset into the source, which may be the length of the source.
+   * @return One based line number.
+   */
+  public int getLine(int offset) {
+    Preconditions.checkPositionIndex(offset, this.source.length());
+
+    int[] starts = lineStarts();
+    int line = Arrays.binarySearch(starts, offset);
+    return line >= 0 ? line + 1 : -line - 1;
+  }
+
+  /**
+   * Gets the column of the char at the {@code offset}.
+   *
+   * @param offset Offset into the source, which may be the length of the source.
+   * @return One based column number.
+   */
+  public int getColumn(int offset) {
+    return offset - lineStarts()[getLine(offset) - 1] + 1;
+  }
+
+  /**
+   * Gets the count of lines in the source.
+   *
+   * @return Count of lines, which is one for an empty source.
+   */
+  public int getLineCount() {
+    return lineStarts().length;
+  }
+
+  private int[] lineStarts() {
+    int[] starts = this.lineStarts;
+    if (starts == null) {
+      // Concurrent first conversions may both collect the starts, which is harmless.
+      starts = collectLineStarts(this.source);
+      this.lineStarts = starts;
+    }
+    return starts;
+  }
+
+  private static int[] collectLineStarts(CharSequence source) {
+    int[] starts = new int[16];
+    int count = 1;
+    int length = source.length();
+    for (int offset = 0; offset < length; offset++) {
+      if (source.charAt(offset) == '\n') {
+        if (count == starts.length) {
+          starts = Arrays.copyOf(starts, count << 1);
+        }
+        starts[count++] = offset + 1;
+      }
+    }
+    return Arrays.copyOf(starts, count);
+  }
+
+  /**
+   * Creates an index of the {@code source}.
+   *
+   * @param source Source whose offsets are converted.
+   * @return Index that is built on its first use.
+   */
+  public static LineIndex create(CharSequence source) {
+    Preconditions.checkNotNull(source);
+
+    return new LineIndex(source);
+  }
+}
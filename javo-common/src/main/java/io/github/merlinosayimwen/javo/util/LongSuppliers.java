@@ -0,0 +1,65 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.util;
+
+import java.util.function.LongSupplier;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Utilities for suppliers of longs.
+ *
+ * @see MoreSuppliers
+ * @see IntSuppliers
+ * @since 1.0
+ */
+public final class LongSuppliers {
+  private LongSuppliers() {}
+
+  /**
+   * Returns a supplier that calls the {@code delegate} on its first call and returns the
+   * same long on every later call, without boxing it. The delegate is called exactly
+   * once, even if the first calls are concurrent. Once the value is known, calls only
+   * read one volatile field and never lock.
+   *
+   * @param delegate Supplier of the value.
+   * @return Memoizing supplier.
+   */
+  public static LongSupplier memoize(LongSupplier delegate) {
+    Preconditions.checkNotNull(delegate);
+    if (delegate instanceof MemoizingSupplier) {
+      return delegate;
+    }
+    return new MemoizingSupplier(delegate);
+  }
+
+  private static final class MemoizingSupplier implements LongSupplier {
+    /** Written before {@code initialized}, whose volatile write publishes it. */
+    private long value;
+    private volatile boolean initialized;
+    private LongSupplier delegate;
+
+    private MemoizingSupplier(LongSupplier delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public long getAsLong() {
+      if (this.initialized) {
+        return this.value;
+      }
+      return initialize();
+    }
+
+    private synchronized long initialize() {
+      if (!this.initialized) {
+        this.value = this.delegate.getAsLong();
+        this.initialized = true;
+        this.delegate = null;
+      }
+      return this.value;
+    }
+  }
+}
@@ -1,36 +1,67 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
 package io.github.merlinosayimwen.javo.util;
 
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
+import com.google.common.base.Preconditions;
+
+/**
+ * Utilities for suppliers of objects.
+ *
+ * @see IntSuppliers
+ * @see LongSuppliers
+ * @since 1.0
+ */
 public final class MoreSuppliers {
   private MoreSuppliers() {}
 
+  /**
+   * Returns a supplier that calls the {@code delegate} on its first call and returns the
+   * same value on every later call, which may be null. The delegate is called exactly
+   * once, even if the first calls are concurrent. Once the value is known, calls only
+   * read one volatile field and never lock.
+   *
+   * @param delegate Supplier of the value.
+   * @param <E> Type of the value.
+   * @return Memoizing supplier.
+   */
   public static <E> Supplier<E> memoize(Supplier<E> delegate) {
-    return new MemoizingSupplier<>(null, delegate, new AtomicBoolean(false));
+    Preconditions.checkNotNull(delegate);
+    if (delegate instanceof MemoizingSupplier) {
+      return delegate;
+    }
+    return new MemoizingSupplier<>(delegate);
   }
+
   private static final class MemoizingSupplier<E> implements Supplier<E> {
+    /** Written before {@code initialized}, whose volatile write publishes it. */
     private E value;
+    private volatile boolean initialized;
     private Supplier<E> delegate;
-    private AtomicBoolean state;
 
-    private MemoizingSupplier(E value, Supplier<E> delegate, AtomicBoolean state) {
-      this.value = value;
+    private MemoizingSupplier(Supplier<E> delegate) {
       this.delegate = delegate;
-      this.state = state;
     }
 
     @Override
     public E get() {
-      if (state.compareAndSet(true, true)) {
-        synchronized (this) {
-          this.value = delegate.get();
-          return value;
-        }
+      if (this.initialized) {
+        return this.value;
       }
-      synchronized (this) {
-        return value;
+      return initialize();
+    }
+
+    private synchronized E initialize() {
+      if (!this.initialized) {
+        this.value = this.delegate.get();
+        this.initialized = true;
+        // The value is never computed again, the delegate can be collected.
+        this.delegate = null;
       }
+      return this.value;
     }
   }
 }
@@ -0,0 +1,39 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.util;
+
+/**
+ * Pool that maps equal names to one canonical String instance.
+ * <p>
+ * Names of attributes and types repeat a lot across structs. Keeping only one instance
+ * of every distinct name reduces the heap that is retained by large sets of structs.
+ * Implementations are created through {@link NamePools}.
+ *
+ * @see NamePools
+ * @since 1.0
+ */
+public interface NamePool {
+
+  /**
+   * Returns the canonical instance of the {@code name}.
+   *
+   * @param name Name whose canonical instance is returned.
+   * @return Instance that is equal to the {@code name}.
+   */
+  String intern(String name);
+
+  /**
+   * Returns the canonical instance of the chars between {@code start} and {@code end}.
+   * Implementations may look the chars up without creating a String first.
+   *
+   * @param source Sequence that contains the name.
+   * @param start Inclusive offset of the name.
+   * @param end Exclusive offset of the name.
+   * @return Instance that is equal to the chars between the offsets.
+   */
+  default String intern(CharSequence source, int start, int end) {
+    return intern(source.subSequence(start, end).toString());
+  }
+}
@@ -0,0 +1,146 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Factory of the NamePool implementations.
+ * <p>
+ * Concurrent pools reference their names weakly and can be shared by every thread of
+ * the process. Arenas are cheaper, but they are not thread safe and keep their names
+ * until the arena itself is dropped, they are meant to be used for one parse.
+ *
+ * @see NamePool
+ * @since 1.0
+ */
+public final class NamePools {
+  private NamePools() {}
+
+  private static final NamePool NO_INTERNING = name -> Preconditions.checkNotNull(name);
+
+  private static final NamePool SHARED = newConcurrentPool();
+
+  /**
+   * Returns a pool that returns every name as it is.
+   *
+   * @return Pool that doesn't intern.
+   */
+  public static NamePool noInterning() {
+    return NO_INTERNING;
+  }
+
+  /**
+   * Returns the concurrent pool that is shared by the whole process.
+   *
+   * @return Shared concurrent pool.
+   */
+  public static NamePool shared() {
+    return SHARED;
+  }
+
+  /**
+   * Creates a thread safe pool that references its names weakly. Names that are no
+   * longer used anywhere else are removed by the garbage collector.
+   *
+   * @return New concurrent pool.
+   */
+  public static NamePool newConcurrentPool() {
+    Interner<String> interner = Interners.newWeakInterner();
+    return name -> interner.intern(Preconditions.checkNotNull(name));
+  }
+
+  /**
+   * Creates a pool that is not thread safe and strongly references its names.
+   *
+   * @return New arena.
+   */
+  public static NamePool newArena() {
+    return new Arena();
+  }
+
+  /**
+   * Open addressing table of names. Chars of a sequence are looked up without creating
+   * a String, so that repeated names are never materialized.
+   */
+  private static final class Arena implements NamePool {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int size;
+
+    @Override
+    public String intern(String name) {
+      Preconditions.checkNotNull(name);
+      return intern(name, 0, name.length());
+    }
+
+    @Override
+    public String intern(CharSequence source, int start, int end) {
+      Preconditions.checkPositionIndexes(start, end, source.length());
+
+      int hash = hash(source, start, end);
+      int mask = this.names.length - 1;
+      int slot = mix(hash) & mask;
+      for (String name = this.names[slot]; name != null; name = this.names[slot]) {
+        if (name.hashCode() == hash && contentEquals(name, source, start, end)) {
+          return name;
+        }
+        slot = (slot + 1) & mask;
+      }
+      String name = source instanceof String && start == 0 && end == source.length()
+        ? (String) source
+        : source.subSequence(start, end).toString();
+      this.names[slot] = name;
+      if (++this.size > this.names.length >>> 1) {
+        grow();
+      }
+      return name;
+    }
+
+    private void grow() {
+      String[] previous = this.names;
+      this.names = new String[previous.length << 1];
+      int mask = this.names.length - 1;
+      for (String name : previous) {
+        if (name != null) {
+          int slot = mix(name.hashCode()) & mask;
+          while (this.names[slot] != null) {
+            slot = (slot + 1) & mask;
+          }
+          this.names[slot] = name;
+        }
+      }
+    }
+
+    /** Computes the hash like {@link String#hashCode()}, which is cached by Strings. */
+    private static int hash(CharSequence source, int start, int end) {
+      int hash = 0;
+      for (int index = start; index < end; index++) {
+        hash = 31 * hash + source.charAt(index);
+      }
+      return hash;
+    }
+
+    /** Spreads the bits of the hash, since similar names have similar hashes. */
+    private static int mix(int hash) {
+      return 0x1b873593 * Integer.rotateLeft(hash * 0xcc9e2d51, 15);
+    }
+
+    private static boolean contentEquals(String name, CharSequence source, int start, int end) {
+      if (name.length() != end - start) {
+        return false;
+      }
+      for (int index = 0; index < name.length(); index++) {
+        if (name.charAt(index) != source.charAt(start + index)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,29 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.util;
+
+import java.util.Optional;
+
+/** Checks that are shared by the {@code equals} methods of many classes. */
+public final class ObjectChecks {
+  private ObjectChecks() {}
+
+  /**
+   * Decides the equality of the objects if it follows from their identity alone.
+   *
+   * @param self Object whose {@code equals} method is called.
+   * @param other Object that is compared to {@code self}.
+   * @return Whether the objects are equal, or empty if their state has to be compared.
+   */
+  public static Optional<Boolean> equalsDefinitely(Object self, Object other) {
+    if (self == other) {
+      return Optional.of(true);
+    }
+    if (other == null) {
+      return Optional.of(false);
+    }
+    return Optional.empty();
+  }
+}
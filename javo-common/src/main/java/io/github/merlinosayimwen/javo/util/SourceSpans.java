@@ -0,0 +1,95 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.util;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Packs spans of a source into single long values.
+ * <p>
+ * The offset of a span is kept in the upper and its length in the lower 32 bits, so
+ * that spans can be stored without allocating an object per span. Elements that have
+ * not been parsed from a source carry {@link #NONE}. Offsets are converted into lines
+ * and columns by a {@link LineIndex} of the source.
+ *
+ * @see LineIndex
+ * @since 1.0
+ */
+public final class SourceSpans {
+  private SourceSpans() {}
+
+  /** Value of elements that don't originate from a source. */
+  public static final long NONE = -1L;
+
+  /**
+   * Packs the span that starts at the {@code offset} and has the {@code length}.
+   *
+   * @param offset Offset of the first char of the span.
+   * @param length Count of chars in the span.
+   * @return Packed span.
+   */
+  public static long pack(int offset, int length) {
+    Preconditions.checkArgument(offset >= 0, "Negative offset");
+    Preconditions.checkArgument(length >= 0, "Negative length");
+
+    return ((long) offset << 32) | length;
+  }
+
+  /**
+   * Tests whether the {@code span} is not {@link #NONE}.
+   *
+   * @param span Packed span that is tested.
+   * @return Whether the span is present.
+   */
+  public static boolean isPresent(long span) {
+    return span != NONE;
+  }
+
+  /**
+   * Gets the offset of the first char of the {@code span}.
+   *
+   * @param span Present packed span.
+   * @return Offset of the span.
+   */
+  public static int getOffset(long span) {
+    Preconditions.checkArgument(isPresent(span), "No span");
+    return (int) (span >>> 32);
+  }
+
+  /**
+   * Gets the count of chars in the {@code span}.
+   *
+   * @param span Present packed span.
+   * @return Length of the span.
+   */
+  public static int getLength(long span) {
+    Preconditions.checkArgument(isPresent(span), "No span");
+    return (int) span;
+  }
+
+  /**
+   * Gets the exclusive end offset of the {@code span}.
+   *
+   * @param span Present packed span.
+   * @return Offset behind the last char of the span.
+   */
+  public static int getEnd(long span) {
+    return getOffset(span) + getLength(span);
+  }
+
+  /**
+   * Moves the {@code span} by the {@code distance}. Absent spans are kept absent.
+   *
+   * @param span Packed span that is moved.
+   * @param distance Count of chars that the span is moved by, negative to move it back.
+   * @return Moved span.
+   */
+  public static long shift(long span, int distance) {
+    if (!isPresent(span)) {
+      return NONE;
+    }
+    return pack(getOffset(span) + distance, getLength(span));
+  }
+}
@@ -0,0 +1,113 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+public final class StructRegistryTests {
+
+  private static final Struct ADDRESS = Struct.create("Address", Arrays.asList(
+    StructAttribute.create("street", "String"),
+    StructAttribute.create("number", "int")));
+
+  private static final Struct PERSON = Struct.create("Person", Arrays.asList(
+    StructAttribute.create("name", "String"),
+    StructAttribute.create("addresses", "[Address]"),
+    StructAttribute.create("friends", "List<Person>")));
+
+  private static final Struct COMPANY = Struct.create("Company", Arrays.asList(
+    StructAttribute.create("employees", "<Person>"),
+    StructAttribute.create("address", "Address")));
+
+  @Test
+  public void testTypeNamesAreResolved() {
+    StructRegistry.Snapshot snapshot =
+      StructRegistry.create(Arrays.asList(COMPANY, PERSON, ADDRESS)).snapshot();
+
+    assertThat(snapshot.resolveKind("int"), is(StructRegistry.TypeKind.PRIMITIVE));
+    assertThat(snapshot.resolveKind("[long]"), is(StructRegistry.TypeKind.PRIMITIVE));
+    assertThat(snapshot.resolveKind("String"), is(StructRegistry.TypeKind.EXTERNAL));
+    assertThat(snapshot.resolveKind("Set<Company>"), is(StructRegistry.TypeKind.STRUCT));
+    assertThat(snapshot.resolveStruct("[Address]"), is(ADDRESS));
+    assertThat(snapshot.resolveStruct("<Person>"), is(PERSON));
+    assertThat(snapshot.resolveStruct(new StringBuilder("Company")), is(COMPANY));
+    assertThat(snapshot.resolveStruct("Addresses"), nullValue());
+  }
+
+  @Test
+  public void testDependencyGraph() {
+    StructRegistry.Snapshot snapshot =
+      StructRegistry.create(Arrays.asList(COMPANY, PERSON, ADDRESS)).snapshot();
+
+    assertThat(snapshot.getDependencies("Person"), is(ImmutableSet.of(ADDRESS, PERSON)));
+    assertThat(snapshot.getDependencies("Company"), is(ImmutableSet.of(PERSON, ADDRESS)));
+    assertThat(snapshot.getDependents("Address"), is(ImmutableSet.of(COMPANY, PERSON)));
+    assertThat(snapshot.getDependents("Unknown"), is(ImmutableSet.of()));
+    assertThat(snapshot.getStructsInDependencyOrder(), is(Arrays.asList(ADDRESS, PERSON, COMPANY)));
+  }
+
+  @Test
+  public void testUpdatesReplaceSnapshots() {
+    StructRegistry registry = StructRegistry.create(Arrays.asList(PERSON, ADDRESS));
+    StructRegistry.Snapshot before = registry.snapshot();
+    Struct renamedAddress = Struct.create("Address", Arrays.asList(
+      StructAttribute.create("line", "String")));
+
+    registry.registerAll(Arrays.asList(renamedAddress, COMPANY));
+    assertThat(registry.findStruct("Address"), is(renamedAddress));
+    assertThat(
+      registry.snapshot().getStructs(), is(Arrays.asList(PERSON, renamedAddress, COMPANY)));
+    assertThat(before.findStruct("Address"), is(ADDRESS));
+    assertThat(before.findStruct("Company"), nullValue());
+
+    assertThat(registry.remove("Person"), is(true));
+    assertThat(registry.remove("Person"), is(false));
+    assertThat(registry.snapshot().getDependents("Address"), is(ImmutableSet.of(COMPANY)));
+    assertThat(registry.snapshot().resolveKind("[Person]"), is(StructRegistry.TypeKind.EXTERNAL));
+  }
+
+  @Test
+  public void testReadersSeeCompleteSnapshots() throws Exception {
+    StructRegistry registry = StructRegistry.create();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> readers = new ArrayList<>();
+      for (int reader = 0; reader < 4; reader++) {
+        readers.add(executor.submit(() -> {
+          for (int round = 0; round < 10_000; round++) {
+            StructRegistry.Snapshot snapshot = registry.snapshot();
+            // Person and Address are always registered by the same update.
+            if (snapshot.findStruct("Person") != null) {
+              assertThat(snapshot.resolveStruct("[Address]") != null, is(true));
+            }
+          }
+        }));
+      }
+      for (int round = 0; round < 500; round++) {
+        registry.registerAll(Arrays.asList(PERSON, ADDRESS));
+        registry.removeAll(Arrays.asList("Person", "Address"));
+      }
+      for (Future<?> reader : readers) {
+        reader.get();
+      }
+    } finally {
+      executor.shutdownNow();
+      executor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+  }
+}
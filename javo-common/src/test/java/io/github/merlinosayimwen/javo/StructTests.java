@@ -0,0 +1,147 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import io.github.merlinosayimwen.javo.util.SourceSpans;
+import org.junit.Test;
+
+public final class StructTests {
+
+  @Test
+  public void testAttributesKeepDeclarationOrder() {
+    List<StructAttribute> attributes = Arrays.asList(
+      StructAttribute.create("zeta", "int"),
+      StructAttribute.create("alpha", "String"),
+      StructAttribute.create("mu", "long"));
+    Struct struct = Struct.create("Ordered", attributes);
+
+    assertThat(struct.attributeCount(), is(3));
+    assertThat(struct.getAttributes().collect(Collectors.toList()), is(attributes));
+    for (int index = 0; index < attributes.size(); index++) {
+      assertThat(struct.attributeAt(index), is(attributes.get(index)));
+    }
+  }
+
+  @Test
+  public void testAttributesAreFoundByName() {
+    for (int attributeCount : new int[] {0, 3, 100}) {
+      List<StructAttribute> attributes = new ArrayList<>();
+      for (int index = 0; index < attributeCount; index++) {
+        attributes.add(StructAttribute.create("attribute" + index, "int"));
+      }
+      attributes.add(StructAttribute.create("attribute0", "Duplicate"));
+      Struct struct = Struct.create("Lookup", attributes);
+
+      for (int index = 0; index < attributeCount; index++) {
+        assertThat(
+          struct.getAttribute("attribute" + index),
+          is(Optional.of(attributes.get(index))));
+      }
+      assertThat(
+        struct.getAttribute("attribute0").get().getTypeName(),
+        is(attributeCount == 0 ? "Duplicate" : "int"));
+      assertThat(struct.getAttribute("missing"), is(Optional.empty()));
+    }
+  }
+
+  @Test
+  public void testEqualityComparesModifiersAndAttributeOrder() {
+    StructAttribute id = StructAttribute.create("id", "long");
+    StructAttribute name = StructAttribute.create("name", "String");
+    Struct struct = Struct.create("Person", Arrays.asList(id, name));
+
+    assertThat(struct, is(Struct.create("Person", Arrays.asList(
+      StructAttribute.create("id", "long"), StructAttribute.create("name", "String")))));
+    assertThat(
+      struct.hashCode(),
+      is(Struct.create("Person", Arrays.asList(id, name)).hashCode()));
+    assertThat(struct.equals(Struct.create("Person", Arrays.asList(name, id))), is(false));
+    assertThat(
+      struct.equals(Struct.create(
+        "Person", Arrays.asList(id, name), Collections.singleton(Struct.Modifier.IMMUTABLE))),
+      is(false));
+    assertThat(
+      id.equals(StructAttribute.create(
+        "id", "long", Collections.singleton(StructAttribute.Modifier.IMMUTABLE))),
+      is(false));
+  }
+
+  @Test
+  public void testSlicedStructsEqualCreatedStructs() {
+    String source = "struct Person { id: long }";
+    Struct sliced = Struct.createSliced(
+      source,
+      SourceSpans.pack(7, 6),
+      Collections.singleton(StructAttribute.createSliced(
+        source,
+        SourceSpans.pack(16, 2),
+        SourceSpans.pack(20, 4),
+        Collections.emptySet(),
+        SourceSpans.NONE)),
+      Collections.emptySet(),
+      SourceSpans.pack(0, source.length()));
+    Struct created = Struct.create(
+      "Person", Collections.singleton(StructAttribute.create("id", "long")));
+
+    assertThat(sliced.hashCode(), is(created.hashCode()));
+    assertThat(sliced, is(created));
+    assertThat(created, is(sliced));
+  }
+
+  @Test
+  public void testDerivedStructsEqualCreatedStructs() {
+    // The counts cross the boundaries of the tail and of the first and second trie level.
+    for (int attributeCount : new int[] {0, 1, 32, 33, 64, 1056, 1100, 33_000}) {
+      List<StructAttribute> attributes = new ArrayList<>();
+      Struct.Builder builder = Struct.newBuilder().withName("Derived");
+      for (int index = 0; index < attributeCount; index++) {
+        StructAttribute attribute = StructAttribute.create("attribute" + index, "int");
+        attributes.add(attribute);
+        builder.addAttribute(attribute);
+      }
+      Struct prototype = builder.create();
+      assertThat(prototype, is(Struct.create("Derived", attributes)));
+      assertThat(prototype.hashCode(), is(Struct.create("Derived", attributes).hashCode()));
+
+      List<StructAttribute> changed = new ArrayList<>(attributes);
+      Struct.Builder derived = Struct.newBuilder(prototype);
+      for (int index = 0; index < attributeCount; index += 31) {
+        StructAttribute renamed = StructAttribute.create("renamed" + index, "int");
+        changed.set(index, renamed);
+        derived.setAttribute(prototype.indexOfAttribute("attribute" + index), renamed);
+      }
+      StructAttribute added = StructAttribute.create("added", "String");
+      changed.add(added);
+      derived.addAttribute(added).addModifier(Struct.Modifier.IMMUTABLE);
+
+      Struct expected = Struct.create(
+        "Derived", changed, Collections.singleton(Struct.Modifier.IMMUTABLE));
+      assertThat(derived.create(), is(expected));
+      assertThat(derived.create().hashCode(), is(expected.hashCode()));
+      assertThat(Struct.newBuilder(prototype).create(), is(prototype));
+
+      if (attributeCount != 0) {
+        changed.remove(0);
+        assertThat(derived.removeAttribute(0).create(), is(Struct.create(
+          "Derived", changed, Collections.singleton(Struct.Modifier.IMMUTABLE))));
+      }
+    }
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testAttributeIndexIsChecked() {
+    Struct.create("Empty").attributeAt(0);
+  }
+}
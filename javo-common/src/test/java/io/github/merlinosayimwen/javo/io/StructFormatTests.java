@@ -0,0 +1,124 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.io;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.github.merlinosayimwen.javo.Struct;
+import io.github.merlinosayimwen.javo.StructAttribute;
+import io.github.merlinosayimwen.javo.util.SourceSpans;
+import org.junit.Test;
+
+public final class StructFormatTests {
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    List<Struct> structs = Arrays.asList(
+      Struct.create(
+        "Person",
+        Arrays.asList(
+          StructAttribute.create(
+            "id", "long", Collections.singleton(StructAttribute.Modifier.IMMUTABLE)),
+          StructAttribute.create("name", "String"),
+          StructAttribute.create("friends", "<Person>")),
+        Collections.singleton(Struct.Modifier.IMMUTABLE)),
+      Struct.create("Empty"),
+      Struct.create("Gr\u00fc\u00dfe", Collections.singleton(
+        StructAttribute.create("name", "String"))));
+
+    List<Struct> read = StructReader.create(new ByteArrayInputStream(write(structs))).read();
+
+    assertThat(read.size(), is(structs.size()));
+    for (int index = 0; index < structs.size(); index++) {
+      Struct expected = structs.get(index);
+      Struct actual = read.get(index);
+      assertThat(actual.getName(), is(expected.getName()));
+      assertThat(
+        actual.hasModifier(Struct.Modifier.IMMUTABLE),
+        is(expected.hasModifier(Struct.Modifier.IMMUTABLE)));
+      assertThat(
+        actual.getAttributes().collect(Collectors.toSet()),
+        is(expected.getAttributes().collect(Collectors.toSet())));
+    }
+  }
+
+  @Test
+  public void testStringsAreWrittenOnce() throws IOException {
+    StructAttribute attribute = StructAttribute.create("value", "SomeVeryLongTypeName");
+    byte[] single = write(Collections.singletonList(
+      Struct.create("A", Collections.singleton(attribute))));
+    byte[] repeated = write(Arrays.asList(
+      Struct.create("A", Collections.singleton(attribute)),
+      Struct.create("A", Collections.singleton(attribute))));
+
+    // The second struct only adds its name index, modifiers, absent span and attribute
+    // count and two indices, modifiers and an absent span for its attribute.
+    assertThat(repeated.length - single.length, is(8));
+  }
+
+  @Test
+  public void testSourceSpansAreKept() throws IOException {
+    long attributeSpan = SourceSpans.pack(Integer.MAX_VALUE, 3);
+    Struct struct = Struct.create(
+      "Spanned",
+      Collections.singleton(StructAttribute.create(
+        "value", "int", Collections.emptySet(), attributeSpan)),
+      Collections.emptySet(),
+      SourceSpans.pack(12, 40));
+
+    Struct read = StructReader.create(
+      new ByteArrayInputStream(write(Collections.singletonList(struct)))).read().get(0);
+
+    assertThat(read.getSourceSpan(), is(struct.getSourceSpan()));
+    assertThat(read.getAttributes().findFirst().get().getSourceSpan(), is(attributeSpan));
+    assertThat(
+      StructReader.create(new ByteArrayInputStream(write(Collections.singletonList(
+        Struct.create("Plain"))))).read().get(0).getSourceSpan(),
+      is(SourceSpans.NONE));
+  }
+
+  @Test(expected = IOException.class)
+  public void testTruncatedBundleIsRejected() throws IOException {
+    byte[] bundle = write(Collections.singletonList(Struct.create("Truncated")));
+    StructReader.create(new ByteArrayInputStream(Arrays.copyOf(bundle, bundle.length - 1))).read();
+  }
+
+  @Test(expected = IOException.class)
+  public void testOtherVersionIsRejected() throws IOException {
+    byte[] bundle = write(Collections.singletonList(Struct.create("Future")));
+    // The version directly follows the four magic bytes.
+    bundle[4] = (byte) (StructFormat.VERSION + 1);
+    StructReader.create(new ByteArrayInputStream(bundle)).read();
+  }
+
+  @Test(expected = IOException.class)
+  public void testNegativeSpanOffsetIsRejected() throws IOException {
+    byte[] bundle = {
+      'j', 'a', 'v', 'o', 1,
+      // One string "A" and one struct named "A" without modifiers.
+      1, 1, 'A', 1, 0, 0,
+      // Span whose offset decodes to a negative int.
+      (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x0f, 0,
+      // No attributes.
+      0
+    };
+    StructReader.create(new ByteArrayInputStream(bundle)).read();
+  }
+
+  private static byte[] write(List<Struct> structs) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    StructWriter.create(output).write(structs);
+    return output.toByteArray();
+  }
+}
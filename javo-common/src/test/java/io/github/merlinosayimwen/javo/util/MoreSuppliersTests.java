@@ -0,0 +1,83 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+public final class MoreSuppliersTests {
+
+  private static final int THREAD_COUNT = 32;
+  private static final int ROUNDS = 200;
+  private static final int CALLS_PER_THREAD = 1_000;
+
+  @Test
+  public void testNullIsMemoized() {
+    AtomicInteger calls = new AtomicInteger();
+    Supplier<Object> supplier = MoreSuppliers.memoize(() -> {
+      calls.incrementAndGet();
+      return null;
+    });
+
+    assertThat(supplier.get(), nullValue());
+    assertThat(supplier.get(), nullValue());
+    assertThat(calls.get(), is(1));
+  }
+
+  @Test
+  public void testDelegatesAreCalledOnceUnderContention() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+    try {
+      for (int round = 0; round < ROUNDS; round++) {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<Object> objects = MoreSuppliers.memoize(() -> {
+          calls.incrementAndGet();
+          return new Object();
+        });
+        IntSupplier ints = IntSuppliers.memoize(calls::incrementAndGet);
+        LongSupplier longs = LongSuppliers.memoize(() -> calls.incrementAndGet() + Long.MAX_VALUE);
+
+        CyclicBarrier start = new CyclicBarrier(THREAD_COUNT);
+        List<Future<Object[]>> results = new ArrayList<>();
+        for (int thread = 0; thread < THREAD_COUNT; thread++) {
+          results.add(executor.submit(() -> {
+            start.await();
+            Object[] first = {objects.get(), ints.getAsInt(), longs.getAsLong()};
+            for (int call = 0; call < CALLS_PER_THREAD; call++) {
+              assertThat(objects.get() == first[0], is(true));
+              assertThat(ints.getAsInt(), is(first[1]));
+              assertThat(longs.getAsLong(), is(first[2]));
+            }
+            return first;
+          }));
+        }
+        Object[] expected = results.get(0).get();
+        for (Future<Object[]> result : results) {
+          Object[] values = result.get();
+          assertThat(values[0] == expected[0], is(true));
+          assertThat(values[1], is(expected[1]));
+          assertThat(values[2], is(expected[2]));
+        }
+        assertThat(calls.get(), is(3));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
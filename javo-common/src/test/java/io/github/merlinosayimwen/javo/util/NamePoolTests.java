@@ -0,0 +1,44 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.merlinosayimwen.javo.StructAttribute;
+import org.junit.Test;
+
+public final class NamePoolTests {
+
+  @Test
+  public void testArenaReturnsCanonicalInstances() {
+    NamePool arena = NamePools.newArena();
+    List<String> interned = new ArrayList<>();
+    for (int index = 0; index < 1000; index++) {
+      interned.add(arena.intern(new String("name" + index)));
+    }
+    for (int index = 0; index < 1000; index++) {
+      String source = "<name" + index + ">";
+      assertThat(arena.intern(source, 1, source.length() - 1), sameInstance(interned.get(index)));
+    }
+    assertThat(arena.intern(""), is(""));
+  }
+
+  @Test
+  public void testAttributesShareInternedNames() {
+    NamePool pool = NamePools.newConcurrentPool();
+    StructAttribute first = StructAttribute.create(
+      new String("id"), new String("long"), new ArrayList<>(), pool);
+    StructAttribute second = StructAttribute.create(
+      new String("id"), new String("long"), new ArrayList<>(), pool);
+
+    assertThat(first.getName(), sameInstance(second.getName()));
+    assertThat(first.getTypeName(), sameInstance(second.getTypeName()));
+  }
+}
@@ -0,0 +1,181 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.generator;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Result of generating the classes of multiple structs at once.
+ * <p>
+ * A failing struct does not abort the batch, the failure of its generation or of its sink
+ * is collected together with the index of the struct in the batch. Indices identify the
+ * structs even if a batch contains several structs of the same name. The generated and the
+ * failed structs are both ordered like the structs have been passed to the generator,
+ * regardless of the order in which they have been generated. Batches that are generated
+ * with a GenerationManifest also count the structs whose class was up to date and has
+ * been skipped.
+ *
+ * @see JavoGenerator#generateAll(Collection, GenerationProfile, GenerationSink)
+ * @since 1.0
+ */
+public final class BatchGenerationResult {
+
+  /** Names of the structs whose classes have been passed to the sink. */
+  private List<String> generated;
+
+  /** Count of the structs whose class was up to date according to the manifest. */
+  private int skippedCount;
+
+  /** Ordered map of the indices of the failed structs and their failure. */
+  private Map<Integer, Exception> failures;
+
+  private BatchGenerationResult(
+      List<String> generated, int skippedCount, Map<Integer, Exception> failures) {
+
+    this.generated = generated;
+    this.skippedCount = skippedCount;
+    this.failures = failures;
+  }
+
+  /**
+   * Gets the names of the structs whose classes have been passed to the sink, in the order
+   * of the structs.
+   *
+   * @return Ordered names of the generated structs.
+   */
+  public List<String> getGenerated() {
+    return this.generated;
+  }
+
+  /**
+   * Gets the count of structs whose class has been generated again and passed to the sink.
+   *
+   * @return Count of regenerated classes.
+   */
+  public int getRegeneratedCount() {
+    return this.generated.size();
+  }
+
+  /**
+   * Gets the count of structs whose class was up to date according to the manifest, and
+   * has therefore neither been generated nor passed to the sink.
+   *
+   * @return Count of skipped classes.
+   */
+  public int getSkippedCount() {
+    return this.skippedCount;
+  }
+
+  /**
+   * Gets the failure of every failed struct by the index of the struct in the batch, in
+   * the order of the structs.
+   *
+   * @return Ordered map of the indices of the failed structs and their failure.
+   */
+  public Map<Integer, Exception> getFailures() {
+    return this.failures;
+  }
+
+  /**
+   * Gets whether generating at least one class has failed.
+   *
+   * @return Whether there are failures.
+   */
+  public boolean hasFailures() {
+    return !this.failures.isEmpty();
+  }
+
+  /**
+   * Throws an IOException if generating at least one class has failed. The failures of
+   * the structs are added as suppressed exceptions in the order of the structs.
+   *
+   * @throws IOException Thrown if there are failures.
+   */
+  public void throwIfFailed() throws IOException {
+    if (!hasFailures()) {
+      return;
+    }
+    IOException failure = new IOException(String.format(
+        "Failed to generate %d of %d classes", this.failures.size(),
+        this.failures.size() + this.generated.size() + this.skippedCount));
+
+    this.failures.values().forEach(failure::addSuppressed);
+    throw failure;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("generated", this.generated)
+        .add("skipped", this.skippedCount)
+        .add("failures", this.failures)
+        .toString();
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.generated, this.skippedCount, this.failures);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) {
+      return true;
+    }
+    if (!(other instanceof BatchGenerationResult)) {
+      return false;
+    }
+    BatchGenerationResult otherResult = (BatchGenerationResult) other;
+    return this.generated.equals(otherResult.generated)
+        && this.skippedCount == otherResult.skippedCount
+        && this.failures.equals(otherResult.failures);
+  }
+
+  /**
+   * Factory method that creates a BatchGenerationResult. The order of the names and the
+   * iteration order of the failures are kept.
+   *
+   * @param generated Ordered names of the generated structs.
+   * @param failures Ordered map of the indices of the failed structs and their failure.
+   * @return New instance of the BatchGenerationResult.
+   */
+  public static BatchGenerationResult create(
+      Collection<String> generated, Map<Integer, ? extends Exception> failures) {
+
+    return create(generated, 0, failures);
+  }
+
+  /**
+   * Factory method that creates a BatchGenerationResult of a batch that has skipped the
+   * up to date classes. The order of the names and the iteration order of the failures are
+   * kept.
+   *
+   * @param generated Ordered names of the generated structs.
+   * @param skippedCount Count of structs whose class was up to date.
+   * @param failures Ordered map of the indices of the failed structs and their failure.
+   * @return New instance of the BatchGenerationResult.
+   */
+  public static BatchGenerationResult create(
+      Collection<String> generated,
+      int skippedCount,
+      Map<Integer, ? extends Exception> failures) {
+
+    Preconditions.checkNotNull(generated);
+    Preconditions.checkArgument(skippedCount >= 0, "Negative skipped count");
+    Preconditions.checkNotNull(failures);
+
+    return new BatchGenerationResult(
+        ImmutableList.copyOf(generated), skippedCount, ImmutableMap.copyOf(failures));
+  }
+}
@@ -0,0 +1,510 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.generator;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+import io.github.merlinosayimwen.java.parser.StructParseException;
+import io.github.merlinosayimwen.java.parser.StructParser;
+import io.github.merlinosayimwen.java.parser.StructParserFactory;
+import io.github.merlinosayimwen.javo.Struct;
+
+/**
+ * Regenerates the classes of a blueprint directory whenever its blueprints change.
+ * <p>
+ * The watcher subscribes to the directory through a WatchService. Events that follow
+ * each other within the debounce interval, like the writes of a single save, are handled
+ * in one cycle. A cycle only parses the changed files again and only generates the
+ * structs whose definition has changed, the classes of removed structs are deleted.
+ * Structs whose class is up to date according to the GenerationManifest of the output
+ * directory are skipped as well, a restarted watcher only generates what has changed
+ * since its previous run. Classes are written to a temporary file that is then moved
+ * over the previous class, readers never see a partially written class. Files that
+ * can't be parsed keep their previous classes until they are fixed.
+ * <p>
+ * A struct that is defined by more than one blueprint belongs to the blueprint that
+ * defined it first, the other definitions are reported as failures. Its class is only
+ * deleted once no blueprint defines the struct anymore.
+ * <p>
+ * Only blueprints directly inside of the directory are watched. Every class is written
+ * to a file that is named after its struct. Each cycle is reported to the listener as
+ * a WatchCycle, which contains its latency.
+ *
+ * @since 1.0
+ * @see WatchCycle
+ * @see GenerationManifest
+ * @see JavoGenerator
+ */
+public final class BlueprintWatcher implements Closeable {
+
+  private static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(10);
+  private static final String DEFAULT_FILE_SUFFIX = ".javo";
+  private static final String CLASS_FILE_SUFFIX = ".java";
+
+  private final Path blueprintDirectory;
+  private final Path outputDirectory;
+  private final StructParser parser;
+  private final JavoGenerator generator;
+  private final GenerationProfile profile;
+  private final long debounceNanos;
+  private final String fileSuffix;
+  private final Consumer<? super WatchCycle> listener;
+  private final GenerationManifest manifest;
+
+  /** Structs of every blueprint that has been handled, by name in declaration order. */
+  private final Map<Path, Map<String, Struct>> structsByFile;
+
+  /**
+   * Blueprints that define a struct by its name, in the order in which they have been
+   * handled. The first one owns the struct's class, the others are reported as failures.
+   */
+  private final Map<String, Set<Path>> definingFiles;
+
+  /** Structs whose classes have been written or reused, by name. */
+  private final Map<String, Struct> classes;
+
+  private volatile WatchService watchService;
+  private volatile boolean closed;
+
+  private BlueprintWatcher(Builder builder) {
+    this.blueprintDirectory = builder.blueprintDirectory;
+    this.outputDirectory = builder.outputDirectory;
+    this.parser = builder.parser;
+    this.generator = builder.generator;
+    this.profile = builder.profile;
+    this.debounceNanos = builder.debounce.toNanos();
+    this.fileSuffix = builder.fileSuffix;
+    this.listener = builder.listener;
+    this.manifest = builder.manifest;
+    this.structsByFile = new HashMap<>();
+    this.definingFiles = new HashMap<>();
+    this.classes = new HashMap<>();
+  }
+
+  /**
+   * Generates the classes of every blueprint in the directory, as a cycle that is not
+   * reported to the listener. Classes of blueprints that have been deleted since the
+   * last cycle are deleted.
+   *
+   * @return Report of the cycle.
+   * @throws IOException Thrown if the blueprint directory can't be listed.
+   */
+  public WatchCycle generateAll() throws IOException {
+    long start = System.nanoTime();
+    return runCycle(listBlueprints(), start);
+  }
+
+  /**
+   * Generates every blueprint once and then watches the directory until the watcher is
+   * closed or the thread is interrupted. The calling thread is blocked meanwhile.
+   *
+   * @throws IOException Thrown if the directory can't be watched or becomes inaccessible.
+   */
+  public void run() throws IOException {
+    Preconditions.checkState(this.watchService == null, "The watcher is already running");
+
+    try (WatchService service = this.blueprintDirectory.getFileSystem().newWatchService()) {
+      this.watchService = service;
+      if (this.closed) {
+        return;
+      }
+      this.blueprintDirectory.register(service, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+      this.listener.accept(generateAll());
+      while (!this.closed) {
+        WatchKey key = service.take();
+        long firstEvent = System.nanoTime();
+        Set<Path> changedFiles = new LinkedHashSet<>();
+        boolean overflow = collectChanges(key, changedFiles);
+        // Every event restarts the debounce interval, the cycle runs once it is quiet.
+        for (WatchKey next = service.poll(this.debounceNanos, TimeUnit.NANOSECONDS);
+            next != null;
+            next = service.poll(this.debounceNanos, TimeUnit.NANOSECONDS)) {
+
+          overflow |= collectChanges(next, changedFiles);
+        }
+        if (overflow) {
+          // Events have been lost, the whole directory is handled again.
+          changedFiles.addAll(listBlueprints());
+        }
+        if (!changedFiles.isEmpty()) {
+          this.listener.accept(runCycle(changedFiles, firstEvent));
+        }
+      }
+    } catch (ClosedWatchServiceException closing) {
+      // The watcher has been closed while waiting for events.
+    } catch (InterruptedException interruption) {
+      Thread.currentThread().interrupt();
+    } finally {
+      this.watchService = null;
+    }
+  }
+
+  /**
+   * Stops the watcher. A thread that is blocked in {@link #run()} returns.
+   */
+  @Override
+  public void close() throws IOException {
+    this.closed = true;
+    WatchService service = this.watchService;
+    if (service != null) {
+      service.close();
+    }
+  }
+
+  /**
+   * Adds the blueprints of the key's events to the {@code changedFiles} and resets the
+   * key.
+   *
+   * @return Whether events have been lost.
+   */
+  private boolean collectChanges(WatchKey key, Set<Path> changedFiles) throws IOException {
+    boolean overflow = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == OVERFLOW) {
+        overflow = true;
+        continue;
+      }
+      Path file = this.blueprintDirectory.resolve((Path) event.context());
+      if (isBlueprint(file)) {
+        changedFiles.add(file);
+      }
+    }
+    if (!key.reset()) {
+      throw new IOException("Blueprint directory is no longer accessible: "
+          + this.blueprintDirectory);
+    }
+    return overflow;
+  }
+
+  private boolean isBlueprint(Path file) {
+    return file.getFileName().toString().endsWith(this.fileSuffix);
+  }
+
+  /**
+   * Lists the blueprints of the directory in the order of their names, followed by
+   * those that have been handled before.
+   */
+  private Set<Path> listBlueprints() throws IOException {
+    Set<Path> files = new TreeSet<>();
+    try (DirectoryStream<Path> blueprints =
+        Files.newDirectoryStream(this.blueprintDirectory, this::isBlueprint)) {
+
+      blueprints.forEach(files::add);
+    }
+    Set<Path> orderedFiles = new LinkedHashSet<>(files);
+    orderedFiles.addAll(this.structsByFile.keySet());
+    return orderedFiles;
+  }
+
+  private WatchCycle runCycle(Collection<Path> files, long firstEvent) {
+    long processingStart = System.nanoTime();
+    List<String> generated = new ArrayList<>();
+    List<String> removed = new ArrayList<>();
+    Map<Path, Exception> failures = new LinkedHashMap<>();
+    int unchangedCount = 0;
+    int skippedCount = 0;
+
+    // The definitions of every changed file are updated first, so that a struct that
+    // moves from one file to another keeps its class.
+    Set<String> affectedNames = new LinkedHashSet<>();
+    for (Path file : files) {
+      Map<String, Struct> current;
+      try {
+        current = parseBlueprint(file);
+      } catch (IOException | StructParseException | RuntimeException parseFailure) {
+        failures.put(file, parseFailure);
+        continue;
+      }
+      Map<String, Struct> previous =
+          this.structsByFile.getOrDefault(file, Collections.emptyMap());
+      for (String name : previous.keySet()) {
+        if (!current.containsKey(name)) {
+          this.definingFiles.get(name).remove(file);
+        }
+      }
+      for (String name : current.keySet()) {
+        this.definingFiles.computeIfAbsent(name, key -> new LinkedHashSet<>()).add(file);
+      }
+      affectedNames.addAll(previous.keySet());
+      affectedNames.addAll(current.keySet());
+      if (current.isEmpty()) {
+        this.structsByFile.remove(file);
+      } else {
+        this.structsByFile.put(file, current);
+      }
+    }
+
+    for (String name : affectedNames) {
+      Set<Path> definingFiles = this.definingFiles.get(name);
+      if (definingFiles.isEmpty()) {
+        this.definingFiles.remove(name);
+        if (this.classes.remove(name) == null) {
+          continue;
+        }
+        try {
+          Files.deleteIfExists(classFile(name));
+          this.manifest.remove(name);
+          removed.add(name);
+        } catch (IOException deletionFailure) {
+          failures.put(classFile(name), deletionFailure);
+        }
+        continue;
+      }
+      Path owner = definingFiles.iterator().next();
+      for (Path duplicate : definingFiles) {
+        if (!duplicate.equals(owner) && files.contains(duplicate)) {
+          failures.put(duplicate, StructParseException.createWithMessage(
+              String.format("Struct %s is already defined in %s", name, owner)));
+        }
+      }
+      Struct struct = this.structsByFile.get(owner).get(name);
+      if (struct.equals(this.classes.get(name))) {
+        unchangedCount++;
+        continue;
+      }
+      String fingerprint = GenerationManifest.fingerprint(struct, this.profile, this.generator);
+      if (this.manifest.isUpToDate(name, fingerprint) && Files.isRegularFile(classFile(name))) {
+        this.classes.put(name, struct);
+        skippedCount++;
+        continue;
+      }
+      try {
+        writeClass(struct);
+        this.manifest.record(name, fingerprint);
+        this.classes.put(name, struct);
+        generated.add(name);
+      } catch (IOException | RuntimeException generationFailure) {
+        // Structs without a class are generated again by the next cycle of their file.
+        failures.put(owner, generationFailure);
+        this.classes.remove(name);
+        this.manifest.remove(name);
+      }
+    }
+
+    try {
+      this.manifest.store();
+    } catch (IOException manifestFailure) {
+      failures.put(this.outputDirectory.resolve(GenerationManifest.FILE_NAME), manifestFailure);
+    }
+
+    long end = System.nanoTime();
+    return WatchCycle.create(
+        files,
+        generated,
+        removed,
+        unchangedCount,
+        skippedCount,
+        failures,
+        Duration.ofNanos(end - firstEvent),
+        Duration.ofNanos(end - processingStart));
+  }
+
+  /**
+   * Parses the structs of the blueprint {@code file}. Files that are missing or empty,
+   * like those that are deleted or just created by an editor, declare no structs. This
+   * includes files that are deleted while they are parsed.
+   */
+  private Map<String, Struct> parseBlueprint(Path file)
+      throws IOException, StructParseException {
+
+    if (!Files.isRegularFile(file)) {
+      return Collections.emptyMap();
+    }
+    try {
+      return Files.size(file) == 0
+          ? Collections.emptyMap()
+          : indexByName(this.parser.parse(file));
+    } catch (IOException | StructParseException | RuntimeException parseFailure) {
+      if (Files.notExists(file)) {
+        return Collections.emptyMap();
+      }
+      throw parseFailure;
+    }
+  }
+
+  private static Map<String, Struct> indexByName(Collection<Struct> structs) {
+    Map<String, Struct> structsByName = new LinkedHashMap<>();
+    for (Struct struct : structs) {
+      structsByName.put(struct.getName(), struct);
+    }
+    return structsByName;
+  }
+
+  /** Writes the class to a temporary file, which then atomically replaces the class. */
+  private void writeClass(Struct struct) throws IOException {
+    Path target = classFile(struct.getName());
+    Path temporary = Files.createTempFile(this.outputDirectory, struct.getName(), ".tmp");
+    try {
+      try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+        this.generator.generate(struct, this.profile, writer);
+      }
+      try {
+        Files.move(
+            temporary,
+            target,
+            StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException unsupported) {
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  private Path classFile(String structName) {
+    return this.outputDirectory.resolve(structName + CLASS_FILE_SUFFIX);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("blueprintDirectory", this.blueprintDirectory)
+        .add("outputDirectory", this.outputDirectory)
+        .add("profile", this.profile)
+        .toString();
+  }
+
+  /** Builder that allows easy creation of a BlueprintWatcher. */
+  public static final class Builder {
+
+    private Path blueprintDirectory;
+    private Path outputDirectory;
+    private StructParser parser;
+    private JavoGenerator generator;
+    private GenerationProfile profile;
+    private Duration debounce;
+    private String fileSuffix;
+    private Consumer<? super WatchCycle> listener;
+    private GenerationManifest manifest;
+
+    private Builder(Path blueprintDirectory, Path outputDirectory) {
+      this.blueprintDirectory = blueprintDirectory;
+      this.outputDirectory = outputDirectory;
+      this.debounce = DEFAULT_DEBOUNCE;
+      this.fileSuffix = DEFAULT_FILE_SUFFIX;
+      this.listener = cycle -> {};
+    }
+
+    public Builder withParser(StructParser parser) {
+      this.parser = Preconditions.checkNotNull(parser);
+      return this;
+    }
+
+    public Builder withGenerator(JavoGenerator generator) {
+      this.generator = Preconditions.checkNotNull(generator);
+      return this;
+    }
+
+    public Builder withProfile(GenerationProfile profile) {
+      this.profile = Preconditions.checkNotNull(profile);
+      return this;
+    }
+
+    /**
+     * Sets the interval without events after which a cycle runs.
+     *
+     * @param debounce Interval that has to pass without events.
+     * @return This builder.
+     */
+    public Builder withDebounce(Duration debounce) {
+      Preconditions.checkNotNull(debounce);
+      Preconditions.checkArgument(!debounce.isNegative(), "Negative debounce");
+      this.debounce = debounce;
+      return this;
+    }
+
+    /**
+     * Sets the suffix of the names of blueprint files, which is {@code .javo} by default.
+     *
+     * @param fileSuffix Suffix of blueprint file names.
+     * @return This builder.
+     */
+    public Builder withFileSuffix(String fileSuffix) {
+      this.fileSuffix = Preconditions.checkNotNull(fileSuffix);
+      return this;
+    }
+
+    /**
+     * Sets the listener that is called with the report of every cycle, on the thread
+     * that runs the watcher.
+     *
+     * @param listener Listener of watch cycles.
+     * @return This builder.
+     */
+    public Builder withCycleListener(Consumer<? super WatchCycle> listener) {
+      this.listener = Preconditions.checkNotNull(listener);
+      return this;
+    }
+
+    public BlueprintWatcher create() throws IOException {
+      Preconditions.checkArgument(
+          Files.isDirectory(this.blueprintDirectory),
+          "Blueprint directory %s does not exist",
+          this.blueprintDirectory);
+
+      Files.createDirectories(this.outputDirectory);
+      if (this.parser == null) {
+        this.parser = StructParserFactory.create().getInstance();
+      }
+      if (this.generator == null) {
+        this.generator = JavoGeneratorFactory.create().getInstance();
+      }
+      if (this.profile == null) {
+        this.profile = GenerationProfile.create();
+      }
+      this.manifest = GenerationManifest.load(this.outputDirectory);
+      return new BlueprintWatcher(this);
+    }
+  }
+
+  /**
+   * Creates a builder of a watcher that generates the blueprints of the
+   * {@code blueprintDirectory} into the {@code outputDirectory}.
+   *
+   * @param blueprintDirectory Directory whose blueprints are watched.
+   * @param outputDirectory Directory that the classes are written to.
+   * @return Builder with the default parser, generator and profile.
+   */
+  public static Builder newBuilder(Path blueprintDirectory, Path outputDirectory) {
+    Preconditions.checkNotNull(blueprintDirectory);
+    Preconditions.checkNotNull(outputDirectory);
+
+    return new Builder(blueprintDirectory, outputDirectory);
+  }
+}
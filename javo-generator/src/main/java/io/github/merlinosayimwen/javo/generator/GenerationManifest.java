@@ -0,0 +1,271 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.generator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import io.github.merlinosayimwen.javo.Struct;
+import io.github.merlinosayimwen.javo.StructAttribute;
+
+/**
+ * Fingerprints of the classes that have been generated into an output directory.
+ * <p>
+ * The fingerprint of a class covers everything its code depends on: the struct, the
+ * profile, the generator implementation and the {@link #GENERATOR_VERSION}. A class whose
+ * fingerprint equals the recorded one doesn't have to be generated again, its file is
+ * reused. The manifest is kept as a text file in the output directory, which lists one
+ * struct name and fingerprint per line. Manifests of another format version, and those
+ * that can't be read, are treated as empty so that every class is generated again.
+ * <p>
+ * Manifests are not thread safe.
+ *
+ * @see BlueprintWatcher
+ * @see JavoGenerator#generateAll(java.util.Collection, GenerationProfile,
+ *     java.util.concurrent.Executor, int, GenerationManifest, GenerationSink)
+ * @since 1.0
+ */
+public final class GenerationManifest {
+
+  /**
+   * Version of the generated code, which is part of every fingerprint. It has to be
+   * increased whenever the generator changes the code it generates for the same input.
+   */
+  public static final String GENERATOR_VERSION = "1.0";
+
+  /** Name of the manifest file in the output directory. */
+  public static final String FILE_NAME = ".javo-manifest";
+
+  private static final String HEADER = "# javo-manifest 1";
+  private static final HashFunction FINGERPRINT_FUNCTION = Hashing.murmur3_128();
+
+  private final Path file;
+
+  /** Fingerprints by struct name, sorted so that the stored file is stable. */
+  private final Map<String, String> fingerprints;
+
+  private boolean modified;
+
+  private GenerationManifest(Path file, Map<String, String> fingerprints) {
+    this.file = file;
+    this.fingerprints = fingerprints;
+  }
+
+  /**
+   * Gets the recorded fingerprint of the named struct's class.
+   *
+   * @param structName Name of the struct.
+   * @return Optional fingerprint, which is empty if the class has not been recorded.
+   */
+  public Optional<String> getFingerprint(String structName) {
+    Preconditions.checkNotNull(structName);
+    return Optional.ofNullable(this.fingerprints.get(structName));
+  }
+
+  /**
+   * Gets whether the named struct's class has been recorded with the {@code fingerprint}.
+   *
+   * @param structName Name of the struct.
+   * @param fingerprint Fingerprint of the class that would be generated.
+   * @return Whether the recorded class is up to date.
+   */
+  public boolean isUpToDate(String structName, String fingerprint) {
+    Preconditions.checkNotNull(fingerprint);
+    return fingerprint.equals(this.fingerprints.get(structName));
+  }
+
+  /**
+   * Records the fingerprint of the named struct's generated class.
+   *
+   * @param structName Name of the struct.
+   * @param fingerprint Fingerprint of the generated class.
+   */
+  public void record(String structName, String fingerprint) {
+    Preconditions.checkNotNull(structName);
+    Preconditions.checkNotNull(fingerprint);
+    this.modified |= !fingerprint.equals(this.fingerprints.put(structName, fingerprint));
+  }
+
+  /**
+   * Removes the named struct's class from the manifest.
+   *
+   * @param structName Name of the struct.
+   */
+  public void remove(String structName) {
+    this.modified |= this.fingerprints.remove(structName) != null;
+  }
+
+  /**
+   * Gets the count of recorded classes.
+   *
+   * @return Count of classes.
+   */
+  public int size() {
+    return this.fingerprints.size();
+  }
+
+  /**
+   * Writes the manifest to its file, if it has been modified since it has been loaded or
+   * stored. The file is written to a temporary file that then replaces the manifest.
+   *
+   * @throws IOException Thrown if the manifest can't be written.
+   */
+  public void store() throws IOException {
+    if (!this.modified) {
+      return;
+    }
+    Path temporary = Files.createTempFile(this.file.getParent(), FILE_NAME, ".tmp");
+    try {
+      try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+        writer.write(HEADER);
+        writer.newLine();
+        for (Map.Entry<String, String> entry : this.fingerprints.entrySet()) {
+          writer.write(entry.getKey());
+          writer.write(' ');
+          writer.write(entry.getValue());
+          writer.newLine();
+        }
+      }
+      try {
+        Files.move(
+            temporary,
+            this.file,
+            StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException unsupported) {
+        Files.move(temporary, this.file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+    this.modified = false;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("file", this.file)
+        .add("size", this.fingerprints.size())
+        .toString();
+  }
+
+  /**
+   * Computes the fingerprint of the class that the {@code generator} generates from the
+   * {@code struct} with the {@code profile}. Fingerprints are equal across runs and
+   * machines, but not across versions of the generated code.
+   *
+   * @param struct The blueprint that the class is generated from.
+   * @param profile Preferences and settings given for the generation.
+   * @param generator Generator that generates the class.
+   * @return Hexadecimal fingerprint of the class.
+   */
+  public static String fingerprint(
+      Struct struct, GenerationProfile profile, JavoGenerator generator) {
+
+    Preconditions.checkNotNull(struct);
+    Preconditions.checkNotNull(profile);
+    Preconditions.checkNotNull(generator);
+
+    Hasher hasher = FINGERPRINT_FUNCTION.newHasher();
+    putString(hasher, GENERATOR_VERSION);
+    putString(hasher, generator.getClass().getName());
+    putString(hasher, struct.getName());
+    for (Struct.Modifier modifier : Struct.Modifier.values()) {
+      hasher.putBoolean(struct.hasModifier(modifier));
+    }
+    hasher.putInt(struct.attributeCount());
+    for (int index = 0; index < struct.attributeCount(); index++) {
+      StructAttribute attribute = struct.attributeAt(index);
+      putString(hasher, attribute.getName());
+      putString(hasher, attribute.getTypeName());
+      for (StructAttribute.Modifier modifier : StructAttribute.Modifier.values()) {
+        hasher.putBoolean(attribute.hasModifier(modifier));
+      }
+    }
+    // Flags and properties are hashed by name in a fixed order, regardless of the order
+    // in which the profile holds them.
+    for (GenerationFlag flag : GenerationFlag.values()) {
+      if (profile.hasFlag(flag)) {
+        putString(hasher, flag.name());
+      }
+    }
+    hasher.putInt(-1);
+    for (Map.Entry<String, String> property : new TreeMap<>(profile.getProperties()).entrySet()) {
+      putString(hasher, property.getKey());
+      putString(hasher, property.getValue());
+    }
+    return hasher.hash().toString();
+  }
+
+  /** Puts the string with its length, so that adjacent strings can't be confused. */
+  private static void putString(Hasher hasher, String value) {
+    hasher.putInt(value.length()).putString(value, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Loads the manifest of the {@code outputDirectory}. The manifest is empty if the
+   * directory doesn't have one yet.
+   *
+   * @param outputDirectory Directory that the classes are generated into.
+   * @return Manifest of the directory.
+   * @throws IOException Thrown if the manifest exists but can't be read.
+   */
+  public static GenerationManifest load(Path outputDirectory) throws IOException {
+    Preconditions.checkNotNull(outputDirectory);
+
+    Path file = outputDirectory.resolve(FILE_NAME);
+    Map<String, String> fingerprints = new TreeMap<>();
+    List<String> lines;
+    try {
+      lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+    } catch (NoSuchFileException missing) {
+      return new GenerationManifest(file, fingerprints);
+    }
+    if (lines.isEmpty() || !lines.get(0).equals(HEADER)) {
+      return createInvalidated(file, fingerprints);
+    }
+    for (String line : lines.subList(1, lines.size())) {
+      int separator = line.indexOf(' ');
+      if (separator <= 0 || !isFingerprint(line.substring(separator + 1))) {
+        fingerprints.clear();
+        return createInvalidated(file, fingerprints);
+      }
+      fingerprints.put(line.substring(0, separator), line.substring(separator + 1));
+    }
+    return new GenerationManifest(file, fingerprints);
+  }
+
+  /** Creates an empty manifest that replaces the unreadable file once it is stored. */
+  private static GenerationManifest createInvalidated(Path file, Map<String, String> empty) {
+    GenerationManifest manifest = new GenerationManifest(file, empty);
+    manifest.modified = true;
+    return manifest;
+  }
+
+  private static boolean isFingerprint(String value) {
+    try {
+      return HashCode.fromString(value).bits() == FINGERPRINT_FUNCTION.bits();
+    } catch (IllegalArgumentException malformed) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,90 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.generator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import com.google.common.base.Preconditions;
+
+import io.github.merlinosayimwen.javo.Struct;
+
+/**
+ * Receiver of the classes that are generated by a batch.
+ * <p>
+ * The sink is called from a single thread at a time, in the order of the batch's structs,
+ * and therefore doesn't need to be thread safe.
+ *
+ * @see JavoGenerator#generateAll(java.util.Collection, GenerationProfile, GenerationSink)
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface GenerationSink {
+
+  /**
+   * Accepts the generated class of the {@code struct}.
+   *
+   * @param struct Struct that the class has been generated from.
+   * @param source Generated source code of the class.
+   * @throws IOException Thrown if the class can't be stored.
+   */
+  void accept(Struct struct, String source) throws IOException;
+
+  /**
+   * Gets whether the sink still holds a class of the {@code struct} that it has accepted
+   * before. Batches with a GenerationManifest only skip up to date classes that the sink
+   * still holds, so that deleted classes are generated again. The default implementation
+   * holds no classes, every class is then passed to the sink.
+   *
+   * @param struct Struct whose class is looked up.
+   * @return Whether the sink holds a class of the struct.
+   */
+  default boolean holdsClass(Struct struct) {
+    return false;
+  }
+
+  /**
+   * Creates a sink that writes every class into the {@code directory}, to a UTF-8 encoded
+   * file that is named after its struct. Existing files are replaced. The sink holds the
+   * classes whose file exists.
+   *
+   * @param directory Existing directory that the classes are written to.
+   * @return Sink writing to the directory.
+   */
+  static GenerationSink toDirectory(Path directory) {
+    Preconditions.checkNotNull(directory);
+    return new GenerationSink() {
+      @Override
+      public void accept(Struct struct, String source) throws IOException {
+        Files.write(classFile(struct), source.getBytes(StandardCharsets.UTF_8));
+      }
+
+      @Override
+      public boolean holdsClass(Struct struct) {
+        return Files.isRegularFile(classFile(struct));
+      }
+
+      private Path classFile(Struct struct) {
+        return directory.resolve(struct.getName() + ".java");
+      }
+    };
+  }
+
+  /**
+   * Creates a sink that puts every class into the {@code classes}, keyed by the name of its
+   * struct. An ordered map keeps the order of the batch. The sink holds no classes, so
+   * that a batch with a GenerationManifest puts every class into the map.
+   *
+   * @param classes Map that the classes are put into.
+   * @return Sink putting into the map.
+   */
+  static GenerationSink toMap(Map<String, String> classes) {
+    Preconditions.checkNotNull(classes);
+    return (struct, source) -> classes.put(struct.getName(), source);
+  }
+}
@@ -4,6 +4,10 @@
 
 package io.github.merlinosayimwen.javo.generator;
 
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+import java.util.concurrent.Executor;
 
 import io.github.merlinosayimwen.javo.Struct;
 
@@ -33,4 +37,93 @@ public interface JavoGenerator {
    * @return File generated from the model.
    */
   String generate(Struct struct, GenerationProfile profile);
+
+  /**
+   * Generates a valid Java Source Code from the {@code blueprint} given and appends it to the
+   * {@code output} while it is generated. The source is never held in memory as a whole.
+   *
+   * @param struct The blueprint used to generate the file.
+   * @param profile Preferences and settings given for the generation.
+   * @param output Output that the generated file is appended to.
+   * @throws IOException Thrown if the output fails.
+   */
+  void generate(Struct struct, GenerationProfile profile, Appendable output) throws IOException;
+
+  /**
+   * Generates a valid Java Source Code from the {@code blueprint} given and writes it to the
+   * {@code channel} as UTF-8. The source is encoded into a small buffer of fixed size, which is
+   * written to the channel whenever it is full. The channel is not closed.
+   *
+   * @param struct The blueprint used to generate the file.
+   * @param profile Preferences and settings given for the generation.
+   * @param channel Channel that the generated file is written to.
+   * @throws IOException Thrown if writing to the channel fails.
+   */
+  void generate(Struct struct, GenerationProfile profile, WritableByteChannel channel)
+      throws IOException;
+
+  /**
+   * Generates the classes of all {@code structs} in parallel, using the common ForkJoinPool
+   * and as many concurrent generations as the pool has threads.
+   *
+   * @param structs The blueprints used to generate the files.
+   * @param profile Preferences and settings given for the generation.
+   * @param sink Sink that the generated files are passed to.
+   * @return Result with the generated structs and the failures.
+   * @see #generateAll(Collection, GenerationProfile, Executor, int, GenerationSink)
+   */
+  BatchGenerationResult generateAll(
+      Collection<Struct> structs, GenerationProfile profile, GenerationSink sink);
+
+  /**
+   * Generates the classes of all {@code structs} in parallel, using the {@code executor}.
+   * <p>
+   * At most {@code parallelism} classes are generated at once, so that neither the executor
+   * is flooded with tasks nor more than that many generated files are held in memory. The
+   * files are passed to the {@code sink} on the caller's thread, in the order of the
+   * {@code structs}, while the next classes are generated. Failures of single structs, both
+   * of their generation and of the sink, don't abort the batch. The caller's thread blocks
+   * until every class has been passed to the sink.
+   *
+   * @param structs The blueprints used to generate the files.
+   * @param profile Preferences and settings given for the generation.
+   * @param executor Executor that is running the generation tasks.
+   * @param parallelism Maximum count of classes that are generated at once.
+   * @param sink Sink that the generated files are passed to.
+   * @return Result with the generated structs and the failures.
+   */
+  BatchGenerationResult generateAll(
+      Collection<Struct> structs,
+      GenerationProfile profile,
+      Executor executor,
+      int parallelism,
+      GenerationSink sink);
+
+  /**
+   * Generates the classes of the {@code structs} whose class is not up to date according
+   * to the {@code manifest}, in parallel, using the {@code executor}.
+   * <p>
+   * Every struct whose fingerprint equals the one recorded in the manifest, and whose class
+   * the {@code sink} still holds, is skipped and neither generated nor passed to the sink. The fingerprints of the classes that
+   * have been passed to the sink are recorded, the failed classes are removed from the
+   * manifest. The manifest has to belong to the output of the sink and is not stored, the
+   * caller stores it after the batch. Otherwise the batch is generated like by
+   * {@link #generateAll(Collection, GenerationProfile, Executor, int, GenerationSink)}.
+   *
+   * @param structs The blueprints used to generate the files.
+   * @param profile Preferences and settings given for the generation.
+   * @param executor Executor that is running the generation tasks.
+   * @param parallelism Maximum count of classes that are generated at once.
+   * @param manifest Manifest of the classes that the sink already holds.
+   * @param sink Sink that the generated files are passed to.
+   * @return Result with the generated structs, the count of skipped structs and the failures.
+   * @see GenerationManifest#load(java.nio.file.Path)
+   */
+  BatchGenerationResult generateAll(
+      Collection<Struct> structs,
+      GenerationProfile profile,
+      Executor executor,
+      int parallelism,
+      GenerationManifest manifest,
+      GenerationSink sink);
 }
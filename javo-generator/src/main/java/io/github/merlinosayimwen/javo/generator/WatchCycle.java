@@ -0,0 +1,201 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.generator;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Report of one cycle of a BlueprintWatcher.
+ * <p>
+ * The latency of a cycle is measured from the first file event of the cycle until every
+ * class of the cycle has been written, it includes the debounce interval. The processing
+ * time only covers the parsing and generation itself.
+ *
+ * @since 1.0
+ * @see BlueprintWatcher
+ */
+public final class WatchCycle {
+
+  /** Blueprint files that have been changed, created or deleted. */
+  private List<Path> changedFiles;
+
+  /** Names of the structs whose classes have been generated. */
+  private List<String> generated;
+
+  /** Names of the structs whose classes have been deleted. */
+  private List<String> removed;
+
+  /** Count of structs in the changed files whose definition is unchanged. */
+  private int unchangedCount;
+
+  /** Count of changed structs whose class is up to date according to the manifest. */
+  private int skippedCount;
+
+  /** Failures of the files that couldn't be parsed or whose classes couldn't be written. */
+  private Map<Path, Exception> failures;
+
+  private Duration latency;
+
+  private Duration processingTime;
+
+  private WatchCycle(
+      List<Path> changedFiles,
+      List<String> generated,
+      List<String> removed,
+      int unchangedCount,
+      int skippedCount,
+      Map<Path, Exception> failures,
+      Duration latency,
+      Duration processingTime) {
+
+    this.changedFiles = changedFiles;
+    this.generated = generated;
+    this.removed = removed;
+    this.unchangedCount = unchangedCount;
+    this.skippedCount = skippedCount;
+    this.failures = failures;
+    this.latency = latency;
+    this.processingTime = processingTime;
+  }
+
+  /**
+   * Gets the blueprint files that have been handled by the cycle.
+   *
+   * @return Files that have been changed, created or deleted.
+   */
+  public List<Path> getChangedFiles() {
+    return this.changedFiles;
+  }
+
+  /**
+   * Gets the names of the structs whose classes have been generated by the cycle.
+   *
+   * @return Names of the added or changed structs.
+   */
+  public List<String> getGenerated() {
+    return this.generated;
+  }
+
+  /**
+   * Gets the names of the structs whose classes have been deleted by the cycle.
+   *
+   * @return Names of the structs that no longer exist.
+   */
+  public List<String> getRemoved() {
+    return this.removed;
+  }
+
+  /**
+   * Gets the count of structs that have been parsed again but whose definition did not
+   * change, their classes have not been generated.
+   *
+   * @return Count of unchanged structs.
+   */
+  public int getUnchangedCount() {
+    return this.unchangedCount;
+  }
+
+  /**
+   * Gets the count of structs that are new or changed since the last cycle, but whose
+   * class has not been generated since the GenerationManifest of the output directory
+   * proves it up to date. After a restart of the watcher, these are the structs whose
+   * class has been generated by a previous run.
+   *
+   * @return Count of structs whose existing class has been reused.
+   */
+  public int getSkippedCount() {
+    return this.skippedCount;
+  }
+
+  /**
+   * Gets the failures of the cycle by the file that caused them. Classes of files that
+   * can't be parsed are kept until the file is fixed.
+   *
+   * @return Map of failures by blueprint file.
+   */
+  public Map<Path, Exception> getFailures() {
+    return this.failures;
+  }
+
+  /**
+   * Gets the time from the first file event of the cycle until its classes have been
+   * written.
+   *
+   * @return Latency of the cycle.
+   */
+  public Duration getLatency() {
+    return this.latency;
+  }
+
+  /**
+   * Gets the time that has been spent on parsing, generating and writing.
+   *
+   * @return Processing time of the cycle.
+   */
+  public Duration getProcessingTime() {
+    return this.processingTime;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("changedFiles", this.changedFiles.size())
+        .add("generated", this.generated.size())
+        .add("removed", this.removed.size())
+        .add("unchanged", this.unchangedCount)
+        .add("skipped", this.skippedCount)
+        .add("failures", this.failures.size())
+        .add("latency", this.latency)
+        .add("processingTime", this.processingTime)
+        .toString();
+  }
+
+  /**
+   * Creates a report of a watch cycle.
+   *
+   * @param changedFiles Blueprint files that have been handled by the cycle.
+   * @param generated Names of the structs whose classes have been generated.
+   * @param removed Names of the structs whose classes have been deleted.
+   * @param unchangedCount Count of structs whose definition is unchanged.
+   * @param skippedCount Count of structs whose existing class has been reused.
+   * @param failures Failures by the file that caused them.
+   * @param latency Time from the first file event until the classes have been written.
+   * @param processingTime Time that has been spent on parsing, generating and writing.
+   * @return Report of the cycle.
+   */
+  public static WatchCycle create(
+      Iterable<Path> changedFiles,
+      Iterable<String> generated,
+      Iterable<String> removed,
+      int unchangedCount,
+      int skippedCount,
+      Map<Path, Exception> failures,
+      Duration latency,
+      Duration processingTime) {
+
+    Preconditions.checkArgument(unchangedCount >= 0, "Negative unchanged count");
+    Preconditions.checkArgument(skippedCount >= 0, "Negative skipped count");
+    Preconditions.checkNotNull(latency);
+    Preconditions.checkNotNull(processingTime);
+
+    return new WatchCycle(
+        ImmutableList.copyOf(changedFiles),
+        ImmutableList.copyOf(generated),
+        ImmutableList.copyOf(removed),
+        unchangedCount,
+        skippedCount,
+        ImmutableMap.copyOf(failures),
+        latency,
+        processingTime);
+  }
+}
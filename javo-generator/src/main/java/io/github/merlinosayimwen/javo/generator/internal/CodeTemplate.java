@@ -0,0 +1,186 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.generator.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Pattern of generated code, that is compiled once into literal segments and the slots
+ * between them.
+ *
+ * <p>Patterns use the syntax of {@link java.text.MessageFormat} without format types: {@code {0}}
+ * is the slot of the first argument, text in single quotes is literal and two single quotes
+ * are one quote. Unlike {@code MessageFormat.format}, rendering neither parses the pattern again
+ * nor allocates formatters, arguments are written as their {@code String.valueOf}.
+ *
+ * <p>Templates are immutable and meant to be kept in constants.
+ *
+ * @since 1.0
+ */
+public final class CodeTemplate {
+
+  /** Literal segments, one before every slot and one after the last slot. */
+  private final String[] literals;
+
+  /** Index of the argument of every slot. */
+  private final int[] slots;
+
+  /** Count of arguments that the template has to be rendered with. */
+  private final int argumentCount;
+
+  /** Combined length of the literals, which sizes the formatted strings. */
+  private final int literalLength;
+
+  private CodeTemplate(final String[] literals, final int[] slots) {
+    this.literals = literals;
+    this.slots = slots;
+    int argumentCount = 0;
+    for (final int slot : slots) {
+      argumentCount = Math.max(argumentCount, slot + 1);
+    }
+    this.argumentCount = argumentCount;
+    int literalLength = 0;
+    for (final String literal : literals) {
+      literalLength += literal.length();
+    }
+    this.literalLength = literalLength;
+  }
+
+  /**
+   * Formats the template with one argument.
+   *
+   * @param argument Argument of the slots with index zero.
+   * @return Formatted code.
+   */
+  public String format(final Object argument) {
+    return this.format(argument, null, 1);
+  }
+
+  /**
+   * Formats the template with two arguments.
+   *
+   * @param first Argument of the slots with index zero.
+   * @param second Argument of the slots with index one.
+   * @return Formatted code.
+   */
+  public String format(final Object first, final Object second) {
+    return this.format(first, second, 2);
+  }
+
+  private String format(final Object first, final Object second, final int argumentCount) {
+    this.checkArgumentCount(argumentCount);
+    final String firstValue = String.valueOf(first);
+    final String secondValue = argumentCount > 1 ? String.valueOf(second) : "";
+    final StringBuilder builder =
+        new StringBuilder(this.literalLength + firstValue.length() + secondValue.length());
+    builder.append(this.literals[0]);
+    for (int slot = 0; slot < this.slots.length; slot++) {
+      builder.append(this.slots[slot] == 0 ? firstValue : secondValue);
+      builder.append(this.literals[slot + 1]);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Renders the template with one argument straight into the {@code buffer}.
+   *
+   * @param buffer Buffer that the code is written to.
+   * @param argument Argument of the slots with index zero.
+   */
+  public void render(final GenerationContextBuffer buffer, final Object argument) {
+    this.render(buffer, argument, null, 1);
+  }
+
+  /**
+   * Renders the template with two arguments straight into the {@code buffer}.
+   *
+   * @param buffer Buffer that the code is written to.
+   * @param first Argument of the slots with index zero.
+   * @param second Argument of the slots with index one.
+   */
+  public void render(
+      final GenerationContextBuffer buffer, final Object first, final Object second) {
+
+    this.render(buffer, first, second, 2);
+  }
+
+  private void render(
+      final GenerationContextBuffer buffer,
+      final Object first,
+      final Object second,
+      final int argumentCount) {
+
+    Preconditions.checkNotNull(buffer);
+    this.checkArgumentCount(argumentCount);
+    writeLiteral(buffer, this.literals[0]);
+    for (int slot = 0; slot < this.slots.length; slot++) {
+      buffer.write(String.valueOf(this.slots[slot] == 0 ? first : second));
+      writeLiteral(buffer, this.literals[slot + 1]);
+    }
+  }
+
+  private static void writeLiteral(final GenerationContextBuffer buffer, final String literal) {
+    if (!literal.isEmpty()) {
+      buffer.write(literal);
+    }
+  }
+
+  private void checkArgumentCount(final int argumentCount) {
+    Preconditions.checkArgument(
+        argumentCount == this.argumentCount,
+        "Template needs %s arguments, got %s",
+        this.argumentCount,
+        argumentCount);
+  }
+
+  /**
+   * Compiles the {@code pattern} into a template.
+   *
+   * @param pattern Pattern with up to two argument slots.
+   * @return Compiled template.
+   * @throws IllegalArgumentException Thrown if the pattern is malformed.
+   */
+  public static CodeTemplate compile(final String pattern) {
+    Preconditions.checkNotNull(pattern);
+
+    final List<String> literals = new ArrayList<>();
+    final List<Integer> slots = new ArrayList<>();
+    final StringBuilder literal = new StringBuilder();
+    boolean quoted = false;
+    for (int index = 0; index < pattern.length(); index++) {
+      final char character = pattern.charAt(index);
+      if (character == '\'') {
+        if (index + 1 < pattern.length() && pattern.charAt(index + 1) == '\'') {
+          literal.append('\'');
+          index++;
+        } else {
+          quoted = !quoted;
+        }
+      } else if (quoted || character != '{') {
+        literal.append(character);
+      } else {
+        final int end = pattern.indexOf('}', index);
+        Preconditions.checkArgument(end > index + 1, "Malformed slot at %s", index);
+        final int slot = Integer.parseInt(pattern.substring(index + 1, end));
+        Preconditions.checkArgument(slot == 0 || slot == 1, "Unsupported slot %s", slot);
+        literals.add(literal.toString());
+        literal.setLength(0);
+        slots.add(slot);
+        index = end;
+      }
+    }
+    Preconditions.checkArgument(!quoted, "Unclosed quote in %s", pattern);
+    literals.add(literal.toString());
+
+    final int[] slotArray = new int[slots.size()];
+    for (int slot = 0; slot < slotArray.length; slot++) {
+      slotArray[slot] = slots.get(slot);
+    }
+    return new CodeTemplate(literals.toArray(new String[0]), slotArray);
+  }
+}
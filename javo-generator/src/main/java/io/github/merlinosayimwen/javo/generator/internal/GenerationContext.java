@@ -11,9 +11,15 @@ import com.google.common.base.Preconditions;
 
 import io.github.merlinosayimwen.javo.generator.GenerationProfile;
 import io.github.merlinosayimwen.javo.util.MutableInt;
-import io.github.merlinosayimwen.javo.util.ObservableInt;
-import io.github.merlinosayimwen.javo.util.Observers;
-
+import io.github.merlinosayimwen.javo.util.ObjectChecks;
+
+/**
+ * State of the generation of one class, that is passed to every step.
+ *
+ * <p>The context tracks the depth of the written code. Changing the depth looks up the prefix of
+ * new lines in the indentation table of the profile and hands it to the buffer, indenting lines
+ * takes constant time and never allocates. Contexts are used by one thread and not synchronized.
+ */
 public final class GenerationContext {
 
   public static final String PROPERTY_NEW_LINE_PREFIX = "new_line_prefix";
@@ -21,37 +27,29 @@ public final class GenerationContext {
   private final GenerationProfile profile;
   private final GenerationContextBuffer buffer;
 
-  private final ObservableInt depth;
+  private final Indentation indentation;
+  private final Depth depth;
 
-  private GenerationContext(final GenerationProfile profile) {
-    this(profile, (short) 0);
+  private GenerationContext(
+      final GenerationProfile profile, final GenerationContextBuffer buffer) {
+    this(profile, buffer, (short) 0);
   }
 
-  private GenerationContext(final GenerationProfile profile, final short baseDepth) {
-    this.profile = profile;
-    this.buffer = GenerationContextBuffer.create();
-    this.depth = ObservableInt.from(baseDepth);
-  }
+  private GenerationContext(
+      final GenerationProfile profile,
+      final GenerationContextBuffer buffer,
+      final short baseDepth) {
 
-  private void deployObserver() {
-    this.depth.addObserver(Observers.fromRunnable(this::updateNewLinePrefix));
+    this.profile = profile;
+    this.buffer = buffer;
+    this.indentation = Indentation.forProfile(profile);
+    this.depth = new Depth(baseDepth);
   }
 
   public String finish() {
     return this.buffer.toString();
   }
 
-  private void updateNewLinePrefix() {
-    final StringBuilder prefixBuilder = new StringBuilder();
-    for (int iteration = 0; iteration < this.depth.getValue(); iteration++) {
-      prefixBuilder.append(
-          this.profile.getProperty(GenerationContext.PROPERTY_NEW_LINE_PREFIX).orElse("  "));
-    }
-
-    this.buffer.setNewLinePrefix(prefixBuilder.toString());
-  }
-
-  // Just publish the mutable int to provide a smaller interface.
   public MutableInt getDepth() {
     return this.depth;
   }
@@ -75,7 +73,7 @@ public final class GenerationContext {
 
   @Override
   public int hashCode() {
-    return Objects.hash(this.profile, this.buffer, this.depth);
+    return Objects.hash(this.profile, this.buffer, this.depth.value);
   }
 
   @Override
@@ -92,14 +90,71 @@ public final class GenerationContext {
     final GenerationContext otherContext = (GenerationContext) other;
     return this.profile.equals(otherContext.profile)
         && this.buffer.equals(otherContext.buffer)
-        && this.depth.equals(otherContext.depth);
+        && this.depth.value == otherContext.depth.value;
   }
 
   public static GenerationContext create(final GenerationProfile profile) {
     Preconditions.checkNotNull(profile);
-    final GenerationContext context = new GenerationContext(profile);
-    context.deployObserver(); // This escape is prevented.
 
-    return context;
+    return create(profile, GenerationContextBuffer.create());
+  }
+
+  /**
+   * Creates a context whose buffer appends the generated code to the {@code output}, while
+   * it is written by the steps.
+   *
+   * @param profile Profile of the generation.
+   * @param output Output that receives the generated code.
+   * @return Context that writes through to the output.
+   */
+  public static GenerationContext create(
+      final GenerationProfile profile, final Appendable output) {
+
+    Preconditions.checkNotNull(profile);
+    Preconditions.checkNotNull(output);
+
+    return create(profile, GenerationContextBuffer.create(output));
+  }
+
+  private static GenerationContext create(
+      final GenerationProfile profile, final GenerationContextBuffer buffer) {
+
+    return new GenerationContext(profile, buffer);
+  }
+
+  /** Plain depth counter that updates the buffer's prefix of new lines. */
+  private final class Depth implements MutableInt {
+    private int value;
+
+    private Depth(final int value) {
+      this.setValue(value);
+    }
+
+    @Override
+    public int getValue() {
+      return this.value;
+    }
+
+    @Override
+    public void setValue(final int value) {
+      this.value = value;
+      GenerationContext.this.buffer.setNewLinePrefix(
+          GenerationContext.this.indentation.prefix(value));
+    }
+
+    @Override
+    public void incrementBy(final int value) {
+      this.setValue(this.value + value);
+    }
+
+    @Override
+    public void decrementBy(final int value) {
+      this.setValue(this.value - value);
+    }
+
+    @Override
+    public String toString() {
+      return String.valueOf(this.value);
+    }
   }
 }
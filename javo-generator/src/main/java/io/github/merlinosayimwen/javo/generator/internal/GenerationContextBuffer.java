@@ -7,25 +7,39 @@ package io.github.merlinosayimwen.javo.generator.internal;
 import static com.google.common.base.Strings.nullToEmpty;
 import static java.util.Objects.isNull;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Objects;
 import javax.annotation.Nullable;
 
+import com.google.common.base.Preconditions;
+
+import io.github.merlinosayimwen.javo.util.ObjectChecks;
+
+/**
+ * Buffer that generation steps write the generated code to.
+ *
+ * <p>Text is appended to the buffer's output as soon as it is written. Buffers that are created
+ * without an output collect the text in memory. Buffers with an output don't keep any text, how
+ * much of it is held in memory is decided by the output. Failures of the output are thrown as
+ * {@link UncheckedIOException}, since steps can't throw checked exceptions.
+ */
 public class GenerationContextBuffer {
 
   public static final String NULL_VALUE = "NULL";
 
-  private final StringBuilder delegate;
+  private final Appendable delegate;
   private String newLinePrefix;
 
   private GenerationContextBuffer() {
     this(new StringBuilder());
   }
 
-  private GenerationContextBuffer(final StringBuilder delegate) {
+  private GenerationContextBuffer(final Appendable delegate) {
     this(delegate, "");
   }
 
-  private GenerationContextBuffer(final StringBuilder delegate, final String newLinePrefix) {
+  private GenerationContextBuffer(final Appendable delegate, final String newLinePrefix) {
     this.delegate = delegate;
     this.newLinePrefix = newLinePrefix;
   }
@@ -45,7 +59,11 @@ public class GenerationContextBuffer {
       return;
     }
 
-    this.delegate.append(sequence);
+    try {
+      this.delegate.append(sequence);
+    } catch (IOException failure) {
+      throw new UncheckedIOException(failure);
+    }
   }
 
   private void writeNull() {
@@ -53,8 +71,12 @@ public class GenerationContextBuffer {
   }
 
   public void writeLine() {
-    this.delegate.append('\n');
-    this.delegate.append(nullToEmpty(this.newLinePrefix));
+    try {
+      this.delegate.append('\n');
+      this.delegate.append(nullToEmpty(this.newLinePrefix));
+    } catch (IOException failure) {
+      throw new UncheckedIOException(failure);
+    }
   }
 
   public void writeLine(final Object object) {
@@ -81,6 +103,11 @@ public class GenerationContextBuffer {
     this.newLinePrefix = newLinePrefix;
   }
 
+  /**
+   * Returns the written text if the buffer collects it in memory.
+   *
+   * @return Text that has been written or the string representation of the output.
+   */
   @Override
   public String toString() {
     return this.delegate.toString();
@@ -116,4 +143,16 @@ public class GenerationContextBuffer {
 
     return new GenerationContextBuffer(new StringBuilder(), nullToEmpty(newLinePrefix));
   }
+
+  /**
+   * Creates a buffer that appends the written text to the {@code output}.
+   *
+   * @param output Output that receives the text.
+   * @return Buffer that writes through to the output.
+   */
+  public static GenerationContextBuffer create(final Appendable output) {
+    Preconditions.checkNotNull(output);
+
+    return new GenerationContextBuffer(output);
+  }
 }
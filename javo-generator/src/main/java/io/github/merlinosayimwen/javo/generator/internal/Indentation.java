@@ -0,0 +1,71 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.generator.internal;
+
+import com.google.common.base.Strings;
+
+import io.github.merlinosayimwen.javo.generator.GenerationProfile;
+
+/**
+ * Table of the prefixes of new lines by depth.
+ *
+ * <p>The prefixes are computed once for the unit of indentation of a profile, looking up the
+ * prefix of a depth neither loops nor allocates. Only depths beyond the table, which generated
+ * classes don't reach, build their prefix when they are looked up.
+ *
+ * @see GenerationContext#PROPERTY_NEW_LINE_PREFIX
+ * @since 1.0
+ */
+final class Indentation {
+
+  private static final String DEFAULT_UNIT = "  ";
+  private static final int TABLE_SIZE = 16;
+
+  /**
+   * Most recently used indentation. Nearly every generation uses the same unit, it is reused
+   * instead of computing the table again. Racing threads may compute equal tables.
+   */
+  private static volatile Indentation lastUsed = new Indentation(DEFAULT_UNIT);
+
+  private final String unit;
+  private final String[] prefixes;
+
+  private Indentation(final String unit) {
+    this.unit = unit;
+    this.prefixes = new String[TABLE_SIZE];
+    this.prefixes[0] = "";
+    for (int depth = 1; depth < TABLE_SIZE; depth++) {
+      this.prefixes[depth] = this.prefixes[depth - 1] + unit;
+    }
+  }
+
+  /**
+   * Returns the prefix of lines at the {@code depth}.
+   *
+   * @param depth Depth of the lines, negative depths have no prefix.
+   * @return Prefix of new lines.
+   */
+  String prefix(final int depth) {
+    if (depth <= 0) {
+      return "";
+    }
+    if (depth < TABLE_SIZE) {
+      return this.prefixes[depth];
+    }
+    return Strings.repeat(this.unit, depth);
+  }
+
+  static Indentation forProfile(final GenerationProfile profile) {
+    final String unit =
+        profile.getProperty(GenerationContext.PROPERTY_NEW_LINE_PREFIX).orElse(DEFAULT_UNIT);
+    final Indentation cached = Indentation.lastUsed;
+    if (cached.unit.equals(unit)) {
+      return cached;
+    }
+    final Indentation created = new Indentation(unit);
+    Indentation.lastUsed = created;
+    return created;
+  }
+}
@@ -5,17 +5,37 @@
 package io.github.merlinosayimwen.javo.generator.internal;
 
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.stream.Collectors;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import javax.annotation.Nullable;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 
 import io.github.merlinosayimwen.javo.Struct;
 import io.github.merlinosayimwen.javo.generator.internal.method.ConstructorGenerator;
 import io.github.merlinosayimwen.javo.generator.internal.method.GetterGenerator;
 import io.github.merlinosayimwen.javo.generator.internal.method.SetterGenerator;
+import io.github.merlinosayimwen.javo.generator.BatchGenerationResult;
+import io.github.merlinosayimwen.javo.generator.GenerationManifest;
 import io.github.merlinosayimwen.javo.generator.GenerationProfile;
+import io.github.merlinosayimwen.javo.generator.GenerationSink;
 import io.github.merlinosayimwen.javo.generator.JavoGenerator;
 import io.github.merlinosayimwen.javo.generator.internal.model.ClassModel;
 import io.github.merlinosayimwen.javo.generator.internal.model.FieldModel;
@@ -33,15 +53,177 @@ final class InternalPojoGenerator implements JavoGenerator {
     Preconditions.checkNotNull(profile);
 
     final GenerationContext context = GenerationContext.create(profile);
-    final ClassModel parentModel = ClassModel.create(model.getName(), this.fillSteps(model));
+    this.writeClass(model, context);
+    return context.finish();
+  }
+
+  @Override
+  public void generate(
+      final Struct model, final GenerationProfile profile, final Appendable output)
+      throws IOException {
+
+    Preconditions.checkNotNull(model);
+    Preconditions.checkNotNull(profile);
+    Preconditions.checkNotNull(output);
+
+    try {
+      this.writeClass(model, GenerationContext.create(profile, output));
+    } catch (UncheckedIOException failure) {
+      throw failure.getCause();
+    }
+  }
+
+  @Override
+  public void generate(
+      final Struct model, final GenerationProfile profile, final WritableByteChannel channel)
+      throws IOException {
+
+    Preconditions.checkNotNull(channel);
+
+    // The writer encodes into a buffer of fixed size and writes it to the channel when it is
+    // full. The stream repeats the write until the channel has accepted the whole buffer.
+    // It is flushed but not closed, closing it would close the channel.
+    final Writer writer =
+        new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8);
+    this.generate(model, profile, writer);
+    writer.flush();
+  }
+
+  @Override
+  public BatchGenerationResult generateAll(
+      final Collection<Struct> structs,
+      final GenerationProfile profile,
+      final GenerationSink sink) {
+
+    return this.generateAll(
+        structs, profile, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism(), sink);
+  }
+
+  @Override
+  public BatchGenerationResult generateAll(
+      final Collection<Struct> structs,
+      final GenerationProfile profile,
+      final Executor executor,
+      final int parallelism,
+      final GenerationSink sink) {
 
+    return this.generateBatch(structs, profile, executor, parallelism, null, sink);
+  }
+
+  @Override
+  public BatchGenerationResult generateAll(
+      final Collection<Struct> structs,
+      final GenerationProfile profile,
+      final Executor executor,
+      final int parallelism,
+      final GenerationManifest manifest,
+      final GenerationSink sink) {
+
+    Preconditions.checkNotNull(manifest);
+    return this.generateBatch(structs, profile, executor, parallelism, manifest, sink);
+  }
+
+  private BatchGenerationResult generateBatch(
+      final Collection<Struct> structs,
+      final GenerationProfile profile,
+      final Executor executor,
+      final int parallelism,
+      @Nullable final GenerationManifest manifest,
+      final GenerationSink sink) {
+
+    Preconditions.checkNotNull(profile);
+    Preconditions.checkNotNull(executor);
+    Preconditions.checkArgument(parallelism > 0, "Parallelism must be positive");
+    Preconditions.checkNotNull(sink);
+
+    final List<Struct> models = ImmutableList.copyOf(structs);
+    // Indices of the structs that are generated, and the fingerprints of their classes if
+    // there is a manifest. Classes are only skipped if the sink still holds them. The
+    // manifest and the sink are only used on the caller's thread.
+    final List<Integer> pending = new ArrayList<>(models.size());
+    final String[] fingerprints = new String[models.size()];
+    for (int index = 0; index < models.size(); index++) {
+      if (manifest != null) {
+        final Struct model = models.get(index);
+        fingerprints[index] = GenerationManifest.fingerprint(model, profile, this);
+        if (manifest.isUpToDate(model.getName(), fingerprints[index])
+            && sink.holdsClass(model)) {
+          continue;
+        }
+      }
+      pending.add(index);
+    }
+    final List<String> generated = new ArrayList<>(pending.size());
+    final Map<Integer, Exception> failures = new LinkedHashMap<>();
+    // Window of the tasks in flight, ordered like the structs. A task is only submitted once
+    // the oldest task has completed, which bounds both the concurrency and the held sources.
+    final Deque<CompletableFuture<String>> window = new ArrayDeque<>(parallelism);
+    int submitted = 0;
+    for (; submitted < pending.size() && submitted < parallelism; submitted++) {
+      window.add(this.generateAsync(models.get(pending.get(submitted)), profile, executor));
+    }
+    for (final int index : pending) {
+      final Struct model = models.get(index);
+      final CompletableFuture<String> task = window.remove();
+      final String source;
+      try {
+        source = task.join();
+      } catch (CompletionException failure) {
+        failures.put(index, unwrapFailure(failure));
+        forget(manifest, model);
+        continue;
+      } finally {
+        if (submitted < pending.size()) {
+          window.add(
+              this.generateAsync(models.get(pending.get(submitted++)), profile, executor));
+        }
+      }
+      try {
+        sink.accept(model, source);
+        generated.add(model.getName());
+        if (manifest != null) {
+          manifest.record(model.getName(), fingerprints[index]);
+        }
+      } catch (IOException | RuntimeException failure) {
+        failures.put(index, failure);
+        forget(manifest, model);
+      }
+    }
+    return BatchGenerationResult.create(
+        generated, models.size() - pending.size(), failures);
+  }
+
+  /** Removes a failed class from the manifest, so that it is generated by the next batch. */
+  private static void forget(@Nullable final GenerationManifest manifest, final Struct model) {
+    if (manifest != null) {
+      manifest.remove(model.getName());
+    }
+  }
+
+  private CompletableFuture<String> generateAsync(
+      final Struct model, final GenerationProfile profile, final Executor executor) {
+
+    return CompletableFuture.supplyAsync(() -> this.generate(model, profile), executor);
+  }
+
+  private static Exception unwrapFailure(final CompletionException failure) {
+    final Throwable cause = failure.getCause();
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    return cause instanceof Exception ? (Exception) cause : failure;
+  }
+
+  private void writeClass(final Struct model, final GenerationContext context) {
+    final ClassModel parentModel = ClassModel.create(model.getName(), this.fillSteps(model));
     parentModel.writeToContext(context);
-    return context.finish();
   }
 
   private Collection<GenerationStep> fillSteps(final Struct model) {
-    final Collection<FieldModel> fields =
-        model.getAttributes().map(FieldModel::fromStructAttribute).collect(Collectors.toList());
+    final List<FieldModel> fields = new ArrayList<>(model.attributeCount());
+    for (int index = 0; index < model.attributeCount(); index++) {
+      fields.add(FieldModel.fromStructAttribute(model.attributeAt(index)));
+    }
 
     final Collection<GenerationStep> steps = new ArrayList<>(fields);
     steps.add(new LineBreakGenerationStep());
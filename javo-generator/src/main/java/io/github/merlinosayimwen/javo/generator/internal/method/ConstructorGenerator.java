@@ -9,19 +9,20 @@ import java.util.Collection;
 
 import com.google.common.base.Preconditions;
 
+import io.github.merlinosayimwen.javo.generator.internal.CodeTemplate;
 import io.github.merlinosayimwen.javo.generator.internal.GenerationContext;
 import io.github.merlinosayimwen.javo.generator.internal.model.AccessModifier;
 import io.github.merlinosayimwen.javo.generator.internal.model.MethodModel;
 import io.github.merlinosayimwen.javo.generator.internal.model.VariableModel;
 import io.github.merlinosayimwen.javo.generator.internal.type.ObjectReferenceType;
 
-import static java.text.MessageFormat.format;
-
 public final class ConstructorGenerator implements MethodGenerator {
 
   private static final MethodModel.Builder TEMPLATE_METHOD =
       MethodModel.newBuilder().withAccessModifier(AccessModifier.PUBLIC);
 
+  private static final CodeTemplate STATEMENT = CodeTemplate.compile("this.{0} = {1};");
+
   private final String typeName;
   private final Collection<VariableModel> attributes;
 
@@ -48,7 +49,7 @@ public final class ConstructorGenerator implements MethodGenerator {
 
   private String formatterFunction(final VariableModel attribute) {
     final String copyStatement = attribute.getType().copyStatement(attribute.getName());
-    return format("this.{0} = {1};", attribute.getName(), copyStatement);
+    return ConstructorGenerator.STATEMENT.format(attribute.getName(), copyStatement);
   }
 
   public static ConstructorGenerator create(
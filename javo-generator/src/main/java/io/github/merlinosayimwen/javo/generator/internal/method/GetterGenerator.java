@@ -6,6 +6,7 @@ package io.github.merlinosayimwen.javo.generator.internal.method;
 
 import com.google.common.base.Preconditions;
 
+import io.github.merlinosayimwen.javo.generator.internal.CodeTemplate;
 import io.github.merlinosayimwen.javo.generator.internal.GenerationContext;
 import io.github.merlinosayimwen.javo.generator.internal.model.AccessModifier;
 import io.github.merlinosayimwen.javo.generator.internal.model.MethodModel;
@@ -13,12 +14,12 @@ import io.github.merlinosayimwen.javo.generator.internal.model.VariableModel;
 import io.github.merlinosayimwen.javo.util.naming.NamingConvention;
 import io.github.merlinosayimwen.javo.util.naming.UpperCamelCaseNamingConvention;
 
-import static java.text.MessageFormat.format;
-
 public class GetterGenerator implements MethodGenerator {
 
-  private static final NamingConvention NAMING_CONVENTION = new UpperCamelCaseNamingConvention();
+  private static final NamingConvention NAMING_CONVENTION = UpperCamelCaseNamingConvention.create();
   private static final MethodModel.Builder TEMPLATE_MODEL = MethodModel.newBuilder();
+  private static final CodeTemplate METHOD_NAME = CodeTemplate.compile("get{0}");
+  private static final CodeTemplate STATEMENT = CodeTemplate.compile("return this.{0};");
 
   private final VariableModel attribute;
 
@@ -29,7 +30,8 @@ public class GetterGenerator implements MethodGenerator {
   @Override
   public MethodModel generate() {
     final String methodName =
-        format("get{0}", GetterGenerator.NAMING_CONVENTION.apply(this.attribute.getName()));
+        GetterGenerator.METHOD_NAME.format(
+            GetterGenerator.NAMING_CONVENTION.apply(this.attribute.getName()));
 
     return GetterGenerator.TEMPLATE_MODEL
         .copy()
@@ -43,7 +45,7 @@ public class GetterGenerator implements MethodGenerator {
   private void writeToContext(final GenerationContext context) {
     final String copyStatement = this.attribute.getType().copyStatement(this.attribute.getName());
 
-    context.getBuffer().write(format("return this.{0};", copyStatement));
+    GetterGenerator.STATEMENT.render(context.getBuffer(), copyStatement);
   }
 
   public static GetterGenerator create(final VariableModel attribute) {
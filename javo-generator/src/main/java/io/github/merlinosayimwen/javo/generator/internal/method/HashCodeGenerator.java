@@ -11,14 +11,13 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 
+import io.github.merlinosayimwen.javo.generator.internal.CodeTemplate;
 import io.github.merlinosayimwen.javo.generator.internal.GenerationContext;
 import io.github.merlinosayimwen.javo.generator.internal.model.AccessModifier;
 import io.github.merlinosayimwen.javo.generator.internal.model.MethodModel;
 import io.github.merlinosayimwen.javo.generator.internal.model.VariableModel;
 import io.github.merlinosayimwen.javo.generator.internal.type.ObjectReferenceType;
 
-import static java.text.MessageFormat.format;
-
 public final class HashCodeGenerator implements MethodGenerator {
 
   private static final MethodModel.Builder TEMPLATE_METHOD =
@@ -28,6 +27,9 @@ public final class HashCodeGenerator implements MethodGenerator {
           .withReturnType(ObjectReferenceType.createConcrete("int"))
           .withMethodName("hashCode");
 
+  private static final CodeTemplate STATEMENT =
+      CodeTemplate.compile("return Objects.hash({0});");
+
   private final Collection<VariableModel> attributes;
 
   private HashCodeGenerator(final Collection<? extends VariableModel> attributes) {
@@ -54,8 +56,7 @@ public final class HashCodeGenerator implements MethodGenerator {
     final Collection<String> arguments =
         attributes.stream().map(this::mapAttribute).collect(Collectors.toList());
 
-    final String line = format("return Objects.hash({0});", Joiner.on(", ").join(arguments));
-    context.getBuffer().write(line);
+    HashCodeGenerator.STATEMENT.render(context.getBuffer(), Joiner.on(", ").join(arguments));
   }
 
   private String mapAttribute(final VariableModel attribute) {
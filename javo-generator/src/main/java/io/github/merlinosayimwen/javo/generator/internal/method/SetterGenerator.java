@@ -6,6 +6,7 @@ package io.github.merlinosayimwen.javo.generator.internal.method;
 
 import com.google.common.base.Preconditions;
 
+import io.github.merlinosayimwen.javo.generator.internal.CodeTemplate;
 import io.github.merlinosayimwen.javo.generator.internal.GenerationContext;
 import io.github.merlinosayimwen.javo.generator.internal.model.AccessModifier;
 import io.github.merlinosayimwen.javo.generator.internal.model.MethodModel;
@@ -13,11 +14,11 @@ import io.github.merlinosayimwen.javo.generator.internal.model.VariableModel;
 import io.github.merlinosayimwen.javo.util.naming.NamingConvention;
 import io.github.merlinosayimwen.javo.util.naming.UpperCamelCaseNamingConvention;
 
-import static java.text.MessageFormat.format;
-
 public final class SetterGenerator implements MethodGenerator {
 
-  private static final NamingConvention NAMING_CONVENTION = new UpperCamelCaseNamingConvention();
+  private static final NamingConvention NAMING_CONVENTION = UpperCamelCaseNamingConvention.create();
+  private static final CodeTemplate METHOD_NAME = CodeTemplate.compile("set{0}");
+  private static final CodeTemplate STATEMENT = CodeTemplate.compile("this.{0} = {1};");
 
   private static final MethodModel.Builder TEMPLATE_METHOD =
       MethodModel.newBuilder().withAccessModifier(AccessModifier.PUBLIC);
@@ -31,7 +32,8 @@ public final class SetterGenerator implements MethodGenerator {
   @Override
   public MethodModel generate() {
     final String methodName =
-        format("set{0}", SetterGenerator.NAMING_CONVENTION.apply(this.attribute.getName()));
+        SetterGenerator.METHOD_NAME.format(
+            SetterGenerator.NAMING_CONVENTION.apply(this.attribute.getName()));
 
     return SetterGenerator.TEMPLATE_METHOD
         .copy()
@@ -43,7 +45,7 @@ public final class SetterGenerator implements MethodGenerator {
 
   private void writeToContext(final GenerationContext context) {
     final String copyStatement = this.attribute.getType().copyStatement(this.attribute.getName());
-    context.getBuffer().write(format("this.{0} = {1};", this.attribute.getName(), copyStatement));
+    SetterGenerator.STATEMENT.render(context.getBuffer(), this.attribute.getName(), copyStatement);
   }
 
   public static SetterGenerator create(final VariableModel variableModel) {
@@ -10,14 +10,13 @@ import java.util.Collection;
 import com.google.common.base.Preconditions;
 
 import io.github.merlinosayimwen.javo.generator.GenerationFlag;
+import io.github.merlinosayimwen.javo.generator.internal.CodeTemplate;
 import io.github.merlinosayimwen.javo.generator.internal.GenerationContext;
 import io.github.merlinosayimwen.javo.generator.internal.model.AccessModifier;
 import io.github.merlinosayimwen.javo.generator.internal.model.MethodModel;
 import io.github.merlinosayimwen.javo.generator.internal.model.VariableModel;
 import io.github.merlinosayimwen.javo.generator.internal.type.ObjectReferenceType;
 
-import static java.text.MessageFormat.format;
-
 public final class ToStringGenerator implements MethodGenerator {
 
   private static final MethodModel.Builder METHOD_TEMPLATE =
@@ -27,6 +26,12 @@ public final class ToStringGenerator implements MethodGenerator {
           .addAnnotation("@Override")
           .withAccessModifier(AccessModifier.PUBLIC);
 
+  private static final CodeTemplate PLAIN_JAVA_STATEMENT =
+      CodeTemplate.compile(
+          "return String.format(\"%s({0})\", this.getClass().getSimpleName(), {1});");
+
+  private static final CodeTemplate GUAVA_LINE = CodeTemplate.compile("\t.add(\"{0}\", {1})");
+
   private final Collection<VariableModel> variableModels;
 
   private ToStringGenerator(final Collection<? extends VariableModel> variableModels) {
@@ -48,10 +53,7 @@ public final class ToStringGenerator implements MethodGenerator {
   }
 
   private void writeToContextInPlainJava(final GenerationContext context) {
-    final String formattedStatement =
-        format("return String.format(\"%s({0})\", this.getClass().getSimpleName(), {1});", "", "");
-
-    context.getBuffer().write(formattedStatement);
+    ToStringGenerator.PLAIN_JAVA_STATEMENT.render(context.getBuffer(), "", "");
   }
 
   private void writeToContextInGuava(final GenerationContext context) {
@@ -60,8 +62,9 @@ public final class ToStringGenerator implements MethodGenerator {
       final String toStringStatement =
           variable.getType().toStringStatement("this." + variable.getName());
 
-      final String line = format("\t.add(\"{0}\", {1})", variable.getName(), toStringStatement);
-      context.getBuffer().writeLine(line);
+      ToStringGenerator.GUAVA_LINE.render(
+          context.getBuffer(), variable.getName(), toStringStatement);
+      context.getBuffer().writeLine();
     }
     context.getBuffer().write("\t.toString();");
   }
@@ -4,9 +4,8 @@
 
 package io.github.merlinosayimwen.javo.generator.internal.model;
 
-import static java.text.MessageFormat.format;
-
 import com.google.common.base.Preconditions;
+import io.github.merlinosayimwen.javo.generator.internal.CodeTemplate;
 import io.github.merlinosayimwen.javo.generator.internal.GenerationContext;
 import io.github.merlinosayimwen.javo.generator.internal.GenerationStep;
 import io.github.merlinosayimwen.javo.generator.internal.method.HashCodeGenerator;
@@ -22,6 +21,9 @@ import java.util.stream.Stream;
 
 public final class ClassModel implements GenerationStep {
 
+  private static final CodeTemplate DECLARATION =
+      CodeTemplate.compile("public final class {0} '{'");
+
   private final String className;
   private final Collection<GenerationStep> members;
 
@@ -35,7 +37,7 @@ public final class ClassModel implements GenerationStep {
     final Consumer<GenerationStep> writeStepToContextFunction =
         step -> step.writeToContext(context);
 
-    context.getBuffer().write(format("public final class {0} '{'", this.className));
+    ClassModel.DECLARATION.render(context.getBuffer(), this.className);
     context.getDepth().incrementByOne();
     context.getBuffer().writeLine();
     context.getBuffer().writeLine();
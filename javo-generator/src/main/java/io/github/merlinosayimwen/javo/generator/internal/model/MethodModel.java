@@ -4,7 +4,6 @@
 
 package io.github.merlinosayimwen.javo.generator.internal.model;
 
-import static java.text.MessageFormat.format;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -21,10 +20,12 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 
+import io.github.merlinosayimwen.javo.generator.internal.CodeTemplate;
 import io.github.merlinosayimwen.javo.generator.internal.GenerationContext;
 import io.github.merlinosayimwen.javo.generator.internal.GenerationStep;
 import io.github.merlinosayimwen.javo.generator.internal.type.ObjectReferenceType;
 import io.github.merlinosayimwen.javo.generator.internal.type.ReferenceType;
+import io.github.merlinosayimwen.javo.util.ObjectChecks;
 
 public final class MethodModel implements GenerationStep {
 
@@ -32,6 +33,8 @@ public final class MethodModel implements GenerationStep {
 
   private static final AccessModifier FALLBACK_ACCESS_MODIFIER = AccessModifier.PACKAGE_PRIVATE;
 
+  private static final CodeTemplate PARAMETER = CodeTemplate.compile("{0} {1}");
+
   private final AccessModifier accessModifier;
   private final ReferenceType returnType;
   private final String methodName;
@@ -94,7 +97,8 @@ public final class MethodModel implements GenerationStep {
 
   private void writeParametersToContext(final GenerationContext context) {
     final Function<VariableModel, String> parameterToStringMapper =
-        parameter -> format("{0} {1}", parameter.getType().getTypeName(), parameter.getName());
+        parameter ->
+            MethodModel.PARAMETER.format(parameter.getType().getTypeName(), parameter.getName());
 
     final Collection<String> mappedParameters =
         this.parameters.stream().map(parameterToStringMapper).collect(Collectors.toList());
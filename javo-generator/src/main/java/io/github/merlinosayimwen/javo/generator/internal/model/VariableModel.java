@@ -21,12 +21,13 @@ import java.util.Objects;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
 
+import io.github.merlinosayimwen.javo.generator.internal.CodeTemplate;
 import io.github.merlinosayimwen.javo.generator.internal.GenerationContext;
 import io.github.merlinosayimwen.javo.generator.internal.GenerationStep;
 import io.github.merlinosayimwen.javo.generator.internal.type.ReferenceType;
 import io.github.merlinosayimwen.javo.generator.internal.type.ObjectReferenceType;
+import io.github.merlinosayimwen.javo.util.ObjectChecks;
 
-import static java.text.MessageFormat.format;
 
 /**
  * Immutable {@code value object} that is representing a local or global {@code variable}.
@@ -50,6 +51,8 @@ public class VariableModel implements GenerationStep {
   /** The default {modifiable} flag that is used as a {fallback value}. */
   protected static final boolean DEFAULT_MODIFIABLE = true;
 
+  private static final CodeTemplate DECLARATION = CodeTemplate.compile("{0} {1}");
+
   /** Name of the variable. */
   protected final String name;
 
@@ -125,7 +128,7 @@ public class VariableModel implements GenerationStep {
       context.getBuffer().write("final ");
     }
 
-    context.getBuffer().write(format("{0} {1}", this.type.getTypeName(), this.name));
+    VariableModel.DECLARATION.render(context.getBuffer(), this.type.getTypeName(), this.name);
   }
 
   @Override
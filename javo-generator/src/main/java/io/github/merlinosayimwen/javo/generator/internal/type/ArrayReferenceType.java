@@ -6,10 +6,14 @@ package io.github.merlinosayimwen.javo.generator.internal.type;
 
 import com.google.common.base.Preconditions;
 
-import static java.text.MessageFormat.format;
+import io.github.merlinosayimwen.javo.generator.internal.CodeTemplate;
 
 public final class ArrayReferenceType extends ReferenceType {
 
+  private static final CodeTemplate TO_STRING = CodeTemplate.compile("Arrays.deepToString({0})");
+  private static final CodeTemplate HASH_CODE = CodeTemplate.compile("Arrays.deepHashCode({0})");
+  private static final CodeTemplate EQUALS = CodeTemplate.compile("Arrays.deepEquals({0},{1})");
+
   private ArrayReferenceType(final String rawType) {
     // While an array with primitive values might be seen as a primitive and
     // can't be treated as an {Object[]}, it is still no primitive in this case.
@@ -18,17 +22,17 @@ public final class ArrayReferenceType extends ReferenceType {
 
   @Override
   public String toStringStatement(String variableName) {
-    return format("Arrays.deepToString({0})", variableName);
+    return ArrayReferenceType.TO_STRING.format(variableName);
   }
 
   @Override
   public String hashCodeStatement(String variableName) {
-    return format("Arrays.deepHashCode({0})", variableName);
+    return ArrayReferenceType.HASH_CODE.format(variableName);
   }
 
   @Override
   public String equalsStatement(String variableName, String otherVariable) {
-    return format("Arrays.deepEquals({0},{1})", variableName, otherVariable);
+    return ArrayReferenceType.EQUALS.format(variableName, otherVariable);
   }
 
   @Override
@@ -6,10 +6,17 @@ package io.github.merlinosayimwen.javo.generator.internal.type;
 
 import com.google.common.base.Preconditions;
 
-import static java.text.MessageFormat.format;
+import io.github.merlinosayimwen.javo.generator.internal.CodeTemplate;
 
 public final class CollectionReferenceType extends ReferenceType {
 
+  private static final CodeTemplate EQUALS =
+      CodeTemplate.compile("Arrays.deepEquals({0}.toArray(),{1}.toArray())");
+  private static final CodeTemplate HASH_CODE =
+      CodeTemplate.compile("Arrays.deepHashCode({0}.toArray())");
+  private static final CodeTemplate TO_STRING =
+      CodeTemplate.compile("Joiner.on(\", \").join({0})");
+
   private CollectionReferenceType(final String typeName, final boolean concrete) {
     super(typeName, true, concrete, false);
   }
@@ -21,17 +28,17 @@ public final class CollectionReferenceType extends ReferenceType {
 
   @Override
   public String equalsStatement(String variableName, String otherVariable) {
-    return format("Arrays.deepEquals({0}.toArray(),{1}.toArray())", variableName, otherVariable);
+    return CollectionReferenceType.EQUALS.format(variableName, otherVariable);
   }
 
   @Override
   public String hashCodeStatement(String variableName) {
-    return format("Arrays.deepHashCode({0}.toArray())", variableName);
+    return CollectionReferenceType.HASH_CODE.format(variableName);
   }
 
   @Override
   public String toStringStatement(String variableName) {
-    return format("Joiner.on(\", \").join({0})", variableName);
+    return CollectionReferenceType.TO_STRING.format(variableName);
   }
 
   public static CollectionReferenceType createConcrete(final String typeName) {
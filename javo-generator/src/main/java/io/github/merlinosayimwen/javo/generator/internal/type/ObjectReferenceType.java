@@ -12,11 +12,10 @@ import java.util.Map;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
 
+import io.github.merlinosayimwen.javo.generator.internal.CodeTemplate;
 import io.github.merlinosayimwen.javo.util.naming.NamingConvention;
 import io.github.merlinosayimwen.javo.util.naming.UpperCamelCaseNamingConvention;
 
-import static java.text.MessageFormat.format;
-
 public class ObjectReferenceType extends ReferenceType {
 
   private static final String GENERIC_MATCHER_EXPRESSION = "\\w+\\s*<(?:\\w+)?>";
@@ -26,8 +25,14 @@ public class ObjectReferenceType extends ReferenceType {
 
   private static final Map<String, String> WRAPPER_CLASSES;
 
+  private static final CodeTemplate PRIMITIVE_TO_STRING =
+      CodeTemplate.compile("String.valueOf({0})");
+  private static final CodeTemplate PRIMITIVE_HASH_CODE = CodeTemplate.compile("{0}.hashCode({1})");
+  private static final CodeTemplate OBJECT_EQUALS = CodeTemplate.compile("{0}.equals({1})");
+  private static final CodeTemplate PRIMITIVE_EQUALS = CodeTemplate.compile("{0} == {1}");
+
   static {
-    final NamingConvention convention = new UpperCamelCaseNamingConvention();
+    final NamingConvention convention = UpperCamelCaseNamingConvention.create();
 
     WRAPPER_CLASSES = new HashMap<>(Maps.toMap(PRIMITIVE_TYPES, convention::apply));
     WRAPPER_CLASSES.put("char", "Character");
@@ -55,7 +60,7 @@ public class ObjectReferenceType extends ReferenceType {
   }
 
   private String primitiveStringStatement(final String variableName) {
-    return format("String.valueOf({0})", variableName);
+    return ObjectReferenceType.PRIMITIVE_TO_STRING.format(variableName);
   }
 
   @Override
@@ -73,7 +78,7 @@ public class ObjectReferenceType extends ReferenceType {
     final String className =
         ObjectReferenceType.WRAPPER_CLASSES.getOrDefault(getTypeName(), "Objects");
 
-    return format("{0}.hashCode({1})", className, variableName);
+    return ObjectReferenceType.PRIMITIVE_HASH_CODE.format(className, variableName);
   }
 
   @Override
@@ -84,13 +89,13 @@ public class ObjectReferenceType extends ReferenceType {
   }
 
   private String objectEqualsStatement(final String variableName, final String otherVariableName) {
-    return format("{0}.equals({1})", variableName, otherVariableName);
+    return ObjectReferenceType.OBJECT_EQUALS.format(variableName, otherVariableName);
   }
 
   private String primitiveEqualsStatement(
       final String variableName, final String otherVariableName) {
 
-    return format("{0} == {1}", variableName, otherVariableName);
+    return ObjectReferenceType.PRIMITIVE_EQUALS.format(variableName, otherVariableName);
   }
 
   @Override
@@ -8,6 +8,8 @@ import java.util.Objects;
 
 import com.google.common.base.MoreObjects;
 
+import io.github.merlinosayimwen.javo.util.ObjectChecks;
+
 public abstract class ReferenceType {
 
   private final String typeName;
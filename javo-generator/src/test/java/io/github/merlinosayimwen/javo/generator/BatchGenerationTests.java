@@ -0,0 +1,289 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.merlinosayimwen.javo.Struct;
+import io.github.merlinosayimwen.javo.StructAttribute;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public final class BatchGenerationTests {
+
+  private static final int PARALLELISM = 3;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private JavoGenerator generator;
+  private GenerationProfile profile;
+  private ExecutorService executor;
+
+  @Before
+  public void initialize() {
+    this.generator = JavoGeneratorFactory.create().getInstance();
+    this.profile = GenerationProfile.create();
+    this.executor = Executors.newFixedThreadPool(8);
+  }
+
+  @After
+  public void shutdown() throws InterruptedException {
+    this.executor.shutdownNow();
+    this.executor.awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void testClassesAreDeliveredInInputOrder() {
+    List<Struct> structs = createStructs(40);
+    Random random = new Random(7);
+    List<String> delivered = new ArrayList<>();
+
+    BatchGenerationResult result = this.generator.generateAll(
+      structs,
+      this.profile,
+      task -> this.executor.execute(() -> {
+        sleep(random.nextInt(5));
+        task.run();
+      }),
+      PARALLELISM,
+      (struct, source) -> delivered.add(struct.getName()));
+
+    List<String> names = new ArrayList<>();
+    structs.forEach(struct -> names.add(struct.getName()));
+    assertThat(delivered, is(names));
+    assertThat(result.getGenerated(), is(names));
+    assertThat(result.hasFailures(), is(false));
+  }
+
+  @Test
+  public void testConcurrencyIsBoundedByParallelism() {
+    // Both counters are only updated on the caller's thread, which submits the tasks and
+    // runs the sink, so the tasks in flight can be counted whenever a class is delivered.
+    AtomicInteger submitted = new AtomicInteger();
+    AtomicInteger delivered = new AtomicInteger();
+    AtomicInteger maximum = new AtomicInteger();
+
+    this.generator.generateAll(
+      createStructs(30),
+      this.profile,
+      task -> {
+        submitted.incrementAndGet();
+        this.executor.execute(task);
+      },
+      PARALLELISM,
+      (struct, source) -> {
+        int ahead = submitted.get() - delivered.incrementAndGet();
+        maximum.accumulateAndGet(ahead, Math::max);
+      });
+
+    assertThat(delivered.get(), is(30));
+    assertThat(maximum.get(), is(PARALLELISM));
+  }
+
+  @Test
+  public void testFailuresOfEqualNamesAreKeptApart() {
+    List<Struct> structs = Arrays.asList(
+      createStruct("Person"),
+      createStruct("Address"),
+      createStruct("Person"),
+      createStruct("Address"),
+      createStruct("Person"));
+    IllegalStateException first = new IllegalStateException("first");
+    IllegalStateException second = new IllegalStateException("second");
+    List<Exception> failures = new ArrayList<>(Arrays.asList(first, second));
+
+    BatchGenerationResult result = this.generator.generateAll(
+      structs,
+      this.profile,
+      this.executor,
+      PARALLELISM,
+      (struct, source) -> {
+        if (struct.getName().equals("Address")) {
+          throw (IllegalStateException) failures.remove(0);
+        }
+      });
+
+    assertThat(new ArrayList<>(result.getFailures().keySet()), is(Arrays.asList(1, 3)));
+    assertThat(result.getFailures().get(1), is(first));
+    assertThat(result.getFailures().get(3), is(second));
+    assertThat(result.getGenerated(), is(Arrays.asList("Person", "Person", "Person")));
+    try {
+      result.throwIfFailed();
+      fail("Expected the failures to be thrown");
+    } catch (IOException failure) {
+      assertThat(Arrays.asList(failure.getSuppressed()), is(Arrays.asList(first, second)));
+    }
+  }
+
+  @Test
+  public void testSinkFailureDoesNotAbortTheBatch() {
+    List<Struct> structs = createStructs(10);
+    List<String> delivered = new ArrayList<>();
+
+    BatchGenerationResult result = this.generator.generateAll(
+      structs,
+      this.profile,
+      this.executor,
+      PARALLELISM,
+      (struct, source) -> {
+        if (struct.getName().equals("Struct4")) {
+          throw new IOException("Disk full");
+        }
+        delivered.add(struct.getName());
+      });
+
+    assertThat(delivered.size(), is(9));
+    assertThat(delivered.contains("Struct4"), is(false));
+    assertThat(result.getGenerated(), is(delivered));
+    assertThat(result.getFailures().keySet(), is(Collections.singleton(4)));
+    assertThat(result.getFailures().get(4), instanceOf(IOException.class));
+  }
+
+  @Test
+  public void testUpToDateClassesAreSkipped() throws IOException {
+    Path directory = temporaryFolder.getRoot().toPath();
+    List<Struct> structs = new ArrayList<>(createStructs(5));
+    List<String> delivered = new ArrayList<>();
+
+    BatchGenerationResult first =
+      generateIntoDirectory(structs, directory, recordingSink(directory, delivered, ""));
+
+    assertThat(first.getRegeneratedCount(), is(5));
+    assertThat(first.getSkippedCount(), is(0));
+    assertThat(GenerationManifest.load(directory).size(), is(5));
+
+    // Struct1 changes and the sink fails for Struct3, which is then removed from the
+    // manifest and generated again by the next batch, even though it didn't change.
+    structs.set(1, Struct.create("Struct1"));
+    structs.set(3, Struct.create("Struct3"));
+    delivered.clear();
+    BatchGenerationResult second =
+      generateIntoDirectory(structs, directory, recordingSink(directory, delivered, "Struct3"));
+
+    assertThat(delivered, is(Collections.singletonList("Struct1")));
+    assertThat(second.getRegeneratedCount(), is(1));
+    assertThat(second.getSkippedCount(), is(3));
+    assertThat(second.getFailures().keySet(), is(Collections.singleton(3)));
+
+    delivered.clear();
+    BatchGenerationResult third =
+      generateIntoDirectory(structs, directory, recordingSink(directory, delivered, ""));
+
+    assertThat(delivered, is(Collections.singletonList("Struct3")));
+    assertThat(third.getSkippedCount(), is(4));
+    assertThat(third.hasFailures(), is(false));
+  }
+
+  @Test
+  public void testDeletedClassesAreGeneratedAgain() throws IOException {
+    Path directory = temporaryFolder.getRoot().toPath();
+    List<Struct> structs = createStructs(4);
+    generateIntoDirectory(structs, directory, GenerationSink.toDirectory(directory));
+
+    Files.delete(directory.resolve("Struct2.java"));
+    List<String> delivered = new ArrayList<>();
+    BatchGenerationResult result =
+      generateIntoDirectory(structs, directory, recordingSink(directory, delivered, ""));
+
+    assertThat(delivered, is(Collections.singletonList("Struct2")));
+    assertThat(result.getSkippedCount(), is(3));
+    assertThat(Files.isRegularFile(directory.resolve("Struct2.java")), is(true));
+  }
+
+  @Test
+  public void testSinksWithoutClassesReceiveEveryClass() throws IOException {
+    Path directory = temporaryFolder.getRoot().toPath();
+    List<Struct> structs = createStructs(3);
+    generateIntoDirectory(structs, directory, GenerationSink.toDirectory(directory));
+
+    Map<String, String> classes = new LinkedHashMap<>();
+    BatchGenerationResult result =
+      generateIntoDirectory(structs, directory, GenerationSink.toMap(classes));
+
+    assertThat(new ArrayList<>(classes.keySet()), is(Arrays.asList(
+      "Struct0", "Struct1", "Struct2")));
+    assertThat(result.getSkippedCount(), is(0));
+  }
+
+  /** Generates the structs with the manifest of the directory, which is stored after. */
+  private BatchGenerationResult generateIntoDirectory(
+    List<Struct> structs, Path directory, GenerationSink sink) throws IOException {
+
+    GenerationManifest manifest = GenerationManifest.load(directory);
+    BatchGenerationResult result = this.generator.generateAll(
+      structs, this.profile, this.executor, PARALLELISM, manifest, sink);
+    manifest.store();
+    return result;
+  }
+
+  /**
+   * Creates a sink that writes into the directory and records the names of the written
+   * classes. Writing the class of the struct named {@code failingName} fails.
+   */
+  private static GenerationSink recordingSink(
+    Path directory, List<String> delivered, String failingName) {
+
+    GenerationSink directorySink = GenerationSink.toDirectory(directory);
+    return new GenerationSink() {
+      @Override
+      public void accept(Struct struct, String source) throws IOException {
+        if (struct.getName().equals(failingName)) {
+          throw new IOException("Disk full");
+        }
+        directorySink.accept(struct, source);
+        delivered.add(struct.getName());
+      }
+
+      @Override
+      public boolean holdsClass(Struct struct) {
+        return directorySink.holdsClass(struct);
+      }
+    };
+  }
+
+  private static List<Struct> createStructs(int count) {
+    List<Struct> structs = new ArrayList<>(count);
+    for (int index = 0; index < count; index++) {
+      structs.add(createStruct("Struct" + index));
+    }
+    return structs;
+  }
+
+  private static Struct createStruct(String name) {
+    return Struct.create(name, Arrays.asList(
+      StructAttribute.create("id", "long"),
+      StructAttribute.create("names", "<String>")));
+  }
+
+  private static void sleep(int millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,207 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringContains.containsString;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+
+import io.github.merlinosayimwen.java.parser.StructParseException;
+import io.github.merlinosayimwen.java.parser.StructParser;
+import io.github.merlinosayimwen.java.parser.StructParserFactory;
+import io.github.merlinosayimwen.javo.Struct;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public final class BlueprintWatcherTests {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path blueprints;
+  private Path classes;
+
+  @Before
+  public void initialize() throws IOException {
+    this.blueprints = temporaryFolder.newFolder("blueprints").toPath();
+    this.classes = temporaryFolder.getRoot().toPath().resolve("classes");
+  }
+
+  @Test
+  public void testEmptyAndVanishingFilesDeclareNoStructs() throws IOException {
+    writeBlueprint("a.javo", "struct A {}");
+    writeBlueprint("empty.javo", "");
+    writeBlueprint("vanishing.javo", "struct Vanishing {}");
+    // The file is deleted after the watcher has listed it, but before it is parsed.
+    StructParser parser = new DelegatingStructParser() {
+      @Override
+      public Collection<Struct> parse(Path source) throws StructParseException {
+        if (source.endsWith("vanishing.javo")) {
+          deleteBlueprint("vanishing.javo");
+        }
+        return super.parse(source);
+      }
+    };
+    BlueprintWatcher watcher = newBuilder().withParser(parser).create();
+
+    WatchCycle cycle = watcher.generateAll();
+
+    assertThat(cycle.getFailures().isEmpty(), is(true));
+    assertThat(cycle.getGenerated(), is(Collections.singletonList("A")));
+    assertThat(cycle.getChangedFiles().size(), is(3));
+  }
+
+  @Test
+  public void testParseFailuresOnlyFailTheirFile() throws IOException {
+    writeBlueprint("a.javo", "struct A {}");
+    writeBlueprint("failing.javo", "struct Failing {}");
+    writeBlueprint("truncated.javo", "struct Truncated {");
+    writeBlueprint("z.javo", "struct Z {}");
+    StructParser parser = new DelegatingStructParser() {
+      @Override
+      public Collection<Struct> parse(Path source) throws StructParseException {
+        if (source.endsWith("failing.javo")) {
+          throw new IllegalStateException("Parser failure");
+        }
+        return super.parse(source);
+      }
+    };
+    BlueprintWatcher watcher = newBuilder().withParser(parser).create();
+
+    WatchCycle cycle = watcher.generateAll();
+
+    assertThat(cycle.getGenerated(), is(Arrays.asList("A", "Z")));
+    assertThat(
+      new ArrayList<>(cycle.getFailures().keySet()),
+      is(Arrays.asList(blueprints.resolve("failing.javo"), blueprints.resolve("truncated.javo"))));
+    assertThat(
+      cycle.getFailures().get(blueprints.resolve("failing.javo")) instanceof IllegalStateException,
+      is(true));
+  }
+
+  @Test
+  public void testMovedStructKeepsItsClass() throws IOException {
+    BlueprintWatcher watcher = newBuilder().create();
+    writeBlueprint("a.javo", "struct Moved {}");
+    watcher.generateAll();
+
+    // Moved from the first to the second file that is handled by a cycle.
+    writeBlueprint("a.javo", "");
+    writeBlueprint("b.javo", "struct Moved {}");
+    WatchCycle cycle = watcher.generateAll();
+    assertThat(cycle.getRemoved().isEmpty(), is(true));
+    assertThat(cycle.getUnchangedCount(), is(1));
+    assertThat(Files.isRegularFile(classes.resolve("Moved.java")), is(true));
+
+    // Moved back, from the second to the first file.
+    writeBlueprint("a.javo", "struct Moved {}");
+    deleteBlueprint("b.javo");
+    cycle = watcher.generateAll();
+    assertThat(cycle.getRemoved().isEmpty(), is(true));
+    assertThat(cycle.getFailures().isEmpty(), is(true));
+    assertThat(Files.isRegularFile(classes.resolve("Moved.java")), is(true));
+
+    deleteBlueprint("a.javo");
+    cycle = watcher.generateAll();
+    assertThat(cycle.getRemoved(), is(Collections.singletonList("Moved")));
+    assertThat(Files.exists(classes.resolve("Moved.java")), is(false));
+  }
+
+  @Test
+  public void testDuplicateStructIsOwnedByItsFirstFile() throws IOException {
+    BlueprintWatcher watcher = newBuilder().create();
+    writeBlueprint("a.javo", "struct Duplicate {\n  first: int\n}");
+    writeBlueprint("b.javo", "struct Duplicate {\n  second: int\n}\nstruct B {}");
+
+    WatchCycle cycle = watcher.generateAll();
+    assertThat(cycle.getGenerated(), is(Arrays.asList("Duplicate", "B")));
+    assertThat(
+      cycle.getFailures().get(blueprints.resolve("b.javo")).getMessage(),
+      containsString("Struct Duplicate is already defined in"));
+    assertThat(readClass("Duplicate"), containsString("first"));
+
+    // The second definition takes over once the first one has been removed.
+    deleteBlueprint("a.javo");
+    cycle = watcher.generateAll();
+    assertThat(cycle.getGenerated(), is(Collections.singletonList("Duplicate")));
+    assertThat(cycle.getRemoved().isEmpty(), is(true));
+    assertThat(readClass("Duplicate"), containsString("second"));
+
+    writeBlueprint("b.javo", "struct B {}");
+    cycle = watcher.generateAll();
+    assertThat(cycle.getRemoved(), is(Collections.singletonList("Duplicate")));
+    assertThat(Files.exists(classes.resolve("Duplicate.java")), is(false));
+  }
+
+  @Test
+  public void testRestartedWatcherSkipsUpToDateClasses() throws IOException {
+    writeBlueprint("a.javo", "struct A {}\nstruct B {}");
+    newBuilder().create().generateAll();
+    writeBlueprint("a.javo", "struct A {}\nstruct B {\n  b: int\n}");
+
+    WatchCycle cycle = newBuilder().create().generateAll();
+
+    assertThat(cycle.getSkippedCount(), is(1));
+    assertThat(cycle.getGenerated(), is(Collections.singletonList("B")));
+  }
+
+  private BlueprintWatcher.Builder newBuilder() {
+    return BlueprintWatcher.newBuilder(blueprints, classes);
+  }
+
+  private void writeBlueprint(String name, String content) throws IOException {
+    Files.write(blueprints.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void deleteBlueprint(String name) {
+    try {
+      Files.delete(blueprints.resolve(name));
+    } catch (IOException deletionFailure) {
+      throw new AssertionError(deletionFailure);
+    }
+  }
+
+  private String readClass(String structName) throws IOException {
+    return new String(
+      Files.readAllBytes(classes.resolve(structName + ".java")), StandardCharsets.UTF_8);
+  }
+
+  /** Parser that delegates to the default one, whose methods are overridden by tests. */
+  private static class DelegatingStructParser implements StructParser {
+    private final StructParser delegate = StructParserFactory.create().getInstance();
+
+    @Override
+    public Collection<Struct> parse(Path source) throws StructParseException {
+      return this.delegate.parse(source);
+    }
+
+    @Override
+    public Collection<Struct> parse(CharSequence source) throws StructParseException {
+      return this.delegate.parse(source);
+    }
+
+    @Override
+    public Optional<Struct> parseSingle(Path path) throws StructParseException {
+      return this.delegate.parseSingle(path);
+    }
+
+    @Override
+    public Optional<Struct> parseSingle(CharSequence source) throws StructParseException {
+      return this.delegate.parseSingle(source);
+    }
+  }
+}
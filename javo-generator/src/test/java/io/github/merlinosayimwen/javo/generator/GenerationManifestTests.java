@@ -0,0 +1,149 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import io.github.merlinosayimwen.javo.Struct;
+import io.github.merlinosayimwen.javo.StructAttribute;
+import io.github.merlinosayimwen.javo.generator.internal.GenerationContext;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public final class GenerationManifestTests {
+
+  /** Fingerprint of the Person struct with the default profile, pinned across runs. */
+  private static final String PERSON_FINGERPRINT = "a03659cea20d25b0b81ccd7833b9afe7";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path directory;
+  private JavoGenerator generator;
+
+  @Before
+  public void initialize() {
+    this.directory = temporaryFolder.getRoot().toPath();
+    this.generator = JavoGeneratorFactory.create().getInstance();
+  }
+
+  @Test
+  public void testFingerprintIsStable() {
+    String fingerprint =
+      GenerationManifest.fingerprint(createPerson("long"), GenerationProfile.create(), generator);
+
+    assertThat(fingerprint, is(PERSON_FINGERPRINT));
+    assertThat(
+      GenerationManifest.fingerprint(createPerson("long"), GenerationProfile.create(), generator),
+      is(fingerprint));
+    assertThat(
+      GenerationManifest.fingerprint(createPerson("int"), GenerationProfile.create(), generator),
+      not(fingerprint));
+    assertThat(
+      GenerationManifest.fingerprint(
+        createPerson("long"),
+        GenerationProfile.create(Collections.singleton(GenerationFlag.DEPENDENCY_GUAVA)),
+        generator),
+      not(fingerprint));
+  }
+
+  @Test
+  public void testFingerprintIgnoresTheOrderOfTheProfile() {
+    Map<String, String> properties = new LinkedHashMap<>();
+    properties.put(GenerationContext.PROPERTY_NEW_LINE_PREFIX, "\t");
+    properties.put("other", "value");
+    Map<String, String> reversedProperties = new LinkedHashMap<>();
+    reversedProperties.put("other", "value");
+    reversedProperties.put(GenerationContext.PROPERTY_NEW_LINE_PREFIX, "\t");
+    List<GenerationFlag> flags = Arrays.asList(GenerationFlag.values());
+    List<GenerationFlag> reversedFlags = Arrays.asList(GenerationFlag.values());
+    Collections.reverse(reversedFlags);
+
+    Struct person = createPerson("long");
+    assertThat(
+      GenerationManifest.fingerprint(
+        person, GenerationProfile.create(reversedFlags, reversedProperties), generator),
+      is(GenerationManifest.fingerprint(
+        person, GenerationProfile.create(flags, properties), generator)));
+  }
+
+  @Test
+  public void testStoredManifestIsLoadedAgain() throws IOException {
+    GenerationManifest missing = GenerationManifest.load(directory);
+    assertThat(missing.size(), is(0));
+
+    missing.record("Person", PERSON_FINGERPRINT);
+    missing.record("Address", fingerprintOf("Address"));
+    missing.record("Removed", fingerprintOf("Removed"));
+    missing.remove("Removed");
+    missing.store();
+
+    GenerationManifest loaded = GenerationManifest.load(directory);
+    assertThat(loaded.size(), is(2));
+    assertThat(loaded.getFingerprint("Person"), is(Optional.of(PERSON_FINGERPRINT)));
+    assertThat(loaded.isUpToDate("Address", fingerprintOf("Address")), is(true));
+    assertThat(loaded.getFingerprint("Removed"), is(Optional.empty()));
+  }
+
+  @Test
+  public void testCorruptedHeaderInvalidatesTheManifest() throws IOException {
+    writeManifest("# javo-manifest 0", "Person " + PERSON_FINGERPRINT);
+
+    assertManifestIsInvalidated();
+  }
+
+  @Test
+  public void testCorruptedLineInvalidatesTheManifest() throws IOException {
+    writeManifest("# javo-manifest 1", "Person " + PERSON_FINGERPRINT, "Address cafe");
+
+    assertManifestIsInvalidated();
+  }
+
+  /** Asserts that the manifest loads empty and is replaced by an empty manifest. */
+  private void assertManifestIsInvalidated() throws IOException {
+    GenerationManifest manifest = GenerationManifest.load(directory);
+    assertThat(manifest.size(), is(0));
+    assertThat(manifest.getFingerprint("Person"), is(Optional.empty()));
+
+    manifest.store();
+    assertThat(
+      Files.readAllLines(directory.resolve(GenerationManifest.FILE_NAME)),
+      is(Collections.singletonList("# javo-manifest 1")));
+    assertThat(GenerationManifest.load(directory).size(), is(0));
+  }
+
+  private void writeManifest(String... lines) throws IOException {
+    Files.write(
+      directory.resolve(GenerationManifest.FILE_NAME),
+      Arrays.asList(lines),
+      StandardCharsets.UTF_8);
+  }
+
+  private String fingerprintOf(String name) {
+    return GenerationManifest.fingerprint(
+      Struct.create(name), GenerationProfile.create(), generator);
+  }
+
+  private static Struct createPerson(String idType) {
+    return Struct.create("Person", Arrays.asList(
+      StructAttribute.create("id", idType),
+      StructAttribute.create("names", "<String>")));
+  }
+}
@@ -17,12 +17,19 @@
 package io.github.merlinosayimwen.javo.generator;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.IsNull.notNullValue;
 
+import io.github.merlinosayimwen.javo.Struct;
+import io.github.merlinosayimwen.javo.StructAttribute;
 import io.github.merlinosayimwen.javo.generator.internal.GenerationContext;
-import io.github.merlinosayimwen.pojogen.struct.Struct;
-import io.github.merlinosayimwen.pojogen.struct.StructAttribute;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import org.junit.Before;
 import org.junit.Test;
@@ -49,8 +56,9 @@ public final class GeneratorTests {
     final Struct model =
         Struct.newBuilder()
             .withName("Person")
-            .addAttribute(StructAttribute.create("id", "long", true))
-            .addAttribute(StructAttribute.create("names", "<String>", false))
+            .addAttribute(StructAttribute.create(
+                "id", "long", Collections.singleton(StructAttribute.Modifier.IMMUTABLE)))
+            .addAttribute(StructAttribute.create("names", "<String>"))
             .create();
 
     final String pojo = generator.generate(model);
@@ -58,4 +66,59 @@ public final class GeneratorTests {
     assertThat(pojo, notNullValue());
     assertThat(pojo, not(""));
   }
+
+  @Test
+  public void testStreamedOutputEqualsGeneratedString() throws IOException {
+    final Struct.Builder builder = Struct.newBuilder().withName("Gr\u00f6\u00dfe");
+    for (int index = 0; index < 200; index++) {
+      builder.addAttribute(StructAttribute.create("\u540d\u524d" + index, "String"));
+    }
+    final Struct model = builder.create();
+
+    final String pojo = generator.generate(model, profile);
+    final StringBuilder appended = new StringBuilder();
+    generator.generate(model, profile, appended);
+    final ChunkedChannel channel = new ChunkedChannel();
+    generator.generate(model, profile, channel);
+
+    // The class has to be larger than the channel's buffer of 8192 bytes.
+    assertThat(pojo.getBytes(StandardCharsets.UTF_8).length > 8192, is(true));
+    assertThat(appended.toString(), is(pojo));
+    // The caller's channel stays open for further writes.
+    assertThat(channel.closeCount, is(0));
+    assertThat(channel.isOpen(), is(true));
+    assertThat(
+        new String(channel.bytes.toByteArray(), StandardCharsets.UTF_8), is(pojo));
+  }
+
+  /**
+   * Channel that accepts at most 100 bytes per write, like a non-blocking socket, and
+   * counts how often it has been closed.
+   */
+  private static final class ChunkedChannel implements WritableByteChannel {
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private int closeCount;
+
+    @Override
+    public int write(final ByteBuffer source) throws IOException {
+      if (closeCount > 0) {
+        throw new ClosedChannelException();
+      }
+      final int count = Math.min(source.remaining(), 100);
+      for (int index = 0; index < count; index++) {
+        bytes.write(source.get());
+      }
+      return count;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return closeCount == 0;
+    }
+
+    @Override
+    public void close() {
+      closeCount++;
+    }
+  }
 }
@@ -0,0 +1,74 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.io.Resources;
+
+import io.github.merlinosayimwen.javo.Struct;
+import io.github.merlinosayimwen.javo.StructAttribute;
+import io.github.merlinosayimwen.javo.generator.internal.GenerationContext;
+import org.junit.Test;
+
+/**
+ * Compares generated classes with the golden files in {@code src/test/resources/golden},
+ * which have been generated before the code was rendered from templates and indented from
+ * a prefix table. The files are named after the struct and the profile.
+ */
+public final class GoldenOutputTests {
+
+  private static final Set<StructAttribute.Modifier> IMMUTABLE =
+    Collections.singleton(StructAttribute.Modifier.IMMUTABLE);
+
+  private static final List<Struct> STRUCTS = Arrays.asList(
+    Struct.create("Person", Arrays.asList(
+      StructAttribute.create("id", "long", IMMUTABLE),
+      StructAttribute.create("name", "String"),
+      StructAttribute.create("tags", "[String]", IMMUTABLE),
+      StructAttribute.create("friends", "<Person>"),
+      StructAttribute.create("active", "boolean"))),
+    Struct.create(
+      "Point",
+      Arrays.asList(
+        StructAttribute.create("x", "int", IMMUTABLE),
+        StructAttribute.create("y", "int", IMMUTABLE)),
+      Collections.singleton(Struct.Modifier.IMMUTABLE)));
+
+  @Test
+  public void testGeneratedClassesMatchGoldenFiles() throws IOException {
+    Map<String, GenerationProfile> profiles = new LinkedHashMap<>();
+    profiles.put("default", GenerationProfile.create());
+    profiles.put("common", GenerationProfile.create(
+      EnumSet.of(GenerationFlag.GENERATE_COMMON_METHODS, GenerationFlag.CACHE_COMMON_METHODS),
+      Collections.singletonMap(GenerationContext.PROPERTY_NEW_LINE_PREFIX, "  ")));
+    profiles.put("all", GenerationProfile.create(
+      EnumSet.allOf(GenerationFlag.class),
+      Collections.singletonMap(GenerationContext.PROPERTY_NEW_LINE_PREFIX, "\t")));
+
+    JavoGenerator generator = JavoGeneratorFactory.create().getInstance();
+    for (Struct struct : STRUCTS) {
+      for (Map.Entry<String, GenerationProfile> profile : profiles.entrySet()) {
+        String golden = Resources.toString(
+          Resources.getResource(
+            String.format("golden/%s-%s.txt", struct.getName(), profile.getKey())),
+          StandardCharsets.UTF_8);
+
+        assertThat(generator.generate(struct, profile.getValue()), is(golden));
+      }
+    }
+  }
+}
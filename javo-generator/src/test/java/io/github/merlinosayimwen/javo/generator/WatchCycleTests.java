@@ -0,0 +1,68 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.generator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringContains.containsString;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public final class WatchCycleTests {
+
+  @Test
+  public void testCycleCopiesItsArguments() {
+    List<String> generated = new ArrayList<>(Arrays.asList("A", "B"));
+    Map<Path, Exception> failures = new LinkedHashMap<>();
+    failures.put(Paths.get("z.javo"), new IOException("z"));
+    failures.put(Paths.get("a.javo"), new IOException("a"));
+
+    WatchCycle cycle = WatchCycle.create(
+      Arrays.asList(Paths.get("a.javo"), Paths.get("z.javo")),
+      generated,
+      Collections.singletonList("C"),
+      2,
+      3,
+      failures,
+      Duration.ofMillis(20),
+      Duration.ofMillis(5));
+    generated.clear();
+    failures.clear();
+
+    assertThat(cycle.getGenerated(), is(Arrays.asList("A", "B")));
+    assertThat(cycle.getRemoved(), is(Collections.singletonList("C")));
+    assertThat(cycle.getUnchangedCount(), is(2));
+    assertThat(cycle.getSkippedCount(), is(3));
+    assertThat(
+      new ArrayList<>(cycle.getFailures().keySet()),
+      is(Arrays.asList(Paths.get("z.javo"), Paths.get("a.javo"))));
+    assertThat(cycle.getLatency(), is(Duration.ofMillis(20)));
+    assertThat(cycle.toString(), containsString("skipped=3"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeSkippedCountIsRejected() {
+    WatchCycle.create(
+      Collections.emptyList(),
+      Collections.emptyList(),
+      Collections.emptyList(),
+      0,
+      -1,
+      Collections.emptyMap(),
+      Duration.ZERO,
+      Duration.ZERO);
+  }
+}
@@ -0,0 +1,51 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.generator.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public final class CodeTemplateTests {
+
+  /** Patterns of the generator plus the quoting rules of MessageFormat. */
+  private static final List<String> PATTERNS = Arrays.asList(
+    "{0} {1}",
+    "public final class {0} '{'",
+    "this.{0} = {1};",
+    "\t.add(\"{0}\", {1})",
+    "Arrays.deepEquals({0},{1})",
+    "{1} before {0}, {0} again",
+    "it''s '{quoted}' {0}",
+    "get{0}");
+
+  @Test
+  public void testFormatEqualsMessageFormat() {
+    for (String pattern : PATTERNS) {
+      CodeTemplate template = CodeTemplate.compile(pattern);
+      String expected = MessageFormat.format(pattern, "first", "\u540d\u524d");
+      String formatted = new MessageFormat(pattern).getFormatsByArgumentIndex().length == 1
+        ? template.format("first")
+        : template.format("first", "\u540d\u524d");
+
+      assertThat(pattern, formatted, is(expected));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongArgumentCountIsRejected() {
+    CodeTemplate.compile("{0} {1}").format("only");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnclosedQuoteIsRejected() {
+    CodeTemplate.compile("'{0}");
+  }
+}
@@ -0,0 +1,82 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.javo.generator.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import io.github.merlinosayimwen.javo.generator.GenerationProfile;
+import org.junit.Test;
+
+public final class IndentationTests {
+
+  /** Depth beyond the prefix table, whose prefixes are built when they are looked up. */
+  private static final int MAX_DEPTH = 40;
+
+  @Test
+  public void testPrefixesRepeatTheUnit() {
+    for (String unit : Arrays.asList("  ", "\t", "    ", "")) {
+      Indentation indentation = Indentation.forProfile(profileWithUnit(unit));
+      for (int depth = -2; depth <= MAX_DEPTH; depth++) {
+        assertThat(indentation.prefix(depth), is(repeat(unit, depth)));
+      }
+    }
+    Indentation defaultIndentation = Indentation.forProfile(GenerationProfile.create());
+    assertThat(defaultIndentation.prefix(MAX_DEPTH), is(repeat("  ", MAX_DEPTH)));
+  }
+
+  @Test
+  public void testAlternatingProfilesKeepTheirUnits() {
+    GenerationProfile tabs = profileWithUnit("\t");
+    GenerationProfile spaces = profileWithUnit("  ");
+    for (int round = 0; round < 3; round++) {
+      assertThat(Indentation.forProfile(tabs).prefix(3), is("\t\t\t"));
+      assertThat(Indentation.forProfile(spaces).prefix(20), is(repeat("  ", 20)));
+    }
+  }
+
+  @Test
+  public void testContextIndentsLinesLikeBefore() {
+    for (String unit : Arrays.asList("\t", "  ")) {
+      GenerationContext context = GenerationContext.create(profileWithUnit(unit));
+      StringBuilder expected = new StringBuilder();
+      for (int depth = 0; depth <= MAX_DEPTH; depth++) {
+        writeLineAt(context, depth, expected, unit);
+      }
+      for (int depth = MAX_DEPTH; depth >= -1; depth--) {
+        writeLineAt(context, depth, expected, unit);
+      }
+
+      assertThat(context.finish(), is(expected.toString()));
+    }
+  }
+
+  /** Writes a line at the depth and appends what the observer based depth produced. */
+  private static void writeLineAt(
+    GenerationContext context, int depth, StringBuilder expected, String unit) {
+
+    context.getDepth().setValue(depth);
+    context.getBuffer().writeLine("line");
+    expected.append("line\n").append(repeat(unit, depth));
+  }
+
+  private static GenerationProfile profileWithUnit(String unit) {
+    return GenerationProfile.create(
+      Collections.emptyList(),
+      Collections.singletonMap(GenerationContext.PROPERTY_NEW_LINE_PREFIX, unit));
+  }
+
+  /** Builds the prefix like the generator did before the prefix table existed. */
+  private static String repeat(String unit, int depth) {
+    StringBuilder prefix = new StringBuilder();
+    for (int iteration = 0; iteration < depth; iteration++) {
+      prefix.append(unit);
+    }
+    return prefix.toString();
+  }
+}
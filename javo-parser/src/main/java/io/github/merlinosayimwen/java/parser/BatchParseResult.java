@@ -0,0 +1,154 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import io.github.merlinosayimwen.javo.Struct;
+
+/**
+ * Result of parsing multiple source files at once.
+ * <p>
+ * A failing file does not abort the batch, every StructParseException is collected
+ * together with the path of its file. The structs of the succeeded files and the
+ * failures are both ordered like the files have been passed to the parser,
+ * regardless of the order in which they have been parsed.
+ *
+ * @see StructParser#parseAll(Collection)
+ * @see StructParser#parseTree(Path, java.nio.file.PathMatcher)
+ * @since 1.0
+ */
+public final class BatchParseResult {
+
+  /** Ordered map of the succeeded files and their structs. */
+  private Map<Path, Collection<Struct>> results;
+
+  /** Ordered map of the failed files and their failure. */
+  private Map<Path, StructParseException> failures;
+
+  /**
+   * Constructs the BatchParseResult from the results and failures of the files.
+   *
+   * @param results Ordered map of the succeeded files and their structs.
+   * @param failures Ordered map of the failed files and their failure.
+   */
+  private BatchParseResult(
+    Map<Path, Collection<Struct>> results,
+    Map<Path, StructParseException> failures) {
+
+    this.results = results;
+    this.failures = failures;
+  }
+
+  /**
+   * Gets the structs of every succeeded file, in the order of the files.
+   *
+   * @return Ordered map of the succeeded files and their structs.
+   */
+  public Map<Path, Collection<Struct>> getResults() {
+    return this.results;
+  }
+
+  /**
+   * Gets the structs of all succeeded files as one stream, ordered by their file first
+   * and their position in the file second.
+   *
+   * @return Ordered stream of all parsed structs.
+   */
+  public Stream<Struct> getStructs() {
+    return this.results.values().stream().flatMap(Collection::stream);
+  }
+
+  /**
+   * Gets the failure of every failed file, in the order of the files.
+   *
+   * @return Ordered map of the failed files and their failure.
+   */
+  public Map<Path, StructParseException> getFailures() {
+    return this.failures;
+  }
+
+  /**
+   * Gets whether parsing at least one file has failed.
+   *
+   * @return Whether there are failures.
+   */
+  public boolean hasFailures() {
+    return !this.failures.isEmpty();
+  }
+
+  /**
+   * Throws a StructParseException if parsing at least one file has failed. The failures
+   * of the files are added as suppressed exceptions in the order of the files.
+   *
+   * @throws StructParseException Thrown if there are failures.
+   */
+  public void throwIfFailed() throws StructParseException {
+    if (!hasFailures()) {
+      return;
+    }
+    StructParseException failure = StructParseException.createWithMessage(String.format(
+      "Failed to parse %d of %d files", this.failures.size(),
+      this.failures.size() + this.results.size()));
+
+    this.failures.values().forEach(failure::addSuppressed);
+    throw failure;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+      .add("results", this.results)
+      .add("failures", this.failures)
+      .toString();
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.results, this.failures);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) {
+      return true;
+    }
+    if (!(other instanceof BatchParseResult)) {
+      return false;
+    }
+    BatchParseResult otherResult = (BatchParseResult) other;
+    return this.results.equals(otherResult.results)
+      && this.failures.equals(otherResult.failures);
+  }
+
+  /**
+   * Factory method that creates a BatchParseResult. The iteration order of both maps
+   * is kept.
+   *
+   * @param results Ordered map of the succeeded files and their structs.
+   * @param failures Ordered map of the failed files and their failure.
+   * @return New instance of the BatchParseResult.
+   */
+  public static BatchParseResult create(
+    Map<Path, ? extends Collection<Struct>> results,
+    Map<Path, StructParseException> failures) {
+
+    Preconditions.checkNotNull(results);
+    Preconditions.checkNotNull(failures);
+
+    ImmutableMap.Builder<Path, Collection<Struct>> copiedResults = ImmutableMap.builder();
+    results.forEach((path, structs) -> copiedResults.put(path, ImmutableList.copyOf(structs)));
+    return new BatchParseResult(copiedResults.build(), ImmutableMap.copyOf(failures));
+  }
+}
@@ -0,0 +1,38 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser;
+
+/**
+ * StructParser that remembers the structs of previously parsed sources.
+ * <p>
+ * Sources are identified by a hash of their UTF-8 encoded content, parsing the same
+ * content twice returns the structs of the first call. Results are kept in a bounded
+ * in-memory cache, which evicts the least recently used results once their estimated
+ * size exceeds the configured bytes. Behind that an optional directory keeps results
+ * across processes in a compact binary form. Failures are never cached.
+ * <p>
+ * Only {@link #parse(java.nio.file.Path)}, {@link #parse(CharSequence)} and the
+ * operations that are built on top of them are cached, streamed sources are always
+ * parsed.
+ *
+ * @see StructParserFactory#getCachingInstance(ParserProfile)
+ * @see ParseCacheStats
+ * @since 1.0
+ */
+public interface CachingStructParser extends StructParser {
+
+  /**
+   * Gets a snapshot of the counters of the cache.
+   *
+   * @return Current statistics of the cache.
+   */
+  ParseCacheStats getCacheStats();
+
+  /**
+   * Discards every result that is kept in memory. Results in the cache directory are
+   * kept.
+   */
+  void invalidateCache();
+}
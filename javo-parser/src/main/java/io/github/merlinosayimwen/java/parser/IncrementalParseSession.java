@@ -0,0 +1,62 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser;
+
+import java.util.List;
+
+import io.github.merlinosayimwen.javo.Struct;
+
+/**
+ * Keeps a parsed source and reparses only the parts of it that are touched by edits.
+ * <p>
+ * The session splits the source into spans of one top-level struct each and remembers
+ * the structs of every span. An edit only reparses the spans that it overlaps, until the
+ * span boundaries after the edit line up with the previous ones again. This makes the
+ * cost of an edit depend on the size of the edited structs instead of the size of the
+ * whole source, which suits editors that reparse on every keystroke.
+ * <p>
+ * Sources that are being edited are invalid most of the time. Spans that fail to parse
+ * therefore don't fail the session, their failures are kept until a later edit fixes
+ * them. Sessions are not thread-safe.
+ *
+ * @see StructParser#openSession(CharSequence)
+ * @see StructDelta
+ * @since 1.0
+ */
+public interface IncrementalParseSession {
+
+  /**
+   * Gets the current source, which reflects every applied edit. The returned sequence
+   * is only valid until the next edit.
+   *
+   * @return Current source of the session.
+   */
+  CharSequence getSource();
+
+  /**
+   * Gets the structs of every span that could be parsed, in source order.
+   *
+   * @return Ordered list of the current structs.
+   */
+  List<Struct> getStructs();
+
+  /**
+   * Gets the failures of every span that could not be parsed, in source order.
+   *
+   * @return Ordered list of the current failures.
+   */
+  List<StructParseException> getFailures();
+
+  /**
+   * Replaces {@code removedLength} chars at the {@code offset} of the source with the
+   * {@code insertedText} and reparses the affected spans.
+   *
+   * @param offset Offset into the current source at which the edit starts.
+   * @param removedLength Count of chars that are removed at the offset.
+   * @param insertedText Text that is inserted at the offset.
+   * @return Structs that have been added, removed or changed by the edit.
+   */
+  StructDelta applyEdit(int offset, int removedLength, CharSequence insertedText);
+}
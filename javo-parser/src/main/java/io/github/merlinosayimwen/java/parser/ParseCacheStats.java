@@ -0,0 +1,169 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser;
+
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Snapshot of the counters of a CachingStructParser.
+ *
+ * @see CachingStructParser
+ * @since 1.0
+ */
+public final class ParseCacheStats {
+
+  /** Count of lookups that have been answered from memory. */
+  private long hitCount;
+
+  /** Count of lookups that have been answered from the cache directory. */
+  private long diskHitCount;
+
+  /** Count of lookups that made the source being parsed. */
+  private long missCount;
+
+  /** Count of results that have been evicted from memory. */
+  private long evictionCount;
+
+  /** Estimated bytes of the results that are kept in memory. */
+  private long memoryBytes;
+
+  /** Bytes of the results that are kept in the cache directory. */
+  private long diskBytes;
+
+  private ParseCacheStats(
+    long hitCount,
+    long diskHitCount,
+    long missCount,
+    long evictionCount,
+    long memoryBytes,
+    long diskBytes) {
+
+    this.hitCount = hitCount;
+    this.diskHitCount = diskHitCount;
+    this.missCount = missCount;
+    this.evictionCount = evictionCount;
+    this.memoryBytes = memoryBytes;
+    this.diskBytes = diskBytes;
+  }
+
+  /**
+   * Gets the count of lookups that have been answered from memory.
+   *
+   * @return Count of memory hits.
+   */
+  public long getHitCount() {
+    return this.hitCount;
+  }
+
+  /**
+   * Gets the count of lookups that have been answered from the cache directory.
+   *
+   * @return Count of disk hits.
+   */
+  public long getDiskHitCount() {
+    return this.diskHitCount;
+  }
+
+  /**
+   * Gets the count of lookups that made the source being parsed.
+   *
+   * @return Count of misses.
+   */
+  public long getMissCount() {
+    return this.missCount;
+  }
+
+  /**
+   * Gets the count of results that have been evicted from memory.
+   *
+   * @return Count of evictions.
+   */
+  public long getEvictionCount() {
+    return this.evictionCount;
+  }
+
+  /**
+   * Gets the estimated bytes of the results that are kept in memory.
+   *
+   * @return Estimated size of the memory cache.
+   */
+  public long getMemoryBytes() {
+    return this.memoryBytes;
+  }
+
+  /**
+   * Gets the bytes of the results that are kept in the cache directory.
+   *
+   * @return Size of the disk cache, zero if there is no cache directory.
+   */
+  public long getDiskBytes() {
+    return this.diskBytes;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+      .add("hitCount", this.hitCount)
+      .add("diskHitCount", this.diskHitCount)
+      .add("missCount", this.missCount)
+      .add("evictionCount", this.evictionCount)
+      .add("memoryBytes", this.memoryBytes)
+      .add("diskBytes", this.diskBytes)
+      .toString();
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+      this.hitCount,
+      this.diskHitCount,
+      this.missCount,
+      this.evictionCount,
+      this.memoryBytes,
+      this.diskBytes);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) {
+      return true;
+    }
+    if (!(other instanceof ParseCacheStats)) {
+      return false;
+    }
+    ParseCacheStats otherStats = (ParseCacheStats) other;
+    return this.hitCount == otherStats.hitCount
+      && this.diskHitCount == otherStats.diskHitCount
+      && this.missCount == otherStats.missCount
+      && this.evictionCount == otherStats.evictionCount
+      && this.memoryBytes == otherStats.memoryBytes
+      && this.diskBytes == otherStats.diskBytes;
+  }
+
+  /**
+   * Factory method that creates a ParseCacheStats snapshot.
+   *
+   * @param hitCount Count of lookups that have been answered from memory.
+   * @param diskHitCount Count of lookups that have been answered from the cache directory.
+   * @param missCount Count of lookups that made the source being parsed.
+   * @param evictionCount Count of results that have been evicted from memory.
+   * @param memoryBytes Estimated bytes of the results that are kept in memory.
+   * @param diskBytes Bytes of the results that are kept in the cache directory.
+   * @return New instance of the ParseCacheStats.
+   */
+  public static ParseCacheStats create(
+    long hitCount,
+    long diskHitCount,
+    long missCount,
+    long evictionCount,
+    long memoryBytes,
+    long diskBytes) {
+
+    return new ParseCacheStats(
+      hitCount, diskHitCount, missCount, evictionCount, memoryBytes, diskBytes);
+  }
+}
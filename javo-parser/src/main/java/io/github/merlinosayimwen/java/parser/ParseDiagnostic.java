@@ -0,0 +1,133 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser;
+
+import java.util.Objects;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Describes a syntax error together with the span of the source at which it was found.
+ * <p>
+ * Diagnostics are plain values without a stack trace, creating them is cheap even
+ * for sources with thousands of errors. Lines and columns start at one, they are zero
+ * if the parser does not know the position of the error.
+ *
+ * @see ParseResult
+ * @since 1.0
+ */
+public final class ParseDiagnostic {
+
+  /** Message that describes the error. */
+  private String message;
+
+  private int line;
+  private int column;
+  private int endLine;
+  private int endColumn;
+
+  private ParseDiagnostic(String message, int line, int column, int endLine, int endColumn) {
+    this.message = message;
+    this.line = line;
+    this.column = column;
+    this.endLine = endLine;
+    this.endColumn = endColumn;
+  }
+
+  /**
+   * Gets the message that describes the error, without its position.
+   *
+   * @return Message of the diagnostic.
+   */
+  public String getMessage() {
+    return this.message;
+  }
+
+  /**
+   * Gets the line at which the span of the error starts.
+   *
+   * @return One based line of the first char.
+   */
+  public int getLine() {
+    return this.line;
+  }
+
+  /**
+   * Gets the column at which the span of the error starts.
+   *
+   * @return One based column of the first char.
+   */
+  public int getColumn() {
+    return this.column;
+  }
+
+  /**
+   * Gets the line at which the span of the error ends.
+   *
+   * @return One based line of the last char.
+   */
+  public int getEndLine() {
+    return this.endLine;
+  }
+
+  /**
+   * Gets the column at which the span of the error ends, exclusively.
+   *
+   * @return One based column after the last char.
+   */
+  public int getEndColumn() {
+    return this.endColumn;
+  }
+
+  /**
+   * Returns the message followed by the start of the span, which is the format of the
+   * messages of StructParseExceptions.
+   *
+   * @return Message and position of the diagnostic.
+   */
+  @Override
+  public String toString() {
+    return String.format("%s at line %d, column %d", this.message, this.line, this.column);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.message, this.line, this.column, this.endLine, this.endColumn);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) {
+      return true;
+    }
+    if (!(other instanceof ParseDiagnostic)) {
+      return false;
+    }
+    ParseDiagnostic otherDiagnostic = (ParseDiagnostic) other;
+    return this.message.equals(otherDiagnostic.message)
+      && this.line == otherDiagnostic.line
+      && this.column == otherDiagnostic.column
+      && this.endLine == otherDiagnostic.endLine
+      && this.endColumn == otherDiagnostic.endColumn;
+  }
+
+  /**
+   * Factory method that creates a ParseDiagnostic.
+   *
+   * @param message Message that describes the error.
+   * @param line One based line at which the span starts.
+   * @param column One based column at which the span starts.
+   * @param endLine One based line at which the span ends.
+   * @param endColumn One based column after the end of the span.
+   * @return New instance of the ParseDiagnostic.
+   */
+  public static ParseDiagnostic create(
+    String message, int line, int column, int endLine, int endColumn) {
+
+    Preconditions.checkNotNull(message);
+
+    return new ParseDiagnostic(message, line, column, endLine, endColumn);
+  }
+}
@@ -0,0 +1,107 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import io.github.merlinosayimwen.javo.Struct;
+
+/**
+ * Result of a parse that recovers from syntax errors.
+ * <p>
+ * Contains every struct that could be parsed and a diagnostic for every syntax error,
+ * both in source order. A struct that contains an error is skipped as a whole.
+ *
+ * @see StructParser#parseWithDiagnostics(CharSequence)
+ * @see ParseDiagnostic
+ * @since 1.0
+ */
+public final class ParseResult {
+
+  /** Structs that could be parsed. */
+  private List<Struct> structs;
+
+  /** Diagnostics of the syntax errors. */
+  private List<ParseDiagnostic> diagnostics;
+
+  private ParseResult(List<Struct> structs, List<ParseDiagnostic> diagnostics) {
+    this.structs = structs;
+    this.diagnostics = diagnostics;
+  }
+
+  /**
+   * Gets the structs that could be parsed.
+   *
+   * @return Ordered list of the parsed structs.
+   */
+  public List<Struct> getStructs() {
+    return this.structs;
+  }
+
+  /**
+   * Gets the diagnostics of all syntax errors.
+   *
+   * @return Ordered list of the diagnostics.
+   */
+  public List<ParseDiagnostic> getDiagnostics() {
+    return this.diagnostics;
+  }
+
+  /**
+   * Gets whether the source contains syntax errors.
+   *
+   * @return Whether there are diagnostics.
+   */
+  public boolean hasErrors() {
+    return !this.diagnostics.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+      .add("structs", this.structs)
+      .add("diagnostics", this.diagnostics)
+      .toString();
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.structs, this.diagnostics);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) {
+      return true;
+    }
+    if (!(other instanceof ParseResult)) {
+      return false;
+    }
+    ParseResult otherResult = (ParseResult) other;
+    return this.structs.equals(otherResult.structs)
+      && this.diagnostics.equals(otherResult.diagnostics);
+  }
+
+  /**
+   * Factory method that creates a ParseResult.
+   *
+   * @param structs Structs that could be parsed.
+   * @param diagnostics Diagnostics of the syntax errors.
+   * @return New instance of the ParseResult.
+   */
+  public static ParseResult create(
+    Iterable<Struct> structs, Iterable<ParseDiagnostic> diagnostics) {
+
+    Preconditions.checkNotNull(structs);
+    Preconditions.checkNotNull(diagnostics);
+
+    return new ParseResult(ImmutableList.copyOf(structs), ImmutableList.copyOf(diagnostics));
+  }
+}
@@ -0,0 +1,44 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser;
+
+/**
+ * Flag which is used to select and configure the {@code StructParser} that is supplied by the
+ * {@code StructParserFactory}.
+ *
+ * <p>Like the flags of the generator, a flag has no value. Whether it is enabled is determined by
+ * checking its presence in the {@code ParserProfile}.
+ *
+ * @since 1.0
+ * @see ParserProfile
+ * @see StructParserFactory
+ */
+public enum ParserFlag {
+
+  /**
+   * Tells the factory to supply the legacy parser, which scans the source with regular
+   * expressions, instead of the single pass recursive-descent parser. The legacy parser backtracks
+   * on large inputs and does not understand comments, it is mainly kept to compare both
+   * implementations on the same corpus.
+   */
+  REGULAR_EXPRESSION_ENGINE,
+
+  /**
+   * Tells the parser to map files into memory instead of reading them onto the heap. ASCII
+   * files are then parsed straight from the mapped bytes, other files are decoded into a buffer
+   * outside of the heap. This is meant for very large files, small files are read faster.
+   */
+  MEMORY_MAPPED_FILES,
+
+  /**
+   * Tells the parser to split large sources at the boundaries of top-level structs and to
+   * parse the parts concurrently. The structs are still returned in source order. Sources
+   * shorter than the {@code parallel_threshold} property, one million chars by default, are
+   * parsed on the caller's thread.
+   *
+   * @see ParserProfile#PROPERTY_PARALLEL_THRESHOLD
+   */
+  PARALLEL_PARSING
+}
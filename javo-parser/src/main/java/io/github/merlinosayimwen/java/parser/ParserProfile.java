@@ -0,0 +1,209 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Lists settings and preferences of a StructParser.
+ * <p>
+ * The profile is passed to the StructParserFactory, which uses it to select and
+ * configure the supplied implementation. Preferences either come in the form of a
+ * ParserFlag or as custom properties for finer settings.
+ *
+ * @since 1.0
+ * @see ParserFlag
+ * @see StructParserFactory
+ */
+public final class ParserProfile {
+
+  /**
+   * Name of the property that sets the count of chars from which on sources are parsed in
+   * parallel, if the {@code PARALLEL_PARSING} flag is set.
+   */
+  public static final String PROPERTY_PARALLEL_THRESHOLD = "parallel_threshold";
+
+  /**
+   * Name of the property that caps the estimated bytes of the results that a
+   * CachingStructParser keeps in memory.
+   */
+  public static final String PROPERTY_CACHE_MAX_BYTES = "cache_max_bytes";
+
+  /**
+   * Name of the property that sets the directory in which a CachingStructParser keeps
+   * results across processes. Results are only kept in memory if it is absent.
+   */
+  public static final String PROPERTY_CACHE_DIRECTORY = "cache_directory";
+
+  /**
+   * Name of the property that caps the bytes of the results that a CachingStructParser
+   * keeps in its cache directory.
+   */
+  public static final String PROPERTY_CACHE_MAX_DISK_BYTES = "cache_max_disk_bytes";
+
+  /**
+   * Name of the property that selects how names of structs, attributes and types are
+   * interned. The value {@code arena} interns the names of each parse separately and is
+   * the default, {@code shared} interns them through a process wide concurrent pool and
+   * {@code none} disables interning. The value {@code slices} keeps names as slices of
+   * the source, whose strings are only created when they are read. Parsed structs then
+   * retain their source, sources other than strings and files are copied once.
+   */
+  public static final String PROPERTY_NAME_POOL = "name_pool";
+
+  /** Collection of flags set for the parser. */
+  private Collection<ParserFlag> flags;
+
+  /** Map with custom properties for the parser. */
+  private Map<String, String> properties;
+
+  /**
+   * Parameterized constructor that creates a ParserProfile with zero ore more flags.
+   *
+   * @param flags Zero ore more flags set for the parser.
+   * @param properties Map with custom properties for the parser.
+   */
+  private ParserProfile(Iterable<ParserFlag> flags, Map<String, String> properties) {
+    this.flags = Sets.newEnumSet(flags, ParserFlag.class);
+    this.properties = ImmutableMap.copyOf(properties);
+  }
+
+  /**
+   * Gets whether the given {@code flag} is contained in the profiles flags.
+   *
+   * @param flag Flag who's presence in the profiles flags is to be tested.
+   * @return Whether the {@code flag} is contained in the profiles flags.
+   */
+  public boolean hasFlag(ParserFlag flag) {
+    return this.flags.contains(flag);
+  }
+
+  /**
+   * Gets a iterable of all flags configured in the profile.
+   *
+   * @return Iterable of all flags configured in the profile.
+   */
+  public Iterable<ParserFlag> getFlags() {
+    return ImmutableSet.copyOf(this.flags);
+  }
+
+  /**
+   * Gets the named property.
+   *
+   * @param name Name of the property that will be returned.
+   * @return Optional property with the given {@code name}.
+   */
+  public Optional<String> getProperty(String name) {
+    Preconditions.checkNotNull(name);
+    return Optional.ofNullable(this.properties.get(name));
+  }
+
+  /**
+   * Gets the properties of the profile.
+   *
+   * @return Map of defined properties for the parser.
+   */
+  public Map<String, String> getProperties() {
+    return this.properties;
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (!(object instanceof ParserProfile)) {
+      return false;
+    }
+    return deepEquals((ParserProfile) object);
+  }
+
+  private boolean deepEquals(ParserProfile profile) {
+    return this.flags.equals(profile.flags) && this.properties.equals(profile.properties);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.flags, this.properties);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+      .add("flags", this.flags)
+      .add("properties", this.properties)
+      .toString();
+  }
+
+  /** Builder that allows easy creation of a ParserProfile. */
+  public static final class Builder {
+
+    private Collection<ParserFlag> flags;
+    private Map<String, String> properties;
+
+    private Builder() {
+      this.flags = Sets.newHashSet();
+      this.properties = Maps.newHashMap();
+    }
+
+    public Builder addFlag(ParserFlag flag) {
+      Preconditions.checkNotNull(flag);
+      this.flags.add(flag);
+      return this;
+    }
+
+    public Builder withProperty(String name, String value) {
+      Preconditions.checkNotNull(name);
+      Preconditions.checkNotNull(value);
+      this.properties.put(name, value);
+      return this;
+    }
+
+    public ParserProfile create() {
+      return ParserProfile.create(this.flags, this.properties);
+    }
+
+    public static Builder newBuilder() {
+      return new Builder();
+    }
+  }
+
+  /**
+   * Creates a ParserProfile without any flags given.
+   *
+   * @return Newly created plain ParserProfile.
+   */
+  public static ParserProfile create() {
+    return ParserProfile.create(Collections.emptyList());
+  }
+
+  /**
+   * Creates a ParserProfile from the given {@code flags}.
+   *
+   * @param flags Flags chosen for the parser.
+   * @return Newly created profile with the given flags.
+   */
+  public static ParserProfile create(Iterable<ParserFlag> flags) {
+    return ParserProfile.create(flags, Collections.emptyMap());
+  }
+
+  public static ParserProfile create(Iterable<ParserFlag> flags, Map<String, String> properties) {
+    Preconditions.checkNotNull(flags);
+    Preconditions.checkNotNull(properties);
+
+    return new ParserProfile(flags, properties);
+  }
+}
@@ -0,0 +1,132 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import io.github.merlinosayimwen.javo.Struct;
+
+/**
+ * Lists the structs that have been added, removed or changed by an edit of a source.
+ * <p>
+ * Structs are identified by their name. A renamed struct is therefore reported as
+ * removed under its old name and added under its new name. Every list is ordered like
+ * the structs appear in the source.
+ *
+ * @see IncrementalParseSession
+ * @since 1.0
+ */
+public final class StructDelta {
+
+  /** Structs that did not exist before the edit. */
+  private List<Struct> added;
+
+  /** Structs that do no longer exist after the edit. */
+  private List<Struct> removed;
+
+  /** New versions of the structs whose definition has been changed by the edit. */
+  private List<Struct> changed;
+
+  /**
+   * Constructs the StructDelta from the added, removed and changed structs.
+   *
+   * @param added Structs that did not exist before the edit.
+   * @param removed Structs that do no longer exist after the edit.
+   * @param changed New versions of the changed structs.
+   */
+  private StructDelta(List<Struct> added, List<Struct> removed, List<Struct> changed) {
+    this.added = added;
+    this.removed = removed;
+    this.changed = changed;
+  }
+
+  /**
+   * Gets the structs that did not exist before the edit.
+   *
+   * @return Ordered list of added structs.
+   */
+  public List<Struct> getAdded() {
+    return this.added;
+  }
+
+  /**
+   * Gets the structs that do no longer exist after the edit.
+   *
+   * @return Ordered list of removed structs.
+   */
+  public List<Struct> getRemoved() {
+    return this.removed;
+  }
+
+  /**
+   * Gets the new versions of the structs whose definition has been changed by the edit.
+   *
+   * @return Ordered list of changed structs.
+   */
+  public List<Struct> getChanged() {
+    return this.changed;
+  }
+
+  /**
+   * Gets whether the edit has not affected any struct.
+   *
+   * @return Whether no struct has been added, removed or changed.
+   */
+  public boolean isEmpty() {
+    return this.added.isEmpty() && this.removed.isEmpty() && this.changed.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+      .add("added", this.added)
+      .add("removed", this.removed)
+      .add("changed", this.changed)
+      .toString();
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.added, this.removed, this.changed);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) {
+      return true;
+    }
+    if (!(other instanceof StructDelta)) {
+      return false;
+    }
+    StructDelta otherDelta = (StructDelta) other;
+    return this.added.equals(otherDelta.added)
+      && this.removed.equals(otherDelta.removed)
+      && this.changed.equals(otherDelta.changed);
+  }
+
+  /**
+   * Factory method that creates a StructDelta.
+   *
+   * @param added Structs that did not exist before the edit.
+   * @param removed Structs that do no longer exist after the edit.
+   * @param changed New versions of the changed structs.
+   * @return New instance of the StructDelta.
+   */
+  public static StructDelta create(
+    Iterable<Struct> added, Iterable<Struct> removed, Iterable<Struct> changed) {
+
+    Preconditions.checkNotNull(added);
+    Preconditions.checkNotNull(removed);
+    Preconditions.checkNotNull(changed);
+
+    return new StructDelta(
+      ImmutableList.copyOf(added), ImmutableList.copyOf(removed), ImmutableList.copyOf(changed));
+  }
+}
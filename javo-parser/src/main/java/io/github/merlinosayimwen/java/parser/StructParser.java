@@ -4,11 +4,29 @@
 
 package io.github.merlinosayimwen.java.parser;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.PathMatcher;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.google.common.base.Preconditions;
 
 import io.github.merlinosayimwen.javo.Struct;
 
@@ -26,6 +44,10 @@ import io.github.merlinosayimwen.javo.Struct;
  * When the StructParser fails to parse certain sources a StructParseException will most probably be
  * thrown as response. In some cases unchecked Exceptions like NullPointerExceptions or IllegalArgumentExceptions
  * are thrown as a response to invalid input.
+ * <p>
+ * Implementations only have to provide the {@code parse} and {@code parseSingle} methods
+ * of paths and CharSequences, every other operation has a default implementation that is
+ * expressed through them. Those may be overridden with more efficient ones.
  *
  * @see Struct
  * @see StructParseException
@@ -51,6 +73,298 @@ public interface StructParser {
    */
   Collection<Struct> parse(CharSequence source) throws StructParseException;
 
+  /**
+   * Parses structs from the given source and recovers from syntax errors.
+   * <p>
+   * Instead of failing on the first syntax error, the parser reports it as diagnostic,
+   * skips to the next struct boundary and continues. All errors of a source are
+   * therefore found in one pass.
+   *
+   * <p>
+   * The default implementation stops at the first error, which it reports as the only
+   * diagnostic without a position. Parsers that are able to recover should override it.
+   *
+   * @param source In memory source that is parsed.
+   * @return Result with the parsed structs and the diagnostics of every error.
+   */
+  default ParseResult parseWithDiagnostics(CharSequence source) {
+    Preconditions.checkNotNull(source);
+
+    try {
+      return ParseResult.create(parse(source), Collections.emptyList());
+    } catch (StructParseException parseFailure) {
+      return ParseResult.create(
+        Collections.emptyList(),
+        Collections.singletonList(ParseDiagnostic.create(parseFailure.getMessage(), 0, 0, 0, 0)));
+    }
+  }
+
+  /**
+   * Parses structs from the given source file and recovers from syntax errors.
+   *
+   * @param source Source file that is read and parsed.
+   * @return Result with the parsed structs and the diagnostics of every error.
+   * @throws StructParseException Thrown if the file can't be read.
+   * @see #parseWithDiagnostics(CharSequence)
+   */
+  default ParseResult parseWithDiagnostics(Path source) throws StructParseException {
+    Preconditions.checkNotNull(source);
+
+    try {
+      return parseWithDiagnostics(new String(Files.readAllBytes(source), StandardCharsets.UTF_8));
+    } catch (IOException ioFailure) {
+      throw StructParseException.createWithCause(ioFailure);
+    }
+  }
+
+  /**
+   * Lazily parses structs from the given reader.
+   * <p>
+   * Every struct is parsed and emitted as soon as its closing brace has been read, the
+   * used memory is therefore bounded by the largest struct instead of the size of the
+   * source. Failures are thrown as {@code {@link UncheckedStructParseException}} by the
+   * operations of the stream. Closing the stream closes the reader.
+   * <p>
+   * The default implementation reads the whole source once the stream is consumed and
+   * parses it with {@link #parse(CharSequence)}.
+   *
+   * @param source Reader that is lazily read and parsed.
+   * @return Ordered stream of the parsed structs.
+   */
+  default Stream<Struct> parse(Reader source) {
+    Preconditions.checkNotNull(source);
+
+    Stream<Struct> structs = Stream.of(source)
+      .flatMap(reader -> StructParsers.parseRemaining(this, reader).stream());
+    return structs.onClose(() -> {
+      try {
+        source.close();
+      } catch (IOException ioFailure) {
+        throw new UncheckedIOException(ioFailure);
+      }
+    });
+  }
+
+  /**
+   * Lazily parses structs from the given UTF-8 encoded input stream.
+   *
+   * @param source Input stream that is lazily read and parsed.
+   * @return Ordered stream of the parsed structs.
+   * @see #parse(Reader)
+   */
+  default Stream<Struct> parse(InputStream source) {
+    Preconditions.checkNotNull(source);
+
+    return parse(new InputStreamReader(source, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Lazily parses structs from the given UTF-8 encoded channel.
+   *
+   * @param source Channel that is lazily read and parsed.
+   * @return Ordered stream of the parsed structs.
+   * @see #parse(Reader)
+   */
+  default Stream<Struct> parse(ReadableByteChannel source) {
+    Preconditions.checkNotNull(source);
+
+    return parse(Channels.newReader(source, StandardCharsets.UTF_8.newDecoder(), -1));
+  }
+
+  /**
+   * Lazily parses structs from the given reader.
+   * <p>
+   * Like {@link #parse(Reader)} but returns an iterator, every call to
+   * {@link Iterator#hasNext()} reads no further than the next struct. The caller stays
+   * responsible for closing the reader.
+   *
+   * @param source Reader that is lazily read and parsed.
+   * @return Iterator over the parsed structs.
+   */
+  default Iterator<Struct> iterate(Reader source) {
+    Preconditions.checkNotNull(source);
+
+    return Stream.of(source)
+      .flatMap(reader -> StructParsers.parseRemaining(this, reader).stream())
+      .iterator();
+  }
+
+  /**
+   * Parses every file of the {@code sources} in parallel, using the common ForkJoinPool.
+   *
+   * @param sources Source files that are read and parsed.
+   * @return Result with the structs and failures of every file.
+   * @see #parseAll(Collection, Executor)
+   */
+  default BatchParseResult parseAll(Collection<Path> sources) {
+    return parseAll(sources, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Parses every file of the {@code sources} in parallel, using the {@code executor}.
+   * <p>
+   * Each file is parsed by its own task and failures of single files don't abort the
+   * batch, they are collected into the returned result. The result is ordered like the
+   * {@code sources}, duplicated paths are only parsed once. The caller's thread blocks
+   * until every file has been parsed.
+   *
+   * @param sources Source files that are read and parsed.
+   * @param executor Executor that is running the parse tasks.
+   * @return Result with the structs and failures of every file.
+   */
+  default BatchParseResult parseAll(Collection<Path> sources, Executor executor) {
+    Preconditions.checkNotNull(sources);
+    Preconditions.checkNotNull(executor);
+
+    return StructParsers.parseAll(this, sources, executor);
+  }
+
+  /**
+   * Parses every file below the {@code root} that is matched by the {@code matcher} in
+   * parallel, using the common ForkJoinPool.
+   *
+   * @param root Directory that is walked recursively.
+   * @param matcher Matcher that selects the parsed files by their path.
+   * @return Result with the structs and failures of every file.
+   * @throws StructParseException Thrown if the directory can't be walked.
+   * @see #parseTree(Path, PathMatcher, Executor)
+   */
+  default BatchParseResult parseTree(Path root, PathMatcher matcher)
+    throws StructParseException {
+
+    return parseTree(root, matcher, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Parses every file below the {@code root} that is matched by the {@code matcher} in
+   * parallel, using the {@code executor}.
+   * <p>
+   * The matcher is tested with the paths as they are resolved against the {@code root}.
+   * Matched files are parsed like by {@link #parseAll(Collection, Executor)}, in the
+   * lexicographic order of their paths.
+   *
+   * @param root Directory that is walked recursively.
+   * @param matcher Matcher that selects the parsed files by their path.
+   * @param executor Executor that is running the parse tasks.
+   * @return Result with the structs and failures of every file.
+   * @throws StructParseException Thrown if the directory can't be walked.
+   */
+  default BatchParseResult parseTree(Path root, PathMatcher matcher, Executor executor)
+    throws StructParseException {
+
+    Preconditions.checkNotNull(root);
+    Preconditions.checkNotNull(matcher);
+    Preconditions.checkNotNull(executor);
+
+    return parseAll(StructParsers.listTree(root, matcher), executor);
+  }
+
+  /**
+   * Parses the {@code source} file on the {@code executor} without blocking the caller.
+   * <p>
+   * The returned future completes with the parsed structs or exceptionally with the
+   * StructParseException that the parser has thrown. Other failures of the task, and a
+   * rejection of the task by the executor, complete the future exceptionally as well.
+   *
+   * @param source Source file that is read and parsed.
+   * @param executor Executor that is running the parse task.
+   * @return Future of the parsed structs.
+   */
+  default CompletableFuture<Collection<Struct>> parseAsync(Path source, Executor executor) {
+    Preconditions.checkNotNull(source);
+    Preconditions.checkNotNull(executor);
+
+    return StructParsers.runAsync(() -> parse(source), executor);
+  }
+
+  /**
+   * Parses the {@code source} on the {@code executor} without blocking the caller.
+   * The source must not be modified until the returned future has completed.
+   *
+   * @param source In memory source that is parsed.
+   * @param executor Executor that is running the parse task.
+   * @return Future of the parsed structs.
+   * @see #parseAsync(Path, Executor)
+   */
+  default CompletableFuture<Collection<Struct>> parseAsync(
+    CharSequence source, Executor executor) {
+
+    Preconditions.checkNotNull(source);
+    Preconditions.checkNotNull(executor);
+
+    return StructParsers.runAsync(() -> parse(source), executor);
+  }
+
+  /**
+   * Parses the {@code source} file on the {@code executor} and passes every struct to the
+   * {@code consumer} as soon as it has been parsed.
+   * <p>
+   * The file is streamed like by {@link #parse(Reader)}, so the first structs are
+   * consumed long before a large file has been read completely. The consumer is called
+   * on the executor's thread, in the order of the structs in the source. The returned
+   * future completes once the whole file has been parsed, or exceptionally with the
+   * StructParseException of the first invalid struct. Structs in front of it have been
+   * passed to the consumer already.
+   *
+   * @param source Source file that is read and parsed.
+   * @param consumer Consumer that is called with every parsed struct.
+   * @param executor Executor that is running the parse task.
+   * @return Future that completes after the last struct has been consumed.
+   */
+  default CompletableFuture<Void> parseAsync(
+    Path source, Consumer<? super Struct> consumer, Executor executor) {
+
+    Preconditions.checkNotNull(source);
+    Preconditions.checkNotNull(consumer);
+    Preconditions.checkNotNull(executor);
+
+    return StructParsers.runAsync(() -> {
+      Reader reader;
+      try {
+        reader = Files.newBufferedReader(source, StandardCharsets.UTF_8);
+      } catch (IOException ioFailure) {
+        throw StructParseException.createWithCause(ioFailure);
+      }
+      return StructParsers.consumeAll(this, reader, consumer);
+    }, executor);
+  }
+
+  /**
+   * Parses the {@code source} on the {@code executor} and passes every struct to the
+   * {@code consumer} as soon as it has been parsed.
+   *
+   * @param source In memory source that is parsed.
+   * @param consumer Consumer that is called with every parsed struct.
+   * @param executor Executor that is running the parse task.
+   * @return Future that completes after the last struct has been consumed.
+   * @see #parseAsync(Path, Consumer, Executor)
+   */
+  default CompletableFuture<Void> parseAsync(
+    CharSequence source, Consumer<? super Struct> consumer, Executor executor) {
+
+    Preconditions.checkNotNull(source);
+    Preconditions.checkNotNull(consumer);
+    Preconditions.checkNotNull(executor);
+
+    return StructParsers.runAsync(
+      () -> StructParsers.consumeAll(this, new StringReader(source.toString()), consumer),
+      executor);
+  }
+
+  /**
+   * Opens a session that parses the {@code source} and incrementally reparses it on
+   * every edit. The source is copied by the session.
+   *
+   * This is an optional operation, the default implementation doesn't support sessions.
+   *
+   * @param source Source that is initially parsed.
+   * @return Session that keeps the parsed source.
+   * @throws UnsupportedOperationException Thrown if the parser doesn't support sessions.
+   * @see IncrementalParseSession
+   */
+  default IncrementalParseSession openSession(CharSequence source) {
+    throw new UnsupportedOperationException("Incremental parsing is not supported");
+  }
 
   /**
    * Parses one {@code {@link Struct}} from the {@code source}.
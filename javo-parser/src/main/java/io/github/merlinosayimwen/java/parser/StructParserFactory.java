@@ -4,6 +4,7 @@
 
 package io.github.merlinosayimwen.java.parser;
 
+import com.google.common.base.Preconditions;
 import io.github.merlinosayimwen.java.parser.internal.InternalAccess;
 import java.util.function.Supplier;
 
@@ -49,4 +50,36 @@ public final class StructParserFactory {
   public StructParser getInstance() {
     return StructParserFactory.supplier.get();
   }
+
+  /**
+   * Resolves the instance of the {@code {@link StructParser}} implementation that is selected and
+   * configured by the {@code profile}.
+   *
+   * <p>The default implementation is a single pass recursive-descent parser, the {@code {@link
+   * ParserFlag#REGULAR_EXPRESSION_ENGINE}} flag selects the legacy implementation instead.
+   *
+   * @param profile Preferences and settings given for the parser.
+   * @return Instance of a {@code {@link StructParser}} implementation.
+   */
+  public StructParser getInstance(ParserProfile profile) {
+    Preconditions.checkNotNull(profile);
+
+    return InternalAccess.createStructParser(profile);
+  }
+
+  /**
+   * Creates a {@code {@link CachingStructParser}} that caches the results of the implementation
+   * that is selected and configured by the {@code profile}.
+   *
+   * <p>The cache is configured by the {@code cache_max_bytes}, {@code cache_directory} and {@code
+   * cache_max_disk_bytes} properties of the profile. Every invocation creates a new cache.
+   *
+   * @param profile Preferences and settings given for the parser and its cache.
+   * @return New instance of a {@code {@link CachingStructParser}} implementation.
+   */
+  public CachingStructParser getCachingInstance(ParserProfile profile) {
+    Preconditions.checkNotNull(profile);
+
+    return InternalAccess.createCachingStructParser(profile);
+  }
 }
@@ -0,0 +1,179 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.CharStreams;
+
+import io.github.merlinosayimwen.javo.Struct;
+
+/**
+ * Implementations of the StructParser's default methods, which are expressed through the
+ * parse methods that every parser implements.
+ *
+ * @see StructParser
+ * @since 1.0
+ */
+final class StructParsers {
+
+  private StructParsers() {}
+
+  /**
+   * Parses every file of the {@code sources} in parallel.
+   *
+   * @see StructParser#parseAll(Collection, Executor)
+   */
+  static BatchParseResult parseAll(
+    StructParser parser, Collection<Path> sources, Executor executor) {
+
+    List<Path> files = ImmutableSet.copyOf(sources).asList();
+    List<CompletableFuture<Collection<Struct>>> tasks = files.stream()
+      .map(file -> CompletableFuture.supplyAsync(() -> parseFile(parser, file), executor))
+      .collect(Collectors.toList());
+
+    // The tasks are joined in the order of the files, which keeps the result
+    // deterministic no matter which task completes first.
+    Map<Path, Collection<Struct>> results = new LinkedHashMap<>();
+    Map<Path, StructParseException> failures = new LinkedHashMap<>();
+    for (int index = 0; index < files.size(); index++) {
+      try {
+        results.put(files.get(index), tasks.get(index).join());
+      } catch (CompletionException taskFailure) {
+        Throwable cause = taskFailure.getCause();
+        if (!(cause instanceof UncheckedStructParseException)) {
+          Throwables.throwIfUnchecked(cause);
+          throw taskFailure;
+        }
+        failures.put(files.get(index), ((UncheckedStructParseException) cause).getCause());
+      }
+    }
+    return BatchParseResult.create(results, failures);
+  }
+
+  /**
+   * Parses the {@code file} as a task of a batch. Every failure of the file, including
+   * unchecked exceptions like those of reading it, is wrapped so that it only fails the
+   * file and not the batch.
+   */
+  private static Collection<Struct> parseFile(StructParser parser, Path file) {
+    try {
+      if (!Files.isRegularFile(file)) {
+        throw StructParseException.createWithCause(new NoSuchFileException(file.toString()));
+      }
+      return parser.parse(file);
+    } catch (StructParseException parseFailure) {
+      throw UncheckedStructParseException.wrap(parseFailure);
+    } catch (UncheckedStructParseException parseFailure) {
+      throw parseFailure;
+    } catch (RuntimeException failure) {
+      throw UncheckedStructParseException.wrap(StructParseException.createWithCause(failure));
+    }
+  }
+
+  /**
+   * Reads the remaining characters of the {@code source} and parses them. Failures are
+   * wrapped into an UncheckedStructParseException.
+   *
+   * @see StructParser#parse(Reader)
+   */
+  static Collection<Struct> parseRemaining(StructParser parser, Reader source) {
+    try {
+      return parser.parse(CharStreams.toString(source));
+    } catch (StructParseException parseFailure) {
+      throw UncheckedStructParseException.wrap(parseFailure);
+    } catch (IOException ioFailure) {
+      throw UncheckedStructParseException.wrap(StructParseException.createWithCause(ioFailure));
+    }
+  }
+
+  /**
+   * Lists the files below the {@code root} that are matched by the {@code matcher}, in
+   * the lexicographic order of their paths.
+   *
+   * @see StructParser#parseTree(Path, PathMatcher, Executor)
+   */
+  static List<Path> listTree(Path root, PathMatcher matcher) throws StructParseException {
+    try (Stream<Path> paths = Files.walk(root)) {
+      return paths
+        .filter(Files::isRegularFile)
+        .filter(matcher::matches)
+        .sorted()
+        .collect(Collectors.toList());
+    } catch (IOException | UncheckedIOException walkFailure) {
+      throw StructParseException.createWithCause(walkFailure);
+    }
+  }
+
+  /**
+   * Passes every struct that is parsed from the {@code source} to the {@code consumer}.
+   * The reader is closed afterwards.
+   *
+   * @see StructParser#parseAsync(CharSequence, Consumer, Executor)
+   */
+  static Void consumeAll(
+    StructParser parser, Reader source, Consumer<? super Struct> consumer)
+    throws StructParseException {
+
+    try (Reader reader = source) {
+      Iterator<Struct> structs = parser.iterate(reader);
+      structs.forEachRemaining(consumer);
+    } catch (UncheckedStructParseException parseFailure) {
+      throw parseFailure.getCause();
+    } catch (IOException ioFailure) {
+      throw StructParseException.createWithCause(ioFailure);
+    }
+    return null;
+  }
+
+  /** Task that is run asynchronously and might fail with a StructParseException. */
+  @FunctionalInterface
+  interface ParseTask<T> {
+    T run() throws StructParseException;
+  }
+
+  /**
+   * Runs the {@code task} on the {@code executor}. Unlike with
+   * {@link CompletableFuture#supplyAsync}, the returned future is completed with the
+   * StructParseException itself and not with a wrapper of it. Every other failure of the
+   * task, errors included, and a rejection of the executor complete the future
+   * exceptionally as well, so that it never stays incomplete.
+   */
+  static <T> CompletableFuture<T> runAsync(ParseTask<T> task, Executor executor) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    try {
+      executor.execute(() -> {
+        try {
+          future.complete(task.run());
+        } catch (Throwable failure) {
+          future.completeExceptionally(failure);
+        }
+      });
+    } catch (RejectedExecutionException rejection) {
+      future.completeExceptionally(rejection);
+    }
+    return future;
+  }
+}
@@ -0,0 +1,50 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Unchecked Exception that wraps a StructParseException.
+ * <p>
+ * It is thrown by the lazy operations of the StructParser, like the returned streams
+ * and iterators, which can't throw checked exceptions.
+ *
+ * @see StructParseException
+ * @see StructParser
+ * @since 1.0
+ */
+public final class UncheckedStructParseException extends RuntimeException {
+
+  /**
+   * Constructs the UncheckedStructParseException with a {@code cause}.
+   *
+   * @param cause Failure that is wrapped by this exception.
+   */
+  private UncheckedStructParseException(StructParseException cause) {
+    super(cause.getMessage(), cause);
+  }
+
+  /**
+   * Returns the wrapped StructParseException.
+   *
+   * @return The cause of this exception.
+   */
+  @Override
+  public synchronized StructParseException getCause() {
+    return (StructParseException) super.getCause();
+  }
+
+  /**
+   * Factory method that creates an UncheckedStructParseException from its {@code cause}.
+   *
+   * @param cause Failure that is wrapped by the created exception.
+   * @return New instance of the UncheckedStructParseException.
+   */
+  public static UncheckedStructParseException wrap(StructParseException cause) {
+    Preconditions.checkNotNull(cause);
+    return new UncheckedStructParseException(cause);
+  }
+}
@@ -0,0 +1,186 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser.internal;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.google.common.base.Preconditions;
+
+import io.github.merlinosayimwen.java.parser.IncrementalParseSession;
+import io.github.merlinosayimwen.java.parser.ParseResult;
+import io.github.merlinosayimwen.java.parser.ParserFlag;
+import io.github.merlinosayimwen.java.parser.ParserProfile;
+import io.github.merlinosayimwen.java.parser.StructParseException;
+import io.github.merlinosayimwen.java.parser.StructParser;
+import io.github.merlinosayimwen.javo.Struct;
+
+/**
+ * Base of the internal StructParser implementations.
+ * <p>
+ * Implements the operations that can be expressed through {@link #parse(CharSequence)},
+ * which is the only method that implementations have to provide. Unlike the defaults of
+ * the StructParser, streamed sources are split into chunks of one struct each, which are
+ * passed to {@link #parseChunk}, and files may be memory mapped.
+ *
+ * @see InternalStructParser
+ * @see InternalRegexStructParser
+ * @since 1.0
+ */
+abstract class AbstractStructParser implements StructParser {
+
+  /** Preferences and settings given for the parser. */
+  final ParserProfile profile;
+
+  /**
+   * Constructs the parser with the {@code profile} that configures it.
+   *
+   * @param profile Preferences and settings given for the parser.
+   */
+  AbstractStructParser(ParserProfile profile) {
+    this.profile = profile;
+  }
+
+  @Override
+  public Optional<Struct> parseSingle(Path path) throws StructParseException {
+    return this.firstOrNone(this.parse(path));
+  }
+
+  @Override
+  public Optional<Struct> parseSingle(CharSequence source) throws StructParseException {
+    return this.firstOrNone(this.parse(source));
+  }
+
+  /**
+   * Returns the first element of in a set of structs.
+   * The returned value is empty if the entry is {@link Collection#isEmpty() empty}.
+   *
+   * @param elements Set of structs that is checked for one element.
+   * @return First element of the elements if it is not empty.
+   */
+  private Optional<Struct> firstOrNone(Collection<Struct> elements) {
+    Preconditions.checkNotNull(elements);
+
+    return elements.stream().findFirst();
+  }
+
+  @Override
+  public Collection<Struct> parse(Path source) throws StructParseException {
+    Preconditions.checkNotNull(source);
+    Preconditions.checkArgument(Files.isRegularFile(source), "No file at path");
+
+    try {
+      // Empty files, like those that have just been created, declare no structs.
+      if (Files.size(source) == 0) {
+        return Collections.emptyList();
+      }
+      if (this.profile.hasFlag(ParserFlag.MEMORY_MAPPED_FILES)) {
+        return parse(MappedSources.map(source));
+      }
+      return parse(new String(Files.readAllBytes(source), StandardCharsets.UTF_8));
+    } catch (IOException ioFailure) {
+      throw StructParseException.createWithCause(ioFailure);
+    }
+  }
+
+  @Override
+  public ParseResult parseWithDiagnostics(Path source) throws StructParseException {
+    Preconditions.checkNotNull(source);
+    Preconditions.checkArgument(Files.isRegularFile(source), "No file at path");
+
+    try {
+      if (Files.size(source) == 0) {
+        return ParseResult.create(Collections.emptyList(), Collections.emptyList());
+      }
+      if (this.profile.hasFlag(ParserFlag.MEMORY_MAPPED_FILES)) {
+        return parseWithDiagnostics(MappedSources.map(source));
+      }
+      return parseWithDiagnostics(
+        new String(Files.readAllBytes(source), StandardCharsets.UTF_8));
+    } catch (IOException ioFailure) {
+      throw StructParseException.createWithCause(ioFailure);
+    }
+  }
+
+  @Override
+  public Stream<Struct> parse(Reader source) {
+    StructIterator iterator = createIterator(source);
+    Spliterator<Struct> spliterator = Spliterators.spliteratorUnknownSize(
+      iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+
+    return StreamSupport.stream(spliterator, false).onClose(() -> {
+      try {
+        iterator.close();
+      } catch (IOException ioFailure) {
+        throw new UncheckedIOException(ioFailure);
+      }
+    });
+  }
+
+  @Override
+  public Iterator<Struct> iterate(Reader source) {
+    return createIterator(source);
+  }
+
+  @Override
+  public IncrementalParseSession openSession(CharSequence source) {
+    Preconditions.checkNotNull(source);
+
+    return new InternalIncrementalParseSession(this, source);
+  }
+
+  private StructIterator createIterator(Reader source) {
+    Preconditions.checkNotNull(source);
+
+    return new StructIterator(this, new StructChunkReader(source));
+  }
+
+  /**
+   * Parses one chunk of a streamed source. A chunk contains at most one struct.
+   *
+   * @param chunk Chunk of the source, which is only valid during the call.
+   * @param firstLine Line of the source at which the chunk starts.
+   * @param firstColumn Column of the source at which the chunk starts.
+   * @param firstOffset Offset of the source at which the chunk starts.
+   * @return Structs that have been parsed from the chunk.
+   * @throws StructParseException Thrown if the chunk is invalid.
+   */
+  Collection<Struct> parseChunk(
+    CharSequence chunk, int firstLine, int firstColumn, int firstOffset)
+    throws StructParseException {
+
+    return parse(chunk);
+  }
+
+  /**
+   * Parses a region of a larger source. The region contains whole structs only.
+   *
+   * @param source Source that contains the region.
+   * @param region Region of the source that is parsed.
+   * @return Structs that have been parsed from the region.
+   * @throws StructParseException Thrown if the region is invalid.
+   */
+  Collection<Struct> parseRegion(CharSequence source, StructBoundaryScanner.Region region)
+    throws StructParseException {
+
+    return parseChunk(
+      source.subSequence(region.start, region.end),
+      region.line,
+      region.start - region.lineStart + 1,
+      region.start);
+  }
+}
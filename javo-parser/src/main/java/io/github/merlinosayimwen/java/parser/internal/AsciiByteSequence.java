@@ -0,0 +1,82 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser.internal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * CharSequence view of a buffer that only contains ASCII bytes.
+ * <p>
+ * Since every ASCII byte is a char of the same value, the bytes don't have to be
+ * decoded and are read straight from the buffer. Sub sequences share the buffer and
+ * only {@link #toString()} copies bytes. The view is never checking whether the bytes
+ * are actually ASCII, this has to be done by its creator.
+ *
+ * @see MappedSources
+ * @since 1.0
+ */
+final class AsciiByteSequence implements CharSequence {
+
+  private final ByteBuffer bytes;
+  private final int offset;
+  private final int length;
+
+  /**
+   * Constructs a view of the bytes between {@code offset} and {@code offset + length}.
+   *
+   * @param bytes Buffer of ASCII bytes, which may not be modified by its owner.
+   * @param offset Absolute index of the first byte in the view.
+   * @param length Count of bytes in the view.
+   */
+  AsciiByteSequence(ByteBuffer bytes, int offset, int length) {
+    this.bytes = bytes;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  @Override
+  public int length() {
+    return this.length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (index < 0 || index >= this.length) {
+      throw new IndexOutOfBoundsException("index: " + index + ", length: " + this.length);
+    }
+    return (char) this.bytes.get(this.offset + index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    Preconditions.checkPositionIndexes(start, end, this.length);
+    return new AsciiByteSequence(this.bytes, this.offset + start, end - start);
+  }
+
+  @Override
+  public String toString() {
+    return text(0, this.length);
+  }
+
+  /**
+   * Copies the chars between {@code start} and {@code end} into a String, without
+   * creating a sub sequence first.
+   *
+   * @param start Index of the first char, inclusive.
+   * @param end Index of the last char, exclusive.
+   * @return Copy of the chars in the range.
+   */
+  String text(int start, int end) {
+    Preconditions.checkPositionIndexes(start, end, this.length);
+    byte[] copy = new byte[end - start];
+    for (int index = 0; index < copy.length; index++) {
+      copy[index] = this.bytes.get(this.offset + start + index);
+    }
+    return new String(copy, StandardCharsets.US_ASCII);
+  }
+}
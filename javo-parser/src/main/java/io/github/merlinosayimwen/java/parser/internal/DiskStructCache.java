@@ -0,0 +1,227 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.hash.HashCode;
+
+import io.github.merlinosayimwen.javo.Struct;
+import io.github.merlinosayimwen.javo.io.StructReader;
+import io.github.merlinosayimwen.javo.io.StructWriter;
+
+/**
+ * Directory that keeps encoded structs across processes.
+ * <p>
+ * Every result is stored in its own file, which is named after the hash of its source.
+ * Files are written to a temporary file first and then moved into place, concurrent
+ * writers of the same result therefore never expose partial files. Results that are
+ * stored already are kept, only the writer that has created a file counts its bytes.
+ * Once the files exceed the configured bytes, the least recently used files are deleted.
+ * Reads update the modification time of a file, which is used as its last usage. Files
+ * that can't be decoded are deleted and treated as absent.
+ *
+ * @see InternalCachingStructParser
+ * @see StructWriter
+ * @see StructReader
+ * @since 1.0
+ */
+final class DiskStructCache {
+
+  private static final String FILE_SUFFIX = ".structs";
+
+  /** Fraction of the maximal bytes that is left after the directory has been pruned. */
+  private static final double PRUNED_FILL_RATIO = 0.9;
+
+  private final Path directory;
+  private final long maxBytes;
+  private final AtomicLong bytes;
+
+  /**
+   * Constructs a cache that keeps its files in the {@code directory}, which is created if
+   * it does not exist yet.
+   *
+   * @param directory Directory that keeps the files.
+   * @param maxBytes Maximal bytes of all files in the directory.
+   * @throws UncheckedIOException Thrown if the directory can't be created or listed.
+   */
+  DiskStructCache(Path directory, long maxBytes) {
+    this.directory = directory;
+    this.maxBytes = maxBytes;
+    try {
+      Files.createDirectories(directory);
+      this.bytes = new AtomicLong(listFiles().stream().mapToLong(DiskStructCache::sizeOf).sum());
+    } catch (IOException ioFailure) {
+      throw new UncheckedIOException(ioFailure);
+    }
+  }
+
+  /**
+   * Reads the structs that are stored for the {@code key}.
+   *
+   * @param key Hash of the source whose structs are read.
+   * @return Stored structs, which are absent if there is no valid file for the key.
+   */
+  Optional<Collection<Struct>> read(HashCode key) {
+    Path file = resolve(key);
+    Collection<Struct> structs;
+    try (InputStream input = Files.newInputStream(file)) {
+      structs = StructReader.create(input).read();
+    } catch (NoSuchFileException absent) {
+      return Optional.empty();
+    } catch (IOException | RuntimeException invalidFile) {
+      delete(file);
+      return Optional.empty();
+    }
+    touch(file);
+    return Optional.of(structs);
+  }
+
+  /**
+   * Marks the {@code file} as recently used, so that it is pruned last. Read only and
+   * shared directories don't allow that, their files are still read.
+   */
+  private static void touch(Path file) {
+    try {
+      Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+    } catch (IOException ignored) {
+      // The file is pruned earlier than it would have to be.
+    }
+  }
+
+  /**
+   * Stores the {@code structs} for the {@code key}. Failures are ignored, since the cache
+   * directory is only an optimization.
+   *
+   * @param key Hash of the source whose structs are stored.
+   * @param structs Structs that are stored.
+   */
+  void write(HashCode key, Collection<Struct> structs) {
+    Path file = resolve(key);
+    if (Files.exists(file)) {
+      return;
+    }
+    Path temporaryFile = null;
+    try {
+      temporaryFile = Files.createTempFile(this.directory, key.toString(), ".tmp");
+      try (OutputStream output = Files.newOutputStream(temporaryFile)) {
+        StructWriter.create(output).write(structs);
+      }
+      long size = Files.size(temporaryFile);
+      if (publish(temporaryFile, file) && this.bytes.addAndGet(size) > this.maxBytes) {
+        prune();
+      }
+    } catch (IOException ignored) {
+      // The result is parsed again by the next miss.
+    } finally {
+      if (temporaryFile != null) {
+        delete(temporaryFile);
+      }
+    }
+  }
+
+  /**
+   * Moves the written {@code temporaryFile} into place, unless the file has already been
+   * stored. Results of the same key are equal, the stored file is kept. Publishing is
+   * serialized, so that concurrent writers of a key count its bytes only once.
+   *
+   * @return Whether the file has been created.
+   */
+  private synchronized boolean publish(Path temporaryFile, Path file) throws IOException {
+    if (Files.exists(file)) {
+      return false;
+    }
+    Files.move(temporaryFile, file,
+      StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    return true;
+  }
+
+  /**
+   * Gets the bytes of all files in the directory.
+   *
+   * @return Size of the directory.
+   */
+  long getBytes() {
+    return this.bytes.get();
+  }
+
+  /** Deletes the least recently used files until the directory is small enough. */
+  private synchronized void prune() throws IOException {
+    long target = (long) (this.maxBytes * PRUNED_FILL_RATIO);
+    if (this.bytes.get() <= this.maxBytes) {
+      return;
+    }
+    // Usages are read once, since reads keep updating them while the files are sorted.
+    Map<Path, Long> usages = new HashMap<>();
+    for (Path file : listFiles()) {
+      usages.put(file, lastModifiedOf(file));
+    }
+    List<Path> files = new ArrayList<>(usages.keySet());
+    files.sort(Comparator.comparing(usages::get));
+    for (Path file : files) {
+      if (this.bytes.get() <= target) {
+        return;
+      }
+      delete(file);
+    }
+  }
+
+  private List<Path> listFiles() throws IOException {
+    List<Path> files = new ArrayList<>();
+    try (DirectoryStream<Path> stream =
+      Files.newDirectoryStream(this.directory, "*" + FILE_SUFFIX)) {
+      stream.forEach(files::add);
+    }
+    return files;
+  }
+
+  private void delete(Path file) {
+    long size = sizeOf(file);
+    try {
+      if (Files.deleteIfExists(file) && file.toString().endsWith(FILE_SUFFIX)) {
+        this.bytes.addAndGet(-size);
+      }
+    } catch (IOException ignored) {
+      // The file is either replaced by the next write or deleted by the next prune.
+    }
+  }
+
+  private Path resolve(HashCode key) {
+    return this.directory.resolve(key + FILE_SUFFIX);
+  }
+
+  private static long sizeOf(Path file) {
+    try {
+      return Files.size(file);
+    } catch (IOException absent) {
+      return 0;
+    }
+  }
+
+  private static long lastModifiedOf(Path file) {
+    try {
+      return Files.getLastModifiedTime(file).toMillis();
+    } catch (IOException absent) {
+      return 0;
+    }
+  }
+}
@@ -4,7 +4,11 @@
 
 package io.github.merlinosayimwen.java.parser.internal;
 
+import com.google.common.base.Preconditions;
 import com.google.common.base.Suppliers;
+import io.github.merlinosayimwen.java.parser.CachingStructParser;
+import io.github.merlinosayimwen.java.parser.ParserFlag;
+import io.github.merlinosayimwen.java.parser.ParserProfile;
 import io.github.merlinosayimwen.java.parser.StructParser;
 import io.github.merlinosayimwen.java.parser.StructParserFactory;
 
@@ -15,6 +19,7 @@ import java.util.function.Supplier;
  * internal} library classes that can't be created from outside of the {@code internal} package.
  *
  * @see InternalStructParser
+ * @see InternalRegexStructParser
  * @since 1.0
  */
 public final class InternalAccess {
@@ -31,6 +36,40 @@ public final class InternalAccess {
    * @return {@code {@link Supplier}} that provides a {@code {@link StructParser }} implementation.
    */
   public static Supplier<StructParser> internalStructParserSupply() {
-    return Suppliers.memoize(InternalStructParser::new);
+    return Suppliers.memoize(() -> new InternalStructParser(ParserProfile.create()));
+  }
+
+  /**
+   * Creates the {@code {@link StructParser}} implementation that is selected by the {@code
+   * profile}. This is used by the {@code {@link StructParserFactory StructParserFactory}}, if the
+   * client has configured the parser.
+   *
+   * @param profile Profile that selects and configures the implementation.
+   * @return {@code {@link StructParser }} implementation for the {@code profile}.
+   */
+  public static StructParser createStructParser(ParserProfile profile) {
+    Preconditions.checkNotNull(profile);
+
+    return createParser(profile);
+  }
+
+  /**
+   * Creates a {@code {@link CachingStructParser}} that caches the results of the implementation
+   * that is selected by the {@code profile}. The profile also configures the cache.
+   *
+   * @param profile Profile that selects and configures the implementation and its cache.
+   * @return {@code {@link CachingStructParser }} implementation for the {@code profile}.
+   */
+  public static CachingStructParser createCachingStructParser(ParserProfile profile) {
+    Preconditions.checkNotNull(profile);
+
+    return new InternalCachingStructParser(createParser(profile), profile);
+  }
+
+  private static AbstractStructParser createParser(ParserProfile profile) {
+    if (profile.hasFlag(ParserFlag.REGULAR_EXPRESSION_ENGINE)) {
+      return new InternalRegexStructParser(profile);
+    }
+    return new InternalStructParser(profile);
   }
 }
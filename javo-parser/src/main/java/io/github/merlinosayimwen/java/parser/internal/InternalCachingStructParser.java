@@ -0,0 +1,281 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser.internal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import io.github.merlinosayimwen.java.parser.CachingStructParser;
+import io.github.merlinosayimwen.java.parser.ParseCacheStats;
+import io.github.merlinosayimwen.java.parser.ParseResult;
+import io.github.merlinosayimwen.java.parser.ParserFlag;
+import io.github.merlinosayimwen.java.parser.ParserProfile;
+import io.github.merlinosayimwen.java.parser.StructParseException;
+import io.github.merlinosayimwen.javo.Struct;
+import io.github.merlinosayimwen.javo.StructAttribute;
+
+/**
+ * Internal implementation of the CachingStructParser interface that decorates another
+ * internal parser.
+ * <p>
+ * Sources are hashed with SHA-256 over their UTF-8 encoded content, the class of the
+ * decorated parser and the flags and properties of its profile, so that results of
+ * different implementations or configurations never share a cache directory entry. The
+ * properties of the cache itself are left out, since they don't change the results.
+ * The memory cache is weighted by an estimate of the retained size of the structs.
+ * Streamed sources, chunks and regions are passed to the decorated parser.
+ *
+ * @see CachingStructParser
+ * @see DiskStructCache
+ * @since 1.0
+ */
+final class InternalCachingStructParser extends AbstractStructParser
+  implements CachingStructParser {
+
+  private static final long DEFAULT_MAX_BYTES = 64L << 20;
+  private static final long DEFAULT_MAX_DISK_BYTES = 1L << 30;
+
+  /** Estimated bytes of an object header plus the fields of a Struct or attribute. */
+  private static final int OBJECT_OVERHEAD = 48;
+
+  private static final HashFunction HASH_FUNCTION = Hashing.sha256();
+
+  /** Properties that only configure the cache and are therefore not part of the keys. */
+  private static final Set<String> CACHE_PROPERTIES = ImmutableSet.of(
+    ParserProfile.PROPERTY_CACHE_MAX_BYTES,
+    ParserProfile.PROPERTY_CACHE_DIRECTORY,
+    ParserProfile.PROPERTY_CACHE_MAX_DISK_BYTES);
+
+  private final AbstractStructParser delegate;
+
+  /** Hash of the delegate's class and profile, which every key starts with. */
+  private final HashCode delegateKey;
+  private final Cache<HashCode, Collection<Struct>> memoryCache;
+  private final DiskStructCache diskCache;
+
+  private final AtomicLong hitCount;
+  private final AtomicLong diskHitCount;
+  private final AtomicLong missCount;
+  private final AtomicLong evictionCount;
+  private final AtomicLong memoryBytes;
+
+  /**
+   * Constructs a parser that caches the results of the {@code delegate}.
+   *
+   * @param delegate Parser whose results are cached.
+   * @param profile Profile that configures the cache.
+   */
+  InternalCachingStructParser(AbstractStructParser delegate, ParserProfile profile) {
+    super(profile);
+    this.delegate = delegate;
+    this.delegateKey = hashDelegate(delegate);
+    this.hitCount = new AtomicLong();
+    this.diskHitCount = new AtomicLong();
+    this.missCount = new AtomicLong();
+    this.evictionCount = new AtomicLong();
+    this.memoryBytes = new AtomicLong();
+
+    long maxBytes = readBytes(profile, ParserProfile.PROPERTY_CACHE_MAX_BYTES, DEFAULT_MAX_BYTES);
+    this.memoryCache = CacheBuilder.newBuilder()
+      .maximumWeight(maxBytes)
+      .<HashCode, Collection<Struct>>weigher((key, structs) -> estimateBytes(structs))
+      .removalListener(removal -> {
+        this.memoryBytes.addAndGet(-estimateBytes(removal.getValue()));
+        if (removal.wasEvicted()) {
+          this.evictionCount.incrementAndGet();
+        }
+      })
+      .build();
+
+    this.diskCache = profile.getProperty(ParserProfile.PROPERTY_CACHE_DIRECTORY)
+      .map(directory -> new DiskStructCache(Paths.get(directory), readBytes(
+        profile, ParserProfile.PROPERTY_CACHE_MAX_DISK_BYTES, DEFAULT_MAX_DISK_BYTES)))
+      .orElse(null);
+  }
+
+  private static long readBytes(ParserProfile profile, String property, long defaultBytes) {
+    long bytes = profile.getProperty(property).map(Long::parseLong).orElse(defaultBytes);
+    Preconditions.checkArgument(bytes >= 0, "Negative %s", property);
+    return bytes;
+  }
+
+  @Override
+  public Collection<Struct> parse(Path source) throws StructParseException {
+    Preconditions.checkNotNull(source);
+    Preconditions.checkArgument(Files.isRegularFile(source), "No file at path");
+
+    byte[] content;
+    try {
+      content = Files.readAllBytes(source);
+    } catch (IOException ioFailure) {
+      throw StructParseException.createWithCause(ioFailure);
+    }
+    if (content.length == 0) {
+      return ImmutableList.of();
+    }
+    HashCode key = newHasher().putBytes(content).hash();
+    Optional<Collection<Struct>> cached = lookup(key);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    return store(key, this.delegate.parse(new String(content, StandardCharsets.UTF_8)));
+  }
+
+  @Override
+  public Collection<Struct> parse(CharSequence source) throws StructParseException {
+    Preconditions.checkNotNull(source);
+
+    HashCode key = newHasher().putString(source, StandardCharsets.UTF_8).hash();
+    Optional<Collection<Struct>> cached = lookup(key);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    return store(key, this.delegate.parse(source));
+  }
+
+  /** Results with diagnostics are not cached, since they are only requested for editing. */
+  @Override
+  public ParseResult parseWithDiagnostics(CharSequence source) {
+    return this.delegate.parseWithDiagnostics(source);
+  }
+
+  private Hasher newHasher() {
+    return HASH_FUNCTION.newHasher().putBytes(this.delegateKey.asBytes());
+  }
+
+  /**
+   * Hashes the class of the {@code delegate} and the configuration of its profile. Flags
+   * and properties are hashed in a fixed order, every string is prefixed with its length.
+   */
+  private static HashCode hashDelegate(AbstractStructParser delegate) {
+    Hasher hasher = HASH_FUNCTION.newHasher();
+    putString(hasher, delegate.getClass().getName());
+    for (ParserFlag flag : ParserFlag.values()) {
+      hasher.putBoolean(delegate.profile.hasFlag(flag));
+    }
+    Map<String, String> properties = new TreeMap<>(delegate.profile.getProperties());
+    properties.keySet().removeAll(CACHE_PROPERTIES);
+    hasher.putInt(properties.size());
+    properties.forEach((name, value) -> {
+      putString(hasher, name);
+      putString(hasher, value);
+    });
+    return hasher.hash();
+  }
+
+  private static void putString(Hasher hasher, String value) {
+    hasher.putInt(value.length()).putString(value, StandardCharsets.UTF_8);
+  }
+
+  private Optional<Collection<Struct>> lookup(HashCode key) {
+    Collection<Struct> structs = this.memoryCache.getIfPresent(key);
+    if (structs != null) {
+      this.hitCount.incrementAndGet();
+      return Optional.of(structs);
+    }
+    if (this.diskCache != null) {
+      Optional<Collection<Struct>> stored = this.diskCache.read(key);
+      if (stored.isPresent()) {
+        this.diskHitCount.incrementAndGet();
+        return Optional.of(putInMemory(key, stored.get()));
+      }
+    }
+    this.missCount.incrementAndGet();
+    return Optional.empty();
+  }
+
+  private Collection<Struct> store(HashCode key, Collection<Struct> structs) {
+    Collection<Struct> stored = putInMemory(key, structs);
+    if (this.diskCache != null) {
+      this.diskCache.write(key, stored);
+    }
+    return stored;
+  }
+
+  private Collection<Struct> putInMemory(HashCode key, Collection<Struct> structs) {
+    Collection<Struct> immutableStructs = ImmutableList.copyOf(structs);
+    this.memoryBytes.addAndGet(estimateBytes(immutableStructs));
+    this.memoryCache.put(key, immutableStructs);
+    return immutableStructs;
+  }
+
+  /**
+   * Estimates the bytes that are retained by the {@code structs}. The estimation counts
+   * two bytes per char and a fixed overhead for every object.
+   */
+  private static int estimateBytes(Collection<Struct> structs) {
+    long bytes = OBJECT_OVERHEAD;
+    for (Struct struct : structs) {
+      bytes += OBJECT_OVERHEAD + 2L * struct.getName().length();
+      for (int index = 0; index < struct.attributeCount(); index++) {
+        bytes += estimateAttributeBytes(struct.attributeAt(index));
+      }
+    }
+    return (int) Math.min(bytes, Integer.MAX_VALUE);
+  }
+
+  private static long estimateAttributeBytes(StructAttribute attribute) {
+    return OBJECT_OVERHEAD + 2L * (attribute.getName().length() + attribute.getTypeName().length());
+  }
+
+  @Override
+  Collection<Struct> parseChunk(
+    CharSequence chunk, int firstLine, int firstColumn, int firstOffset)
+    throws StructParseException {
+
+    return this.delegate.parseChunk(chunk, firstLine, firstColumn, firstOffset);
+  }
+
+  @Override
+  Collection<Struct> parseRegion(CharSequence source, StructBoundaryScanner.Region region)
+    throws StructParseException {
+
+    return this.delegate.parseRegion(source, region);
+  }
+
+  @Override
+  public ParseCacheStats getCacheStats() {
+    return ParseCacheStats.create(
+      this.hitCount.get(),
+      this.diskHitCount.get(),
+      this.missCount.get(),
+      this.evictionCount.get(),
+      this.memoryBytes.get(),
+      this.diskCache == null ? 0 : this.diskCache.getBytes());
+  }
+
+  @Override
+  public void invalidateCache() {
+    this.memoryCache.invalidateAll();
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+      .add("delegate", this.delegate)
+      .add("stats", getCacheStats())
+      .toString();
+  }
+}
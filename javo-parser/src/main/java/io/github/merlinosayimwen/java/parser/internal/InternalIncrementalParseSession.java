@@ -0,0 +1,265 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+import io.github.merlinosayimwen.java.parser.IncrementalParseSession;
+import io.github.merlinosayimwen.java.parser.StructDelta;
+import io.github.merlinosayimwen.java.parser.StructParseException;
+import io.github.merlinosayimwen.javo.Struct;
+import io.github.merlinosayimwen.javo.StructAttribute;
+import io.github.merlinosayimwen.javo.util.SourceSpans;
+
+/**
+ * Internal implementation of the IncrementalParseSession.
+ * <p>
+ * The spans of the session tile the source without gaps, each of them ends after a
+ * top-level closing brace or at the end of the source. An edit is applied by rescanning
+ * from the start of the span that contains the edit, until a new span ends at the same
+ * position as a previous span that has not been touched by the edit. All spans behind
+ * that position are kept and only shifted by the length difference of the edit. The
+ * source spans of their structs are moved lazily, when the structs are read next.
+ *
+ * @see StructBoundaryScanner
+ * @see AbstractStructParser
+ * @since 1.0
+ */
+final class InternalIncrementalParseSession implements IncrementalParseSession {
+
+  /** Span of the source together with the outcome of parsing it. */
+  private static final class Span {
+    private int start;
+    private int end;
+    private int line;
+    private Collection<Struct> structs;
+    private final StructParseException failure;
+
+    /** Start of the span when its structs have been parsed or moved the last time. */
+    private int structsStart;
+
+    private Span(
+      StructBoundaryScanner.Region region,
+      Collection<Struct> structs,
+      StructParseException failure) {
+
+      this.start = region.start;
+      this.end = region.end;
+      this.line = region.line;
+      this.structs = structs;
+      this.failure = failure;
+      this.structsStart = region.start;
+    }
+
+    private Collection<Struct> structs() {
+      if (this.structsStart != this.start) {
+        int distance = this.start - this.structsStart;
+        this.structs = this.structs.stream()
+          .map(struct -> moveSpans(struct, distance))
+          .collect(Collectors.toList());
+        this.structsStart = this.start;
+      }
+      return this.structs;
+    }
+
+    private void shift(int offset, int lines) {
+      this.start += offset;
+      this.end += offset;
+      this.line += lines;
+    }
+  }
+
+  private final AbstractStructParser parser;
+  private final StringBuilder source;
+  private final List<Span> spans;
+
+  /**
+   * Constructs a session that initially parses the {@code source} with the {@code parser}.
+   *
+   * @param parser Parser that is parsing the spans.
+   * @param source Source that is copied and initially parsed.
+   */
+  InternalIncrementalParseSession(AbstractStructParser parser, CharSequence source) {
+    this.parser = parser;
+    this.source = new StringBuilder(source);
+    this.spans = new ArrayList<>();
+
+    StructBoundaryScanner scanner = new StructBoundaryScanner(this.source, 0, 1, 0);
+    while (scanner.hasNext()) {
+      this.spans.add(parseSpan(scanner.next()));
+    }
+  }
+
+  @Override
+  public CharSequence getSource() {
+    return this.source;
+  }
+
+  @Override
+  public List<Struct> getStructs() {
+    return structsOf(this.spans);
+  }
+
+  @Override
+  public List<StructParseException> getFailures() {
+    return this.spans.stream()
+      .filter(span -> span.failure != null)
+      .map(span -> span.failure)
+      .collect(Collectors.toList());
+  }
+
+  @Override
+  public StructDelta applyEdit(int offset, int removedLength, CharSequence insertedText) {
+    Preconditions.checkNotNull(insertedText);
+    Preconditions.checkArgument(removedLength >= 0, "Negative removed length");
+    Preconditions.checkPositionIndexes(offset, offset + removedLength, this.source.length());
+
+    int removedEnd = offset + removedLength;
+    int lengthDelta = insertedText.length() - removedLength;
+    int lineDelta = countLines(insertedText, 0, insertedText.length())
+      - countLines(this.source, offset, removedEnd);
+
+    int first = findSpan(offset);
+    int scanStart = first < this.spans.size() ? this.spans.get(first).start : 0;
+    int scanLine = first < this.spans.size() ? this.spans.get(first).line : 1;
+    this.source.replace(offset, removedEnd, insertedText.toString());
+
+    StructBoundaryScanner scanner = new StructBoundaryScanner(
+      this.source, scanStart, scanLine, findLineStart(scanStart));
+    List<Span> replacement = new ArrayList<>();
+    int kept = first;
+    int resync = this.spans.size();
+    while (scanner.hasNext()) {
+      StructBoundaryScanner.Region region = scanner.next();
+      replacement.add(parseSpan(region));
+      // Previous spans that end inside of the edit or before the new span can't line up.
+      while (kept < this.spans.size() && (this.spans.get(kept).end < removedEnd
+        || this.spans.get(kept).end + lengthDelta < region.end)) {
+        kept++;
+      }
+      if (kept < this.spans.size() && this.spans.get(kept).end + lengthDelta == region.end) {
+        resync = kept + 1;
+        break;
+      }
+    }
+
+    List<Span> replaced = this.spans.subList(first, resync);
+    List<Struct> previousStructs = structsOf(replaced);
+    replaced.clear();
+    this.spans.addAll(first, replacement);
+    for (int index = first + replacement.size(); index < this.spans.size(); index++) {
+      this.spans.get(index).shift(lengthDelta, lineDelta);
+    }
+    return compare(previousStructs, structsOf(replacement));
+  }
+
+  private Span parseSpan(StructBoundaryScanner.Region region) {
+    if (region.start == region.end) {
+      return new Span(region, Collections.emptyList(), null);
+    }
+    try {
+      return new Span(region, this.parser.parseRegion(this.source, region), null);
+    } catch (StructParseException parseFailure) {
+      return new Span(region, Collections.emptyList(), parseFailure);
+    }
+  }
+
+  /**
+   * Finds the index of the span that contains the {@code offset}. The last span
+   * contains the end of the source.
+   */
+  private int findSpan(int offset) {
+    int low = 0;
+    int high = this.spans.size() - 1;
+    while (low < high) {
+      int middle = (low + high + 1) >>> 1;
+      if (this.spans.get(middle).start <= offset) {
+        low = middle;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return low;
+  }
+
+  private int findLineStart(int offset) {
+    int position = offset;
+    while (position > 0 && this.source.charAt(position - 1) != '\n') {
+      position--;
+    }
+    return position;
+  }
+
+  private static int countLines(CharSequence text, int start, int end) {
+    int lines = 0;
+    for (int index = start; index < end; index++) {
+      if (text.charAt(index) == '\n') {
+        lines++;
+      }
+    }
+    return lines;
+  }
+
+  private static List<Struct> structsOf(List<Span> spans) {
+    List<Struct> structs = new ArrayList<>();
+    for (Span span : spans) {
+      structs.addAll(span.structs());
+    }
+    return structs;
+  }
+
+  private static Struct moveSpans(Struct struct, int distance) {
+    List<StructAttribute> attributes = struct.getAttributes()
+      .map(attribute -> StructAttribute.create(
+        attribute.getName(),
+        attribute.getTypeName(),
+        Arrays.stream(StructAttribute.Modifier.values())
+          .filter(attribute::hasModifier)
+          .collect(Collectors.toList()),
+        SourceSpans.shift(attribute.getSourceSpan(), distance)))
+      .collect(Collectors.toList());
+    List<Struct.Modifier> modifiers = Arrays.stream(Struct.Modifier.values())
+      .filter(struct::hasModifier)
+      .collect(Collectors.toList());
+    return Struct.create(
+      struct.getName(), attributes, modifiers, SourceSpans.shift(struct.getSourceSpan(), distance));
+  }
+
+  private static StructDelta compare(List<Struct> previousStructs, List<Struct> currentStructs) {
+    Map<String, Struct> previousByName = new LinkedHashMap<>();
+    for (Struct struct : previousStructs) {
+      previousByName.put(struct.getName(), struct);
+    }
+    List<Struct> added = new ArrayList<>();
+    List<Struct> changed = new ArrayList<>();
+    for (Struct struct : currentStructs) {
+      Struct previous = previousByName.remove(struct.getName());
+      if (previous == null) {
+        added.add(struct);
+      } else if (!previous.equals(struct)) {
+        changed.add(struct);
+      }
+    }
+    return StructDelta.create(added, previousByName.values(), changed);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+      .add("length", this.source.length())
+      .add("spans", this.spans.size())
+      .toString();
+  }
+}
@@ -0,0 +1,196 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser.internal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+
+import com.google.common.collect.Sets;
+import io.github.merlinosayimwen.java.parser.ParserProfile;
+import io.github.merlinosayimwen.java.parser.StructParseException;
+import io.github.merlinosayimwen.java.parser.StructParser;
+import io.github.merlinosayimwen.javo.Struct;
+import io.github.merlinosayimwen.javo.StructAttribute;
+
+/**
+ * Legacy implementation of the StructParser interface that scans struct's
+ * using regular expressions.
+ * <p>
+ * The expressions backtrack on large inputs and don't understand comments, therefore
+ * the InternalStructParser is used by default. This implementation is kept to compare
+ * both on the same sources and is supplied when the profile contains the
+ * {@code REGULAR_EXPRESSION_ENGINE} flag.
+ *
+ * @see StructParser
+ * @see StructParseException
+ * @see InternalAccess
+ * @see InternalStructParser
+ * @since 1.0
+ */
+final class InternalRegexStructParser extends AbstractStructParser {
+
+  private static final Pattern WHITESPACE_PATTERN = Pattern.compile(
+    "[ \t]"
+  );
+
+  /** Expression that parses struct definitions. */
+  private static final Pattern STRUCT_PATTERN = Pattern.compile(
+    "(?:([\\w \\t]*))struct[ \\t]+(\\w+)[ \\t]*\\{([\\w\\s:;]*)}"
+  );
+
+  private static final int STRUCT_PATTERN_MODIFIER_GROUP = 1;
+
+  private static final int STRUCT_PATTERN_NAME_GROUP = 2;
+
+  private static final int STRUCT_PATTERN_BODY_GROUP = 3;
+
+  private static final int STRUCT_PATTERN_GROUP_COUNT = 3;
+
+  /** Expression that parses attributes in the body of a struct definition. */
+  private static final Pattern ATTRIBUTE_PATTERN = Pattern.compile(
+    "[ \\t]*(?:(\\w+[ \\t]+)?)(\\w+)[ \\t]*:[ \\t]*([\\w\\[\\]<>]+).*"
+  );
+
+  private static final int ATTRIBUTE_PATTERN_MODIFIER_GROUP = 1;
+
+  private static final int ATTRIBUTE_PATTERN_NAME_GROUP = 2;
+
+  private static final int ATTRIBUTE_PATTERN_TYPE_GROUP = 3;
+
+  private static final int ATTRIBUTE_PATTERN_GROUP_COUNT = 3;
+
+  /**
+   * Package private constructor of the InternalRegexStructParser.
+   *
+   * @param profile Preferences and settings given for the parser.
+   */
+  InternalRegexStructParser(ParserProfile profile) {
+    super(profile);
+  }
+
+  @Override
+  public Collection<Struct> parse(CharSequence source) throws StructParseException {
+    Preconditions.checkNotNull(source);
+    Preconditions.checkArgument(source.length() > 0, "source is empty");
+
+    Matcher scannedSource = STRUCT_PATTERN.matcher(source);
+    Collection<Struct> structs = Lists.newLinkedList();
+    while (scannedSource.find()) {
+      structs.add(parseScannedGroups(scannedSource));
+    }
+    return structs;
+  }
+
+  private Struct parseScannedGroups(Matcher scanned) throws StructParseException {
+    int groups = scanned.groupCount();
+    if (groups != STRUCT_PATTERN_GROUP_COUNT) {
+      throw StructParseException.createWithMessage("the source is invalid");
+    }
+    return parseStruct(scanned);
+  }
+
+  /**
+   * Parses a struct with modifiers from a set of tokens that have been
+   * scanned using the regex pattern.
+   *
+   * @param tokens Set of scanned tokens.
+   * @return Nonnull parsed struct.
+   * @throws StructParseException Thrown if the syntax is invalid.
+   */
+  private Struct parseStruct(Matcher tokens) throws StructParseException {
+    String body = tokens.group(STRUCT_PATTERN_BODY_GROUP);
+    String modifiers = tokens.group(STRUCT_PATTERN_MODIFIER_GROUP);
+
+    return Struct.newBuilder()
+      .withName(tokens.group(STRUCT_PATTERN_NAME_GROUP))
+      .withAttributes(parseAttributesFromBody(body))
+      .withModifiers(readOptionalModifiers(modifiers))
+      .create();
+  }
+
+  private Collection<Struct.Modifier> readOptionalModifiers(String modifiers)
+    throws StructParseException {
+
+    String[] split = WHITESPACE_PATTERN.split(modifiers.trim());
+    if (split.length == 0 || split[0].isEmpty()) {
+      return Collections.emptyList();
+    }
+    Collection<Struct.Modifier> read = Sets.newHashSet();
+    for (String modifier : split) {
+      if (modifier.isEmpty()) {
+        continue;
+      }
+      read.add(Struct.Modifier.fromCode(modifier).orElseThrow(
+        () -> StructParseException.createWithMessage("no such modifier " + modifier)
+      ));
+    }
+    return read;
+  }
+
+  /**
+   * Parses a Set of attributes from the body.
+   *
+   * @param body Body of the struct which contains zero or more attributes.
+   * @return Set of zero ore more attributes.
+   * @throws StructParseException Thrown is the syntax is invalid.
+   */
+  private Collection<StructAttribute> parseAttributesFromBody(String body)
+      throws StructParseException {
+
+    Matcher scanned = ATTRIBUTE_PATTERN.matcher(body);
+    Collection<StructAttribute> attributes = Lists.newLinkedList();
+    while (scanned.find()) {
+      attributes.add(parseAttribute(scanned));
+    }
+    return attributes;
+  }
+
+  private StructAttribute parseAttribute(Matcher tokens) throws StructParseException {
+    String modifier = tokens.group(ATTRIBUTE_PATTERN_MODIFIER_GROUP);
+    Collection<StructAttribute.Modifier> modifiers = Collections.emptyList();
+    if (modifier != null) {
+      String code = modifier.trim();
+      modifiers = Collections.singletonList(StructAttribute.Modifier.fromCode(code).orElseThrow(
+        () -> StructParseException.createWithMessage("no such modifier " + code)
+      ));
+    }
+    return StructAttribute.create(
+      tokens.group(ATTRIBUTE_PATTERN_NAME_GROUP),
+      tokens.group(ATTRIBUTE_PATTERN_TYPE_GROUP),
+      modifiers);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+      .add("profile", this.profile)
+      .toString();
+  }
+
+  @Override
+  public int hashCode() {
+    return this.profile.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other == this) {
+      return true;
+    }
+    if (!(other instanceof InternalRegexStructParser)) {
+      return false;
+    }
+
+    // Apart from its profile the InternalRegexStructParser is stateless, instances with
+    // the same profile are effectively equal to each other.
+    return this.profile.equals(((InternalRegexStructParser) other).profile);
+  }
+}
\ No newline at end of file
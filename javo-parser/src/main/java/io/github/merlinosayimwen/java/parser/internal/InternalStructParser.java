@@ -4,108 +4,144 @@
 
 package io.github.merlinosayimwen.java.parser.internal;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Lists;
+import com.google.common.base.Throwables;
 
-import com.google.common.collect.Sets;
+import io.github.merlinosayimwen.java.parser.ParseResult;
+import io.github.merlinosayimwen.java.parser.ParserFlag;
+import io.github.merlinosayimwen.java.parser.ParserProfile;
 import io.github.merlinosayimwen.java.parser.StructParseException;
 import io.github.merlinosayimwen.java.parser.StructParser;
+import io.github.merlinosayimwen.java.parser.UncheckedStructParseException;
 import io.github.merlinosayimwen.javo.Struct;
-import io.github.merlinosayimwen.javo.StructAttribute;
+import io.github.merlinosayimwen.javo.util.NamePool;
+import io.github.merlinosayimwen.javo.util.NamePools;
 
 /**
  * Internal implementation of the StructParser interface that parses struct's
  * using the struct definition syntax.
  * <p>
- * The Parser Library is abstracting away internal implementation.
- * The InternalStructParser class is package-private and can only be accessed
- * through the InternalAccess class.
+ * The source is tokenized by a hand-written StructLexer and parsed by a
+ * RecursiveDescentParser in a single linear pass without backtracking. With the
+ * {@code PARALLEL_PARSING} flag, large sources are split at struct boundaries and
+ * the parts are parsed concurrently. The Parser Library is abstracting away internal
+ * implementation. The InternalStructParser class is package-private and can only be
+ * accessed through the InternalAccess class.
  *
  * @see StructParser
  * @see StructParseException
  * @see InternalAccess
  * @since 1.0
  */
-final class InternalStructParser implements StructParser {
+final class InternalStructParser extends AbstractStructParser {
 
-  private static final Pattern WHITESPACE_PATTERN = Pattern.compile(
-    "[ \t]"
-  );
+  /** Source length from which on sources are parsed in parallel by default. */
+  private static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 20;
 
-  /** Expression that parses struct definitions. */
-  private static final Pattern STRUCT_PATTERN = Pattern.compile(
-    "(?:([\\w \\t]*))struct[ \\t]+(\\w+)[ \\t]*\\{([\\w\\s:;]*)}"
-  );
+  /** Length below which regions are not split any further. */
+  private static final int MINIMAL_REGION_LENGTH = 1 << 14;
 
-  private static final int STRUCT_PATTERN_MODIFIER_GROUP = 1;
+  /** Count of regions per thread, more regions balance the work of the threads. */
+  private static final int REGIONS_PER_THREAD = 4;
 
-  private static final int STRUCT_PATTERN_NAME_GROUP = 2;
+  /** Threshold that disables parallel parsing. */
+  private static final int SEQUENTIAL = -1;
 
-  private static final int STRUCT_PATTERN_BODY_GROUP = 3;
+  /** Values of the name pool property. */
+  private static final String NAME_POOL_ARENA = "arena";
+  private static final String NAME_POOL_SHARED = "shared";
+  private static final String NAME_POOL_NONE = "none";
+  private static final String NAME_POOL_SLICES = "slices";
 
-  private static final int STRUCT_PATTERN_GROUP_COUNT = 3;
+  /** Source length from which on sources are parsed in parallel. */
+  private final int parallelThreshold;
 
-  /** Expression that parses attributes in the body of a struct definition. */
-  private static final Pattern ATTRIBUTE_PATTERN = Pattern.compile(
-    "[ \\t]*(?:(\\w+[ \\t]+)?)(\\w+)[ \\t]*:[ \\t]*([\\w\\[\\]<>]+).*"
-  );
+  /** Pool that interns the names of every parse, null if every parse has its own arena. */
+  private final NamePool namePool;
 
-  private static final int ATTRIBUTE_PATTERN_MODIFIER_GROUP = 1;
+  /** Whether names are kept as slices of the source instead of being interned. */
+  private final boolean slicing;
 
-  private static final int ATTRIBUTE_PATTERN_NAME_GROUP = 2;
-
-  private static final int ATTRIBUTE_PATTERN_TYPE_GROUP = 3;
-
-  private static final int ATTRIBUTE_PATTERN_GROUP_COUNT = 3;
+  /**
+   * Package private constructor of the InternalStructParser.
+   *
+   * @param profile Preferences and settings given for the parser.
+   */
+  InternalStructParser(ParserProfile profile) {
+    super(profile);
+    this.parallelThreshold = profile.hasFlag(ParserFlag.PARALLEL_PARSING)
+      ? readParallelThreshold(profile)
+      : SEQUENTIAL;
+    this.namePool = readNamePool(profile);
+    this.slicing = NAME_POOL_SLICES.equals(readNamePoolMode(profile));
+  }
 
-  /** Package private constructor of the InternalStructParser */
-  InternalStructParser() {}
+  private static String readNamePoolMode(ParserProfile profile) {
+    return profile.getProperty(ParserProfile.PROPERTY_NAME_POOL).orElse(NAME_POOL_ARENA);
+  }
 
-  @Override
-  public Optional<Struct> parseSingle(Path path) throws StructParseException {
-    return this.firstOrNone(this.parse(path));
+  private static NamePool readNamePool(ParserProfile profile) {
+    String mode = readNamePoolMode(profile);
+    switch (mode) {
+      case NAME_POOL_ARENA:
+      case NAME_POOL_SLICES:
+        return null;
+      case NAME_POOL_SHARED:
+        return NamePools.shared();
+      case NAME_POOL_NONE:
+        return NamePools.noInterning();
+      default:
+        throw new IllegalArgumentException("Unknown name pool " + mode);
+    }
   }
 
-  @Override
-  public Optional<Struct> parseSingle(CharSequence source) throws StructParseException {
-    return this.firstOrNone(this.parse(source));
+  /** Returns the pool for a whole source, which is null if names are sliced. */
+  private NamePool newNamePool() {
+    if (this.slicing) {
+      return null;
+    }
+    return this.namePool == null ? NamePools.newArena() : this.namePool;
   }
 
   /**
-   * Returns the first element of in a set of structs.
-   * The returned value is empty if the entry is {@link Collection#isEmpty() empty}.
-   *
-   * @param elements Set of structs that is checked for one element.
-   * @return First element of the elements if it is not empty.
+   * Returns the pool for chunks and regions, which are parts of a larger source. They
+   * often hold a single struct or are parsed concurrently, so instead of arenas of their
+   * own the shared pool is used.
    */
-  private Optional<Struct> firstOrNone(Collection<Struct> elements) {
-    Preconditions.checkNotNull(elements);
+  private NamePool partNamePool() {
+    if (this.slicing) {
+      return null;
+    }
+    return this.namePool == null ? NamePools.shared() : this.namePool;
+  }
 
-    return elements.stream().findFirst();
+  /**
+   * Returns a source that sliced names may retain. Strings and mapped files never change,
+   * other sequences, like builders, are copied once per parse.
+   */
+  private CharSequence retainableSource(CharSequence source) {
+    if (!this.slicing || source instanceof String || source instanceof AsciiByteSequence) {
+      return source;
+    }
+    return source.toString();
   }
 
-  @Override
-  public Collection<Struct> parse(Path source) throws StructParseException {
-    Preconditions.checkNotNull(source);
-    Preconditions.checkArgument(Files.isRegularFile(source), "No file at path");
+  private static int readParallelThreshold(ParserProfile profile) {
+    int threshold = profile.getProperty(ParserProfile.PROPERTY_PARALLEL_THRESHOLD)
+      .map(Integer::parseInt)
+      .orElse(DEFAULT_PARALLEL_THRESHOLD);
 
-    try {
-      String content = Files.readAllLines(source).stream().reduce("", String::concat);
-      return parse(content);
-    } catch (IOException ioFailure) {
-      throw StructParseException.createWithCause(ioFailure);
-    }
+    Preconditions.checkArgument(threshold >= 0, "Negative parallel threshold");
+    return threshold;
   }
 
   @Override
@@ -113,97 +149,119 @@ final class InternalStructParser implements StructParser {
     Preconditions.checkNotNull(source);
     Preconditions.checkArgument(source.length() > 0, "source is empty");
 
-    Matcher scannedSource = STRUCT_PATTERN.matcher(source);
-    Collection<Struct> structs = Lists.newLinkedList();
-    while (scannedSource.find()) {
-      structs.add(parseScannedGroups(scannedSource));
+    source = retainableSource(source);
+    if (this.parallelThreshold != SEQUENTIAL && source.length() >= this.parallelThreshold) {
+      return parseParallel(source);
     }
-    return structs;
+    return new RecursiveDescentParser(new StructLexer(source), newNamePool()).parseStructs();
   }
 
-  private Struct parseScannedGroups(Matcher scanned) throws StructParseException {
-    int groups = scanned.groupCount();
-    if (groups != STRUCT_PATTERN_GROUP_COUNT) {
-      throw StructParseException.createWithMessage("the source is invalid");
-    }
-    return parseStruct(scanned);
+  /**
+   * Parses the {@code source} sequentially and resumes at the next struct after every
+   * error, so that all errors are reported at once.
+   */
+  @Override
+  public ParseResult parseWithDiagnostics(CharSequence source) {
+    Preconditions.checkNotNull(source);
+
+    return new RecursiveDescentParser(new StructLexer(retainableSource(source)), newNamePool())
+      .parseStructsRecovering();
   }
 
   /**
-   * Parses a struct with modifiers from a set of tokens that have been
-   * scanned using the regex pattern.
-   *
-   * @param tokens Set of scanned tokens.
-   * @return Nonnull parsed struct.
-   * @throws StructParseException Thrown if the syntax is invalid.
+   * Splits the {@code source} into regions of whole structs, which are parsed
+   * concurrently by the common ForkJoinPool. The structs are merged in the order of
+   * their regions and the failure of the first failing region is thrown.
    */
-  private Struct parseStruct(Matcher tokens) throws StructParseException {
-    String body = tokens.group(STRUCT_PATTERN_BODY_GROUP);
-    String modifiers = tokens.group(STRUCT_PATTERN_MODIFIER_GROUP);
-
-    return Struct.newBuilder()
-      .withName(tokens.group(STRUCT_PATTERN_NAME_GROUP))
-      .withAttributes(parseAttributesFromBody(body))
-      .withModifiers(readOptionalModifiers(modifiers))
-      .create();
+  private Collection<Struct> parseParallel(CharSequence source) throws StructParseException {
+    int regionCount = ForkJoinPool.getCommonPoolParallelism() * REGIONS_PER_THREAD;
+    int minimalLength = Math.max(MINIMAL_REGION_LENGTH, source.length() / regionCount);
+    List<StructBoundaryScanner.Region> regions = StructBoundaryScanner.scan(source, minimalLength);
+    if (regions.size() == 1) {
+      return new RecursiveDescentParser(new StructLexer(source), newNamePool()).parseStructs();
+    }
+    List<CompletableFuture<Collection<Struct>>> tasks = regions.stream()
+      .map(region -> CompletableFuture.supplyAsync(
+        () -> parseRegionUnchecked(source, region), ForkJoinPool.commonPool()))
+      .collect(Collectors.toList());
+
+    List<Struct> structs = new ArrayList<>();
+    for (CompletableFuture<Collection<Struct>> task : tasks) {
+      try {
+        structs.addAll(task.join());
+      } catch (CompletionException taskFailure) {
+        Throwable cause = taskFailure.getCause();
+        if (cause instanceof UncheckedStructParseException) {
+          throw ((UncheckedStructParseException) cause).getCause();
+        }
+        Throwables.throwIfUnchecked(cause);
+        throw taskFailure;
+      }
+    }
+    return structs;
   }
 
-  private Collection<Struct.Modifier> readOptionalModifiers(String modifiers)
+  @Override
+  Collection<Struct> parseRegion(CharSequence source, StructBoundaryScanner.Region region)
     throws StructParseException {
 
-    String[] split = modifiers.split(WHITESPACE_PATTERN.pattern());
-    if (split.length == 0) {
-      return Collections.emptyList();
-    }
-    Collection<Struct.Modifier> read = Sets.newHashSet();
-    for (String modifier : split) {
-      read.add(Struct.Modifier.fromCode(modifier).orElseThrow(
-        () -> StructParseException.createWithMessage("no such modifier " + modifier)
-      ));
+    if (retainableSource(source) != source) {
+      // Only the region is copied, starting at its first line to keep the columns.
+      CharSequence copy = source.subSequence(region.lineStart, region.end).toString();
+      StructLexer lexer = new StructLexer(
+        copy, region.start - region.lineStart, copy.length(), region.line, 0);
+      return new RecursiveDescentParser(lexer, null, region.lineStart).parseStructs();
     }
-    return read;
+    StructLexer lexer = new StructLexer(
+      source, region.start, region.end, region.line, region.lineStart);
+    return new RecursiveDescentParser(lexer, partNamePool()).parseStructs();
   }
 
-  /**
-   * Parses a Set of attributes from the body.
-   *
-   * @param body Body of the struct which contains zero or more attributes.
-   * @return Set of zero ore more attributes.
-   * @throws StructParseException Thrown is the syntax is invalid.
-   */
-  private Collection<StructAttribute> parseAttributesFromBody(String body)
-      throws StructParseException {
+  private Collection<Struct> parseRegionUnchecked(
+    CharSequence source, StructBoundaryScanner.Region region) {
 
-    Matcher scanned = ATTRIBUTE_PATTERN.matcher(body);
-    Collection<StructAttribute> attributes = Lists.newLinkedList();
-    while (scanned.find()) {
-      attributes.add(parseAttribute(scanned));
+    try {
+      return parseRegion(source, region);
+    } catch (StructParseException parseFailure) {
+      throw UncheckedStructParseException.wrap(parseFailure);
     }
-    return attributes;
   }
 
-  private StructAttribute parseAttribute(Matcher tokens) throws StructParseException{
-    return StructAttribute.create("");
+  @Override
+  Collection<Struct> parseChunk(
+    CharSequence chunk, int firstLine, int firstColumn, int firstOffset)
+    throws StructParseException {
+
+    // Chunks are views of a reused buffer, sliced names have to retain a copy. The line of
+    // the chunk starts in front of the chunk if the chunk doesn't start at the first column.
+    CharSequence source = retainableSource(chunk);
+    StructLexer lexer = new StructLexer(source, 0, source.length(), firstLine, 1 - firstColumn);
+    return new RecursiveDescentParser(lexer, partNamePool(), firstOffset).parseStructs();
   }
 
   @Override
   public String toString() {
-    return MoreObjects.toStringHelper(this).toString();
+    return MoreObjects.toStringHelper(this)
+      .add("profile", this.profile)
+      .toString();
   }
 
   @Override
   public int hashCode() {
-    return System.identityHashCode(this);
+    return this.profile.hashCode();
   }
 
   @Override
   public boolean equals(Object other) {
-    if (other == null) {
+    if (other == this) {
+      return true;
+    }
+    if (!(other instanceof InternalStructParser)) {
       return false;
     }
 
-    // Since the InternalStructParser is stateless instances have no significance
-    // and are effectively equal to each other.
-    return other instanceof InternalStructParser;
+    // Apart from its profile the InternalStructParser is stateless, instances with
+    // the same profile are effectively equal to each other.
+    return this.profile.equals(((InternalStructParser) other).profile);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Maps source files into memory and exposes them as CharSequence.
+ * <p>
+ * The file content is never copied onto the heap as a whole. ASCII files are viewed
+ * directly through an AsciiByteSequence, other files are decoded from UTF-8 into a
+ * char buffer outside of the heap. The mapping stays valid after the channel has been
+ * closed and is released once the returned sequence is unreachable.
+ *
+ * @see AsciiByteSequence
+ * @since 1.0
+ */
+final class MappedSources {
+
+  private static final long ASCII_MASK = 0x8080808080808080L;
+
+  private MappedSources() {}
+
+  /**
+   * Maps the file at the {@code path} into memory.
+   *
+   * @param path Path of the UTF-8 encoded file that is mapped.
+   * @return Content of the file as CharSequence.
+   * @throws IOException Thrown if the file can't be mapped or is malformed.
+   */
+  static CharSequence map(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("file is too large to be mapped: " + path);
+      }
+      MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      if (isAscii(bytes)) {
+        return new AsciiByteSequence(bytes, 0, (int) size);
+      }
+      return decode(bytes);
+    }
+  }
+
+  private static boolean isAscii(ByteBuffer bytes) {
+    int limit = bytes.limit();
+    int index = 0;
+    // Eight bytes are tested at once, a byte is ASCII if its highest bit is not set.
+    for (; index + Long.BYTES <= limit; index += Long.BYTES) {
+      if ((bytes.getLong(index) & ASCII_MASK) != 0) {
+        return false;
+      }
+    }
+    for (; index < limit; index++) {
+      if (bytes.get(index) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static CharSequence decode(ByteBuffer bytes) throws CharacterCodingException {
+    int size = bytes.remaining();
+    // UTF-8 never decodes to more chars than it has bytes.
+    CharBuffer chars = size <= Integer.MAX_VALUE / Character.BYTES
+      ? ByteBuffer.allocateDirect(size * Character.BYTES).asCharBuffer()
+      : CharBuffer.allocate(size);
+
+    CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+    CoderResult result = decoder.decode(bytes, chars, true);
+    if (result.isError()) {
+      result.throwException();
+    }
+    decoder.flush(chars);
+    chars.flip();
+    return chars;
+  }
+}
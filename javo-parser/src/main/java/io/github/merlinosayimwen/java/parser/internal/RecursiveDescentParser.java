@@ -0,0 +1,386 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
+import io.github.merlinosayimwen.java.parser.ParseDiagnostic;
+import io.github.merlinosayimwen.java.parser.ParseResult;
+import io.github.merlinosayimwen.java.parser.StructParseException;
+import io.github.merlinosayimwen.java.parser.internal.StructLexer.TokenType;
+import io.github.merlinosayimwen.javo.Struct;
+import io.github.merlinosayimwen.javo.StructAttribute;
+import io.github.merlinosayimwen.javo.util.NamePool;
+import io.github.merlinosayimwen.javo.util.SourceSpans;
+
+/**
+ * Recursive-descent parser that builds structs from the tokens of a StructLexer.
+ * <p>
+ * The parser needs no more than the current token to decide how to continue, the
+ * source is therefore parsed in one linear pass. It follows this grammar:
+ * <pre>
+ *   source    = { struct }
+ *   struct    = { modifier } "struct" identifier "{" { attribute [ ";" ] } "}"
+ *   attribute = [ modifier ] identifier ":" type
+ *   type      = "[" type "]" | "&lt;" type "&gt;" | identifier [ "&lt;" type "&gt;" ]
+ * </pre>
+ * Errors don't unwind the parser through exceptions. The first error of a struct is
+ * recorded as ParseDiagnostic and every parse method returns early, until the parse of
+ * the struct is abandoned. The parser then either fails or skips to the next struct
+ * boundary and continues, so that all errors of a source are found in one pass.
+ * Names are either interned through a NamePool or kept as slices of the lexer's source,
+ * which are created lazily by the model. Instances hold the state of a single parse and
+ * are not thread safe.
+ *
+ * @see StructLexer
+ * @see InternalStructParser
+ * @since 1.0
+ */
+final class RecursiveDescentParser {
+
+  private static final String STRUCT_KEYWORD = "struct";
+
+  private static final Struct.Modifier[] STRUCT_MODIFIERS = Struct.Modifier.values();
+
+  private static final StructAttribute.Modifier[] ATTRIBUTE_MODIFIERS =
+    StructAttribute.Modifier.values();
+
+  /** Immutable sets of every single attribute modifier, which are shared by attributes. */
+  private static final List<ImmutableSet<StructAttribute.Modifier>> ATTRIBUTE_MODIFIER_SETS =
+    Arrays.stream(ATTRIBUTE_MODIFIERS)
+      .map(Sets::immutableEnumSet)
+      .collect(ImmutableList.toImmutableList());
+
+  private final StructLexer lexer;
+
+  /** Pool that interns the names, null if names are kept as slices of the source. */
+  private final NamePool namePool;
+
+  /** Offset of the lexer's source in the source that the spans refer to. */
+  private final int sourceOffset;
+
+  /** First error of the struct that is currently parsed, null while there is none. */
+  private ParseDiagnostic failure;
+
+  /** Whether the opening brace of the current struct has been consumed. */
+  private boolean inBody;
+
+  /**
+   * Constructs a parser that reads from the {@code lexer}.
+   *
+   * @param lexer Lexer whose tokens are parsed.
+   * @param namePool Pool that interns the names of structs, attributes and types, or null
+   *     to slice them from the lexer's source, which must not change afterwards.
+   */
+  RecursiveDescentParser(StructLexer lexer, NamePool namePool) {
+    this(lexer, namePool, 0);
+  }
+
+  /**
+   * Constructs a parser that reads from the {@code lexer}, whose source is part of a
+   * larger source.
+   *
+   * @param lexer Lexer whose tokens are parsed.
+   * @param namePool Pool that interns the names of structs, attributes and types, or null
+   *     to slice them from the lexer's source, which must not change afterwards.
+   * @param sourceOffset Offset of the lexer's source in the larger source.
+   */
+  RecursiveDescentParser(StructLexer lexer, NamePool namePool, int sourceOffset) {
+    this.lexer = lexer;
+    this.namePool = namePool;
+    this.sourceOffset = sourceOffset;
+    this.lexer.advance();
+  }
+
+  /**
+   * Parses all structs until the end of the input is reached.
+   *
+   * @return List of parsed structs in source order.
+   * @throws StructParseException Thrown if the syntax is invalid.
+   */
+  List<Struct> parseStructs() throws StructParseException {
+    List<Struct> structs = new ArrayList<>();
+    while (this.lexer.getTokenType() != TokenType.END_OF_INPUT) {
+      Struct struct = parseStruct();
+      if (struct == null) {
+        throw StructParseException.createWithMessage(this.failure.toString());
+      }
+      structs.add(struct);
+    }
+    return structs;
+  }
+
+  /**
+   * Parses all structs until the end of the input is reached. After an error the
+   * parser resumes at the next struct boundary.
+   *
+   * @return Result with the parsed structs and the diagnostics of every error.
+   */
+  ParseResult parseStructsRecovering() {
+    List<Struct> structs = new ArrayList<>();
+    List<ParseDiagnostic> diagnostics = new ArrayList<>();
+    while (this.lexer.getTokenType() != TokenType.END_OF_INPUT) {
+      int start = this.lexer.getTokenStart();
+      Struct struct = parseStruct();
+      if (struct != null) {
+        structs.add(struct);
+        continue;
+      }
+      diagnostics.add(this.failure);
+      this.failure = null;
+      recover(start);
+    }
+    return ParseResult.create(structs, diagnostics);
+  }
+
+  /**
+   * Skips tokens until the end of the broken struct. That is either its closing brace
+   * or a 'struct' keyword outside of nested braces, which starts the next struct.
+   */
+  private void recover(int structStart) {
+    int depth = this.inBody ? 1 : 0;
+    this.inBody = false;
+    while (this.lexer.getTokenType() != TokenType.END_OF_INPUT) {
+      TokenType type = this.lexer.getTokenType();
+      if (type == TokenType.OPENING_BRACE) {
+        depth++;
+      } else if (type == TokenType.CLOSING_BRACE && --depth <= 0) {
+        this.lexer.advance();
+        return;
+      } else if (depth <= 1 && isStructKeyword()
+        && this.lexer.getTokenStart() != structStart) {
+        return;
+      }
+      this.lexer.advance();
+    }
+  }
+
+  private Struct parseStruct() {
+    int start = this.lexer.getTokenStart();
+    Collection<Struct.Modifier> modifiers = parseStructModifiers();
+    if (modifiers == null) {
+      return null;
+    }
+    if (!isStructKeyword()) {
+      return fail("expected 'struct'");
+    }
+    this.lexer.advance();
+    if (this.lexer.getTokenType() != TokenType.IDENTIFIER) {
+      return fail("expected struct name");
+    }
+    int nameStart = this.lexer.getTokenStart();
+    int nameEnd = this.lexer.getTokenEnd();
+    this.lexer.advance();
+    if (!expect(TokenType.OPENING_BRACE, "'{'")) {
+      return null;
+    }
+    this.inBody = true;
+
+    List<StructAttribute> attributes = new ArrayList<>();
+    while (this.lexer.getTokenType() != TokenType.CLOSING_BRACE) {
+      if (this.lexer.getTokenType() == TokenType.SEMICOLON) {
+        this.lexer.advance();
+        continue;
+      }
+      StructAttribute attribute = parseAttribute();
+      if (attribute == null) {
+        return null;
+      }
+      attributes.add(attribute);
+    }
+    this.lexer.advance();
+    this.inBody = false;
+    if (this.namePool == null) {
+      return Struct.createSliced(
+        this.lexer.getSource(), slice(nameStart, nameEnd), attributes, modifiers, span(start));
+    }
+    String name = this.lexer.intern(nameStart, nameEnd, this.namePool);
+    return Struct.create(name, attributes, modifiers, span(start));
+  }
+
+  private boolean isStructKeyword() {
+    return this.lexer.getTokenType() == TokenType.IDENTIFIER
+      && this.lexer.tokenMatches(STRUCT_KEYWORD);
+  }
+
+  private Collection<Struct.Modifier> parseStructModifiers() {
+    Collection<Struct.Modifier> modifiers = Collections.emptyList();
+    while (this.lexer.getTokenType() == TokenType.IDENTIFIER && !isStructKeyword()) {
+      Struct.Modifier modifier = resolveStructModifier();
+      if (modifier == null) {
+        return fail("expected struct modifier or 'struct'");
+      }
+      if (modifiers.isEmpty()) {
+        modifiers = EnumSet.noneOf(Struct.Modifier.class);
+      }
+      modifiers.add(modifier);
+      this.lexer.advance();
+    }
+    return modifiers;
+  }
+
+  private Struct.Modifier resolveStructModifier() {
+    for (Struct.Modifier modifier : STRUCT_MODIFIERS) {
+      if (this.lexer.tokenMatches(modifier.getCode())) {
+        return modifier;
+      }
+    }
+    return null;
+  }
+
+  private StructAttribute parseAttribute() {
+    if (this.lexer.getTokenType() != TokenType.IDENTIFIER) {
+      return fail("expected attribute or '}'");
+    }
+    int leadingStart = this.lexer.getTokenStart();
+    int leadingEnd = this.lexer.getTokenEnd();
+    this.lexer.advance();
+
+    Collection<StructAttribute.Modifier> modifiers = ImmutableSet.of();
+    int nameStart = leadingStart;
+    int nameEnd = leadingEnd;
+    if (this.lexer.getTokenType() == TokenType.IDENTIFIER) {
+      // The leading identifier is a modifier, the current one is the name.
+      StructAttribute.Modifier modifier = resolveAttributeModifier(leadingStart, leadingEnd);
+      if (modifier == null) {
+        return report(String.format(
+          "unknown attribute modifier '%s' before %s",
+          this.lexer.text(leadingStart, leadingEnd), describeToken()));
+      }
+      modifiers = ATTRIBUTE_MODIFIER_SETS.get(modifier.ordinal());
+      nameStart = this.lexer.getTokenStart();
+      nameEnd = this.lexer.getTokenEnd();
+      this.lexer.advance();
+    }
+    if (!expect(TokenType.COLON, "':'")) {
+      return null;
+    }
+
+    int typeStart = this.lexer.getTokenStart();
+    if (!parseType()) {
+      return null;
+    }
+    int typeEnd = this.lexer.getPreviousTokenEnd();
+    if (this.namePool == null) {
+      return StructAttribute.createSliced(
+        this.lexer.getSource(),
+        slice(nameStart, nameEnd),
+        slice(typeStart, typeEnd),
+        modifiers,
+        span(leadingStart));
+    }
+    return StructAttribute.create(
+      this.lexer.intern(nameStart, nameEnd, this.namePool),
+      this.lexer.intern(typeStart, typeEnd, this.namePool),
+      modifiers,
+      span(leadingStart));
+  }
+
+  private StructAttribute.Modifier resolveAttributeModifier(int start, int end) {
+    for (StructAttribute.Modifier modifier : ATTRIBUTE_MODIFIERS) {
+      if (this.lexer.regionMatches(start, end, modifier.getCode())) {
+        return modifier;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Parses a type, whose arrays and generic arguments can be nested arbitrarily deep. Every
+   * type contains at most one nested type, so the closing tokens are expected from a stack
+   * instead of by recursion, which would overflow the thread's stack on deep nesting.
+   */
+  private boolean parseType() {
+    Deque<TokenType> closingTokens = new ArrayDeque<>();
+    boolean nested = true;
+    while (nested) {
+      switch (this.lexer.getTokenType()) {
+        case OPENING_BRACKET:
+          this.lexer.advance();
+          closingTokens.push(TokenType.CLOSING_BRACKET);
+          break;
+        case OPENING_CHEVRON:
+          this.lexer.advance();
+          closingTokens.push(TokenType.CLOSING_CHEVRON);
+          break;
+        case IDENTIFIER:
+          this.lexer.advance();
+          nested = this.lexer.getTokenType() == TokenType.OPENING_CHEVRON;
+          if (nested) {
+            this.lexer.advance();
+            closingTokens.push(TokenType.CLOSING_CHEVRON);
+          }
+          break;
+        default:
+          fail("expected type");
+          return false;
+      }
+    }
+    while (!closingTokens.isEmpty()) {
+      TokenType closingToken = closingTokens.pop();
+      if (!expect(closingToken, closingToken == TokenType.CLOSING_BRACKET ? "']'" : "'>'")) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean expect(TokenType type, String description) {
+    if (this.lexer.getTokenType() != type) {
+      fail("expected " + description);
+      return false;
+    }
+    this.lexer.advance();
+    return true;
+  }
+
+  /** Packs the slice between both offsets of the lexer's source. */
+  private static long slice(int start, int end) {
+    return SourceSpans.pack(start, end - start);
+  }
+
+  /** Packs the span from the {@code start} to the end of the previous token. */
+  private long span(int start) {
+    return SourceSpans.pack(
+      this.sourceOffset + start, this.lexer.getPreviousTokenEnd() - start);
+  }
+
+  /**
+   * Records an error at the current token, which is described after the
+   * {@code expectation}.
+   *
+   * @return Always null, so that callers can return the result directly.
+   */
+  private <T> T fail(String expectation) {
+    return report(expectation + " but found " + describeToken());
+  }
+
+  /** Records an error with the given message, spanning the current token. */
+  private <T> T report(String message) {
+    int column = this.lexer.getTokenColumn();
+    int length = this.lexer.getTokenEnd() - this.lexer.getTokenStart();
+    this.failure = ParseDiagnostic.create(
+      message, this.lexer.getTokenLine(), column, this.lexer.getTokenLine(), column + length);
+    return null;
+  }
+
+  private String describeToken() {
+    if (this.lexer.getTokenType() == TokenType.END_OF_INPUT) {
+      return "end of input";
+    }
+    return "'" + this.lexer.text(this.lexer.getTokenStart(), this.lexer.getTokenEnd()) + "'";
+  }
+}
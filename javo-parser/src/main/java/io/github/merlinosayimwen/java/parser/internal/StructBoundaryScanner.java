@@ -0,0 +1,127 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cheaply splits a source into regions that only contain whole structs.
+ * <p>
+ * The scanner only looks at braces, line breaks and line comments and does not
+ * validate anything. A region ends after a top-level closing brace, so that every
+ * region can be parsed independently of the others. Unbalanced braces are not
+ * detected, they end up in a region whose parser reports them.
+ *
+ * @see InternalStructParser
+ * @see InternalIncrementalParseSession
+ * @since 1.0
+ */
+final class StructBoundaryScanner {
+
+  /** Region of the source together with the position of its first character. */
+  static final class Region {
+    final int start;
+    final int end;
+    final int line;
+    final int lineStart;
+
+    private Region(int start, int end, int line, int lineStart) {
+      this.start = start;
+      this.end = end;
+      this.line = line;
+      this.lineStart = lineStart;
+    }
+  }
+
+  private final CharSequence source;
+  private final int end;
+
+  private int position;
+  private int line;
+  private int lineStart;
+
+  /**
+   * Constructs a scanner that starts at the {@code position} of the {@code source},
+   * which has to be outside of any struct.
+   *
+   * @param source Source that is split.
+   * @param position Offset at which the first region starts.
+   * @param line Line number of the character at {@code position}.
+   * @param lineStart Offset of the first character in the line at {@code position}.
+   */
+  StructBoundaryScanner(CharSequence source, int position, int line, int lineStart) {
+    this.source = source;
+    this.end = source.length();
+    this.position = position;
+    this.line = line;
+    this.lineStart = lineStart;
+  }
+
+  /**
+   * Tests whether there are characters left that have not been put into a region.
+   *
+   * @return Whether the end of the source has not been reached.
+   */
+  boolean hasNext() {
+    return this.position < this.end;
+  }
+
+  /**
+   * Scans the next region, which either ends after a top-level closing brace or at the
+   * end of the source.
+   *
+   * @return The next region, which is empty at the end of the source.
+   */
+  Region next() {
+    int regionStart = this.position;
+    int regionLine = this.line;
+    int regionLineStart = this.lineStart;
+    int depth = 0;
+    while (this.position < this.end) {
+      char current = this.source.charAt(this.position++);
+      if (current == '\n') {
+        this.line++;
+        this.lineStart = this.position;
+      } else if (current == '/' && this.position < this.end
+        && this.source.charAt(this.position) == '/') {
+        // The line break is left to the loop, so that the line counter is updated.
+        while (this.position < this.end && this.source.charAt(this.position) != '\n') {
+          this.position++;
+        }
+      } else if (current == '{') {
+        depth++;
+      } else if (current == '}' && --depth <= 0) {
+        break;
+      }
+    }
+    return new Region(regionStart, this.position, regionLine, regionLineStart);
+  }
+
+  /**
+   * Splits the {@code source} into regions of at least {@code minimalLength} chars,
+   * except for the last region. The regions are ordered and cover the whole source.
+   *
+   * @param source Source that is split.
+   * @param minimalLength Minimal length of a region.
+   * @return Ordered list of regions.
+   */
+  static List<Region> scan(CharSequence source, int minimalLength) {
+    StructBoundaryScanner scanner = new StructBoundaryScanner(source, 0, 1, 0);
+    List<Region> regions = new ArrayList<>();
+    Region merged = scanner.next();
+    while (scanner.hasNext()) {
+      Region next = scanner.next();
+      if (merged.end - merged.start >= minimalLength) {
+        regions.add(merged);
+        merged = next;
+      } else {
+        merged = new Region(merged.start, next.end, merged.line, merged.lineStart);
+      }
+    }
+    regions.add(merged);
+    return regions;
+  }
+}
@@ -0,0 +1,186 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser.internal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Splits a character stream into chunks that each contain one struct definition.
+ * <p>
+ * A chunk ends with the closing brace that returns to the top level and contains
+ * everything that preceded the struct, like whitespace, comments and modifiers. Braces
+ * in line comments are ignored. The reader only keeps the chunk that is currently read,
+ * so its memory is bounded by the largest struct instead of the size of the source.
+ * Chunks are not validated, that is left to the parser.
+ *
+ * @see StructIterator
+ * @since 1.0
+ */
+final class StructChunkReader implements Closeable {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final Reader source;
+  private final char[] buffer;
+  private final StringBuilder chunk;
+
+  private int position;
+  private int limit;
+
+  private int depth;
+  private boolean inComment;
+  private char previous;
+
+  private int chunkLine;
+  private int nextLine;
+
+  private int chunkOffset;
+  private int nextOffset;
+
+  private int chunkColumn;
+  /** Offset of the source at which the line of the next char starts. */
+  private int nextLineStart;
+
+  /**
+   * Constructs a chunk reader that reads from the {@code source}.
+   *
+   * @param source Reader whose content is split into chunks.
+   */
+  StructChunkReader(Reader source) {
+    this.source = source;
+    this.buffer = new char[BUFFER_SIZE];
+    this.chunk = new StringBuilder();
+    this.chunkLine = 1;
+    this.nextLine = 1;
+  }
+
+  /**
+   * Reads the next chunk from the source. The chunk that has been read before is
+   * discarded.
+   *
+   * @return Whether a chunk with content other than whitespace and comments was read.
+   * @throws IOException Thrown if the source can't be read.
+   */
+  boolean readChunk() throws IOException {
+    this.nextOffset += this.chunk.length();
+    this.chunk.setLength(0);
+    this.chunkLine = this.nextLine;
+    this.chunkOffset = this.nextOffset;
+    this.chunkColumn = this.chunkOffset - this.nextLineStart + 1;
+    boolean significant = false;
+    while (true) {
+      if (this.position == this.limit && !fill()) {
+        // A single slash at the end of the input is no comment but still content.
+        boolean trailingSlash = this.previous == '/';
+        this.previous = 0;
+        return significant || trailingSlash;
+      }
+      int start = this.position;
+      while (this.position < this.limit) {
+        char current = this.buffer[this.position++];
+        if (this.inComment) {
+          if (current == '\n') {
+            this.inComment = false;
+            startLine(start);
+          }
+          continue;
+        }
+        if (current == '/' && this.previous == '/') {
+          this.inComment = true;
+          this.previous = 0;
+          continue;
+        }
+        if (this.previous == '/') {
+          // The preceding slash started no comment and is therefore content.
+          significant = true;
+        }
+        this.previous = current;
+        if (current == '\n') {
+          startLine(start);
+        } else if (current == '{') {
+          this.depth++;
+          significant = true;
+        } else if (current == '}') {
+          significant = true;
+          if (--this.depth <= 0) {
+            this.depth = 0;
+            this.chunk.append(this.buffer, start, this.position - start);
+            return true;
+          }
+        } else if (current != '/' && !Character.isWhitespace(current)) {
+          significant = true;
+        }
+      }
+      this.chunk.append(this.buffer, start, this.position - start);
+    }
+  }
+
+  /**
+   * Starts a new line after the line break that has just been read. The chars from
+   * {@code start} up to the current position are not yet appended to the chunk.
+   */
+  private void startLine(int start) {
+    this.nextLine++;
+    this.nextLineStart = this.nextOffset + this.chunk.length() + this.position - start;
+  }
+
+  private boolean fill() throws IOException {
+    int read = this.source.read(this.buffer);
+    while (read == 0) {
+      read = this.source.read(this.buffer);
+    }
+    if (read < 0) {
+      return false;
+    }
+    this.position = 0;
+    this.limit = read;
+    return true;
+  }
+
+  /**
+   * Returns the chunk that has been read by the last call to {@link #readChunk()}. The
+   * returned sequence is reused by the next call.
+   *
+   * @return The current chunk.
+   */
+  CharSequence getChunk() {
+    return this.chunk;
+  }
+
+  /**
+   * Returns the line of the source at which the current chunk starts.
+   *
+   * @return One based line number of the first character in the chunk.
+   */
+  int getChunkLine() {
+    return this.chunkLine;
+  }
+
+  /**
+   * Returns the column of the source at which the current chunk starts. Chunks that follow
+   * another struct on the same line don't start at the first column.
+   *
+   * @return One based column of the first character in the chunk.
+   */
+  int getChunkColumn() {
+    return this.chunkColumn;
+  }
+
+  /**
+   * Returns the offset of the source at which the current chunk starts.
+   *
+   * @return Count of chars in the source that precede the chunk.
+   */
+  int getChunkOffset() {
+    return this.chunkOffset;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.source.close();
+  }
+}
@@ -0,0 +1,81 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser.internal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import io.github.merlinosayimwen.java.parser.StructParseException;
+import io.github.merlinosayimwen.java.parser.UncheckedStructParseException;
+import io.github.merlinosayimwen.javo.Struct;
+
+/**
+ * Iterator that lazily parses the chunks of a StructChunkReader.
+ * <p>
+ * A chunk is only read when the next struct is requested, every failure is thrown as
+ * an UncheckedStructParseException.
+ *
+ * @see StructChunkReader
+ * @see AbstractStructParser
+ * @since 1.0
+ */
+final class StructIterator implements Iterator<Struct>, Closeable {
+
+  private final AbstractStructParser parser;
+  private final StructChunkReader reader;
+  private final Deque<Struct> pending;
+
+  /**
+   * Constructs an iterator that uses the {@code parser} to parse the chunks of the
+   * {@code reader}.
+   *
+   * @param parser Parser that is parsing the chunks.
+   * @param reader Reader that is providing the chunks.
+   */
+  StructIterator(AbstractStructParser parser, StructChunkReader reader) {
+    this.parser = parser;
+    this.reader = reader;
+    this.pending = new ArrayDeque<>(1);
+  }
+
+  @Override
+  public boolean hasNext() {
+    try {
+      while (this.pending.isEmpty()) {
+        if (!this.reader.readChunk()) {
+          return false;
+        }
+        this.pending.addAll(
+          this.parser.parseChunk(
+            this.reader.getChunk(),
+            this.reader.getChunkLine(),
+            this.reader.getChunkColumn(),
+            this.reader.getChunkOffset()));
+      }
+      return true;
+    } catch (IOException ioFailure) {
+      throw UncheckedStructParseException.wrap(StructParseException.createWithCause(ioFailure));
+    } catch (StructParseException parseFailure) {
+      throw UncheckedStructParseException.wrap(parseFailure);
+    }
+  }
+
+  @Override
+  public Struct next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return this.pending.poll();
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.reader.close();
+  }
+}
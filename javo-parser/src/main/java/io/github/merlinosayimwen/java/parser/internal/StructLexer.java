@@ -0,0 +1,268 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser.internal;
+
+import io.github.merlinosayimwen.javo.util.NamePool;
+
+/**
+ * Character level tokenizer for struct blueprints.
+ * <p>
+ * The lexer walks the source exactly once and never backtracks. Instead of creating
+ * token objects or substrings it only remembers the type and bounds of the current
+ * token, which are valid until the next call to {@link #advance()}. Whitespace and
+ * line comments ({@code //}) are skipped, line and column of every token are tracked
+ * on the fly so that diagnostics don't have to rescan the source.
+ *
+ * @see RecursiveDescentParser
+ * @since 1.0
+ */
+final class StructLexer {
+
+  /** Types of the tokens that are produced by the lexer. */
+  enum TokenType {
+    IDENTIFIER,
+    OPENING_BRACE,
+    CLOSING_BRACE,
+    OPENING_BRACKET,
+    CLOSING_BRACKET,
+    OPENING_CHEVRON,
+    CLOSING_CHEVRON,
+    COLON,
+    SEMICOLON,
+    UNKNOWN,
+    END_OF_INPUT
+  }
+
+  private final CharSequence source;
+  private final int end;
+
+  private int position;
+  private int line;
+  private int lineStart;
+
+  private TokenType tokenType;
+  private int tokenStart;
+  private int tokenEnd;
+  private int tokenLine;
+  private int tokenColumn;
+  private int previousTokenEnd;
+
+  /**
+   * Constructs a lexer that tokenizes the whole {@code source}.
+   *
+   * @param source Source that is tokenized.
+   */
+  StructLexer(CharSequence source) {
+    this(source, 1);
+  }
+
+  /**
+   * Constructs a lexer that tokenizes the whole {@code source}, which is a part of a larger
+   * input that starts at the given line.
+   *
+   * @param source Source that is tokenized.
+   * @param firstLine Line number of the first character in the source.
+   */
+  StructLexer(CharSequence source, int firstLine) {
+    this(source, 0, source.length(), firstLine, 0);
+  }
+
+  /**
+   * Constructs a lexer that only tokenizes the region between {@code start} and
+   * {@code end} of the {@code source}. Offsets of the tokens stay relative to the whole
+   * source, the region is never copied.
+   *
+   * @param source Source that contains the tokenized region.
+   * @param start Inclusive offset of the region.
+   * @param end Exclusive offset of the region.
+   * @param firstLine Line number of the character at {@code start}.
+   * @param lineStart Offset of the first character in the line at {@code start}.
+   */
+  StructLexer(CharSequence source, int start, int end, int firstLine, int lineStart) {
+    this.source = source;
+    this.end = end;
+    this.position = start;
+    this.line = firstLine;
+    this.lineStart = lineStart;
+    this.tokenEnd = start;
+    this.tokenType = TokenType.UNKNOWN;
+  }
+
+  /**
+   * Moves to the next token of the source. After the end of the source has been reached,
+   * every call yields an {@link TokenType#END_OF_INPUT} token.
+   */
+  void advance() {
+    this.previousTokenEnd = this.tokenEnd;
+    skipWhitespaceAndComments();
+    this.tokenStart = this.position;
+    this.tokenLine = this.line;
+    this.tokenColumn = this.position - this.lineStart + 1;
+    if (this.position >= this.end) {
+      this.tokenType = TokenType.END_OF_INPUT;
+      this.tokenEnd = this.position;
+      return;
+    }
+    char current = this.source.charAt(this.position);
+    if (isIdentifierPart(current)) {
+      int cursor = this.position + 1;
+      while (cursor < this.end && isIdentifierPart(this.source.charAt(cursor))) {
+        cursor++;
+      }
+      this.tokenType = TokenType.IDENTIFIER;
+      this.position = cursor;
+    } else {
+      this.tokenType = punctuationType(current);
+      this.position++;
+    }
+    this.tokenEnd = this.position;
+  }
+
+  private void skipWhitespaceAndComments() {
+    while (this.position < this.end) {
+      char current = this.source.charAt(this.position);
+      if (current == '\n') {
+        this.position++;
+        this.line++;
+        this.lineStart = this.position;
+      } else if (current == ' ' || current == '\t' || current == '\r' || current == '\f') {
+        this.position++;
+      } else if (current == '/' && isCommentStart()) {
+        skipLineComment();
+      } else {
+        return;
+      }
+    }
+  }
+
+  private boolean isCommentStart() {
+    int next = this.position + 1;
+    return next < this.end && this.source.charAt(next) == '/';
+  }
+
+  private void skipLineComment() {
+    // The line break itself is left, so that the line counter is updated.
+    while (this.position < this.end && this.source.charAt(this.position) != '\n') {
+      this.position++;
+    }
+  }
+
+  private static TokenType punctuationType(char character) {
+    switch (character) {
+      case '{': return TokenType.OPENING_BRACE;
+      case '}': return TokenType.CLOSING_BRACE;
+      case '[': return TokenType.OPENING_BRACKET;
+      case ']': return TokenType.CLOSING_BRACKET;
+      case '<': return TokenType.OPENING_CHEVRON;
+      case '>': return TokenType.CLOSING_CHEVRON;
+      case ':': return TokenType.COLON;
+      case ';': return TokenType.SEMICOLON;
+      default: return TokenType.UNKNOWN;
+    }
+  }
+
+  private static boolean isIdentifierPart(char character) {
+    if (character < 128) {
+      return (character >= 'a' && character <= 'z')
+        || (character >= 'A' && character <= 'Z')
+        || (character >= '0' && character <= '9')
+        || character == '_';
+    }
+    return Character.isLetterOrDigit(character);
+  }
+
+  /**
+   * Tests whether the text of the current token is equal to the {@code text} without
+   * materializing the token.
+   *
+   * @param text Text that is compared to the current token.
+   * @return Whether the token consists of exactly the given text.
+   */
+  boolean tokenMatches(String text) {
+    return regionMatches(this.tokenStart, this.tokenEnd, text);
+  }
+
+  /**
+   * Tests whether the source text between both offsets is equal to the {@code text}.
+   *
+   * @param start Inclusive offset into the source.
+   * @param end Exclusive offset into the source.
+   * @param text Text that is compared to the region.
+   * @return Whether the region consists of exactly the given text.
+   */
+  boolean regionMatches(int start, int end, String text) {
+    int length = end - start;
+    if (length != text.length()) {
+      return false;
+    }
+    for (int index = 0; index < length; index++) {
+      if (this.source.charAt(start + index) != text.charAt(index)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Creates a string of the source text between both offsets.
+   *
+   * @param start Inclusive offset into the source.
+   * @param end Exclusive offset into the source.
+   * @return Text between the offsets.
+   */
+  String text(int start, int end) {
+    if (this.source instanceof AsciiByteSequence) {
+      return ((AsciiByteSequence) this.source).text(start, end);
+    }
+    return this.source.subSequence(start, end).toString();
+  }
+
+  /**
+   * Interns the source text between both offsets through the {@code namePool}, which
+   * may look it up without creating a string first.
+   *
+   * @param start Inclusive offset into the source.
+   * @param end Exclusive offset into the source.
+   * @param namePool Pool that interns the text.
+   * @return Canonical instance of the text between the offsets.
+   */
+  String intern(int start, int end, NamePool namePool) {
+    return namePool.intern(this.source, start, end);
+  }
+
+  CharSequence getSource() {
+    return this.source;
+  }
+
+  TokenType getTokenType() {
+    return this.tokenType;
+  }
+
+  int getTokenStart() {
+    return this.tokenStart;
+  }
+
+  int getTokenEnd() {
+    return this.tokenEnd;
+  }
+
+  int getTokenLine() {
+    return this.tokenLine;
+  }
+
+  int getTokenColumn() {
+    return this.tokenColumn;
+  }
+
+  /**
+   * Returns the exclusive end offset of the token that was current before the last call
+   * to {@link #advance()}.
+   *
+   * @return End of the previous token.
+   */
+  int getPreviousTokenEnd() {
+    return this.previousTokenEnd;
+  }
+}
@@ -0,0 +1,171 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.github.merlinosayimwen.javo.Struct;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public final class CachingStructParserTests {
+
+  private static final String SOURCE =
+    "immutable struct Foo {\n  bar: [Bar]\n  immutable baz: <Baz>\n}\nstruct Bar {}\n";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testRepeatedSourceIsServedFromMemory() throws StructParseException, IOException {
+    CachingStructParser parser = StructParserFactory.create()
+      .getCachingInstance(ParserProfile.create());
+
+    Collection<Struct> first = parser.parse(SOURCE);
+    Path file = temporaryFolder.newFile("foo.javo").toPath();
+    Files.write(file, SOURCE.getBytes(StandardCharsets.UTF_8));
+    Collection<Struct> second = parser.parse(file);
+
+    assertThat(second == first, is(true));
+    assertThat(parser.getCacheStats().getMissCount(), is(1L));
+    assertThat(parser.getCacheStats().getHitCount(), is(1L));
+  }
+
+  @Test
+  public void testCacheDirectoryIsSharedAcrossInstances()
+    throws StructParseException, IOException {
+
+    ParserProfile profile = ParserProfile.create(Collections.emptySet(), Collections.singletonMap(
+      ParserProfile.PROPERTY_CACHE_DIRECTORY, temporaryFolder.newFolder().toString()));
+    Collection<Struct> parsed = StructParserFactory.create()
+      .getCachingInstance(profile)
+      .parse(SOURCE);
+
+    CachingStructParser parser = StructParserFactory.create().getCachingInstance(profile);
+    Collection<Struct> loaded = parser.parse(SOURCE);
+
+    assertThat(parser.getCacheStats().getDiskHitCount(), is(1L));
+    assertThat(parser.getCacheStats().getMissCount(), is(0L));
+    Struct foo = loaded.iterator().next();
+    assertThat(foo.hasModifier(Struct.Modifier.IMMUTABLE), is(true));
+    assertThat(
+      foo.getAttributes().collect(Collectors.toSet()),
+      is(parsed.iterator().next().getAttributes().collect(Collectors.toSet())));
+  }
+
+  @Test
+  public void testCorruptCacheFilesAreReplaced() throws StructParseException, IOException {
+    Path directory = temporaryFolder.newFolder().toPath();
+    ParserProfile profile = ParserProfile.create(Collections.emptySet(), Collections.singletonMap(
+      ParserProfile.PROPERTY_CACHE_DIRECTORY, directory.toString()));
+    Collection<Struct> parsed = StructParserFactory.create()
+      .getCachingInstance(profile)
+      .parse(SOURCE);
+    // A bundle whose only struct has a span with a negative offset.
+    byte[] corrupt = {
+      'j', 'a', 'v', 'o', 1, 1, 1, 'A', 1, 0, 0,
+      (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x0f, 0, 0
+    };
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.collect(Collectors.toList())) {
+        Files.write(file, corrupt);
+      }
+    }
+
+    CachingStructParser corrupted = StructParserFactory.create().getCachingInstance(profile);
+    assertThat(corrupted.parse(SOURCE), is(parsed));
+    assertThat(corrupted.getCacheStats().getDiskHitCount(), is(0L));
+
+    CachingStructParser repaired = StructParserFactory.create().getCachingInstance(profile);
+    assertThat(repaired.parse(SOURCE), is(parsed));
+    assertThat(repaired.getCacheStats().getDiskHitCount(), is(1L));
+  }
+
+  @Test
+  public void testMemoryCacheIsCappedByBytes() throws StructParseException {
+    CachingStructParser parser = StructParserFactory.create().getCachingInstance(
+      ParserProfile.create(Collections.emptySet(), Collections.singletonMap(
+        ParserProfile.PROPERTY_CACHE_MAX_BYTES, "4096")));
+
+    for (int index = 0; index < 100; index++) {
+      parser.parse("struct Struct" + index + " { attribute: Type }");
+    }
+
+    ParseCacheStats stats = parser.getCacheStats();
+    assertThat(stats.getEvictionCount() > 0, is(true));
+    assertThat(stats.getMemoryBytes() <= 4096, is(true));
+  }
+
+  @Test
+  public void testCacheDirectoryEntriesAreSeparatedByProfile()
+    throws StructParseException, IOException {
+
+    String directory = temporaryFolder.newFolder().toString();
+    CachingStructParser slices = createCachingParser(directory, "slices");
+    slices.parse(SOURCE);
+    CachingStructParser arena = createCachingParser(directory, "arena");
+    arena.parse(SOURCE);
+
+    assertThat(arena.getCacheStats().getDiskHitCount(), is(0L));
+    assertThat(arena.getCacheStats().getMissCount(), is(1L));
+    CachingStructParser otherSlices = createCachingParser(directory, "slices");
+    otherSlices.parse(SOURCE);
+    assertThat(otherSlices.getCacheStats().getDiskHitCount(), is(1L));
+  }
+
+  @Test
+  public void testConcurrentWritersCountEntriesOnce() throws Exception {
+    Path directory = temporaryFolder.newFolder().toPath();
+    CachingStructParser parser = createCachingParser(directory.toString(), "arena");
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      for (int round = 0; round < 50; round++) {
+        String source = "struct Round" + round + " { value: Value }";
+        List<Callable<Collection<Struct>>> tasks = new ArrayList<>();
+        for (int task = 0; task < 8; task++) {
+          tasks.add(() -> parser.parse(source));
+        }
+        for (Future<Collection<Struct>> result : executor.invokeAll(tasks)) {
+          result.get();
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    long storedBytes;
+    try (Stream<Path> files = Files.list(directory)) {
+      storedBytes = files.mapToLong(file -> file.toFile().length()).sum();
+    }
+    assertThat(parser.getCacheStats().getDiskBytes(), is(storedBytes));
+  }
+
+  private static CachingStructParser createCachingParser(String directory, String namePool) {
+    Map<String, String> properties = new HashMap<>();
+    properties.put(ParserProfile.PROPERTY_CACHE_DIRECTORY, directory);
+    properties.put(ParserProfile.PROPERTY_NAME_POOL, namePool);
+    return StructParserFactory.create()
+      .getCachingInstance(ParserProfile.create(Collections.emptySet(), properties));
+  }
+}
@@ -0,0 +1,124 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringContains.containsString;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import io.github.merlinosayimwen.javo.Struct;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class IncrementalParseSessionTests {
+
+  private static final String SOURCE =
+    "struct Foo {\n"
+      + "  bar: Bar\n"
+      + "}\n"
+      + "struct Bar {\n"
+      + "  baz: [Baz]\n"
+      + "}\n"
+      + "struct Baz {}\n";
+
+  private StructParser parser;
+
+  @Before
+  public void initialize() {
+    this.parser = StructParserFactory.create().getInstance();
+  }
+
+  @Test
+  public void testEditReportsChangedStruct() {
+    IncrementalParseSession session = parser.openSession(SOURCE);
+    int offset = SOURCE.indexOf("[Baz]");
+
+    StructDelta delta = session.applyEdit(offset, "[Baz]".length(), "<Baz>");
+
+    assertThat(names(delta.getChanged()), is(Collections.singletonList("Bar")));
+    assertThat(delta.getAdded().isEmpty(), is(true));
+    assertThat(delta.getRemoved().isEmpty(), is(true));
+    assertThat(names(session.getStructs()), is(Arrays.asList("Foo", "Bar", "Baz")));
+  }
+
+  @Test
+  public void testEditReportsAddedAndRemovedStructs() {
+    IncrementalParseSession session = parser.openSession(SOURCE);
+    int offset = SOURCE.indexOf("Baz {}");
+
+    StructDelta rename = session.applyEdit(offset, "Baz".length(), "Qux");
+    assertThat(names(rename.getAdded()), is(Collections.singletonList("Qux")));
+    assertThat(names(rename.getRemoved()), is(Collections.singletonList("Baz")));
+
+    StructDelta insertion = session.applyEdit(0, 0, "struct First {}\n");
+    assertThat(names(insertion.getAdded()), is(Collections.singletonList("First")));
+    assertThat(
+      names(session.getStructs()), is(Arrays.asList("First", "Foo", "Bar", "Qux")));
+  }
+
+  @Test
+  public void testFailuresAreKeptUntilFixed() {
+    IncrementalParseSession session = parser.openSession(SOURCE);
+    int offset = SOURCE.indexOf("baz:") + "baz".length();
+
+    StructDelta breaking = session.applyEdit(offset, 1, "");
+    assertThat(names(breaking.getRemoved()), is(Collections.singletonList("Bar")));
+    assertThat(session.getFailures().size(), is(1));
+    assertThat(session.getFailures().get(0).getMessage(), containsString("line 5, column 7"));
+
+    StructDelta fixing = session.applyEdit(offset, 0, ":");
+    assertThat(names(fixing.getAdded()), is(Collections.singletonList("Bar")));
+    assertThat(session.getFailures().isEmpty(), is(true));
+  }
+
+  @Test
+  public void testRandomEditsMatchFullParse() {
+    Random random = new Random(42);
+    String[] insertions = {"struct X { a: A }\n", "}", "{", "// }\n", "\n", " b: B ", "x"};
+    IncrementalParseSession session = parser.openSession(SOURCE);
+    StringBuilder expected = new StringBuilder(SOURCE);
+    for (int edit = 0; edit < 2000; edit++) {
+      int offset = random.nextInt(expected.length() + 1);
+      int removedLength = Math.min(random.nextInt(4), expected.length() - offset);
+      String inserted = insertions[random.nextInt(insertions.length)];
+      session.applyEdit(offset, removedLength, inserted);
+      expected.replace(offset, offset + removedLength, inserted);
+
+      assertThat(session.getSource().toString(), is(expected.toString()));
+      if (expected.toString().trim().isEmpty()) {
+        continue;
+      }
+      try {
+        List<String> parsedNames = names(parser.parse(expected));
+        assertThat(session.getFailures().isEmpty(), is(true));
+        assertThat(names(session.getStructs()), is(parsedNames));
+        assertThat(spans(session.getStructs()), is(spans(parser.parse(expected))));
+      } catch (StructParseException failure) {
+        assertThat(session.getFailures().get(0).getMessage(), is(failure.getMessage()));
+      }
+    }
+  }
+
+  private static List<Long> spans(Iterable<Struct> structs) {
+    List<Long> spans = new ArrayList<>();
+    structs.forEach(struct -> {
+      spans.add(struct.getSourceSpan());
+      struct.getAttributes().forEach(attribute -> spans.add(attribute.getSourceSpan()));
+    });
+    return spans;
+  }
+
+  private static List<String> names(Iterable<Struct> structs) {
+    List<String> names = new ArrayList<>();
+    structs.forEach(struct -> names.add(struct.getName()));
+    return names;
+  }
+}
@@ -0,0 +1,511 @@
+// Copyright 2019 Merlin Osayimwen. All rights reserved.
+// Use of this source code is governed by a MIT-style
+// license that can be found in the LICENSE file.
+
+package io.github.merlinosayimwen.java.parser;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsCollectionContaining.hasItems;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.hamcrest.core.StringContains.containsString;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.github.merlinosayimwen.javo.Struct;
+import io.github.merlinosayimwen.javo.StructAttribute;
+import io.github.merlinosayimwen.javo.util.LineIndex;
+import io.github.merlinosayimwen.javo.util.SourceSpans;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public final class StructParserTests {
+
+  private static final String README_BLUEPRINT =
+    "struct Foo {\n"
+      + "  bar: Bar   // Single Bar attribute.\n"
+      + "  baz: [Baz] // Array of Baz objects\n"
+      + "  qux: <Qux> // Collection of Qux objects.\n"
+      + "}\n";
+
+  /** Nesting depth of types that overflowed the stack of a recursive parser. */
+  private static final int DEEP_NESTING = 200_000;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private StructParser parser;
+
+  @Before
+  public void initialize() {
+    this.parser = StructParserFactory.create().getInstance();
+  }
+
+  @Test
+  public void testParseReadmeBlueprint() throws StructParseException {
+    Collection<Struct> structs = parser.parse(README_BLUEPRINT);
+
+    assertThat(structs.size(), is(1));
+    Struct foo = structs.iterator().next();
+    assertThat(foo.getName(), is("Foo"));
+    assertThat(foo.getAttributes().collect(Collectors.toList()), hasItems(
+      StructAttribute.create("bar", "Bar"),
+      StructAttribute.create("baz", "[Baz]"),
+      StructAttribute.create("qux", "<Qux>")));
+  }
+
+  @Test
+  public void testParseModifiers() throws StructParseException {
+    Collection<Struct> structs = parser.parse(
+      "immutable struct Person { immutable id: long; names: List<String> }\n"
+        + "struct Empty {}");
+
+    assertThat(structs.size(), is(2));
+    Struct person = structs.iterator().next();
+    assertThat(person.hasModifier(Struct.Modifier.IMMUTABLE), is(true));
+    List<StructAttribute> attributes = person.getAttributes().collect(Collectors.toList());
+    assertThat(attributes, hasItems(
+      StructAttribute.create(
+        "id", "long", Collections.singleton(StructAttribute.Modifier.IMMUTABLE)),
+      StructAttribute.create("names", "List<String>")));
+  }
+
+  @Test
+  public void testSyntaxErrorIsReportedWithPosition() {
+    try {
+      parser.parse("struct Foo {\n  bar Bar\n}");
+    } catch (StructParseException expected) {
+      assertThat(expected.getMessage(), containsString("line 2, column 7"));
+      return;
+    }
+    throw new AssertionError("parsed invalid source");
+  }
+
+  @Test
+  public void testDeeplyNestedTypesDontOverflowTheStack() throws StructParseException {
+    String type = repeat("<", DEEP_NESTING) + "X" + repeat(">", DEEP_NESTING);
+    Collection<Struct> structs = parser.parse("struct A { a: " + type + " }");
+
+    assertThat(structs.iterator().next().attributeAt(0).getTypeName(), is(type));
+    try {
+      parser.parse("struct A { a: " + repeat("[", DEEP_NESTING) + "X }");
+    } catch (StructParseException expected) {
+      assertThat(expected.getMessage(), containsString(
+        "expected ']' but found '}' at line 1, column " + (DEEP_NESTING + 17)));
+      return;
+    }
+    throw new AssertionError("parsed invalid source");
+  }
+
+  private static String repeat(String text, int count) {
+    StringBuilder repeated = new StringBuilder(text.length() * count);
+    for (int index = 0; index < count; index++) {
+      repeated.append(text);
+    }
+    return repeated.toString();
+  }
+
+  @Test
+  public void testStreamedParsing() {
+    String source = README_BLUEPRINT + "// struct Commented {}\nstruct Bar { foo: Foo }\n";
+    try (Stream<Struct> structs = parser.parse(new StringReader(source))) {
+      List<String> names = structs.map(Struct::getName).collect(Collectors.toList());
+      assertThat(names, is(Arrays.asList("Foo", "Bar")));
+    }
+  }
+
+  @Test
+  public void testStreamedSyntaxErrorIsReportedWithPosition() {
+    Iterator<Struct> structs = parser.iterate(
+      new StringReader(README_BLUEPRINT + "struct Bar {\n  foo Foo\n}"));
+
+    assertThat(structs.next().getName(), is("Foo"));
+    try {
+      structs.next();
+    } catch (UncheckedStructParseException expected) {
+      assertThat(expected.getCause().getMessage(), containsString("line 7, column 7"));
+      return;
+    }
+    throw new AssertionError("parsed invalid source");
+  }
+
+  @Test
+  public void testStreamedSyntaxErrorOnSharedLineIsReportedWithPosition() {
+    String source = "struct A { x: String }    struct B { y: String ! }\n";
+    Iterator<Struct> structs = parser.iterate(new StringReader(source));
+
+    assertThat(structs.next().getName(), is("A"));
+    try {
+      structs.next();
+    } catch (UncheckedStructParseException expected) {
+      assertThat(expected.getCause().getMessage(), containsString("line 1, column 48"));
+      try {
+        parser.parse(source);
+      } catch (StructParseException unstreamed) {
+        assertThat(expected.getCause().getMessage(), is(unstreamed.getMessage()));
+        return;
+      }
+    }
+    throw new AssertionError("parsed invalid source");
+  }
+
+  @Test
+  public void testRegularExpressionEngineIsSelectable() throws StructParseException {
+    StructParser legacy = StructParserFactory.create().getInstance(
+      ParserProfile.create(Collections.singleton(ParserFlag.REGULAR_EXPRESSION_ENGINE)));
+
+    String source = "struct Person {\n  id: long\n  name: String\n}";
+    Struct expected = parser.parseSingle(source).get();
+    Struct actual = legacy.parseSingle(source).get();
+    assertThat(actual.getName(), is(expected.getName()));
+    assertThat(
+      actual.getAttributes().collect(Collectors.toSet()),
+      is(expected.getAttributes().collect(Collectors.toSet())));
+  }
+
+  @Test
+  public void testMemoryMappedFilesAreParsed() throws IOException, StructParseException {
+    StructParser mapped = StructParserFactory.create().getInstance(
+      ParserProfile.create(Collections.singleton(ParserFlag.MEMORY_MAPPED_FILES)));
+
+    Path ascii = temporaryFolder.newFile("ascii.javo").toPath();
+    Files.write(ascii, README_BLUEPRINT.getBytes(StandardCharsets.US_ASCII));
+    assertThat(mapped.parseSingle(ascii).get().getName(), is("Foo"));
+
+    Path unicode = temporaryFolder.newFile("unicode.javo").toPath();
+    Files.write(unicode, ("// Gr\u00f6\u00dfe\n" + README_BLUEPRINT).getBytes(StandardCharsets.UTF_8));
+    assertThat(mapped.parseSingle(unicode).get().getName(), is("Foo"));
+  }
+
+  @Test
+  public void testParseAllKeepsOrderAndCollectsFailures() throws IOException {
+    Path first = temporaryFolder.newFile("first.javo").toPath();
+    Files.write(first, "struct First {}\nstruct Second {}".getBytes(StandardCharsets.UTF_8));
+    Path broken = temporaryFolder.newFile("broken.javo").toPath();
+    Files.write(broken, "struct Broken {".getBytes(StandardCharsets.UTF_8));
+    Path last = temporaryFolder.newFile("last.javo").toPath();
+    Files.write(last, "struct Last {}".getBytes(StandardCharsets.UTF_8));
+    Path missing = temporaryFolder.getRoot().toPath().resolve("missing.javo");
+
+    BatchParseResult result = parser.parseAll(Arrays.asList(last, broken, missing, first));
+
+    assertThat(
+      result.getStructs().map(Struct::getName).collect(Collectors.toList()),
+      is(Arrays.asList("Last", "First", "Second")));
+    assertThat(new ArrayList<>(result.getFailures().keySet()), is(Arrays.asList(broken, missing)));
+    try {
+      result.throwIfFailed();
+    } catch (StructParseException expected) {
+      assertThat(expected.getSuppressed().length, is(2));
+      return;
+    }
+    throw new AssertionError("failures have not been thrown");
+  }
+
+  @Test
+  public void testParseTreeMatchesFiles() throws IOException, StructParseException {
+    Path nested = temporaryFolder.newFolder("b", "nested").toPath();
+    Files.write(nested.resolve("inner.javo"), "struct Inner {}".getBytes(StandardCharsets.UTF_8));
+    Path outer = temporaryFolder.newFolder("a").toPath();
+    Files.write(outer.resolve("outer.javo"), "struct Outer {}".getBytes(StandardCharsets.UTF_8));
+    Files.write(outer.resolve("ignored.txt"), "struct Ignored {".getBytes(StandardCharsets.UTF_8));
+
+    BatchParseResult result = parser.parseTree(
+      temporaryFolder.getRoot().toPath(), FileSystems.getDefault().getPathMatcher("glob:**.javo"));
+
+    assertThat(result.hasFailures(), is(false));
+    assertThat(
+      result.getStructs().map(Struct::getName).collect(Collectors.toList()),
+      is(Arrays.asList("Outer", "Inner")));
+  }
+
+  @Test
+  public void testEmptyFilesInTreeHaveNoStructs() throws IOException, StructParseException {
+    Path root = temporaryFolder.getRoot().toPath();
+    Files.write(root.resolve("a.javo"), "struct A {}".getBytes(StandardCharsets.UTF_8));
+    Files.createFile(root.resolve("b.javo"));
+    Files.write(root.resolve("c.javo"), "struct C {".getBytes(StandardCharsets.UTF_8));
+    Files.write(root.resolve("d.javo"), "struct D {}".getBytes(StandardCharsets.UTF_8));
+
+    BatchParseResult result =
+      parser.parseTree(root, FileSystems.getDefault().getPathMatcher("glob:**.javo"));
+
+    assertThat(
+      result.getStructs().map(Struct::getName).collect(Collectors.toList()),
+      is(Arrays.asList("A", "D")));
+    assertThat(result.getResults().get(root.resolve("b.javo")).isEmpty(), is(true));
+    assertThat(
+      new ArrayList<>(result.getFailures().keySet()),
+      is(Collections.singletonList(root.resolve("c.javo"))));
+    assertThat(parser.parse(root.resolve("b.javo")).isEmpty(), is(true));
+  }
+
+  @Test
+  public void testParallelParsingKeepsSourceOrder() throws StructParseException {
+    StructParser parallel = StructParserFactory.create().getInstance(ParserProfile.create(
+      Collections.singleton(ParserFlag.PARALLEL_PARSING),
+      Collections.singletonMap(ParserProfile.PROPERTY_PARALLEL_THRESHOLD, "0")));
+
+    StringBuilder source = new StringBuilder();
+    List<String> expectedNames = new ArrayList<>();
+    for (int index = 0; index < 5000; index++) {
+      source.append("struct S").append(index).append(" { // }\n  value: [Value]\n}\n");
+      expectedNames.add("S" + index);
+    }
+    List<String> names = parallel.parse(source).stream()
+      .map(Struct::getName)
+      .collect(Collectors.toList());
+    assertThat(names, is(expectedNames));
+
+    source.append("struct Broken {\n  value Value\n}");
+    try {
+      parallel.parse(source);
+    } catch (StructParseException expected) {
+      assertThat(expected.getMessage(), containsString("line 15002, column 9"));
+      return;
+    }
+    throw new AssertionError("parsed invalid source");
+  }
+
+  @Test
+  public void testDiagnosticsAreCollectedForEveryBrokenStruct() {
+    String source =
+      "struct Foo {\n"
+        + "  bar: ;\n"
+        + "}\n"
+        + "struct Valid { value: Value }\n"
+        + "struct {\n"
+        + "  nested: <Nested\n"
+        + "}\n"
+        + "struct Last { value: [Value] }\n";
+
+    ParseResult result = parser.parseWithDiagnostics(source);
+
+    assertThat(result.hasErrors(), is(true));
+    assertThat(
+      result.getStructs().stream().map(Struct::getName).collect(Collectors.toList()),
+      is(Arrays.asList("Valid", "Last")));
+
+    List<ParseDiagnostic> diagnostics = result.getDiagnostics();
+    assertThat(diagnostics.size(), is(2));
+    assertThat(diagnostics.get(0).getMessage(), is("expected type but found ';'"));
+    assertThat(diagnostics.get(0).getLine(), is(2));
+    assertThat(diagnostics.get(0).getColumn(), is(8));
+    assertThat(diagnostics.get(0).getEndColumn(), is(9));
+    assertThat(diagnostics.get(1).toString(),
+      is("expected struct name but found '{' at line 5, column 8"));
+  }
+
+  @Test
+  public void testAsyncParsingCompletesWithStructsOrFailure() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      List<String> consumedNames = new ArrayList<>();
+      parser.parseAsync("struct A {}\nstruct B { b: B }\n", struct ->
+        consumedNames.add(struct.getName()), executor).get();
+      assertThat(consumedNames, is(Arrays.asList("A", "B")));
+
+      Collection<Struct> structs = parser.parseAsync(README_BLUEPRINT, executor).get();
+      assertThat(structs.size(), is(1));
+
+      CompletableFuture<Void> failing = parser.parseAsync(
+        "struct C {}\nstruct D { d D }\n", struct -> {}, executor);
+      try {
+        failing.get();
+      } catch (ExecutionException expected) {
+        assertThat(expected.getCause() instanceof StructParseException, is(true));
+        assertThat(expected.getCause().getMessage(), containsString("line 2, column 14"));
+        return;
+      }
+      throw new AssertionError("parsed invalid source");
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testAsyncParsingCompletesOnErrorsAndRejections() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      CompletableFuture<Void> erroneous = parser.parseAsync("struct A {}\n", struct -> {
+        throw new StackOverflowError();
+      }, executor);
+      assertFailsWith(erroneous, StackOverflowError.class);
+    } finally {
+      executor.shutdown();
+    }
+
+    Executor rejecting = task -> {
+      throw new RejectedExecutionException("Shut down");
+    };
+    assertFailsWith(
+      parser.parseAsync("struct A {}\n", rejecting), RejectedExecutionException.class);
+  }
+
+  private static void assertFailsWith(CompletableFuture<?> future, Class<?> failureType)
+    throws InterruptedException, TimeoutException {
+
+    try {
+      future.get(10, TimeUnit.SECONDS);
+    } catch (ExecutionException expected) {
+      assertThat(failureType.isInstance(expected.getCause()), is(true));
+      return;
+    }
+    throw new AssertionError("completed without failure");
+  }
+
+  @Test
+  public void testNamesAreInternedPerParse() throws StructParseException {
+    List<Struct> structs = new ArrayList<>(
+      parser.parse("struct A { id: long }\nstruct B { id: long }\n"));
+
+    StructAttribute first = structs.get(0).getAttributes().findFirst().get();
+    StructAttribute second = structs.get(1).getAttributes().findFirst().get();
+    assertThat(first.getName(), sameInstance(second.getName()));
+    assertThat(first.getTypeName(), sameInstance(second.getTypeName()));
+  }
+
+  @Test
+  public void testSourceSpansLocateStructsAndAttributes() throws StructParseException {
+    String source = "// Header.\nstruct Foo {\n  bar: [Bar]\n}\n\nimmutable struct Baz {}\n";
+    List<Struct> structs = new ArrayList<>(parser.parse(source));
+    LineIndex lines = LineIndex.create(source);
+
+    long fooSpan = structs.get(0).getSourceSpan();
+    assertThat(spanText(source, fooSpan), is("struct Foo {\n  bar: [Bar]\n}"));
+    assertThat(lines.getLine(SourceSpans.getOffset(fooSpan)), is(2));
+    long barSpan = structs.get(0).getAttributes().findFirst().get().getSourceSpan();
+    assertThat(spanText(source, barSpan), is("bar: [Bar]"));
+    assertThat(lines.getLine(SourceSpans.getOffset(barSpan)), is(3));
+    assertThat(lines.getColumn(SourceSpans.getOffset(barSpan)), is(3));
+    assertThat(spanText(source, structs.get(1).getSourceSpan()), is("immutable struct Baz {}"));
+
+    List<Long> streamedSpans = parser.parse(new StringReader(source))
+      .map(Struct::getSourceSpan)
+      .collect(Collectors.toList());
+    assertThat(streamedSpans, is(Arrays.asList(fooSpan, structs.get(1).getSourceSpan())));
+    assertThat(Struct.create("Created").getSourceSpan(), is(SourceSpans.NONE));
+  }
+
+  @Test
+  public void testSlicedNamesMatchInternedNames() throws StructParseException {
+    StructParser slicingParser = StructParserFactory.create().getInstance(ParserProfile.create(
+      Collections.emptyList(),
+      Collections.singletonMap(ParserProfile.PROPERTY_NAME_POOL, "slices")));
+    String source = README_BLUEPRINT + "immutable struct Baz { immutable id: long }\n";
+    StringBuilder changingSource = new StringBuilder(source);
+
+    List<Struct> interned = new ArrayList<>(parser.parse(source));
+    List<Struct> sliced = new ArrayList<>(slicingParser.parse(changingSource));
+    changingSource.setLength(0);
+    List<Struct> streamed = slicingParser.parse(new StringReader(source))
+      .collect(Collectors.toList());
+
+    for (List<Struct> structs : Arrays.asList(sliced, streamed)) {
+      assertThat(structs.size(), is(interned.size()));
+      for (int index = 0; index < structs.size(); index++) {
+        Struct expected = interned.get(index);
+        Struct actual = structs.get(index);
+        assertThat(actual.getName(), is(expected.getName()));
+        assertThat(actual.getName(), sameInstance(actual.getName()));
+        assertThat(actual.isImmutable(), is(expected.isImmutable()));
+        assertThat(actual.getSourceSpan(), is(expected.getSourceSpan()));
+        assertThat(
+          actual.getAttributes().collect(Collectors.toSet()),
+          is(expected.getAttributes().collect(Collectors.toSet())));
+      }
+    }
+  }
+
+  @Test
+  public void testDefaultMethodsOnlyNeedTheParseMethods() throws Exception {
+    StructParser minimal = new MinimalStructParser(parser);
+    Path file = temporaryFolder.newFile("minimal.javo").toPath();
+    Files.write(file, "struct A {}\nstruct B { b: B }\n".getBytes(StandardCharsets.UTF_8));
+
+    assertThat(
+      minimal.parse(new StringReader(README_BLUEPRINT)).map(Struct::getName)
+        .collect(Collectors.toList()),
+      is(Collections.singletonList("Foo")));
+    assertThat(minimal.parseWithDiagnostics(file).getDiagnostics().isEmpty(), is(true));
+    assertThat(
+      minimal.parseWithDiagnostics("struct C {").getDiagnostics().size(), is(1));
+    assertThat(
+      minimal.parseAll(Collections.singletonList(file)).getStructs().map(Struct::getName)
+        .collect(Collectors.toList()),
+      is(Arrays.asList("A", "B")));
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      List<String> consumedNames = new ArrayList<>();
+      minimal.parseAsync(file, struct -> consumedNames.add(struct.getName()), executor).get();
+      assertThat(consumedNames, is(Arrays.asList("A", "B")));
+      assertThat(minimal.parseAsync(README_BLUEPRINT, executor).get().size(), is(1));
+    } finally {
+      executor.shutdown();
+    }
+    try {
+      minimal.openSession(README_BLUEPRINT);
+    } catch (UnsupportedOperationException expected) {
+      return;
+    }
+    throw new AssertionError("opened an unsupported session");
+  }
+
+  /** Parser of another library, which only implements the methods it has to. */
+  private static final class MinimalStructParser implements StructParser {
+    private final StructParser delegate;
+
+    MinimalStructParser(StructParser delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Collection<Struct> parse(Path source) throws StructParseException {
+      return this.delegate.parse(source);
+    }
+
+    @Override
+    public Collection<Struct> parse(CharSequence source) throws StructParseException {
+      return this.delegate.parse(source);
+    }
+
+    @Override
+    public Optional<Struct> parseSingle(Path path) throws StructParseException {
+      return this.delegate.parseSingle(path);
+    }
+
+    @Override
+    public Optional<Struct> parseSingle(CharSequence source) throws StructParseException {
+      return this.delegate.parseSingle(source);
+    }
+  }
+
+  private static String spanText(String source, long span) {
+    return source.substring(SourceSpans.getOffset(span), SourceSpans.getEnd(span));
+  }
+}